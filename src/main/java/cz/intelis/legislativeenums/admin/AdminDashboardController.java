@@ -1,11 +1,19 @@
 package cz.intelis.legislativeenums.admin;
 
+import cz.intelis.legislativeenums.common.CursorPage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Map;
 
 @Controller
 @RequestMapping("/web/admin")
@@ -21,4 +29,16 @@ public class AdminDashboardController {
         model.addAttribute("stats", stats);
         return "admin/dashboard";
     }
+
+    @GetMapping("/dashboard/recent-requests")
+    @ResponseBody
+    public CursorPage<RecentRequest> recentRequests(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "100") int size) {
+        return dashboardService.getRecentRequests(cursor, size);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursor(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+    }
 }
@@ -1,6 +1,8 @@
 package cz.intelis.legislativeenums.admin;
 
 import cz.intelis.legislativeenums.apikey.ApiKeyRepository;
+import cz.intelis.legislativeenums.common.CursorPage;
+import cz.intelis.legislativeenums.common.KeysetCursor;
 import cz.intelis.legislativeenums.monetization.ApiUsageRepository;
 import cz.intelis.legislativeenums.user.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +19,8 @@ import java.util.Map;
 /**
  * Service for providing administrative dashboard statistics and analytics.
  * Aggregates API usage data, user statistics, and system metrics.
+ * Request statistics come from the hourly api_usage_hourly rollup rather than raw api_usage,
+ * so they lag live traffic by a couple of minutes; only recent requests read raw rows.
  *
  * @author Legislative Codelists Team
  */
@@ -25,6 +29,10 @@ import java.util.Map;
 @Transactional(readOnly = true)
 public class AdminDashboardService {
 
+    private static final int RECENT_REQUESTS_DAYS = 30;
+    private static final int RECENT_REQUESTS_PAGE = 100;
+    private static final int MAX_RECENT_REQUESTS = 500;
+
     private final ApiUsageRepository apiUsageRepository;
     private final ApiKeyRepository apiKeyRepository;
     private final UserRepository userRepository;
@@ -40,6 +48,7 @@ public class AdminDashboardService {
         LocalDateTime todayStart = LocalDate.now().atStartOfDay();
         LocalDateTime weekStart = LocalDate.now().minusDays(7).atStartOfDay();
         LocalDateTime monthStart = LocalDate.now().minusDays(30).atStartOfDay();
+        CursorPage<RecentRequest> recentRequests = getRecentRequests(null, RECENT_REQUESTS_PAGE);
 
         return DashboardStats.builder()
                 .totalUsers(userRepository.count())
@@ -52,7 +61,8 @@ public class AdminDashboardService {
                 .topEndpoints(getTopEndpoints(monthStart, 10))
                 .topUsers(getTopUsers(monthStart, 10))
                 .dailyStats(getDailyStats(30))
-                .recentRequests(getRecentRequests(100))
+                .recentRequests(recentRequests.items())
+                .recentRequestsCursor(recentRequests.nextCursor())
                 .jsonRequestCount(apiUsageRepository.countByResponseFormat("JSON"))
                 .xmlRequestCount(apiUsageRepository.countByResponseFormat("XML"))
                 .build();
@@ -112,12 +122,21 @@ public class AdminDashboardService {
     }
 
     /**
-     * Retrieves the most recent API requests.
+     * Retrieves a page of the most recent API requests, newest first.
+     * Only requests from the last {@value #RECENT_REQUESTS_DAYS} days are considered,
+     * which limits the query to the newest api_usage partitions. Pages are read with a
+     * (timestamp, id) seek, so scrolling further back does not get slower.
      *
-     * @param limit maximum number of requests to return
-     * @return list of recent request details
+     * @param cursor cursor returned with the previous page, null for the newest requests
+     * @param limit maximum number of requests to return, at most {@value #MAX_RECENT_REQUESTS}
+     * @return page of recent request details with the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is not valid
      */
-    public List<RecentRequest> getRecentRequests(int limit) {
-        return apiUsageRepository.getRecentRequests(limit);
+    public CursorPage<RecentRequest> getRecentRequests(String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_RECENT_REQUESTS));
+        LocalDateTime since = LocalDate.now().minusDays(RECENT_REQUESTS_DAYS).atStartOfDay();
+        List<RecentRequest> rows = apiUsageRepository.getRecentRequests(since, after.timestamp(), after.id(), pageSize + 1);
+        return CursorPage.of(rows, pageSize, request -> new KeysetCursor(request.getTimestamp(), request.getId()));
     }
 }
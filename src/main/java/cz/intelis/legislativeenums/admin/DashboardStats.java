@@ -21,6 +21,8 @@ public class DashboardStats {
     private List<UserApiStats> topUsers;
     private Map<LocalDate, Long> dailyStats;
     private List<RecentRequest> recentRequests;
+    /** Cursor for loading requests older than {@link #recentRequests}, null if there are none. */
+    private String recentRequestsCursor;
 
     // Response format statistics
     private Long jsonRequestCount;
@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class RecentRequest {
+    private Long id;
     private LocalDateTime timestamp;
     private String endpoint;
     private String username;
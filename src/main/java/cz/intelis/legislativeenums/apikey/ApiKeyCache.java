@@ -0,0 +1,102 @@
+package cz.intelis.legislativeenums.apikey;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.intelis.legislativeenums.user.UsagePlanChangedEvent;
+import cz.intelis.legislativeenums.user.UserDeletedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * In-process cache of validated API keys.
+ * Maps the raw key value to an immutable {@link ApiKeyPrincipal} so that
+ * API authentication does not need a database round-trip per request.
+ * Size and TTL are bounded; hit/miss statistics are published as "api-keys" cache metrics.
+ * Evictions only reach the cache of this instance: on other replicas a revoked or deleted key
+ * keeps authenticating until its entry expires, so the TTL bounds how long revocation takes.
+ *
+ * @author Legislative Codelists Team
+ */
+@Component
+public class ApiKeyCache {
+
+    static final String CACHE_NAME = "api-keys";
+
+    private final Cache<String, ApiKeyPrincipal> cache;
+
+    public ApiKeyCache(MeterRegistry meterRegistry,
+                       @Value("${app.security.api-key.cache.max-size:10000}") long maxSize,
+                       @Value("${app.security.api-key.cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached principal for a key value, loading it on a miss.
+     * Loader exceptions propagate to the caller and nothing is cached.
+     *
+     * @param apiKeyValue the raw API key value
+     * @param loader function resolving a key value to a principal
+     * @return the cached or freshly loaded principal
+     */
+    public ApiKeyPrincipal get(String apiKeyValue, Function<String, ApiKeyPrincipal> loader) {
+        return cache.get(apiKeyValue, loader);
+    }
+
+    /**
+     * Removes all cached entries belonging to an API key ID.
+     * When called inside a transaction the eviction is repeated after commit,
+     * so a concurrent request cannot re-cache the pre-commit state.
+     *
+     * @param keyId the API key ID
+     */
+    public void evictByKeyId(Long keyId) {
+        evictMatching(p -> p.keyId().equals(keyId));
+    }
+
+    /**
+     * Evicts the keys of a user whose usage plan changed, once the change is committed.
+     * The next request reloads the principal with the new plan.
+     *
+     * @param event the plan change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsagePlanChanged(UsagePlanChangedEvent event) {
+        cache.asMap().values().removeIf(p -> p.userId().equals(event.userId()));
+    }
+
+    /**
+     * Evicts the keys of a deleted user, once the deletion is committed.
+     *
+     * @param event the user deletion event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        cache.asMap().values().removeIf(p -> p.userId().equals(event.userId()));
+    }
+
+    private void evictMatching(Predicate<ApiKeyPrincipal> predicate) {
+        cache.asMap().values().removeIf(predicate);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.asMap().values().removeIf(predicate);
+                }
+            });
+        }
+    }
+}
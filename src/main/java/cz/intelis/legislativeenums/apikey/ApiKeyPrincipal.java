@@ -0,0 +1,30 @@
+package cz.intelis.legislativeenums.apikey;
+
+import cz.intelis.legislativeenums.user.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of a validated API key.
+ * Holds everything the API filter chain needs so that authenticated requests
+ * never have to touch the JPA entity graph.
+ *
+ * @param keyId     ID of the API key
+ * @param userId    ID of the key owner
+ * @param username  username of the key owner
+ * @param usagePlan usage plan of the key owner (may be null)
+ * @param expiresAt expiration timestamp of the key (null means no expiration)
+ * @author Legislative Codelists Team
+ */
+public record ApiKeyPrincipal(Long keyId, Long userId, String username,
+                              User.UsagePlan usagePlan, LocalDateTime expiresAt) {
+
+    public static ApiKeyPrincipal fromEntity(ApiKey k) {
+        return new ApiKeyPrincipal(k.getId(), k.getUser().getId(), k.getUser().getUsername(),
+                k.getUser().getUsagePlan(), k.getExpiresAt());
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && LocalDateTime.now().isAfter(expiresAt);
+    }
+}
@@ -4,6 +4,7 @@ import cz.intelis.legislativeenums.monetization.*;
 import cz.intelis.legislativeenums.user.*;
 import lombok.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -14,6 +15,7 @@ import java.util.stream.Collectors;
 public class ApiKeyService {
     private final ApiKeyRepository apiKeyRepository;
     private final UserRepository userRepository;
+    private final ApiKeyCache apiKeyCache;
 
     /**
      * Retrieves all API keys.
@@ -58,6 +60,25 @@ public class ApiKeyService {
         return apiKeyRepository.findValidApiKey(apiKeyValue).orElseThrow(() -> new RuntimeException("Invalid API key"));
     }
 
+    /**
+     * Resolves a key value to a validated principal, served from {@link ApiKeyCache}.
+     * Only cache misses query the database; expiry is re-checked locally on every call.
+     *
+     * @param apiKeyValue the API key value to resolve
+     * @return the principal of the valid API key
+     * @throws RuntimeException if API key not found, disabled or expired
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ApiKeyPrincipal findValidPrincipal(String apiKeyValue) {
+        ApiKeyPrincipal principal = apiKeyCache.get(apiKeyValue,
+                key -> ApiKeyPrincipal.fromEntity(findValidByApiKey(key)));
+        if (principal.isExpired()) {
+            apiKeyCache.evictByKeyId(principal.keyId());
+            throw new RuntimeException("Invalid API key");
+        }
+        return principal;
+    }
+
     /**
      * Creates a new API key for a user.
      * Automatically generates a unique UUID for the key value.
@@ -94,6 +115,7 @@ public class ApiKeyService {
         k.setName(dto.getName());
         k.setEnabled(dto.getEnabled());
         k.setExpiresAt(dto.getExpiresAt());
+        apiKeyCache.evictByKeyId(id);
         return ApiKeyDTO.fromEntity(apiKeyRepository.save(k));
     }
 
@@ -105,6 +127,7 @@ public class ApiKeyService {
     @Transactional
     public void delete(Long id) {
         apiKeyRepository.deleteById(id);
+        apiKeyCache.evictByKeyId(id);
     }
 
     /**
@@ -117,6 +140,7 @@ public class ApiKeyService {
     public ApiKeyDTO regenerate(Long id) {
         ApiKey k = apiKeyRepository.findById(id).orElseThrow(() -> new RuntimeException("API key not found"));
         k.setApiKey(UUID.randomUUID().toString());
+        apiKeyCache.evictByKeyId(id);
         return ApiKeyDTO.fromEntity(apiKeyRepository.save(k));
     }
 
@@ -143,6 +167,7 @@ public class ApiKeyService {
         // Regenerate the first key
         ApiKey k = keys.get(0);
         k.setApiKey(UUID.randomUUID().toString());
+        apiKeyCache.evictByKeyId(k.getId());
         return apiKeyRepository.save(k).getApiKey();
     }
 }
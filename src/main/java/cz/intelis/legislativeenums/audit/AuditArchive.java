@@ -0,0 +1,321 @@
+package cz.intelis.legislativeenums.audit;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.intelis.legislativeenums.common.KeysetCursor;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only archive of old audit records in compressed segment files on local disk.
+ * A segment is a gzip-compressed NDJSON file of audit records in ascending (changed_at, id) order,
+ * written once by {@link AuditLogArchiver} and never modified; consecutive segments hold consecutive
+ * ranges of positions. The index file lists the segments with their position and id ranges, so a
+ * read opens only the segments it needs. A segment is synced to disk before it is listed, and the
+ * index is replaced through a temporary file; a segment file missing from the index is a leftover
+ * of an interrupted run and is ignored. Disabled when no directory is configured.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+public class AuditArchive {
+
+    static final String INDEX_FILE = "index.json";
+    static final String SEGMENT_SUFFIX = ".ndjson.gz";
+
+    private static final DateTimeFormatter SEGMENT_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final TypeReference<List<Segment>> INDEX_TYPE = new TypeReference<>() {};
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+
+    private volatile List<Segment> segments = List.of();
+
+    public AuditArchive(ObjectMapper objectMapper, @Value("${app.audit.archive.path:}") String directory) {
+        this.objectMapper = objectMapper;
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+    }
+
+    /**
+     * Loads the index of the segments written by previous runs.
+     */
+    @PostConstruct
+    void loadIndex() throws IOException {
+        if (directory == null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Path index = directory.resolve(INDEX_FILE);
+        if (Files.exists(index)) {
+            segments = List.copyOf(objectMapper.readValue(index.toFile(), INDEX_TYPE));
+            log.info("Audit archive {} has {} segments", directory, segments.size());
+        }
+    }
+
+    /**
+     * Checks whether an archive directory is configured.
+     *
+     * @return true if the archive is enabled
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Gets the archived segments, oldest first.
+     *
+     * @return listed segments
+     */
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Gets the position of the newest archived record.
+     *
+     * @return last archived position, empty if nothing is archived
+     */
+    public Optional<KeysetCursor> lastPosition() {
+        List<Segment> current = segments;
+        return current.isEmpty() ? Optional.empty() : Optional.of(current.get(current.size() - 1).lastPosition());
+    }
+
+    /**
+     * Opens a new segment. Records must be written in ascending (changed_at, id) order, after the
+     * last archived position.
+     *
+     * @return writer of the segment, to be committed and closed
+     * @throws IOException if the segment file cannot be created
+     */
+    public SegmentWriter openSegment() throws IOException {
+        if (directory == null) {
+            throw new IllegalStateException("Audit archive is not configured");
+        }
+        return new SegmentWriter(Files.createTempFile(directory, "segment", ".tmp"));
+    }
+
+    /**
+     * Finds archived records older than the given position, newest first.
+     *
+     * @param filter records to return
+     * @param before position the records must be older than
+     * @param limit  maximal number of records
+     * @return matching records, newest first
+     * @throws IOException if a segment cannot be read
+     */
+    public List<AuditLog> find(Predicate<AuditLog> filter, KeysetCursor before, int limit) throws IOException {
+        List<AuditLog> result = new ArrayList<>();
+        List<Segment> current = segments;
+        for (int i = current.size() - 1; i >= 0 && result.size() < limit; i--) {
+            Segment segment = current.get(i);
+            if (segment.firstPosition().compareTo(before) >= 0) {
+                continue;
+            }
+            List<AuditLog> matches = read(segment, entry -> position(entry).compareTo(before) < 0 && filter.test(entry));
+            Collections.reverse(matches);
+            result.addAll(matches.subList(0, Math.min(matches.size(), limit - result.size())));
+        }
+        return result;
+    }
+
+    /**
+     * Finds an archived record by id.
+     *
+     * @param id audit record id
+     * @return the record, empty if it is not archived
+     * @throws IOException if a segment cannot be read
+     */
+    public Optional<AuditLog> findById(long id) throws IOException {
+        for (Segment segment : segments) {
+            if (id >= segment.minId() && id <= segment.maxId()) {
+                List<AuditLog> found = read(segment, entry -> entry.getId() == id);
+                if (!found.isEmpty()) {
+                    return Optional.of(found.get(0));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<AuditLog> read(Segment segment, Predicate<AuditLog> filter) throws IOException {
+        List<AuditLog> result = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(directory.resolve(segment.file())), BUFFER_SIZE),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                AuditLog entry = objectMapper.readValue(line, AuditLog.class);
+                if (filter.test(entry)) {
+                    result.add(entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    private synchronized void add(Segment segment) throws IOException {
+        List<Segment> updated = new ArrayList<>(segments);
+        updated.add(segment);
+        Path temp = Files.createTempFile(directory, INDEX_FILE, ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), updated);
+            move(temp, directory.resolve(INDEX_FILE));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        segments = List.copyOf(updated);
+    }
+
+    private static KeysetCursor position(AuditLog entry) {
+        return new KeysetCursor(entry.getChangedAt(), entry.getId());
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * One archived segment file.
+     *
+     * @param file           file name within the archive directory
+     * @param firstChangedAt change time of the oldest record
+     * @param firstId        id of the oldest record
+     * @param lastChangedAt  change time of the newest record
+     * @param lastId         id of the newest record
+     * @param minId          lowest record id
+     * @param maxId          highest record id
+     * @param recordCount    number of records
+     */
+    public record Segment(String file, LocalDateTime firstChangedAt, long firstId, LocalDateTime lastChangedAt,
+                          long lastId, long minId, long maxId, int recordCount) {
+
+        @JsonIgnore
+        public KeysetCursor firstPosition() {
+            return new KeysetCursor(firstChangedAt, firstId);
+        }
+
+        @JsonIgnore
+        public KeysetCursor lastPosition() {
+            return new KeysetCursor(lastChangedAt, lastId);
+        }
+    }
+
+    /**
+     * Writes one segment to a temporary file; {@link #commit()} moves it into place and lists it
+     * in the index, closing without commit discards it.
+     */
+    public final class SegmentWriter implements AutoCloseable {
+
+        private final Path temp;
+        private final FileChannel channel;
+        private final GZIPOutputStream out;
+
+        private AuditLog first;
+        private AuditLog last;
+        private long minId = Long.MAX_VALUE;
+        private long maxId = Long.MIN_VALUE;
+        private int count;
+        private boolean closed;
+
+        private SegmentWriter(Path temp) throws IOException {
+            this.temp = temp;
+            this.channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+            this.out = new GZIPOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), BUFFER_SIZE);
+        }
+
+        /**
+         * Appends a record.
+         *
+         * @param entry the audit record
+         * @throws IOException if the record cannot be written
+         */
+        public void write(AuditLog entry) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(entry));
+            out.write('\n');
+            if (first == null) {
+                first = entry;
+            }
+            last = entry;
+            minId = Math.min(minId, entry.getId());
+            maxId = Math.max(maxId, entry.getId());
+            count++;
+        }
+
+        /**
+         * Gets the number of records written so far.
+         *
+         * @return record count
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Syncs the segment to disk and lists it in the index.
+         *
+         * @return the listed segment, null if no record was written
+         * @throws IOException if the segment cannot be stored
+         */
+        public Segment commit() throws IOException {
+            if (!closed) {
+                out.finish();
+                out.flush();
+                channel.force(true);
+            }
+            closeFile();
+            if (count == 0) {
+                return null;
+            }
+            String file = "audit-" + first.getChangedAt().format(SEGMENT_TIMESTAMP) + "-" + first.getId() + SEGMENT_SUFFIX;
+            move(temp, directory.resolve(file));
+            Segment segment = new Segment(file, first.getChangedAt(), first.getId(), last.getChangedAt(), last.getId(),
+                    minId, maxId, count);
+            add(segment);
+            return segment;
+        }
+
+        private void closeFile() throws IOException {
+            if (!closed) {
+                closed = true;
+                out.close();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeFile();
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package cz.intelis.legislativeenums.audit;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Complete values of an audited entity before and after one audit record,
+ * reconstructed from the latest full image and the field diffs recorded since.
+ *
+ * @param before        values before the change, empty for CREATE
+ * @param after         values after the change, empty for DELETE
+ * @param changedFields fields whose value differs between before and after
+ * @param complete      whether the reconstruction started from a full image; otherwise the values
+ *                      hold only the fields changed by the recorded diffs
+ * @author Legislative Codelists Team
+ */
+public record AuditImages(Map<String, Object> before, Map<String, Object> after, Set<String> changedFields,
+                          boolean complete) {
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
@@ -18,7 +20,7 @@ import java.time.LocalDateTime;
 @Table(name = "audit_log", indexes = {
         @Index(name = "idx_audit_log_entity_type", columnList = "entity_type"),
         @Index(name = "idx_audit_log_entity_code", columnList = "entity_code"),
-        @Index(name = "idx_audit_log_changed_at", columnList = "changed_at"),
+        @Index(name = "idx_audit_log_changed_at_id", columnList = "changed_at DESC, id DESC"),
         @Index(name = "idx_audit_log_changed_by", columnList = "changed_by"),
         @Index(name = "idx_audit_log_change_type", columnList = "change_type")
 })
@@ -70,17 +72,25 @@ public class AuditLog {
     private LocalDateTime changedAt;
 
     /**
-     * Old values as JSON (null for CREATE).
+     * Old values as JSON (null for CREATE); for an UPDATE without a full image only the changed fields.
      */
-    @Column(name = "old_values", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "old_values")
     private String oldValues;
 
     /**
-     * New values as JSON (null for DELETE).
+     * New values as JSON (null for DELETE); for an UPDATE without a full image only the changed fields.
      */
-    @Column(name = "new_values", columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "new_values")
     private String newValues;
 
+    /**
+     * Whether old and new values are complete images of the entity rather than the changed fields.
+     */
+    @Column(name = "full_image", nullable = false)
+    private boolean fullImage;
+
     /**
      * Types of changes that can be audited.
      */
@@ -0,0 +1,53 @@
+package cz.intelis.legislativeenums.audit;
+
+import cz.intelis.legislativeenums.common.CursorPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * JSON listing of audit logs for admin tooling.
+ * Keyset-paginated: every response carries {@code nextCursor}, which is passed back as
+ * {@code cursor} to read the following page; it is null on the last page.
+ *
+ * @author Legislative Codelists Team
+ */
+@RestController
+@RequestMapping("/web/audit/api")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AuditLogApiController {
+
+    private final AuditLogService auditLogService;
+
+    /**
+     * Lists audit logs newest first.
+     *
+     * @param entityType filter by entity type (optional)
+     * @param changeType filter by change type (optional)
+     * @param changedBy filter by user who made the change (optional)
+     * @param search fulltext search term (optional)
+     * @param cursor cursor returned with the previous page (optional)
+     * @param size page size, at most {@value AuditLogService#MAX_PAGE_SIZE}
+     * @return page of audit logs with the cursor of the next page
+     */
+    @GetMapping("/logs")
+    public CursorPage<AuditLog> list(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) AuditLog.ChangeType changeType,
+            @RequestParam(required = false) String changedBy,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return auditLogService.findWithFilters(entityType, changeType, changedBy, search, cursor, size);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursor(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+    }
+}
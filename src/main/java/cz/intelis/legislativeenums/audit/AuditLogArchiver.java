@@ -0,0 +1,166 @@
+package cz.intelis.legislativeenums.audit;
+
+import cz.intelis.legislativeenums.common.KeysetCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Moves audit records older than the retention from audit_log into the {@link AuditArchive}.
+ * Records are streamed oldest first through a server-side cursor into one segment at a time;
+ * once a segment is stored, its records are deleted in small batches, each in its own transaction,
+ * so neither the export nor the deletion holds locks or a large snapshot for long. A run first
+ * deletes what an interrupted run left behind up to the last archived position.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+public class AuditLogArchiver {
+
+    static final String SELECT_SQL = "SELECT id, entity_type, entity_id, entity_code, change_type, changed_by, changed_at, " +
+            "CAST(old_values AS TEXT) AS old_values, CAST(new_values AS TEXT) AS new_values, full_image " +
+            "FROM audit_log WHERE changed_at < ? AND (changed_at, id) > (?, ?) ORDER BY changed_at, id LIMIT ?";
+
+    static final String DELETE_SQL = "DELETE FROM audit_log WHERE id IN " +
+            "(SELECT id FROM audit_log WHERE (changed_at, id) <= (?, ?) LIMIT ?)";
+
+    /** Position before any audit record. */
+    private static final KeysetCursor ARCHIVE_START = new KeysetCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AuditArchive auditArchive;
+    private final Duration retention;
+    private final int segmentSize;
+    private final int fetchSize;
+    private final int deleteBatchSize;
+
+    public AuditLogArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            AuditArchive auditArchive,
+                            @Value("${app.audit.archive.retention:365d}") Duration retention,
+                            @Value("${app.audit.archive.segment-size:50000}") int segmentSize,
+                            @Value("${app.audit.archive.fetch-size:1000}") int fetchSize,
+                            @Value("${app.audit.archive.delete-batch-size:5000}") int deleteBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // The PostgreSQL driver streams with a fetch size only outside auto-commit
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.auditArchive = auditArchive;
+        this.retention = retention;
+        this.segmentSize = segmentSize;
+        this.fetchSize = fetchSize;
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    /**
+     * Archives the records past retention, if an archive is configured.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.archive.interval:PT1H}",
+            initialDelayString = "${app.audit.archive.initial-delay:PT10M}")
+    public void archive() {
+        if (!auditArchive.isEnabled()) {
+            return;
+        }
+        try {
+            archive(LocalDateTime.now());
+        } catch (UncheckedIOException e) {
+            log.error("Failed to archive audit records", e);
+        }
+    }
+
+    /**
+     * Archives and deletes the records changed before {@code now} minus the retention.
+     *
+     * @param now current time
+     * @return number of records archived
+     */
+    int archive(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(retention);
+        auditArchive.lastPosition().ifPresent(this::deleteThrough);
+
+        int archived = 0;
+        while (true) {
+            KeysetCursor after = auditArchive.lastPosition().orElse(ARCHIVE_START);
+            AuditArchive.Segment segment = readOnlyTransaction.execute(status -> writeSegment(cutoff, after));
+            if (segment == null) {
+                break;
+            }
+            deleteThrough(segment.lastPosition());
+            archived += segment.recordCount();
+            log.info("Archived {} audit records changed {} to {} into {}",
+                    segment.recordCount(), segment.firstChangedAt(), segment.lastChangedAt(), segment.file());
+            if (segment.recordCount() < segmentSize) {
+                break;
+            }
+        }
+        return archived;
+    }
+
+    private AuditArchive.Segment writeSegment(LocalDateTime cutoff, KeysetCursor after) {
+        try (AuditArchive.SegmentWriter writer = auditArchive.openSegment()) {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_SQL);
+                ps.setFetchSize(fetchSize);
+                ps.setTimestamp(1, Timestamp.valueOf(cutoff));
+                ps.setTimestamp(2, Timestamp.valueOf(after.timestamp()));
+                ps.setLong(3, after.id());
+                ps.setInt(4, segmentSize);
+                return ps;
+            }, rs -> {
+                try {
+                    writer.write(toAuditLog(rs));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes the records up to and including the given position in batches.
+     */
+    private void deleteThrough(KeysetCursor position) {
+        Timestamp changedAt = Timestamp.valueOf(position.timestamp());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_SQL, changedAt, position.id(), deleteBatchSize);
+            total += deleted;
+        } while (deleted == deleteBatchSize);
+        if (total > 0) {
+            log.debug("Deleted {} archived audit records through {}", total, position.timestamp());
+        }
+    }
+
+    private static AuditLog toAuditLog(ResultSet rs) throws SQLException {
+        return AuditLog.builder()
+                .id(rs.getLong("id"))
+                .entityType(rs.getString("entity_type"))
+                .entityId(rs.getLong("entity_id"))
+                .entityCode(rs.getString("entity_code"))
+                .changeType(AuditLog.ChangeType.valueOf(rs.getString("change_type")))
+                .changedBy(rs.getString("changed_by"))
+                .changedAt(rs.getTimestamp("changed_at").toLocalDateTime())
+                .oldValues(rs.getString("old_values"))
+                .newValues(rs.getString("new_values"))
+                .fullImage(rs.getBoolean("full_image"))
+                .build();
+    }
+}
@@ -1,17 +1,20 @@
 package cz.intelis.legislativeenums.audit;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.intelis.legislativeenums.common.CursorPage;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
  * Web controller for viewing audit logs.
  * Provides admin-only access to audit trail with filtering and sorting.
+ * Pages are addressed by an opaque cursor rather than a page number, see {@link AuditLogService#findWithFilters}.
  *
  * @author Legislative Codelists Team
  */
@@ -22,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuditLogController {
 
     private final AuditLogService auditLogService;
+    private final ObjectMapper objectMapper;
 
     private static final int DEFAULT_PAGE_SIZE = 25;
 
@@ -32,7 +36,7 @@ public class AuditLogController {
      * @param changeType filter by change type (optional)
      * @param changedBy filter by user who made the change (optional)
      * @param search fulltext search term (optional)
-     * @param page page number (0-based)
+     * @param cursor cursor of the page to show, the newest records without it
      * @param size page size
      * @param sort sort field
      * @param direction sort direction (asc/desc)
@@ -45,15 +49,12 @@ public class AuditLogController {
             @RequestParam(required = false) String changeType,
             @RequestParam(required = false) String changedBy,
             @RequestParam(required = false) String search,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "25") int size,
             @RequestParam(defaultValue = "changedAt") String sort,
             @RequestParam(defaultValue = "desc") String direction,
             Model model) {
 
-        // Build pageable WITHOUT sorting - sorting is done in native SQL query
-        Pageable pageable = PageRequest.of(page, size);
-
         // Parse changeType enum if provided
         AuditLog.ChangeType changeTypeEnum = null;
         if (changeType != null && !changeType.isEmpty()) {
@@ -64,12 +65,22 @@ public class AuditLogController {
             }
         }
 
-        // Get filtered results
-        Page<AuditLog> auditLogs = auditLogService.findWithFilters(
-                entityType, changeTypeEnum, changedBy, search, pageable);
+        // Get filtered results; a cursor from an outdated link starts over from the newest records
+        CursorPage<AuditLog> auditLogs;
+        try {
+            auditLogs = auditLogService.findWithFilters(entityType, changeTypeEnum, changedBy, search, cursor, size);
+        } catch (IllegalArgumentException e) {
+            cursor = null;
+            auditLogs = auditLogService.findWithFilters(entityType, changeTypeEnum, changedBy, search, null, size);
+        }
+        long total = auditLogService.countWithFilters(entityType, changeTypeEnum, changedBy, search);
 
         // Add to model
         model.addAttribute("auditLogs", auditLogs);
+        model.addAttribute("total", total);
+        // Counting stops at the limit, the total is then a lower bound
+        model.addAttribute("totalCapped", total >= AuditLogService.COUNT_LIMIT);
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
         model.addAttribute("entityTypes", auditLogService.getDistinctEntityTypes());
         model.addAttribute("changeTypes", AuditLog.ChangeType.values());
         model.addAttribute("changedByList", auditLogService.getDistinctChangedBy());
@@ -81,12 +92,13 @@ public class AuditLogController {
         model.addAttribute("currentSearch", search);
         model.addAttribute("currentSort", sort);
         model.addAttribute("currentDirection", direction);
+        model.addAttribute("currentSize", size);
 
         return "audit/list";
     }
 
     /**
-     * Displays the detail of a single audit log entry.
+     * Displays the detail of a single audit log entry with the complete values before and after the change.
      *
      * @param id the audit log ID
      * @param model the Spring MVC model
@@ -98,7 +110,23 @@ public class AuditLogController {
         if (auditLog == null) {
             return "redirect:/web/audit";
         }
+        AuditImages images = auditLogService.reconstruct(auditLog);
         model.addAttribute("auditLog", auditLog);
+        model.addAttribute("oldImage", toPrettyJson(images.before()));
+        model.addAttribute("newImage", toPrettyJson(images.after()));
+        model.addAttribute("changedFields", images.changedFields());
+        model.addAttribute("imagesComplete", images.complete());
         return "audit/detail";
     }
+
+    private String toPrettyJson(Map<String, Object> values) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            return values.toString();
+        }
+    }
 }
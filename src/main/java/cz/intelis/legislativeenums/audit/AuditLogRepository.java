@@ -9,9 +9,12 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for AuditLog entity with support for filtering and fulltext search.
+ * List queries are keyset-paginated on (changed_at, id) and come without a count query; counts
+ * are capped separately, so a page of a large audit log never counts all matching rows.
  *
  * @author Legislative Codelists Team
  */
@@ -45,70 +48,135 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
             LocalDateTime from, LocalDateTime to, Pageable pageable);
 
     /**
-     * Fulltext search across entity type, entity code, changed by, old values, and new values.
+     * Lower-cased text searched by the fulltext search: entity type, entity code, changed by, old values
+     * and new values. Must stay identical to the expression of the pg_trgm index idx_audit_log_search_trgm,
+     * otherwise the index is not used.
+     */
+    String SEARCH_TEXT = "LOWER(a.entity_type || ' ' || COALESCE(a.entity_code, '') || ' ' || a.changed_by || ' ' || " +
+            "COALESCE(CAST(a.old_values AS TEXT), '') || ' ' || COALESCE(CAST(a.new_values AS TEXT), ''))";
+
+    /**
+     * Combined filter with optional parameters, newest first, starting after the given position.
+     * Seeks on (changed_at, id) so that deep pages cost the same as the first one; no count query.
      */
     @Query(value = "SELECT * FROM audit_log a WHERE " +
-            "LOWER(a.entity_type) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(a.entity_code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(a.changed_by) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(CAST(a.old_values AS VARCHAR)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(CAST(a.new_values AS VARCHAR)) LIKE LOWER(CONCAT('%', :search, '%')) " +
-            "ORDER BY a.changed_at DESC",
-            countQuery = "SELECT COUNT(*) FROM audit_log a WHERE " +
-            "LOWER(a.entity_type) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(a.entity_code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(a.changed_by) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(CAST(a.old_values AS VARCHAR)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "LOWER(CAST(a.new_values AS VARCHAR)) LIKE LOWER(CONCAT('%', :search, '%'))",
+            "(:entityType IS NULL OR a.entity_type = :entityType) AND " +
+            "(CAST(:changeType AS VARCHAR) IS NULL OR a.change_type = :changeType) AND " +
+            "(:changedBy IS NULL OR a.changed_by = :changedBy) AND " +
+            "(a.changed_at, a.id) < (:changedAt, :id) " +
+            "ORDER BY a.changed_at DESC, a.id DESC LIMIT :limit",
             nativeQuery = true)
-    Page<AuditLog> searchFulltext(@Param("search") String search, Pageable pageable);
+    List<AuditLog> findWithFilters(
+            @Param("entityType") String entityType,
+            @Param("changeType") String changeType,
+            @Param("changedBy") String changedBy,
+            @Param("changedAt") LocalDateTime changedAt,
+            @Param("id") long id,
+            @Param("limit") int limit);
 
     /**
-     * Combined filter with optional parameters.
+     * Counts audit logs matching the combined filter, stopping at the limit.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT 1 FROM audit_log a WHERE " +
+            "(:entityType IS NULL OR a.entity_type = :entityType) AND " +
+            "(CAST(:changeType AS VARCHAR) IS NULL OR a.change_type = :changeType) AND " +
+            "(:changedBy IS NULL OR a.changed_by = :changedBy) " +
+            "LIMIT :limit) capped",
+            nativeQuery = true)
+    long countWithFilters(
+            @Param("entityType") String entityType,
+            @Param("changeType") String changeType,
+            @Param("changedBy") String changedBy,
+            @Param("limit") long limit);
+
+    /**
+     * Combined filter with a substring search served by the trigram index, newest first, starting after
+     * the given position; no count query.
      */
     @Query(value = "SELECT * FROM audit_log a WHERE " +
             "(:entityType IS NULL OR a.entity_type = :entityType) AND " +
             "(CAST(:changeType AS VARCHAR) IS NULL OR a.change_type = :changeType) AND " +
             "(:changedBy IS NULL OR a.changed_by = :changedBy) AND " +
-            "(:search IS NULL OR " +
-            "   LOWER(a.entity_type) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "   LOWER(a.entity_code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "   LOWER(a.changed_by) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "   LOWER(CAST(a.old_values AS VARCHAR)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "   LOWER(CAST(a.new_values AS VARCHAR)) LIKE LOWER(CONCAT('%', :search, '%'))" +
-            ") " +
-            "ORDER BY a.changed_at DESC",
-            countQuery = "SELECT COUNT(*) FROM audit_log a WHERE " +
+            SEARCH_TEXT + " LIKE CONCAT('%', LOWER(:search), '%') AND " +
+            "(a.changed_at, a.id) < (:changedAt, :id) " +
+            "ORDER BY a.changed_at DESC, a.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<AuditLog> searchWithFilters(
+            @Param("entityType") String entityType,
+            @Param("changeType") String changeType,
+            @Param("changedBy") String changedBy,
+            @Param("search") String search,
+            @Param("changedAt") LocalDateTime changedAt,
+            @Param("id") long id,
+            @Param("limit") int limit);
+
+    /**
+     * Counts audit logs matching the combined filter and search, stopping at the limit.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT 1 FROM audit_log a WHERE " +
             "(:entityType IS NULL OR a.entity_type = :entityType) AND " +
             "(CAST(:changeType AS VARCHAR) IS NULL OR a.change_type = :changeType) AND " +
             "(:changedBy IS NULL OR a.changed_by = :changedBy) AND " +
-            "(:search IS NULL OR " +
-            "   LOWER(a.entity_type) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "   LOWER(a.entity_code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "   LOWER(a.changed_by) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "   LOWER(CAST(a.old_values AS VARCHAR)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-            "   LOWER(CAST(a.new_values AS VARCHAR)) LIKE LOWER(CONCAT('%', :search, '%'))" +
-            ")",
+            SEARCH_TEXT + " LIKE CONCAT('%', LOWER(:search), '%') " +
+            "LIMIT :limit) capped",
             nativeQuery = true)
-    Page<AuditLog> findWithFilters(
+    long countSearchWithFilters(
             @Param("entityType") String entityType,
             @Param("changeType") String changeType,
             @Param("changedBy") String changedBy,
             @Param("search") String search,
-            Pageable pageable);
+            @Param("limit") long limit);
 
     /**
      * Get distinct entity types for filter dropdown.
+     * Walks idx_audit_log_entity_type from one value to the next instead of reading every row.
      */
-    @Query("SELECT DISTINCT a.entityType FROM AuditLog a ORDER BY a.entityType")
+    @Query(value = "WITH RECURSIVE t(v) AS (" +
+            "SELECT MIN(entity_type) FROM audit_log " +
+            "UNION ALL SELECT (SELECT MIN(entity_type) FROM audit_log WHERE entity_type > t.v) FROM t WHERE t.v IS NOT NULL" +
+            ") SELECT v FROM t WHERE v IS NOT NULL",
+            nativeQuery = true)
     List<String> findDistinctEntityTypes();
 
     /**
      * Get distinct users who made changes for filter dropdown.
+     * Walks idx_audit_log_changed_by from one value to the next instead of reading every row.
      */
-    @Query("SELECT DISTINCT a.changedBy FROM AuditLog a ORDER BY a.changedBy")
+    @Query(value = "WITH RECURSIVE t(v) AS (" +
+            "SELECT MIN(changed_by) FROM audit_log " +
+            "UNION ALL SELECT (SELECT MIN(changed_by) FROM audit_log WHERE changed_by > t.v) FROM t WHERE t.v IS NOT NULL" +
+            ") SELECT v FROM t WHERE v IS NOT NULL",
+            nativeQuery = true)
     List<String> findDistinctChangedBy();
 
+    /**
+     * Latest record with full images of an entity at or before the given position.
+     */
+    @Query(value = "SELECT * FROM audit_log a WHERE a.entity_type = :entityType AND a.entity_id = :entityId " +
+            "AND a.full_image AND (a.changed_at, a.id) <= (:changedAt, :id) " +
+            "ORDER BY a.changed_at DESC, a.id DESC LIMIT 1",
+            nativeQuery = true)
+    Optional<AuditLog> findLatestFullImage(
+            @Param("entityType") String entityType,
+            @Param("entityId") Long entityId,
+            @Param("changedAt") LocalDateTime changedAt,
+            @Param("id") long id);
+
+    /**
+     * Records of an entity after the first position up to and including the second, oldest first.
+     */
+    @Query(value = "SELECT * FROM audit_log a WHERE a.entity_type = :entityType AND a.entity_id = :entityId " +
+            "AND (a.changed_at, a.id) > (:fromChangedAt, :fromId) AND (a.changed_at, a.id) <= (:toChangedAt, :toId) " +
+            "ORDER BY a.changed_at, a.id",
+            nativeQuery = true)
+    List<AuditLog> findEntityHistory(
+            @Param("entityType") String entityType,
+            @Param("entityId") Long entityId,
+            @Param("fromChangedAt") LocalDateTime fromChangedAt,
+            @Param("fromId") long fromId,
+            @Param("toChangedAt") LocalDateTime toChangedAt,
+            @Param("toId") long toId);
+
     /**
      * Count audit logs by entity type.
      */
@@ -1,36 +1,86 @@
 package cz.intelis.legislativeenums.audit;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.intelis.legislativeenums.common.CursorPage;
+import cz.intelis.legislativeenums.common.KeysetCursor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 /**
  * Service for recording and retrieving audit logs.
- * Provides methods for logging CREATE, UPDATE, and DELETE operations.
+ * Provides methods for logging CREATE, UPDATE, and DELETE operations;
+ * the records are written asynchronously by {@link AuditLogWriter}.
+ * An UPDATE records only the changed fields, except every {@code app.audit.full-image-interval}-th
+ * update of an entity, which records complete images; complete values of any record are
+ * reconstructed from the latest full image on demand, see {@link #reconstruct(AuditLog)}.
+ * Updates are counted per replica and since startup, so full images may be further apart
+ * after a restart; reconstruction then only reads more diffs.
+ * Records moved to the {@link AuditArchive} are still listed: a page that reaches past the oldest
+ * record left in the table continues with the archived records.
  *
  * @author Legislative Codelists Team
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AuditLogService {
 
+    /** Number of rows at which counting the matches of a search stops. */
+    public static final long COUNT_LIMIT = 10_000;
+
+    /** Largest page size served by {@link #findWithFilters}. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** Position before any audit record of an entity. */
+    private static final KeysetCursor HISTORY_START = new KeysetCursor(LocalDateTime.of(1, 1, 1, 0, 0), 0L);
+
+    private static final TypeReference<LinkedHashMap<String, Object>> VALUES_TYPE = new TypeReference<>() {};
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditArchive auditArchive;
     private final ObjectMapper objectMapper;
+    private final int fullImageInterval;
+
+    /** Updates recorded as diffs since the last full image, per entity. */
+    private final Cache<String, AtomicInteger> updatesSinceFullImage;
+
+    public AuditLogService(AuditLogRepository auditLogRepository, AuditLogWriter auditLogWriter,
+                           AuditArchive auditArchive, ObjectMapper objectMapper,
+                           @Value("${app.audit.full-image-interval:20}") int fullImageInterval) {
+        this.auditLogRepository = auditLogRepository;
+        this.auditLogWriter = auditLogWriter;
+        this.auditArchive = auditArchive;
+        this.objectMapper = objectMapper;
+        this.fullImageInterval = fullImageInterval;
+        this.updatesSinceFullImage = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .build();
+    }
 
     /**
      * Record a CREATE operation.
@@ -40,22 +90,9 @@ public class AuditLogService {
      * @param entityCode Code of the created entity
      * @param newValues  Map of new values
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logCreate(String entityType, Long entityId, String entityCode, Map<String, Object> newValues) {
-        AuditLog auditLog = AuditLog.builder()
-                .entityType(entityType)
-                .entityId(entityId)
-                .entityCode(entityCode)
-                .changeType(AuditLog.ChangeType.CREATE)
-                .changedBy(getCurrentUsername())
-                .changedAt(LocalDateTime.now())
-                .oldValues(null)
-                .newValues(toJson(newValues))
-                .build();
-
-        auditLogRepository.save(auditLog);
-        log.debug("Audit log created: {} {} (ID: {}) by {}",
-                AuditLog.ChangeType.CREATE, entityType, entityId, auditLog.getChangedBy());
+        submit(new AuditRecord(entityType, entityId, entityCode, AuditLog.ChangeType.CREATE,
+                getCurrentUsername(), LocalDateTime.now(), null, newValues, true));
     }
 
     /**
@@ -67,7 +104,6 @@ public class AuditLogService {
      * @param oldValues  Map of old values
      * @param newValues  Map of new values
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logUpdate(String entityType, Long entityId, String entityCode,
                           Map<String, Object> oldValues, Map<String, Object> newValues) {
         // Only log if there are actual changes
@@ -76,20 +112,28 @@ public class AuditLogService {
             return;
         }
 
-        AuditLog auditLog = AuditLog.builder()
-                .entityType(entityType)
-                .entityId(entityId)
-                .entityCode(entityCode)
-                .changeType(AuditLog.ChangeType.UPDATE)
-                .changedBy(getCurrentUsername())
-                .changedAt(LocalDateTime.now())
-                .oldValues(toJson(oldValues))
-                .newValues(toJson(newValues))
-                .build();
+        AtomicInteger updates = updatesSinceFullImage.get(entityType + ':' + entityId, key -> new AtomicInteger());
+        if (updates.incrementAndGet() >= fullImageInterval) {
+            updates.set(0);
+            submit(new AuditRecord(entityType, entityId, entityCode, AuditLog.ChangeType.UPDATE,
+                    getCurrentUsername(), LocalDateTime.now(), oldValues, newValues, true));
+            return;
+        }
 
-        auditLogRepository.save(auditLog);
-        log.debug("Audit log created: {} {} (ID: {}) by {}",
-                AuditLog.ChangeType.UPDATE, entityType, entityId, auditLog.getChangedBy());
+        Map<String, Object> oldDiff = new LinkedHashMap<>();
+        Map<String, Object> newDiff = new LinkedHashMap<>();
+        Set<String> keys = new LinkedHashSet<>(oldValues.keySet());
+        keys.addAll(newValues.keySet());
+        for (String key : keys) {
+            Object oldValue = oldValues.get(key);
+            Object newValue = newValues.get(key);
+            if (!Objects.equals(oldValue, newValue)) {
+                oldDiff.put(key, oldValue);
+                newDiff.put(key, newValue);
+            }
+        }
+        submit(new AuditRecord(entityType, entityId, entityCode, AuditLog.ChangeType.UPDATE,
+                getCurrentUsername(), LocalDateTime.now(), oldDiff, newDiff, false));
     }
 
     /**
@@ -100,53 +144,114 @@ public class AuditLogService {
      * @param entityCode Code of the deleted entity
      * @param oldValues  Map of values before deletion
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logDelete(String entityType, Long entityId, String entityCode, Map<String, Object> oldValues) {
-        AuditLog auditLog = AuditLog.builder()
-                .entityType(entityType)
-                .entityId(entityId)
-                .entityCode(entityCode)
-                .changeType(AuditLog.ChangeType.DELETE)
-                .changedBy(getCurrentUsername())
-                .changedAt(LocalDateTime.now())
-                .oldValues(toJson(oldValues))
-                .newValues(null)
-                .build();
-
-        auditLogRepository.save(auditLog);
-        log.debug("Audit log created: {} {} (ID: {}) by {}",
-                AuditLog.ChangeType.DELETE, entityType, entityId, auditLog.getChangedBy());
+        updatesSinceFullImage.invalidate(entityType + ':' + entityId);
+        submit(new AuditRecord(entityType, entityId, entityCode, AuditLog.ChangeType.DELETE,
+                getCurrentUsername(), LocalDateTime.now(), oldValues, null, true));
     }
 
     /**
-     * Find all audit logs with pagination.
+     * Hand the record to the writer once the current transaction commits, so a rolled back
+     * change leaves no audit record. Without a transaction it is handed over immediately.
      */
-    @Transactional(readOnly = true)
-    public Page<AuditLog> findAll(Pageable pageable) {
-        return auditLogRepository.findAllByOrderByChangedAtDesc(pageable);
+    private void submit(AuditRecord record) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditLogWriter.enqueue(record);
+                }
+            });
+        } else {
+            auditLogWriter.enqueue(record);
+        }
+        log.debug("Audit log submitted: {} {} (ID: {}) by {}",
+                record.changeType(), record.entityType(), record.entityId(), record.changedBy());
     }
 
     /**
-     * Find audit logs with filters and fulltext search.
+     * Find audit logs with filters and fulltext search, newest first.
+     *
+     * @param entityType filter by entity type (optional)
+     * @param changeType filter by change type (optional)
+     * @param changedBy  filter by user who made the change (optional)
+     * @param search     fulltext search term (optional)
+     * @param cursor     cursor returned with the previous page, null for the first page
+     * @param size       page size, at most {@value #MAX_PAGE_SIZE}
+     * @return page of audit logs with the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is not valid
+     * @throws UncheckedIOException if an archive segment cannot be read
      */
     @Transactional(readOnly = true)
-    public Page<AuditLog> findWithFilters(String entityType, AuditLog.ChangeType changeType,
-                                          String changedBy, String search, Pageable pageable) {
-        // Convert empty strings to null for proper query handling
-        String entityTypeParam = (entityType != null && !entityType.isEmpty()) ? entityType : null;
-        String changedByParam = (changedBy != null && !changedBy.isEmpty()) ? changedBy : null;
-        String searchParam = (search != null && !search.isEmpty()) ? search : null;
+    public CursorPage<AuditLog> findWithFilters(String entityType, AuditLog.ChangeType changeType,
+                                                String changedBy, String search, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String searchParam = emptyToNull(search);
         String changeTypeParam = changeType != null ? changeType.name() : null;
 
-        return auditLogRepository.findWithFilters(entityTypeParam, changeTypeParam, changedByParam, searchParam, pageable);
+        // One extra row tells whether there is a next page
+        List<AuditLog> rows = searchParam == null
+                ? auditLogRepository.findWithFilters(emptyToNull(entityType), changeTypeParam, emptyToNull(changedBy),
+                        after.timestamp(), after.id(), pageSize + 1)
+                : auditLogRepository.searchWithFilters(emptyToNull(entityType), changeTypeParam, emptyToNull(changedBy),
+                        searchParam, after.timestamp(), after.id(), pageSize + 1);
+        if (rows.size() <= pageSize && auditArchive.isEnabled()) {
+            // The table has no older match, the listing continues in the archive
+            KeysetCursor archiveBefore = rows.isEmpty() ? after : position(rows.get(rows.size() - 1));
+            rows = new ArrayList<>(rows);
+            try {
+                rows.addAll(auditArchive.find(matcher(entityType, changeType, changedBy, searchParam),
+                        archiveBefore, pageSize + 1 - rows.size()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return CursorPage.of(rows, pageSize, AuditLogService::position);
     }
 
     /**
-     * Fulltext search in audit logs.
+     * Filter of archived records equivalent to the repository queries.
+     */
+    static Predicate<AuditLog> matcher(String entityType, AuditLog.ChangeType changeType, String changedBy,
+                                       String search) {
+        String entityTypeParam = emptyToNull(entityType);
+        String changedByParam = emptyToNull(changedBy);
+        String searchParam = search != null ? search.toLowerCase(Locale.ROOT) : null;
+        return entry -> (entityTypeParam == null || entityTypeParam.equals(entry.getEntityType()))
+                && (changeType == null || changeType == entry.getChangeType())
+                && (changedByParam == null || changedByParam.equals(entry.getChangedBy()))
+                && (searchParam == null || String.join(" ", entry.getEntityType(),
+                        Objects.requireNonNullElse(entry.getEntityCode(), ""), entry.getChangedBy(),
+                        Objects.requireNonNullElse(entry.getOldValues(), ""),
+                        Objects.requireNonNullElse(entry.getNewValues(), ""))
+                        .toLowerCase(Locale.ROOT).contains(searchParam));
+    }
+
+    private static KeysetCursor position(AuditLog entry) {
+        return new KeysetCursor(entry.getChangedAt(), entry.getId());
+    }
+
+    /**
+     * Count audit logs matching the filters and fulltext search, up to {@value #COUNT_LIMIT}.
+     * A result equal to the limit means there may be more matches.
      */
     @Transactional(readOnly = true)
-    public Page<AuditLog> search(String query, Pageable pageable) {
-        return auditLogRepository.searchFulltext(query, pageable);
+    public long countWithFilters(String entityType, AuditLog.ChangeType changeType, String changedBy, String search) {
+        String searchParam = emptyToNull(search);
+        String changeTypeParam = changeType != null ? changeType.name() : null;
+        return searchParam == null
+                ? auditLogRepository.countWithFilters(emptyToNull(entityType), changeTypeParam, emptyToNull(changedBy),
+                        COUNT_LIMIT)
+                : auditLogRepository.countSearchWithFilters(emptyToNull(entityType), changeTypeParam, emptyToNull(changedBy),
+                        searchParam, COUNT_LIMIT);
+    }
+
+    /**
+     * Convert empty strings to null for proper query handling.
+     */
+    private static String emptyToNull(String value) {
+        return value != null && !value.isEmpty() ? value : null;
     }
 
     /**
@@ -166,25 +271,142 @@ public class AuditLogService {
     }
 
     /**
-     * Get audit log by ID.
+     * Get audit log by ID, from the table or the archive.
      */
     @Transactional(readOnly = true)
     public AuditLog findById(Long id) {
-        return auditLogRepository.findById(id).orElse(null);
+        Optional<AuditLog> entry = auditLogRepository.findById(id);
+        if (entry.isPresent() || !auditArchive.isEnabled()) {
+            return entry.orElse(null);
+        }
+        try {
+            return auditArchive.findById(id).orElse(null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reconstruct the complete values of the entity before and after an audit record.
+     * Starts from the latest full image at or before the record and applies the diffs recorded since.
+     * When the table has no such full image, the history continues in the archive. Without any full image
+     * the values are only what the diffs recorded and the result is marked incomplete.
+     *
+     * @param entry the audit record
+     * @return complete values before and after the change
+     * @throws UncheckedIOException if an archive segment cannot be read
+     */
+    @Transactional(readOnly = true)
+    public AuditImages reconstruct(AuditLog entry) {
+        List<AuditLog> history = entry.isFullImage() ? List.of(entry) : history(entry);
+        AuditLog first = history.get(0);
+        Map<String, Object> before = first.isFullImage() ? parseValues(first.getOldValues()) : new LinkedHashMap<>();
+        Map<String, Object> after = first.isFullImage() ? parseValues(first.getNewValues()) : apply(before, first);
+        for (AuditLog next : history.subList(1, history.size())) {
+            before = after;
+            after = apply(before, next);
+        }
+
+        Set<String> changedFields = new LinkedHashSet<>(before.keySet());
+        changedFields.addAll(after.keySet());
+        Map<String, Object> finalBefore = before;
+        Map<String, Object> finalAfter = after;
+        changedFields.removeIf(key -> Objects.equals(finalBefore.get(key), finalAfter.get(key)));
+        return new AuditImages(before, after, changedFields, first.isFullImage());
+    }
+
+    /**
+     * Records of the entity of a record up to and including it, oldest first, starting with the latest
+     * full image if there is one. The archiver removes the oldest records, so without a full image
+     * in the table the older records are read from the archive.
+     */
+    private List<AuditLog> history(AuditLog entry) {
+        Optional<AuditLog> fullImage = auditLogRepository.findLatestFullImage(
+                entry.getEntityType(), entry.getEntityId(), entry.getChangedAt(), entry.getId());
+        List<AuditLog> history = new ArrayList<>();
+        if (fullImage.isPresent()) {
+            history.add(fullImage.get());
+        } else if (auditArchive.isEnabled()) {
+            history.addAll(archivedHistory(entry));
+        }
+        KeysetCursor from = history.isEmpty() ? HISTORY_START : position(history.get(history.size() - 1));
+        // The table holds only records newer than the archived ones of the entity
+        history.addAll(auditLogRepository.findEntityHistory(entry.getEntityType(), entry.getEntityId(),
+                from.timestamp(), from.id(), entry.getChangedAt(), entry.getId()));
+        return history;
+    }
+
+    /**
+     * Archived records of the entity of a record up to and including it, oldest first,
+     * starting with the latest archived full image if there is one.
+     */
+    private List<AuditLog> archivedHistory(AuditLog entry) {
+        Predicate<AuditLog> entity = archived -> entry.getEntityType().equals(archived.getEntityType())
+                && Objects.equals(entry.getEntityId(), archived.getEntityId());
+        List<AuditLog> history = new ArrayList<>();
+        KeysetCursor before = new KeysetCursor(entry.getChangedAt(), entry.getId() + 1);
+        try {
+            while (true) {
+                List<AuditLog> page = auditArchive.find(entity, before, MAX_PAGE_SIZE);
+                for (AuditLog archived : page) {
+                    history.add(archived);
+                    if (archived.isFullImage()) {
+                        return history.reversed();
+                    }
+                }
+                if (page.size() < MAX_PAGE_SIZE) {
+                    return history.reversed();
+                }
+                before = position(page.get(page.size() - 1));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Values of the entity after the given record, from the values before it.
+     */
+    private Map<String, Object> apply(Map<String, Object> before, AuditLog entry) {
+        return applyChange(before, parseValues(entry.getNewValues()), entry.isFullImage());
+    }
+
+    /**
+     * Values of an entity after an UPDATE: the new values if they are a full image, otherwise
+     * the values before with the changed fields applied, a null value removing the field.
+     *
+     * @param before    values before the change, not modified
+     * @param newValues new values recorded by the change
+     * @param fullImage whether the new values are a full image
+     * @return values after the change
+     */
+    static Map<String, Object> applyChange(Map<String, Object> before, Map<String, Object> newValues, boolean fullImage) {
+        if (fullImage) {
+            return new LinkedHashMap<>(newValues);
+        }
+        Map<String, Object> after = new LinkedHashMap<>(before);
+        newValues.forEach((key, value) -> {
+            if (value == null) {
+                after.remove(key);
+            } else {
+                after.put(key, value);
+            }
+        });
+        return after;
     }
 
     /**
-     * Convert map to JSON string.
+     * Parse stored JSON values; an absent or unreadable value gives an empty map.
      */
-    private String toJson(Map<String, Object> values) {
-        if (values == null || values.isEmpty()) {
-            return null;
+    private Map<String, Object> parseValues(String json) {
+        if (json == null || json.isBlank()) {
+            return new LinkedHashMap<>();
         }
         try {
-            return objectMapper.writeValueAsString(values);
+            return objectMapper.readValue(json, VALUES_TYPE);
         } catch (JsonProcessingException e) {
-            log.error("Failed to serialize audit values to JSON", e);
-            return values.toString();
+            log.warn("Unreadable audit values: {}", e.getOriginalMessage());
+            return new LinkedHashMap<>();
         }
     }
 
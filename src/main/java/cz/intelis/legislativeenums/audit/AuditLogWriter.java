@@ -0,0 +1,404 @@
+package cz.intelis.legislativeenums.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind pipeline for audit records.
+ * Services enqueue records after their transaction commits; a single background writer drains
+ * the queue and inserts into audit_log with JDBC batches, so auditing does not take a connection
+ * from the changing request. Audit records are never dropped: when the queue is full the record
+ * is written by the enqueuing thread itself. The queue is drained completely on shutdown.
+ * Only a record the database rejects for its content (an integrity violation) is given up and
+ * logged. On any other failure, such as a lost connection, the unwritten records go back to the
+ * head of the queue and the writer retries with an increasing delay; meanwhile records are queued
+ * beyond the capacity instead of being written by the enqueuing thread.
+ * Optionally every record is first appended to a write-ahead file, one JSON line per record;
+ * records left in it by a crash are queued again on the next start. After every flush that wrote
+ * records the file is replaced by one holding only the records still queued, so it keeps everything
+ * not yet written while the database is down but does not grow while the queue never runs dry.
+ * A crash between a batch insert and that replacement may write the records of that flush twice.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    static final String INSERT_SQL = "INSERT INTO audit_log (entity_type, entity_id, entity_code, change_type, " +
+            "changed_by, changed_at, old_values, new_values, full_image) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CAST(? AS jsonb), CAST(? AS jsonb), ?)";
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+    private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Path walPath;
+    private final boolean walFsync;
+
+    private final Deque<AuditRecord> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final Counter writtenCounter;
+    private final Counter overflowCounter;
+    private final Counter failedCounter;
+    private final Object walLock = new Object();
+    /** Records written or given up since the write-ahead file was last trimmed. */
+    private final AtomicInteger settledSinceTrim = new AtomicInteger();
+
+    private FileChannel wal;
+    /** Flushes in a row that stopped because the database was unavailable. */
+    private volatile int failedFlushes;
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                          @Value("${app.audit.queue-capacity:10000}") int capacity,
+                          @Value("${app.audit.batch-size:200}") int batchSize,
+                          @Value("${app.audit.flush-interval:500ms}") Duration flushInterval,
+                          @Value("${app.audit.wal.path:}") String walPath,
+                          @Value("${app.audit.wal.fsync:true}") boolean walFsync) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.walPath = walPath.isBlank() ? null : Path.of(walPath);
+        this.walFsync = walFsync;
+        Gauge.builder("audit.queue.size", queueSize, AtomicInteger::get)
+                .description("Audit records waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.records.written").register(meterRegistry);
+        this.overflowCounter = Counter.builder("audit.records.overflow")
+                .description("Audit records written by the enqueuing thread because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.records.failed")
+                .description("Audit records rejected by the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        openWal();
+        running = true;
+        worker = Thread.ofPlatform().name("audit-writer").daemon().start(this::run);
+    }
+
+    /**
+     * Opens the write-ahead file and queues the records a previous run left in it.
+     */
+    void openWal() throws IOException {
+        if (walPath == null) {
+            return;
+        }
+        Files.createDirectories(walPath.toAbsolutePath().getParent());
+        if (Files.exists(walPath)) {
+            int recovered = 0;
+            for (String line : Files.readAllLines(walPath, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    queue.offer(objectMapper.readValue(line, AuditRecord.class));
+                    queueSize.incrementAndGet();
+                    recovered++;
+                } catch (JsonProcessingException e) {
+                    // A record torn by the crash was never acknowledged to anyone
+                    log.warn("Skipping unreadable audit write-ahead record: {}", e.getOriginalMessage());
+                }
+            }
+            if (recovered > 0) {
+                log.info("Recovered {} audit records from {}", recovered, walPath);
+            }
+        }
+        wal = FileChannel.open(walPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Enqueues an audit record, appending it to the write-ahead file first if one is configured.
+     * Writes the record directly when the queue is full.
+     *
+     * @param record the audit record
+     */
+    public void enqueue(AuditRecord record) {
+        if (wal == null) {
+            offer(record);
+            return;
+        }
+        synchronized (walLock) {
+            appendToWal(record);
+            offer(record);
+        }
+    }
+
+    private void offer(AuditRecord record) {
+        if (queueSize.incrementAndGet() > capacity && failedFlushes == 0) {
+            queueSize.decrementAndGet();
+            overflowCounter.increment();
+            if (writeBatch(List.of(record)).isEmpty()) {
+                return;
+            }
+            // The database is unavailable, keep the record for the writer
+            queueSize.incrementAndGet();
+            failedFlushes = Math.max(failedFlushes, 1);
+        }
+        queue.offer(record);
+        if (queueSize.get() >= batchSize && failedFlushes == 0 && worker != null) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void appendToWal(AuditRecord record) {
+        try {
+            writeLine(wal, record);
+            if (walFsync) {
+                wal.force(false);
+            }
+        } catch (IOException e) {
+            // The business change is committed already, the record is still queued in memory
+            log.error("Failed to append audit record to {}", walPath, e);
+        }
+    }
+
+    private void writeLine(FileChannel channel, AuditRecord record) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Gets the number of records waiting to be written.
+     *
+     * @return current queue depth
+     */
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            worker.join(SHUTDOWN_TIMEOUT_MS);
+        }
+        flush();
+        if (wal != null) {
+            trimWal();
+            wal.close();
+        }
+        if (!queue.isEmpty()) {
+            log.error("Audit writer stopped with {} records not written{}", queueSize.get(),
+                    wal != null ? ", they are kept in " + walPath : "");
+        }
+        log.info("Audit writer stopped, {} records written since startup", (long) writtenCounter.count());
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(retryDelayNanos());
+            try {
+                flush();
+                trimWal();
+            } catch (RuntimeException | IOException e) {
+                log.error("Unexpected error while flushing audit records", e);
+            }
+        }
+    }
+
+    /**
+     * Flush interval, doubled with every flush in a row that found the database unavailable.
+     */
+    private long retryDelayNanos() {
+        long interval = flushInterval.toNanos();
+        return failedFlushes == 0 ? interval : Math.min(interval << Math.min(failedFlushes, 16), MAX_RETRY_DELAY_NANOS);
+    }
+
+    /**
+     * Drops the records written since the last call from the write-ahead file.
+     * Appends happen under the same lock and only the writer takes records from the queue,
+     * so the queue here is exactly what is pending. An empty queue empties the file; otherwise
+     * the pending records are written to a new file that then replaces the old one.
+     */
+    void trimWal() throws IOException {
+        if (wal == null) {
+            return;
+        }
+        synchronized (walLock) {
+            if (queue.isEmpty()) {
+                settledSinceTrim.set(0);
+                if (wal.size() > 0) {
+                    wal.truncate(0);
+                    if (walFsync) {
+                        wal.force(false);
+                    }
+                }
+                return;
+            }
+            if (settledSinceTrim.get() == 0) {
+                // Nothing written since the last trim, the file holds just the queue
+                return;
+            }
+            Path compacted = walPath.resolveSibling(walPath.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (AuditRecord record : queue) {
+                    writeLine(out, record);
+                }
+                if (walFsync) {
+                    out.force(false);
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(compacted);
+                throw e;
+            }
+            wal.close();
+            try {
+                Files.move(compacted, walPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                settledSinceTrim.set(0);
+            } finally {
+                wal = FileChannel.open(walPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+        }
+    }
+
+    /**
+     * Writes queued records in batches until the queue is empty or the database is unavailable.
+     *
+     * @return number of records taken from the queue
+     */
+    int flush() {
+        int total = 0;
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (true) {
+            AuditRecord record;
+            while (batch.size() < batchSize && (record = queue.poll()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                failedFlushes = 0;
+                return total;
+            }
+            queueSize.addAndGet(-batch.size());
+            List<AuditRecord> unwritten = writeBatch(batch);
+            total += batch.size() - unwritten.size();
+            if (!unwritten.isEmpty()) {
+                requeue(unwritten);
+                failedFlushes++;
+                return total;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Puts unwritten records back to the head of the queue in their original order.
+     */
+    private void requeue(List<AuditRecord> records) {
+        for (int i = records.size() - 1; i >= 0; i--) {
+            queue.offerFirst(records.get(i));
+        }
+        queueSize.addAndGet(records.size());
+    }
+
+    /**
+     * Inserts a batch of records. Records the database rejects for their content are logged
+     * and given up; on any other failure the database is taken as unavailable.
+     *
+     * @return the records not written because the database is unavailable, in order
+     */
+    private List<AuditRecord> writeBatch(List<AuditRecord> batch) {
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, r) -> {
+                ps.setString(1, r.entityType());
+                ps.setLong(2, r.entityId());
+                ps.setString(3, r.entityCode());
+                ps.setString(4, r.changeType().name());
+                ps.setString(5, r.changedBy());
+                ps.setTimestamp(6, Timestamp.valueOf(r.changedAt()));
+                ps.setString(7, toJson(r.oldValues()));
+                ps.setString(8, toJson(r.newValues()));
+                ps.setBoolean(9, r.fullImage());
+            });
+            writtenCounter.increment(batch.size());
+            settledSinceTrim.addAndGet(batch.size());
+            log.debug("Wrote {} audit records in {} ms", batch.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return List.of();
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                failedCounter.increment();
+                settledSinceTrim.incrementAndGet();
+                // The row is lost for the database, keep it in the application log
+                log.error("Audit record rejected by the database: {}", batch.get(0), e);
+                return List.of();
+            }
+            log.warn("Batch insert of {} audit records failed, retrying row by row: {}", batch.size(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                if (!writeBatch(List.of(batch.get(i))).isEmpty()) {
+                    return batch.subList(i, batch.size());
+                }
+            }
+            return List.of();
+        } catch (DataAccessException e) {
+            log.warn("Failed to write {} audit records, keeping them for retry: {}", batch.size(), e.getMessage());
+            return batch;
+        }
+    }
+
+    /**
+     * Convert map to JSON string.
+     */
+    private String toJson(Map<String, Object> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            // Still valid JSON for the jsonb column, with the values as text
+            log.error("Failed to serialize audit values to JSON, storing them as text", e);
+            Map<String, String> text = new LinkedHashMap<>();
+            values.forEach((key, value) -> text.put(key, String.valueOf(value)));
+            return objectMapper.valueToTree(text).toString();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package cz.intelis.legislativeenums.audit;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Immutable audit entry captured in the changing service
+ * and persisted asynchronously by {@link AuditLogWriter}.
+ * Values of an UPDATE are either the changed fields only, with null for a field that is absent
+ * on that side, or complete images of the entity before and after when {@code fullImage} is set.
+ * CREATE and DELETE always carry a complete image.
+ *
+ * @author Legislative Codelists Team
+ */
+public record AuditRecord(String entityType, Long entityId, String entityCode, AuditLog.ChangeType changeType,
+                          String changedBy, LocalDateTime changedAt,
+                          Map<String, Object> oldValues, Map<String, Object> newValues, boolean fullImage) {
+}
@@ -0,0 +1,318 @@
+package cz.intelis.legislativeenums.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.intelis.legislativeenums.snapshot.CodelistItem;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reconstructs codelists as they were at a past point in time from the audit log.
+ * The state of every codelist, all its entities with their audited values, is saved periodically
+ * as a checkpoint in audit_checkpoint. A point-in-time read starts from the latest checkpoint at or
+ * before the requested time and replays the audit records after it, so its cost is bounded by the
+ * changes within one checkpoint interval rather than by the age of the history.
+ * The history of each codelist starts with a baseline checkpoint seeded from its table, as entities
+ * that existed before auditing was introduced have no CREATE record; earlier times cannot be read.
+ * Audit records carry the time of the change but are written behind their transaction by
+ * {@link AuditLogWriter}, so checkpoints trail the clock by a configurable lag. Each checkpoint also
+ * records the highest audit id written when it was built: a record written later with an older time
+ * is replayed on top of it, and the next checkpoint run drops the checkpoints it belongs before and
+ * rebuilds from an earlier one. Checkpoints are built by one replica at a time.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Service
+public class CodelistHistoryService {
+
+    /** Request parameter selecting the point in time on the codelist list endpoints. */
+    public static final String AT_PARAMETER = "at";
+
+    static final String LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('audit_checkpoint'))";
+
+    static final String LATEST_CHECKPOINT_SQL = "SELECT covered_through, max_audit_id, state FROM audit_checkpoint " +
+            "WHERE entity_type = ? AND covered_through <= ? ORDER BY covered_through DESC LIMIT 1";
+
+    /**
+     * Changes after a checkpoint: those after its time, and those written after it was built with an older time,
+     * found through the primary key.
+     */
+    static final String CHANGES_SQL = "SELECT entity_id, change_type, new_values, full_image, changed_at, id " +
+            "FROM audit_log WHERE entity_type = ? AND changed_at > ? AND changed_at <= ? " +
+            "UNION ALL SELECT entity_id, change_type, new_values, full_image, changed_at, id " +
+            "FROM audit_log WHERE id > ? AND entity_type = ? AND changed_at <= ? " +
+            "ORDER BY changed_at, id";
+
+    static final String MAX_AUDIT_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM audit_log";
+
+    static final String BASELINES_SQL = "SELECT entity_type FROM audit_checkpoint WHERE baseline";
+
+    /** Oldest record written after the latest checkpoint with a time it covers. */
+    static final String LATE_CHANGE_SQL = "SELECT MIN(changed_at) FROM audit_log " +
+            "WHERE id > ? AND entity_type = ? AND changed_at <= ?";
+
+    static final String DELETE_CHECKPOINTS_SQL = "DELETE FROM audit_checkpoint " +
+            "WHERE entity_type = ? AND NOT baseline AND covered_through >= ?";
+
+    static final String INSERT_CHECKPOINT_SQL = "INSERT INTO audit_checkpoint " +
+            "(entity_type, covered_through, max_audit_id, state, item_count, created_at, baseline) " +
+            "VALUES (?, ?, ?, CAST(? AS jsonb), ?, ?, ?) ON CONFLICT (entity_type, covered_through) DO NOTHING";
+
+    /** Upper bound of the audit history, for finding the latest checkpoint. */
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final TypeReference<LinkedHashMap<String, Object>> VALUES_TYPE = new TypeReference<>() {};
+    private static final TypeReference<TreeMap<Long, LinkedHashMap<String, Object>>> STATE_TYPE = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<String, String> entityTypes;
+    private final Map<String, CodelistSnapshotSource<?>> sources;
+    private final Duration lag;
+
+    public CodelistHistoryService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                  List<CodelistSnapshotSource<?>> sources,
+                                  @Value("${app.audit.checkpoint.lag:5m}") Duration lag) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.entityTypes = sources.stream().collect(Collectors.toUnmodifiableMap(
+                CodelistSnapshotSource::getCodelistCode, CodelistSnapshotSource::getAuditEntityType));
+        this.sources = sources.stream().collect(Collectors.toUnmodifiableMap(
+                CodelistSnapshotSource::getAuditEntityType, Function.identity()));
+        this.lag = lag;
+    }
+
+    /**
+     * Gets the items of a codelist as they were at the given time, ordered by id.
+     *
+     * @param codelistCode the codelist code
+     * @param at           point in time
+     * @param itemType     DTO type of the codelist items
+     * @param <D>          the codelist DTO type
+     * @return items that existed at that time, with their values at that time
+     * @throws IllegalArgumentException if the codelist is unknown or the time is before its baseline
+     */
+    @Transactional(readOnly = true)
+    public <D extends CodelistItem> List<D> itemsAt(String codelistCode, LocalDateTime at, Class<D> itemType) {
+        String entityType = entityTypes.get(codelistCode);
+        if (entityType == null) {
+            throw new IllegalArgumentException("Unknown codelist: " + codelistCode);
+        }
+        Checkpoint checkpoint = latestCheckpoint(entityType, at).orElseThrow(() -> new IllegalArgumentException(
+                "History of codelist " + codelistCode + " is not available at " + at));
+        Map<Long, Map<String, Object>> state = replay(checkpoint.state(), loadChanges(entityType, checkpoint, at));
+
+        List<D> items = new ArrayList<>(state.size());
+        state.forEach((id, values) -> {
+            Map<String, Object> item = new LinkedHashMap<>(values);
+            item.put("id", id);
+            items.add(objectMapper.convertValue(item, itemType));
+        });
+        return items;
+    }
+
+    /**
+     * Seeds the missing baselines on startup, so that point-in-time reads work before the first checkpoint run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seedBaselines() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(LOCK_SQL, Boolean.class))) {
+            seedBaselines(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Saves a checkpoint of every codelist that changed since its last checkpoint.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.checkpoint.interval:PT6H}",
+            initialDelayString = "${app.audit.checkpoint.initial-delay:PT5M}")
+    @Transactional
+    public void checkpoint() {
+        checkpoint(LocalDateTime.now());
+    }
+
+    /**
+     * Saves checkpoints covering the audit records up to the lagged cutoff, after seeding the missing baselines
+     * and dropping the checkpoints that audit records written since the last run belong before.
+     * Must run inside a transaction, which holds the lock that keeps other replicas out.
+     *
+     * @param now current time
+     * @return number of checkpoints saved, baselines included
+     */
+    int checkpoint(LocalDateTime now) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(LOCK_SQL, Boolean.class))) {
+            log.debug("Audit checkpoints are being built by another replica");
+            return 0;
+        }
+        int saved = seedBaselines(now);
+        LocalDateTime cutoff = now.minus(lag).truncatedTo(ChronoUnit.SECONDS);
+        // Read before the changes: a record written meanwhile is above it and counts as late next time
+        long maxAuditId = maxAuditId();
+        for (String entityType : new TreeMap<>(entityTypes).values()) {
+            dropCheckpointsBeforeLateChanges(entityType);
+            Optional<Checkpoint> previous = latestCheckpoint(entityType, cutoff);
+            if (previous.isEmpty()) {
+                // The baseline is newer than the cutoff
+                continue;
+            }
+            List<Change> changes = loadChanges(entityType, previous.get(), cutoff);
+            if (changes.isEmpty()) {
+                continue;
+            }
+            Map<Long, Map<String, Object>> state = replay(previous.get().state(), changes);
+            insertCheckpoint(entityType, cutoff, maxAuditId, state, now, false);
+            saved++;
+            log.debug("Saved audit checkpoint of {} through {} ({} changes, {} items)",
+                    entityType, cutoff, changes.size(), state.size());
+        }
+        return saved;
+    }
+
+    /**
+     * Seeds a baseline checkpoint, the current content of the table, for every codelist that has none.
+     * The audit records written by then are reflected in the table; later ones are replayed on top.
+     * Must run inside a transaction holding the lock.
+     *
+     * @param now current time, the time the baselines cover
+     * @return number of baselines seeded
+     */
+    int seedBaselines(LocalDateTime now) {
+        Set<String> seeded = Set.copyOf(jdbcTemplate.queryForList(BASELINES_SQL, String.class));
+        int saved = 0;
+        for (String entityType : new TreeMap<>(entityTypes).values()) {
+            if (seeded.contains(entityType)) {
+                continue;
+            }
+            long maxAuditId = maxAuditId();
+            Map<Long, Map<String, Object>> state = new TreeMap<>(sources.get(entityType).findAllAuditValues());
+            insertCheckpoint(entityType, now, maxAuditId, state, now, true);
+            saved++;
+            log.info("Seeded audit baseline of {} at {} ({} items)", entityType, now, state.size());
+        }
+        return saved;
+    }
+
+    /**
+     * Drops the checkpoints of an entity type at or after the oldest audit record written since its latest
+     * checkpoint was built with a time that checkpoint covers. The baseline is kept, the record is replayed on it.
+     */
+    private void dropCheckpointsBeforeLateChanges(String entityType) {
+        Optional<Checkpoint> latest = latestCheckpoint(entityType, HISTORY_END);
+        if (latest.isEmpty()) {
+            return;
+        }
+        Timestamp lateChange = jdbcTemplate.queryForObject(LATE_CHANGE_SQL, Timestamp.class,
+                latest.get().maxAuditId(), entityType, Timestamp.valueOf(latest.get().coveredThrough()));
+        if (lateChange != null) {
+            int dropped = jdbcTemplate.update(DELETE_CHECKPOINTS_SQL, entityType, lateChange);
+            if (dropped > 0) {
+                log.info("Dropped {} audit checkpoints of {} from {} on, a record of that time was written later",
+                        dropped, entityType, lateChange.toLocalDateTime());
+            }
+        }
+    }
+
+    /**
+     * Applies audit changes, oldest first, to the values of the entities of one type.
+     *
+     * @param state   values per entity id, not modified
+     * @param changes changes to apply
+     * @return values per entity id after the changes
+     */
+    static Map<Long, Map<String, Object>> replay(Map<Long, ? extends Map<String, Object>> state,
+                                                List<Change> changes) {
+        Map<Long, Map<String, Object>> result = new TreeMap<Long, Map<String, Object>>(state);
+        for (Change change : changes) {
+            switch (change.changeType()) {
+                case CREATE -> result.put(change.entityId(), new LinkedHashMap<>(change.newValues()));
+                case UPDATE -> result.put(change.entityId(), AuditLogService.applyChange(
+                        result.getOrDefault(change.entityId(), Map.of()), change.newValues(), change.fullImage()));
+                case DELETE -> result.remove(change.entityId());
+            }
+        }
+        return result;
+    }
+
+    private Optional<Checkpoint> latestCheckpoint(String entityType, LocalDateTime at) {
+        List<Checkpoint> checkpoints = jdbcTemplate.query(LATEST_CHECKPOINT_SQL,
+                (rs, rowNum) -> new Checkpoint(rs.getTimestamp("covered_through").toLocalDateTime(),
+                        rs.getLong("max_audit_id"), parse(rs.getString("state"), STATE_TYPE)),
+                entityType, Timestamp.valueOf(at));
+        return checkpoints.stream().findFirst();
+    }
+
+    private List<Change> loadChanges(String entityType, Checkpoint after, LocalDateTime through) {
+        Timestamp coveredThrough = Timestamp.valueOf(after.coveredThrough());
+        return jdbcTemplate.query(CHANGES_SQL,
+                (rs, rowNum) -> new Change(rs.getLong("entity_id"),
+                        AuditLog.ChangeType.valueOf(rs.getString("change_type")),
+                        rs.getString("new_values") != null ? parse(rs.getString("new_values"), VALUES_TYPE) : Map.of(),
+                        rs.getBoolean("full_image")),
+                entityType, coveredThrough, Timestamp.valueOf(through), after.maxAuditId(), entityType, coveredThrough);
+    }
+
+    private long maxAuditId() {
+        Long maxAuditId = jdbcTemplate.queryForObject(MAX_AUDIT_ID_SQL, Long.class);
+        return maxAuditId != null ? maxAuditId : 0L;
+    }
+
+    private void insertCheckpoint(String entityType, LocalDateTime coveredThrough, long maxAuditId,
+                                  Map<Long, Map<String, Object>> state, LocalDateTime now, boolean baseline) {
+        jdbcTemplate.update(INSERT_CHECKPOINT_SQL, entityType, Timestamp.valueOf(coveredThrough), maxAuditId,
+                toJson(state), state.size(), Timestamp.valueOf(now), baseline);
+    }
+
+    private <T> T parse(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable audit history: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private String toJson(Map<Long, Map<String, Object>> state) {
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize audit checkpoint", e);
+        }
+    }
+
+    /**
+     * Values of all entities of one type as of {@code coveredThrough}, built from the audit records
+     * up to {@code maxAuditId}.
+     */
+    record Checkpoint(LocalDateTime coveredThrough, long maxAuditId,
+                              Map<Long, ? extends Map<String, Object>> state) {
+    }
+
+    /**
+     * One audit record, reduced to what replaying it needs.
+     */
+    record Change(long entityId, AuditLog.ChangeType changeType, Map<String, Object> newValues, boolean fullImage) {
+    }
+}
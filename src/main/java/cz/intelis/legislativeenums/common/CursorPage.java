@@ -0,0 +1,43 @@
+package cz.intelis.legislativeenums.common;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing.
+ * There is no total count; {@code nextCursor} is null on the last page.
+ *
+ * @param items      rows of the page
+ * @param nextCursor token of the position after the last row, null if there are no more rows
+ * @param <T>        row type
+ * @author Legislative Codelists Team
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code size + 1}; the extra row only tells
+     * that another page exists and is not returned.
+     *
+     * @param rows     fetched rows, at most {@code size + 1}
+     * @param size     page size
+     * @param position position of a row in the listing
+     * @param <T>      row type
+     * @return the page
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> position) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, position.apply(items.get(size - 1)).encode());
+    }
+
+    /**
+     * Checks whether another page follows.
+     *
+     * @return true if {@code nextCursor} is set
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
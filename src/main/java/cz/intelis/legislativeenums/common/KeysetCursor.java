@@ -0,0 +1,68 @@
+package cz.intelis.legislativeenums.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by timestamp and id, both descending.
+ * The next page starts right after the last row of the previous one, so it is read with a seek
+ * predicate {@code (timestamp, id) < (cursor.timestamp, cursor.id)} on an index instead of
+ * skipping an OFFSET of rows. Clients get the position as an opaque token.
+ * Positions compare in ascending order of timestamp and id.
+ *
+ * @param timestamp timestamp of the last row returned
+ * @param id        id of the last row returned, breaks ties between equal timestamps
+ * @author Legislative Codelists Team
+ */
+public record KeysetCursor(LocalDateTime timestamp, long id) implements Comparable<KeysetCursor> {
+
+    /**
+     * Position before the newest row. Lies after any stored timestamp, so the first page is read by the
+     * same seek query as the following ones.
+     */
+    public static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '|';
+
+    @Override
+    public int compareTo(KeysetCursor other) {
+        int result = timestamp.compareTo(other.timestamp);
+        return result != 0 ? result : Long.compare(id, other.id);
+    }
+
+    /**
+     * Encodes the position as an opaque URL-safe token.
+     *
+     * @return cursor token
+     */
+    public String encode() {
+        String value = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}; a missing token means the first page.
+     *
+     * @param token cursor token, may be null or blank
+     * @return decoded position, {@link #START} without a token
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package cz.intelis.legislativeenums.config;
+
+import cz.intelis.legislativeenums.snapshot.ConditionalRequestInterceptor;
+import cz.intelis.legislativeenums.snapshot.RenderedResponseInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class ApiWebConfig implements WebMvcConfigurer {
+
+    private final ConditionalRequestInterceptor conditionalRequestInterceptor;
+    private final RenderedResponseInterceptor renderedResponseInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Not-modified answers first, then rendered bodies
+        registry.addInterceptor(conditionalRequestInterceptor).addPathPatterns("/api/v1/**");
+        registry.addInterceptor(renderedResponseInterceptor).addPathPatterns("/api/v1/**");
+    }
+}
@@ -1,14 +1,24 @@
 package cz.intelis.legislativeenums.cuzk.areadetermination;
 
+import cz.intelis.legislativeenums.audit.CodelistHistoryService;
+import cz.intelis.legislativeenums.snapshot.CachedResponse;
+import cz.intelis.legislativeenums.snapshot.CodeBatchRequest;
+import cz.intelis.legislativeenums.snapshot.CodeBatchResult;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
+import cz.intelis.legislativeenums.snapshot.SnapshotCodelist;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -20,29 +30,56 @@ import java.util.List;
 @RestController
 @RequestMapping(value = "/api/v1/cuzk/area-determinations", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
 @RequiredArgsConstructor
+@SnapshotCodelist(AreaDeterminationService.CODELIST_CODE)
 @Tag(name = "ČÚZK - Area Determinations", description = "API for area determination methods (Způsob určení výměry)")
 public class AreaDeterminationApiController {
 
     private final AreaDeterminationService service;
+    private final CodelistSnapshotStore snapshotStore;
+    private final CodelistHistoryService codelistHistory;
 
     @GetMapping
-    @Operation(summary = "Get all area determinations", description = "Returns list of area determinations. By default returns only currently valid items (validOnly=true). Set validOnly=false to get all items.")
+    @Operation(summary = "Get all area determinations", description = "Returns list of area determinations. By default returns only currently valid items (validOnly=true). Set validOnly=false to get all items. Set asOf=YYYY-MM-DD to get the items valid on that date. Set at=YYYY-MM-DDTHH:MM:SS to get the items as they were at that time, reconstructed from the audit log.")
+    @CachedResponse
     public ResponseEntity<List<AreaDeterminationDTO>> findAll(
-            @RequestParam(required = false, defaultValue = "true") boolean validOnly) {
-        List<AreaDeterminationDTO> result = validOnly ? service.findAllCurrentlyValid() : service.findAll();
+            @RequestParam(required = false, defaultValue = "true") boolean validOnly,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        if (at != null) {
+            return ResponseEntity.ok(codelistHistory.itemsAt(AreaDeterminationService.CODELIST_CODE,
+                    at, AreaDeterminationDTO.class));
+        }
+        CodelistSnapshot<AreaDeterminationDTO> snapshot = snapshot();
+        List<AreaDeterminationDTO> result = asOf != null ? snapshot.validOn(asOf)
+                : validOnly ? snapshot.currentlyValid() : snapshot.all();
         return ResponseEntity.ok(result);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get area determination by ID")
     public ResponseEntity<AreaDeterminationDTO> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(service.findById(id));
+        return ResponseEntity.ok(snapshot().findById(id).orElseGet(() -> service.findById(id)));
     }
 
     @GetMapping("/code/{code}")
     @Operation(summary = "Get area determination by code")
-    public ResponseEntity<AreaDeterminationDTO> findByCode(@PathVariable String code) {
-        return ResponseEntity.ok(service.findByCode(code));
+    public ResponseEntity<AreaDeterminationDTO> findByCode(@PathVariable String code,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        AreaDeterminationDTO item = snapshot().findByCode(code).orElseGet(() -> service.findByCode(code));
+        return ResponseEntity.ok(CodelistSnapshot.requireValidOn(item, asOf));
+    }
+
+    @RequestMapping(value = "/code/{code}", method = RequestMethod.HEAD)
+    @Operation(summary = "Check area determination existence by code")
+    public ResponseEntity<Void> existsByCode(@PathVariable String code,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return snapshot().containsCode(code, asOf) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/codes:batchGet")
+    @Operation(summary = "Get area determinations by codes")
+    public ResponseEntity<CodeBatchResult<AreaDeterminationDTO>> findByCodes(@Valid @RequestBody CodeBatchRequest request) {
+        return ResponseEntity.ok(snapshot().findByCodes(request.getCodes()));
     }
 
     @PostMapping
@@ -63,4 +100,8 @@ public class AreaDeterminationApiController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private CodelistSnapshot<AreaDeterminationDTO> snapshot() {
+        return snapshotStore.get(AreaDeterminationService.CODELIST_CODE);
+    }
 }
@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.areadetermination;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,26 +20,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class AreaDeterminationService {
+public class AreaDeterminationService implements CodelistSnapshotSource<AreaDeterminationDTO> {
 
     private static final String CODELIST_NAME = "Způsoby určení výměry";
-    private static final String CODELIST_CODE = "AREA_DETERMINATION";
+    static final String CODELIST_CODE = "AREA_DETERMINATION";
 
     private final AreaDeterminationRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all area determinations ordered by sort order and code.
      *
      * @return list of all area determinations as DTOs
      */
+    @Override
     public List<AreaDeterminationDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(AreaDeterminationDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(AreaDetermination::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid area determinations.
      * A record is valid if current date is within validFrom-validTo range.
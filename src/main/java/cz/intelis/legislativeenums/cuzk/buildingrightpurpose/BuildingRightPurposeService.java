@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.buildingrightpurpose;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,26 +19,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class BuildingRightPurposeService {
+public class BuildingRightPurposeService implements CodelistSnapshotSource<BuildingRightPurposeDTO> {
 
     private static final String CODELIST_NAME = "Účely práva stavby";
-    private static final String CODELIST_CODE = "BUILDING_RIGHT_PURPOSE";
+    static final String CODELIST_CODE = "BUILDING_RIGHT_PURPOSE";
 
     private final BuildingRightPurposeRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all building right purposes ordered by sort order and code.
      *
      * @return list of all building right purposes as DTOs
      */
+    @Override
     public List<BuildingRightPurposeDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(BuildingRightPurposeDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(BuildingRightPurpose::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid building right purposes.
      * A record is valid if current date is within validFrom-validTo range.
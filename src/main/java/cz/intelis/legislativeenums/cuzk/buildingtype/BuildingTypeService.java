@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.buildingtype;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,26 +19,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class BuildingTypeService {
+public class BuildingTypeService implements CodelistSnapshotSource<BuildingTypeDTO> {
 
     private static final String CODELIST_NAME = "Typy staveb";
-    private static final String CODELIST_CODE = "BUILDING_TYPE";
+    static final String CODELIST_CODE = "BUILDING_TYPE";
 
     private final BuildingTypeRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all building types ordered by sort order and code.
      *
      * @return list of all building types as DTOs
      */
+    @Override
     public List<BuildingTypeDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(BuildingTypeDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(BuildingType::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid building types.
      * A record is valid if current date is within validFrom-validTo range.
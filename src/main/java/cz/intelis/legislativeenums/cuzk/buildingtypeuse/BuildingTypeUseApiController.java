@@ -1,14 +1,22 @@
 package cz.intelis.legislativeenums.cuzk.buildingtypeuse;
 
+import cz.intelis.legislativeenums.audit.CodelistHistoryService;
+import cz.intelis.legislativeenums.snapshot.CachedResponse;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
+import cz.intelis.legislativeenums.snapshot.SnapshotCodelist;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -20,35 +28,49 @@ import java.util.List;
 @RestController
 @RequestMapping(value = "/api/v1/cuzk/building-type-uses", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
 @RequiredArgsConstructor
+@SnapshotCodelist(BuildingTypeUseService.CODELIST_CODE)
 @Tag(name = "ČÚZK - Building Type Uses", description = "API for building type and use relationships (Vazba typ stavby a využití stavby)")
 public class BuildingTypeUseApiController {
 
     private final BuildingTypeUseService service;
+    private final CodelistSnapshotStore snapshotStore;
+    private final CodelistHistoryService codelistHistory;
 
     @GetMapping
-    @Operation(summary = "Get all building type uses", description = "Returns list of building type use relations. By default returns only currently valid items (validOnly=true). Set validOnly=false to get all items.")
+    @Operation(summary = "Get all building type uses", description = "Returns list of building type use relations. By default returns only currently valid items (validOnly=true). Set validOnly=false to get all items. Set asOf=YYYY-MM-DD to get the items valid on that date. Set at=YYYY-MM-DDTHH:MM:SS to get the items as they were at that time, reconstructed from the audit log.")
+    @CachedResponse
     public ResponseEntity<List<BuildingTypeUseDTO>> findAll(
-            @RequestParam(required = false, defaultValue = "true") boolean validOnly) {
-        List<BuildingTypeUseDTO> result = validOnly ? service.findAllCurrentlyValid() : service.findAll();
+            @RequestParam(required = false, defaultValue = "true") boolean validOnly,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        if (at != null) {
+            return ResponseEntity.ok(codelistHistory.itemsAt(BuildingTypeUseService.CODELIST_CODE,
+                    at, BuildingTypeUseDTO.class));
+        }
+        CodelistSnapshot<BuildingTypeUseDTO> snapshot = snapshot();
+        List<BuildingTypeUseDTO> result = asOf != null ? snapshot.validOn(asOf)
+                : validOnly ? snapshot.currentlyValid() : snapshot.all();
         return ResponseEntity.ok(result);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get building type use by ID")
     public ResponseEntity<BuildingTypeUseDTO> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(service.findById(id));
+        return ResponseEntity.ok(snapshot().findById(id).orElseGet(() -> service.findById(id)));
     }
 
     @GetMapping("/building-type/{buildingTypeCode}")
     @Operation(summary = "Get building type uses by building type code")
-    public ResponseEntity<List<BuildingTypeUseDTO>> findByBuildingTypeCode(@PathVariable String buildingTypeCode) {
-        return ResponseEntity.ok(service.findByBuildingTypeCode(buildingTypeCode));
+    public ResponseEntity<List<BuildingTypeUseDTO>> findByBuildingTypeCode(@PathVariable String buildingTypeCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(snapshot().filter(asOf, item -> buildingTypeCode.equals(item.getBuildingTypeCode())));
     }
 
     @GetMapping("/building-use/{buildingUseCode}")
     @Operation(summary = "Get building type uses by building use code")
-    public ResponseEntity<List<BuildingTypeUseDTO>> findByBuildingUseCode(@PathVariable String buildingUseCode) {
-        return ResponseEntity.ok(service.findByBuildingUseCode(buildingUseCode));
+    public ResponseEntity<List<BuildingTypeUseDTO>> findByBuildingUseCode(@PathVariable String buildingUseCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(snapshot().filter(asOf, item -> buildingUseCode.equals(item.getBuildingUseCode())));
     }
 
     @PostMapping
@@ -69,4 +91,8 @@ public class BuildingTypeUseApiController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private CodelistSnapshot<BuildingTypeUseDTO> snapshot() {
+        return snapshotStore.get(BuildingTypeUseService.CODELIST_CODE);
+    }
 }
@@ -1,6 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.buildingtypeuse;
 
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import cz.intelis.legislativeenums.snapshot.CodelistItem;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -21,7 +22,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @JacksonXmlRootElement(localName = "buildingTypeUse")
-public class BuildingTypeUseDTO {
+public class BuildingTypeUseDTO implements CodelistItem {
 
     private Long id;
 
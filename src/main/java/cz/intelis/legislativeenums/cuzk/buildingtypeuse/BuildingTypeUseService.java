@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.buildingtypeuse;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,26 +19,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class BuildingTypeUseService {
+public class BuildingTypeUseService implements CodelistSnapshotSource<BuildingTypeUseDTO> {
 
     private static final String CODELIST_NAME = "Vazby typ stavby - využití";
-    private static final String CODELIST_CODE = "BUILDING_TYPE_USE";
+    static final String CODELIST_CODE = "BUILDING_TYPE_USE";
 
     private final BuildingTypeUseRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all building type-use relations ordered by building type code and building use code.
      *
      * @return list of all building type-use relations as DTOs
      */
+    @Override
     public List<BuildingTypeUseDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(BuildingTypeUseDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(BuildingTypeUse::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid building type-use relations.
      * A record is valid if current date is within validFrom-validTo range.
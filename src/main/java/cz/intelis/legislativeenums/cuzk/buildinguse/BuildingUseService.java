@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.buildinguse;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,26 +19,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class BuildingUseService {
+public class BuildingUseService implements CodelistSnapshotSource<BuildingUseDTO> {
 
     private static final String CODELIST_NAME = "Způsoby využití stavby";
-    private static final String CODELIST_CODE = "BUILDING_USE";
+    static final String CODELIST_CODE = "BUILDING_USE";
 
     private final BuildingUseRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all building uses ordered by sort order and code.
      *
      * @return list of all building uses as DTOs
      */
+    @Override
     public List<BuildingUseDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(BuildingUseDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(BuildingUse::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid building uses.
      * A record is valid if current date is within validFrom-validTo range.
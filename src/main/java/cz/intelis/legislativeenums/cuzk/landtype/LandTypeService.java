@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.landtype;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,26 +19,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class LandTypeService {
+public class LandTypeService implements CodelistSnapshotSource<LandTypeDTO> {
 
     private static final String CODELIST_NAME = "Druhy pozemků";
-    private static final String CODELIST_CODE = "LAND_TYPE";
+    static final String CODELIST_CODE = "LAND_TYPE";
 
     private final LandTypeRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all land types ordered by sort order and code.
      *
      * @return list of all land types as DTOs
      */
+    @Override
     public List<LandTypeDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(LandTypeDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(LandType::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid land types.
      * A record is valid if current date is within validFrom-validTo range.
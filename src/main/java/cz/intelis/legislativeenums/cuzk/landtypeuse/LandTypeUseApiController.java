@@ -1,14 +1,22 @@
 package cz.intelis.legislativeenums.cuzk.landtypeuse;
 
+import cz.intelis.legislativeenums.audit.CodelistHistoryService;
+import cz.intelis.legislativeenums.snapshot.CachedResponse;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
+import cz.intelis.legislativeenums.snapshot.SnapshotCodelist;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -20,35 +28,49 @@ import java.util.List;
 @RestController
 @RequestMapping(value = "/api/v1/cuzk/land-type-uses", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
 @RequiredArgsConstructor
+@SnapshotCodelist(LandTypeUseService.CODELIST_CODE)
 @Tag(name = "ČÚZK - Land Type Uses", description = "API for land type and use relationships (Vazba druh pozemku a využití)")
 public class LandTypeUseApiController {
 
     private final LandTypeUseService service;
+    private final CodelistSnapshotStore snapshotStore;
+    private final CodelistHistoryService codelistHistory;
 
     @GetMapping
-    @Operation(summary = "Get all land type uses", description = "Returns list of land type use relations. By default returns only currently valid items (validOnly=true). Set validOnly=false to get all items.")
+    @Operation(summary = "Get all land type uses", description = "Returns list of land type use relations. By default returns only currently valid items (validOnly=true). Set validOnly=false to get all items. Set asOf=YYYY-MM-DD to get the items valid on that date. Set at=YYYY-MM-DDTHH:MM:SS to get the items as they were at that time, reconstructed from the audit log.")
+    @CachedResponse
     public ResponseEntity<List<LandTypeUseDTO>> findAll(
-            @RequestParam(required = false, defaultValue = "true") boolean validOnly) {
-        List<LandTypeUseDTO> result = validOnly ? service.findAllCurrentlyValid() : service.findAll();
+            @RequestParam(required = false, defaultValue = "true") boolean validOnly,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        if (at != null) {
+            return ResponseEntity.ok(codelistHistory.itemsAt(LandTypeUseService.CODELIST_CODE,
+                    at, LandTypeUseDTO.class));
+        }
+        CodelistSnapshot<LandTypeUseDTO> snapshot = snapshot();
+        List<LandTypeUseDTO> result = asOf != null ? snapshot.validOn(asOf)
+                : validOnly ? snapshot.currentlyValid() : snapshot.all();
         return ResponseEntity.ok(result);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get land type use by ID")
     public ResponseEntity<LandTypeUseDTO> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(service.findById(id));
+        return ResponseEntity.ok(snapshot().findById(id).orElseGet(() -> service.findById(id)));
     }
 
     @GetMapping("/land-type/{landTypeCode}")
     @Operation(summary = "Get land type uses by land type code")
-    public ResponseEntity<List<LandTypeUseDTO>> findByLandTypeCode(@PathVariable String landTypeCode) {
-        return ResponseEntity.ok(service.findByLandTypeCode(landTypeCode));
+    public ResponseEntity<List<LandTypeUseDTO>> findByLandTypeCode(@PathVariable String landTypeCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(snapshot().filter(asOf, item -> landTypeCode.equals(item.getLandTypeCode())));
     }
 
     @GetMapping("/land-use/{landUseCode}")
     @Operation(summary = "Get land type uses by land use code")
-    public ResponseEntity<List<LandTypeUseDTO>> findByLandUseCode(@PathVariable String landUseCode) {
-        return ResponseEntity.ok(service.findByLandUseCode(landUseCode));
+    public ResponseEntity<List<LandTypeUseDTO>> findByLandUseCode(@PathVariable String landUseCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(snapshot().filter(asOf, item -> landUseCode.equals(item.getLandUseCode())));
     }
 
     @PostMapping
@@ -69,4 +91,8 @@ public class LandTypeUseApiController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private CodelistSnapshot<LandTypeUseDTO> snapshot() {
+        return snapshotStore.get(LandTypeUseService.CODELIST_CODE);
+    }
 }
@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.landtypeuse;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,26 +19,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class LandTypeUseService {
+public class LandTypeUseService implements CodelistSnapshotSource<LandTypeUseDTO> {
 
     private static final String CODELIST_NAME = "Vazby druh pozemku - využití";
-    private static final String CODELIST_CODE = "LAND_TYPE_USE";
+    static final String CODELIST_CODE = "LAND_TYPE_USE";
 
     private final LandTypeUseRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all land type-use relations ordered by land type code and land use code.
      *
      * @return list of all land type-use relations as DTOs
      */
+    @Override
     public List<LandTypeUseDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(LandTypeUseDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(LandTypeUse::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid land type-use relations.
      * A record is valid if current date is within validFrom-validTo range.
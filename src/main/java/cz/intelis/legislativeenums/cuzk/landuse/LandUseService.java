@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.landuse;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,26 +19,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class LandUseService {
+public class LandUseService implements CodelistSnapshotSource<LandUseDTO> {
 
     private static final String CODELIST_NAME = "Způsoby využití pozemku";
-    private static final String CODELIST_CODE = "LAND_USE";
+    static final String CODELIST_CODE = "LAND_USE";
 
     private final LandUseRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all land uses ordered by sort order and code.
      *
      * @return list of all land uses as DTOs
      */
+    @Override
     public List<LandUseDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(LandUseDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(LandUse::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid land uses.
      * A record is valid if current date is within validFrom-validTo range.
@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.propertyprotection;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,26 +20,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class PropertyProtectionService {
+public class PropertyProtectionService implements CodelistSnapshotSource<PropertyProtectionDTO> {
 
     private static final String CODELIST_NAME = "Způsoby ochrany nemovitosti";
-    private static final String CODELIST_CODE = "PROPERTY_PROTECTION";
+    static final String CODELIST_CODE = "PROPERTY_PROTECTION";
 
     private final PropertyProtectionRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all property protections ordered by sort order and code.
      *
      * @return list of all property protections as DTOs
      */
+    @Override
     public List<PropertyProtectionDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(PropertyProtectionDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(PropertyProtection::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid property protections.
      * A record is valid if current date is within validFrom-validTo range.
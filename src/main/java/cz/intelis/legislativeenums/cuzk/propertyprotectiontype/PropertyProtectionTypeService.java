@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.propertyprotectiontype;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,26 +20,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class PropertyProtectionTypeService {
+public class PropertyProtectionTypeService implements CodelistSnapshotSource<PropertyProtectionTypeDTO> {
 
     private static final String CODELIST_NAME = "Typy ochrany nemovitosti";
-    private static final String CODELIST_CODE = "PROPERTY_PROTECTION_TYPE";
+    static final String CODELIST_CODE = "PROPERTY_PROTECTION_TYPE";
 
     private final PropertyProtectionTypeRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all property protection types ordered by sort order and code.
      *
      * @return list of all property protection types as DTOs
      */
+    @Override
     public List<PropertyProtectionTypeDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(PropertyProtectionTypeDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(PropertyProtectionType::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid property protection types.
      * A record is valid if current date is within validFrom-validTo range.
@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.simplifiedparcelsource;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,26 +20,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class SimplifiedParcelSourceService {
+public class SimplifiedParcelSourceService implements CodelistSnapshotSource<SimplifiedParcelSourceDTO> {
 
     private static final String CODELIST_NAME = "Zdroje parcel zjednodušené evidence";
-    private static final String CODELIST_CODE = "SIMPLIFIED_PARCEL_SOURCE";
+    static final String CODELIST_CODE = "SIMPLIFIED_PARCEL_SOURCE";
 
     private final SimplifiedParcelSourceRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all simplified parcel sources ordered by sort order and code.
      *
      * @return list of all simplified parcel sources as DTOs
      */
+    @Override
     public List<SimplifiedParcelSourceDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(SimplifiedParcelSourceDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(SimplifiedParcelSource::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid simplified parcel sources.
      * A record is valid if current date is within validFrom-validTo range.
@@ -1,6 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.soilecologicalunit;
 
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import cz.intelis.legislativeenums.snapshot.CodedCodelistItem;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -22,7 +23,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @JacksonXmlRootElement(localName = "soilEcologicalUnit")
-public class SoilEcologicalUnitDTO {
+public class SoilEcologicalUnitDTO implements CodedCodelistItem {
 
     private Long id;
 
@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.soilecologicalunit;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,26 +20,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class SoilEcologicalUnitService {
+public class SoilEcologicalUnitService implements CodelistSnapshotSource<SoilEcologicalUnitDTO> {
 
     private static final String CODELIST_NAME = "BPEJ";
-    private static final String CODELIST_CODE = "SOIL_ECOLOGICAL_UNIT";
+    static final String CODELIST_CODE = "SOIL_ECOLOGICAL_UNIT";
 
     private final SoilEcologicalUnitRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all soil ecological units ordered by sort order and code.
      *
      * @return list of all soil ecological units as DTOs
      */
+    @Override
     public List<SoilEcologicalUnitDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(SoilEcologicalUnitDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(SoilEcologicalUnit::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid soil ecological units.
      * A record is valid if current date is within validFrom-validTo range.
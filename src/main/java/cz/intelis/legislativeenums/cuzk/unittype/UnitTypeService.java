@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.cuzk.unittype;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,26 +19,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class UnitTypeService {
+public class UnitTypeService implements CodelistSnapshotSource<UnitTypeDTO> {
 
     private static final String CODELIST_NAME = "Typy jednotek";
-    private static final String CODELIST_CODE = "UNIT_TYPE";
+    static final String CODELIST_CODE = "UNIT_TYPE";
 
     private final UnitTypeRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all unit types ordered by sort order and code.
      *
      * @return list of all unit types as DTOs
      */
+    @Override
     public List<UnitTypeDTO> findAll() {
         return repository.findAllOrdered().stream()
             .map(UnitTypeDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+            .collect(Collectors.toMap(UnitType::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid unit types.
      * A record is valid if current date is within validFrom-validTo range.
@@ -1,15 +1,26 @@
 package cz.intelis.legislativeenums.kso;
 
+import cz.intelis.legislativeenums.audit.CodelistHistoryService;
+import cz.intelis.legislativeenums.snapshot.CachedResponse;
+import cz.intelis.legislativeenums.snapshot.CodeBatchRequest;
+import cz.intelis.legislativeenums.snapshot.CodeBatchResult;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
+import cz.intelis.legislativeenums.snapshot.SnapshotCodelist;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * REST API controller for managing BuildingClassification entities.
@@ -20,19 +31,29 @@ import java.util.List;
 @RestController
 @RequestMapping(value = "/api/v1/building-classifications", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
 @RequiredArgsConstructor
+@SnapshotCodelist(BuildingClassificationService.CODELIST_CODE)
 @Tag(name = "Building Classifications (KSO)", description = "API for managing building object classifications (Klasifikace stavebních objektů)")
 public class BuildingClassificationApiController {
 
     private final BuildingClassificationService service;
+    private final CodelistSnapshotStore snapshotStore;
+    private final CodelistHistoryService codelistHistory;
 
     /**
      * Retrieves all building classifications as flat list.
      */
     @GetMapping
     @Operation(summary = "Get all building classifications",
-               description = "Returns flat list of all classifications.")
-    public ResponseEntity<List<BuildingClassificationDTO>> findAll() {
-        return ResponseEntity.ok(service.findAll());
+               description = "Returns flat list of all classifications. Set at=YYYY-MM-DDTHH:MM:SS to get the items as they were at that time, reconstructed from the audit log.")
+    @CachedResponse
+    public ResponseEntity<List<BuildingClassificationDTO>> findAll(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        if (at != null) {
+            return ResponseEntity.ok(codelistHistory.itemsAt(BuildingClassificationService.CODELIST_CODE,
+                    at, BuildingClassificationDTO.class));
+        }
+        return ResponseEntity.ok(asOf != null ? snapshot().validOn(asOf) : snapshot().all());
     }
 
     /**
@@ -40,9 +61,11 @@ public class BuildingClassificationApiController {
      */
     @GetMapping("/tree")
     @Operation(summary = "Get building classifications as tree",
-               description = "Returns hierarchical tree structure starting from root items")
-    public ResponseEntity<List<BuildingClassificationDTO>> findTree() {
-        return ResponseEntity.ok(service.findTree());
+               description = "Returns hierarchical tree structure starting from root items. With asOf, only items valid on that date are included; an item whose parent is not valid is left out with its subtree.")
+    @CachedResponse
+    public ResponseEntity<List<BuildingClassificationDTO>> findTree(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(BuildingClassificationDTO.toTree(asOf != null ? snapshot().validOn(asOf) : snapshot().all()));
     }
 
     /**
@@ -51,8 +74,9 @@ public class BuildingClassificationApiController {
     @GetMapping("/roots")
     @Operation(summary = "Get root level items",
                description = "Returns only the top-level items (Obory)")
-    public ResponseEntity<List<BuildingClassificationDTO>> findRoots() {
-        return ResponseEntity.ok(service.findRootItems());
+    public ResponseEntity<List<BuildingClassificationDTO>> findRoots(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(snapshot().filter(asOf, item -> item.getParentId() == null));
     }
 
     /**
@@ -61,8 +85,9 @@ public class BuildingClassificationApiController {
     @GetMapping("/{id}/children")
     @Operation(summary = "Get children of a classification",
                description = "Returns direct children of a specific classification")
-    public ResponseEntity<List<BuildingClassificationDTO>> findChildren(@PathVariable Long id) {
-        return ResponseEntity.ok(service.findChildren(id));
+    public ResponseEntity<List<BuildingClassificationDTO>> findChildren(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(snapshot().filter(asOf, item -> id.equals(item.getParentId())));
     }
 
     /**
@@ -71,8 +96,9 @@ public class BuildingClassificationApiController {
     @GetMapping("/level/{level}")
     @Operation(summary = "Get items by level",
                description = "Returns all items at a specific hierarchy level (1=Obor, 2=Skupina, 3=Podskupina)")
-    public ResponseEntity<List<BuildingClassificationDTO>> findByLevel(@PathVariable Integer level) {
-        return ResponseEntity.ok(service.findByLevel(level));
+    public ResponseEntity<List<BuildingClassificationDTO>> findByLevel(@PathVariable Integer level,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(snapshot().filter(asOf, item -> level.equals(item.getLevel())));
     }
 
     /**
@@ -81,8 +107,11 @@ public class BuildingClassificationApiController {
     @GetMapping("/search")
     @Operation(summary = "Search classifications",
                description = "Search by code or name (case insensitive)")
-    public ResponseEntity<List<BuildingClassificationDTO>> search(@RequestParam String query) {
-        return ResponseEntity.ok(service.search(query));
+    public ResponseEntity<List<BuildingClassificationDTO>> search(@RequestParam String query,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        return ResponseEntity.ok(snapshot().filter(asOf, item -> contains(item.getCode(), needle)
+                || contains(item.getNameCs(), needle) || contains(item.getNameEn(), needle)));
     }
 
     /**
@@ -92,7 +121,7 @@ public class BuildingClassificationApiController {
     @Operation(summary = "Get classification by ID",
                description = "Returns a single classification by its unique identifier")
     public ResponseEntity<BuildingClassificationDTO> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(service.findById(id));
+        return ResponseEntity.ok(snapshot().findById(id).orElseGet(() -> service.findById(id)));
     }
 
     /**
@@ -101,8 +130,31 @@ public class BuildingClassificationApiController {
     @GetMapping("/code/{code}")
     @Operation(summary = "Get classification by code",
                description = "Returns a single classification by its unique code (e.g., 801, 802)")
-    public ResponseEntity<BuildingClassificationDTO> findByCode(@PathVariable String code) {
-        return ResponseEntity.ok(service.findByCode(code));
+    public ResponseEntity<BuildingClassificationDTO> findByCode(@PathVariable String code,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        BuildingClassificationDTO item = snapshot().findByCode(code).orElseGet(() -> service.findByCode(code));
+        return ResponseEntity.ok(CodelistSnapshot.requireValidOn(item, asOf));
+    }
+
+    /**
+     * Checks whether a classification with the given code exists, without transferring it.
+     */
+    @RequestMapping(value = "/code/{code}", method = RequestMethod.HEAD)
+    @Operation(summary = "Check classification existence by code",
+               description = "Returns 200 if a classification with the code exists (and is valid on asOf, if given), 404 otherwise. No body is sent.")
+    public ResponseEntity<Void> existsByCode(@PathVariable String code,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return snapshot().containsCode(code, asOf) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Retrieves classifications by a batch of codes.
+     */
+    @PostMapping("/codes:batchGet")
+    @Operation(summary = "Get classifications by codes",
+               description = "Resolves up to " + CodeBatchRequest.MAX_CODES + " codes in one request. Codes that do not exist are listed in missing.")
+    public ResponseEntity<CodeBatchResult<BuildingClassificationDTO>> findByCodes(@Valid @RequestBody CodeBatchRequest request) {
+        return ResponseEntity.ok(snapshot().findByCodes(request.getCodes()));
     }
 
     /**
@@ -136,4 +188,12 @@ public class BuildingClassificationApiController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static boolean contains(String value, String lowerCaseNeedle) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseNeedle);
+    }
+
+    private CodelistSnapshot<BuildingClassificationDTO> snapshot() {
+        return snapshotStore.get(BuildingClassificationService.CODELIST_CODE);
+    }
 }
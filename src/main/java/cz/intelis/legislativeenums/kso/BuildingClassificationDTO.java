@@ -3,6 +3,7 @@ package cz.intelis.legislativeenums.kso;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import cz.intelis.legislativeenums.snapshot.CodedCodelistItem;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -15,7 +16,9 @@ import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO for BuildingClassification entity.
@@ -27,7 +30,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @JacksonXmlRootElement(localName = "buildingClassification")
-public class BuildingClassificationDTO {
+public class BuildingClassificationDTO implements CodedCodelistItem {
 
     private Long id;
 
@@ -108,4 +111,36 @@ public class BuildingClassificationDTO {
         }
         return dto;
     }
+
+    /**
+     * Arranges flat items into trees of copies, leaving the items themselves unmodified.
+     * Items whose parent is not among the items are left out with their subtrees.
+     *
+     * @param items flat items in presentation order
+     * @return root items with their children, in presentation order
+     */
+    public static List<BuildingClassificationDTO> toTree(List<BuildingClassificationDTO> items) {
+        Map<Long, List<BuildingClassificationDTO>> childrenByParent = new LinkedHashMap<>();
+        List<BuildingClassificationDTO> roots = new ArrayList<>();
+        for (BuildingClassificationDTO item : items) {
+            if (item.getParentId() == null) {
+                roots.add(item);
+            } else {
+                childrenByParent.computeIfAbsent(item.getParentId(), id -> new ArrayList<>()).add(item);
+            }
+        }
+        return roots.stream().map(root -> withChildren(root, childrenByParent)).toList();
+    }
+
+    private static BuildingClassificationDTO withChildren(BuildingClassificationDTO item,
+                                                          Map<Long, List<BuildingClassificationDTO>> childrenByParent) {
+        BuildingClassificationDTO copy = new BuildingClassificationDTO(item.getId(), item.getCode(), item.getNameCs(),
+                item.getNameEn(), item.getDescriptionCs(), item.getDescriptionEn(), item.getLevel(), item.getParentId(),
+                item.getParentCode(), item.getParentName(), item.getValidFrom(), item.getValidTo(), item.getSortOrder(),
+                item.getCreatedAt(), item.getUpdatedAt(), new ArrayList<>());
+        for (BuildingClassificationDTO child : childrenByParent.getOrDefault(item.getId(), List.of())) {
+            copy.getChildren().add(withChildren(child, childrenByParent));
+        }
+        return copy;
+    }
 }
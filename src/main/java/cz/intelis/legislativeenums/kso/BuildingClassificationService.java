@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.kso;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,24 +20,41 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class BuildingClassificationService {
+public class BuildingClassificationService implements CodelistSnapshotSource<BuildingClassificationDTO> {
 
     private static final String CODELIST_NAME = "Klasifikace staveb (KSO)";
-    private static final String CODELIST_CODE = "BUILDING_CLASSIFICATION";
+    static final String CODELIST_CODE = "BUILDING_CLASSIFICATION";
 
     private final BuildingClassificationRepository repository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all classifications ordered by code.
      */
+    @Override
     public List<BuildingClassificationDTO> findAll() {
         return repository.findAllOrdered().stream()
                 .map(BuildingClassificationDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return repository.findAllOrdered().stream()
+                .collect(Collectors.toMap(BuildingClassification::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves the full tree structure (root items with all children).
      */
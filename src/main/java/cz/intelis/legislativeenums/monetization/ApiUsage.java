@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 
 @Entity @Table(name = "api_usage", indexes = {
     @Index(name = "idx_api_key_timestamp", columnList = "api_key_id, timestamp"),
-    @Index(name = "idx_timestamp", columnList = "timestamp")
+    @Index(name = "idx_api_usage_timestamp_id", columnList = "timestamp, id")
 }) @Data @NoArgsConstructor @AllArgsConstructor
 public class ApiUsage {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,45 @@
+package cz.intelis.legislativeenums.monetization;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Hourly rollup of api_usage maintained by {@link ApiUsageRollupAggregator}.
+ * Status is kept as its class (2 for 2xx, ..., 0 when unknown) and an unknown
+ * response format as an empty string, so that every dimension can be part of the key.
+ */
+@Entity @Table(name = "api_usage_hourly") @IdClass(ApiUsageHourly.Key.class)
+@Data @NoArgsConstructor @AllArgsConstructor
+public class ApiUsageHourly {
+    @Id @Column(name = "hour_start")
+    private LocalDateTime hourStart;
+    @Id @Column(name = "api_key_id")
+    private Long apiKeyId;
+    @Id @Column(length = 255)
+    private String endpoint;
+    @Id @Column(name = "status_class")
+    private Integer statusClass;
+    @Id @Column(name = "response_format", length = 10)
+    private String responseFormat;
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount;
+    @Column(name = "timed_request_count", nullable = false)
+    private Long timedRequestCount;
+    @Column(name = "total_response_time_ms", nullable = false)
+    private Long totalResponseTimeMs;
+    @Column(name = "max_response_time_ms")
+    private Long maxResponseTimeMs;
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private LocalDateTime hourStart;
+        private Long apiKeyId;
+        private String endpoint;
+        private Integer statusClass;
+        private String responseFormat;
+    }
+}
@@ -0,0 +1,114 @@
+package cz.intelis.legislativeenums.monetization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of api_usage.
+ * Partitions for the current month and a configurable number of months ahead are created
+ * in advance, because api_usage has no default partition and a row without a partition is rejected.
+ * Partitions whose whole range is older than the retention are detached and, unless configured
+ * otherwise, dropped. Dashboard statistics are not affected, they read the hourly rollup.
+ * Runs on startup and then periodically; replicas coordinate through a transaction-level advisory lock.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+public class ApiUsagePartitionManager {
+
+    static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('api_usage_partitions'))";
+
+    static final String LIST_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'api_usage'";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("api_usage_(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final boolean dropExpired;
+
+    public ApiUsagePartitionManager(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.usage.partitions.months-ahead:3}") int monthsAhead,
+                                    @Value("${app.usage.partitions.retention-months:13}") int retentionMonths,
+                                    @Value("${app.usage.partitions.drop-expired:true}") boolean dropExpired) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.dropExpired = dropExpired;
+    }
+
+    /**
+     * Creates upcoming partitions and removes expired ones.
+     */
+    @Scheduled(fixedDelayString = "${app.usage.partitions.interval:PT6H}")
+    @Transactional
+    public void maintain() {
+        maintain(LocalDate.now());
+    }
+
+    /**
+     * Creates upcoming partitions and removes expired ones as of the given day.
+     * Must run inside a transaction, the advisory lock is held until it ends.
+     *
+     * @param today current date
+     */
+    void maintain(LocalDate today) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK_SQL, Boolean.class))) {
+            log.debug("api_usage partition maintenance is running elsewhere, skipping");
+            return;
+        }
+        YearMonth current = YearMonth.from(today);
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        if (retentionMonths > 0) {
+            removeExpiredPartitions(today.minusMonths(retentionMonths));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS %s PARTITION OF api_usage FOR VALUES FROM ('%s') TO ('%s')",
+                partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    private void removeExpiredPartitions(LocalDate retainFrom) {
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.plusMonths(1).atDay(1).isAfter(retainFrom)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE api_usage DETACH PARTITION " + partition);
+            if (dropExpired) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped expired api_usage partition {}", partition);
+            } else {
+                log.info("Detached expired api_usage partition {}", partition);
+            }
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return "api_usage_" + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -24,31 +24,42 @@ public interface ApiUsageRepository extends JpaRepository<ApiUsage, Long> {
     @Query("SELECT COALESCE(SUM(u.requestCount), 0) FROM ApiUsage u WHERE u.apiKey.id = :apiKeyId AND u.timestamp >= :startDate AND u.timestamp < :endDate")
     Long countRequestsBetween(@Param("apiKeyId") Long apiKeyId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT COALESCE(SUM(u.requestCount), 0) FROM ApiUsage u WHERE u.timestamp >= :since")
+    // api_usage is partitioned by month on timestamp; queries on it should bound timestamp so that
+    // partitions outside the range are pruned.
+
+    // Dashboard statistics below read the hourly rollup maintained by ApiUsageRollupAggregator,
+    // so they trail live traffic by the rollup lag and have hour granularity.
+
+    @Query("SELECT COALESCE(SUM(h.requestCount), 0) FROM ApiUsageHourly h WHERE h.hourStart >= :since")
     Long countTotalRequestsSince(@Param("since") LocalDateTime since);
 
-    @Query("SELECT new cz.intelis.legislativeenums.admin.EndpointStats(u.endpoint, SUM(u.requestCount), AVG(u.responseTimeMs)) " +
-           "FROM ApiUsage u WHERE u.timestamp >= :since " +
-           "GROUP BY u.endpoint ORDER BY SUM(u.requestCount) DESC LIMIT :limit")
+    @Query("SELECT new cz.intelis.legislativeenums.admin.EndpointStats(h.endpoint, SUM(h.requestCount), " +
+           "CAST(SUM(h.totalResponseTimeMs) AS Double) / NULLIF(SUM(h.timedRequestCount), 0)) " +
+           "FROM ApiUsageHourly h WHERE h.hourStart >= :since " +
+           "GROUP BY h.endpoint ORDER BY SUM(h.requestCount) DESC LIMIT :limit")
     List<EndpointStats> getTopEndpoints(@Param("since") LocalDateTime since, @Param("limit") int limit);
 
-    @Query("SELECT new cz.intelis.legislativeenums.admin.UserApiStats(u.apiKey.user.username, u.apiKey.user.email, SUM(u.requestCount)) " +
-           "FROM ApiUsage u WHERE u.timestamp >= :since " +
-           "GROUP BY u.apiKey.user.id, u.apiKey.user.username, u.apiKey.user.email ORDER BY SUM(u.requestCount) DESC LIMIT :limit")
+    @Query("SELECT new cz.intelis.legislativeenums.admin.UserApiStats(u.username, u.email, SUM(h.requestCount)) " +
+           "FROM ApiUsageHourly h JOIN ApiKey k ON k.id = h.apiKeyId JOIN k.user u WHERE h.hourStart >= :since " +
+           "GROUP BY u.id, u.username, u.email ORDER BY SUM(h.requestCount) DESC LIMIT :limit")
     List<UserApiStats> getTopUsers(@Param("since") LocalDateTime since, @Param("limit") int limit);
 
-    @Query("SELECT new cz.intelis.legislativeenums.admin.DailyRequestCount(CAST(u.timestamp AS LocalDate), SUM(u.requestCount)) " +
-           "FROM ApiUsage u WHERE u.timestamp >= :since " +
-           "GROUP BY CAST(u.timestamp AS LocalDate) ORDER BY CAST(u.timestamp AS LocalDate)")
+    @Query("SELECT new cz.intelis.legislativeenums.admin.DailyRequestCount(CAST(h.hourStart AS LocalDate), SUM(h.requestCount)) " +
+           "FROM ApiUsageHourly h WHERE h.hourStart >= :since " +
+           "GROUP BY CAST(h.hourStart AS LocalDate) ORDER BY CAST(h.hourStart AS LocalDate)")
     List<DailyRequestCount> getDailyRequestCounts(@Param("since") LocalDateTime since);
 
-    @Query("SELECT new cz.intelis.legislativeenums.admin.RecentRequest(u.timestamp, u.endpoint, u.apiKey.user.username, u.responseStatus, u.responseTimeMs, u.ipAddress) " +
-           "FROM ApiUsage u ORDER BY u.timestamp DESC LIMIT :limit")
-    List<RecentRequest> getRecentRequests(@Param("limit") int limit);
+    // Keyset page: requests older than (timestamp, id), newest first
+    @Query("SELECT new cz.intelis.legislativeenums.admin.RecentRequest(u.id, u.timestamp, u.endpoint, u.apiKey.user.username, u.responseStatus, u.responseTimeMs, u.ipAddress) " +
+           "FROM ApiUsage u WHERE u.timestamp >= :since " +
+           "AND (u.timestamp < :timestamp OR (u.timestamp = :timestamp AND u.id < :id)) " +
+           "ORDER BY u.timestamp DESC, u.id DESC LIMIT :limit")
+    List<RecentRequest> getRecentRequests(@Param("since") LocalDateTime since, @Param("timestamp") LocalDateTime timestamp,
+                                          @Param("id") long id, @Param("limit") int limit);
 
-    @Query("SELECT COALESCE(SUM(u.requestCount), 0) FROM ApiUsage u WHERE u.responseFormat = :format")
+    @Query("SELECT COALESCE(SUM(h.requestCount), 0) FROM ApiUsageHourly h WHERE h.responseFormat = :format")
     Long countByResponseFormat(@Param("format") String format);
 
-    @Query("SELECT COALESCE(SUM(u.requestCount), 0) FROM ApiUsage u WHERE u.responseFormat IS NOT NULL")
+    @Query("SELECT COALESCE(SUM(h.requestCount), 0) FROM ApiUsageHourly h WHERE h.responseFormat <> ''")
     Long countWithKnownFormat();
 }
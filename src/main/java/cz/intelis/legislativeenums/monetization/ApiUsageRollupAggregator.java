@@ -0,0 +1,106 @@
+package cz.intelis.legislativeenums.monetization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Incrementally folds raw api_usage rows into api_usage_hourly.
+ * Rows in [watermark, cutoff) are aggregated and upserted, then the watermark advances to cutoff,
+ * all in one transaction. The cutoff trails the clock by a configurable lag so that records still
+ * queued in {@link UsageWriter} land before their time range is aggregated; rows arriving later
+ * than that are not counted in the rollup.
+ * The watermark row is locked for the duration of a run, so only one replica aggregates at a time.
+ * On first run the watermark starts at the hour of the oldest api_usage row, and each run covers
+ * at most {@code max-window}, so a backfill proceeds in bounded steps.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+public class ApiUsageRollupAggregator {
+
+    static final String ROLLUP_NAME = "api_usage_hourly";
+
+    static final String LOCK_WATERMARK_SQL =
+            "SELECT watermark FROM usage_rollup_watermark WHERE name = ? FOR UPDATE";
+
+    static final String OLDEST_USAGE_HOUR_SQL =
+            "SELECT date_trunc('hour', MIN(timestamp)) FROM api_usage";
+
+    static final String UPSERT_SQL = "INSERT INTO api_usage_hourly (hour_start, api_key_id, endpoint, status_class, " +
+            "response_format, request_count, timed_request_count, total_response_time_ms, max_response_time_ms) " +
+            "SELECT date_trunc('hour', timestamp), api_key_id, endpoint, COALESCE(response_status / 100, 0), " +
+            "COALESCE(response_format, ''), SUM(request_count), COUNT(response_time_ms), " +
+            "COALESCE(SUM(response_time_ms), 0), MAX(response_time_ms) " +
+            "FROM api_usage WHERE timestamp >= ? AND timestamp < ? " +
+            "GROUP BY 1, 2, 3, 4, 5 " +
+            "ON CONFLICT (hour_start, api_key_id, endpoint, status_class, response_format) DO UPDATE SET " +
+            "request_count = api_usage_hourly.request_count + EXCLUDED.request_count, " +
+            "timed_request_count = api_usage_hourly.timed_request_count + EXCLUDED.timed_request_count, " +
+            "total_response_time_ms = api_usage_hourly.total_response_time_ms + EXCLUDED.total_response_time_ms, " +
+            "max_response_time_ms = GREATEST(api_usage_hourly.max_response_time_ms, EXCLUDED.max_response_time_ms)";
+
+    static final String UPDATE_WATERMARK_SQL =
+            "UPDATE usage_rollup_watermark SET watermark = ? WHERE name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration lag;
+    private final Duration maxWindow;
+
+    public ApiUsageRollupAggregator(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.usage.rollup.lag:2m}") Duration lag,
+                                    @Value("${app.usage.rollup.max-window:24h}") Duration maxWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lag = lag;
+        this.maxWindow = maxWindow;
+    }
+
+    /**
+     * Aggregates the next window of raw usage into the hourly rollup.
+     */
+    @Scheduled(fixedDelayString = "${app.usage.rollup.interval:PT1M}", initialDelayString = "${app.usage.rollup.interval:PT1M}")
+    @Transactional
+    public void aggregate() {
+        aggregate(LocalDateTime.now());
+    }
+
+    /**
+     * Aggregates raw usage from the watermark up to the lagged cutoff.
+     * Must run inside a transaction so that the watermark lock and the upsert commit together.
+     *
+     * @param now current time
+     * @return the new watermark, or null if there was nothing to aggregate
+     */
+    LocalDateTime aggregate(LocalDateTime now) {
+        LocalDateTime watermark = jdbcTemplate.queryForObject(LOCK_WATERMARK_SQL, LocalDateTime.class, ROLLUP_NAME);
+        if (watermark == null) {
+            watermark = jdbcTemplate.queryForObject(OLDEST_USAGE_HOUR_SQL, LocalDateTime.class);
+            if (watermark == null) {
+                return null;
+            }
+        }
+
+        LocalDateTime cutoff = now.minus(lag).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime windowEnd = watermark.plus(maxWindow);
+        if (windowEnd.isBefore(cutoff)) {
+            cutoff = windowEnd;
+        }
+        if (!cutoff.isAfter(watermark)) {
+            return null;
+        }
+
+        int rows = jdbcTemplate.update(UPSERT_SQL, Timestamp.valueOf(watermark), Timestamp.valueOf(cutoff));
+        jdbcTemplate.update(UPDATE_WATERMARK_SQL, Timestamp.valueOf(cutoff), ROLLUP_NAME);
+        log.debug("Rolled up api_usage [{}, {}) into {} hourly rows", watermark, cutoff, rows);
+        return cutoff;
+    }
+}
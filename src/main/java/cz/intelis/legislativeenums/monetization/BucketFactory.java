@@ -0,0 +1,24 @@
+package cz.intelis.legislativeenums.monetization;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+/**
+ * Creates rate limit buckets for API keys.
+ * The implementation is selected by {@code app.rate-limit.mode}:
+ * {@code local} keeps bucket state in the heap of each replica,
+ * {@code distributed} shares it between replicas through Postgres.
+ *
+ * @author Legislative Codelists Team
+ */
+public interface BucketFactory {
+
+    /**
+     * Creates the bucket of an API key.
+     *
+     * @param apiKeyId the API key ID
+     * @param configuration the bucket configuration of the key's tier
+     * @return bucket for the key
+     */
+    Bucket create(Long apiKeyId, BucketConfiguration configuration);
+}
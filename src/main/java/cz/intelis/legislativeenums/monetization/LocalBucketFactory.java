@@ -0,0 +1,27 @@
+package cz.intelis.legislativeenums.monetization;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates in-heap buckets. Each replica enforces the full quota on its own.
+ *
+ * @author Legislative Codelists Team
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.mode", havingValue = "local", matchIfMissing = true)
+public class LocalBucketFactory implements BucketFactory {
+
+    @Override
+    public Bucket create(Long apiKeyId, BucketConfiguration configuration) {
+        LocalBucketBuilder builder = Bucket.builder();
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            builder.addLimit(bandwidth);
+        }
+        return builder.build();
+    }
+}
@@ -1,50 +1,146 @@
 package cz.intelis.legislativeenums.monetization;
 
-import cz.intelis.legislativeenums.apikey.ApiKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import cz.intelis.legislativeenums.apikey.ApiKeyPrincipal;
 import io.github.bucket4j.*;
-import lombok.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.*;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
-@RequiredArgsConstructor
 public class MonetizationService {
     private final ApiUsageRepository apiUsageRepository;
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final UsageWriter usageWriter;
+    private final BucketFactory bucketFactory;
 
-    private static final long DEFAULT_REQUESTS_LIMIT = 1000;
-    private static final int DEFAULT_PERIOD_HOURS = 24;
+    /**
+     * Buckets keyed by API key ID, bounded in size. An idle bucket expires once a whole
+     * refill period of its tier has passed, i.e. when it would be full again anyway,
+     * so expiry never hands out extra quota. In distributed mode the entries are proxies
+     * whose state stays in the database.
+     */
+    private final Cache<Long, TieredBucket> buckets;
+
+    /** Shared immutable bucket configuration per limited tier; unlimited tiers have no entry. */
+    private final Map<RateLimitTier, BucketConfiguration> tierConfigurations = new EnumMap<>(RateLimitTier.class);
+
+    public MonetizationService(ApiUsageRepository apiUsageRepository, UsageWriter usageWriter, BucketFactory bucketFactory,
+                               RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+        this.apiUsageRepository = apiUsageRepository;
+        this.usageWriter = usageWriter;
+        this.bucketFactory = bucketFactory;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.getMaxBuckets())
+                .expireAfter(new IdleRefillExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate-limit-buckets");
+        for (RateLimitTier tier : RateLimitTier.values()) {
+            RateLimitProperties.PlanLimit limit = rateLimitProperties.forTier(tier);
+            if (!limit.isUnlimited()) {
+                tierConfigurations.put(tier, createConfiguration(limit));
+            }
+        }
+    }
 
     /**
      * Checks if an API key has not exceeded its rate limit.
      * Uses token bucket algorithm to enforce rate limits per API key.
+     * The limit is chosen from the key owner's usage plan carried by the principal,
+     * so no database lookup is needed. When the plan changes, the existing bucket is
+     * reconfigured in place: tokens already consumed in the current period stay consumed
+     * and the capacity difference is added to (or taken from) the remaining tokens.
      *
      * @param apiKey the API key to check
      * @return true if request is allowed, false if rate limit exceeded
      */
-    public boolean checkRateLimit(ApiKey apiKey) {
-        Bucket bucket = buckets.computeIfAbsent(apiKey.getApiKey(), k -> createBucket());
-        return bucket.tryConsume(1);
+    public boolean checkRateLimit(ApiKeyPrincipal apiKey) {
+        RateLimitTier tier = RateLimitTier.forPlan(apiKey.usagePlan());
+        BucketConfiguration configuration = tierConfigurations.get(tier);
+        if (configuration == null) {
+            // Unlimited tier, requests are only metered by recordUsage
+            return true;
+        }
+        TieredBucket entry = buckets.get(apiKey.keyId(), k -> createBucket(k, tier, configuration));
+        if (entry.tier() != tier) {
+            entry.bucket().replaceConfiguration(configuration, TokensInheritanceStrategy.ADDITIVE);
+            buckets.put(apiKey.keyId(), new TieredBucket(tier, entry.bucket(), refillPeriod(configuration)));
+        }
+        return entry.bucket().tryConsume(1);
+    }
+
+    /**
+     * Creates the bucket configuration for a plan limit.
+     * The whole quota is refilled at once at the end of each period.
+     *
+     * @param limit the plan limit
+     * @return bucket configuration shared by all buckets of the tier
+     */
+    private BucketConfiguration createConfiguration(RateLimitProperties.PlanLimit limit) {
+        Duration refillPeriod = Duration.ofHours(limit.getPeriodHours());
+        Bandwidth bandwidth = Bandwidth.classic(limit.getRequests(), Refill.intervally(limit.getRequests(), refillPeriod));
+        return BucketConfiguration.builder().addLimit(bandwidth).build();
+    }
+
+    private TieredBucket createBucket(Long apiKeyId, RateLimitTier tier, BucketConfiguration configuration) {
+        return new TieredBucket(tier, bucketFactory.create(apiKeyId, configuration), refillPeriod(configuration));
+    }
+
+    private static Duration refillPeriod(BucketConfiguration configuration) {
+        long nanos = 0;
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            nanos = Math.max(nanos, bandwidth.getRefillPeriodNanos());
+        }
+        return Duration.ofNanos(nanos);
+    }
+
+    /**
+     * Bucket together with the tier its configuration was built for.
+     */
+    private record TieredBucket(RateLimitTier tier, Bucket bucket, Duration refillPeriod) {
+    }
+
+    /**
+     * Expires a bucket after it has been idle for one refill period of its tier.
+     */
+    private static class IdleRefillExpiry implements Expiry<Long, TieredBucket> {
+        @Override
+        public long expireAfterCreate(Long key, TieredBucket value, long currentTime) {
+            return value.refillPeriod().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, TieredBucket value, long currentTime, long currentDuration) {
+            return value.refillPeriod().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(Long key, TieredBucket value, long currentTime, long currentDuration) {
+            return value.refillPeriod().toNanos();
+        }
     }
 
     /**
-     * Creates a new rate limit bucket with default limits.
-     * Default: 1000 requests per 24 hours.
+     * Gets the number of rate limit buckets currently held in memory.
+     * Pending evictions are processed first.
      *
-     * @return configured Bucket instance
+     * @return approximate bucket count
      */
-    private Bucket createBucket() {
-        Duration refillPeriod = Duration.ofHours(DEFAULT_PERIOD_HOURS);
-        Bandwidth limit = Bandwidth.classic(DEFAULT_REQUESTS_LIMIT, Refill.intervally(DEFAULT_REQUESTS_LIMIT, refillPeriod));
-        return Bucket.builder().addLimit(limit).build();
+    public long getBucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
     }
 
     /**
      * Records API usage statistics for an API request.
      * Captures endpoint, IP address, user agent, response status, and timing.
+     * The record is handed to the asynchronous {@link UsageWriter}; no database
+     * work happens on the request thread.
      *
      * @param apiKey the API key used for the request
      * @param endpoint the endpoint that was called
@@ -54,18 +150,9 @@ public class MonetizationService {
      * @param responseTime the response time in milliseconds
      * @param responseFormat the response format (JSON or XML)
      */
-    @Transactional
-    public void recordUsage(ApiKey apiKey, String endpoint, String ipAddress, String userAgent, Integer status, Long responseTime, String responseFormat) {
-        ApiUsage usage = new ApiUsage();
-        usage.setApiKey(apiKey);
-        usage.setEndpoint(endpoint);
-        usage.setRequestCount(1);
-        usage.setIpAddress(ipAddress);
-        usage.setUserAgent(userAgent);
-        usage.setResponseStatus(status);
-        usage.setResponseTimeMs(responseTime);
-        usage.setResponseFormat(responseFormat);
-        apiUsageRepository.save(usage);
+    public void recordUsage(ApiKeyPrincipal apiKey, String endpoint, String ipAddress, String userAgent, Integer status, Long responseTime, String responseFormat) {
+        usageWriter.enqueue(new UsageRecord(apiKey.keyId(), endpoint, LocalDateTime.now(),
+                ipAddress, userAgent, status, responseTime, responseFormat));
     }
 
     /**
@@ -84,5 +171,5 @@ public class MonetizationService {
      * Clears the rate limit bucket cache.
      * Should be called when rate limits are updated or for maintenance.
      */
-    public void clearBucketCache() { buckets.clear(); }
+    public void clearBucketCache() { buckets.invalidateAll(); }
 }
@@ -0,0 +1,54 @@
+package cz.intelis.legislativeenums.monetization;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.jdbc.BucketTableSettings;
+import io.github.bucket4j.distributed.jdbc.SQLProxyConfiguration;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.postgresql.PostgreSQLadvisoryLockBasedProxyManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Creates buckets whose state lives in the rate_limit_buckets table, so that all
+ * replicas share one quota per API key. Uses bucket4j's Postgres advisory-lock proxy manager
+ * on the application datasource.
+ * Consumption is pre-fetched locally: each replica may consume up to
+ * {@code max-unsynchronized-tokens} tokens (or for {@code max-unsynchronized-timeout})
+ * before synchronizing with the database, so most requests need no database round-trip.
+ * The worst-case overshoot of a quota is therefore that many tokens per replica.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.mode", havingValue = "distributed")
+public class PostgresBucketFactory implements BucketFactory {
+
+    static final String TABLE_NAME = "rate_limit_buckets";
+
+    private final RemoteBucketBuilder<Long> bucketBuilder;
+
+    public PostgresBucketFactory(DataSource dataSource, RateLimitProperties rateLimitProperties) {
+        SQLProxyConfiguration<Long> configuration = SQLProxyConfiguration.builder()
+                .withTableSettings(BucketTableSettings.customSettings(TABLE_NAME, "id", "state"))
+                .build(dataSource);
+        RateLimitProperties.Distributed distributed = rateLimitProperties.getDistributed();
+        this.bucketBuilder = new PostgreSQLadvisoryLockBasedProxyManager<Long>(configuration)
+                .builder()
+                .withOptimization(Optimizations.delaying(new DelayParameters(
+                        distributed.getMaxUnsynchronizedTokens(), distributed.getMaxUnsynchronizedTimeout())));
+        log.info("Distributed rate limiting enabled (table {}, up to {} unsynchronized tokens per replica)",
+                TABLE_NAME, distributed.getMaxUnsynchronizedTokens());
+    }
+
+    @Override
+    public Bucket create(Long apiKeyId, BucketConfiguration configuration) {
+        return bucketBuilder.build(apiKeyId, () -> configuration);
+    }
+}
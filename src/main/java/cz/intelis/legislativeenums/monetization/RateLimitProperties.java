@@ -0,0 +1,69 @@
+package cz.intelis.legislativeenums.monetization;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Rate limit settings per plan tier, bound from {@code app.rate-limit}.
+ *
+ * @author Legislative Codelists Team
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private PlanLimit free = new PlanLimit(100, 24);
+    private PlanLimit basic = new PlanLimit(10_000, 720);
+    private PlanLimit premium = new PlanLimit(100_000, 720);
+    private PlanLimit enterprise = new PlanLimit(0, 720);
+
+    /** Maximum number of per-key buckets kept in memory. */
+    private long maxBuckets = 100_000;
+
+    /** Bucket state storage: "local" (heap of each replica) or "distributed" (shared through Postgres). */
+    private String mode = "local";
+
+    private Distributed distributed = new Distributed();
+
+    /**
+     * Returns the configured limit of a tier.
+     *
+     * @param tier the rate limit tier
+     * @return the limit of the tier
+     */
+    public PlanLimit forTier(RateLimitTier tier) {
+        return switch (tier) {
+            case FREE -> free;
+            case BASIC -> basic;
+            case PREMIUM -> premium;
+            case ENTERPRISE -> enterprise;
+        };
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PlanLimit {
+        /** Requests allowed per period; zero or less means unlimited (usage is only metered). */
+        private long requests;
+        private int periodHours;
+
+        public boolean isUnlimited() {
+            return requests <= 0;
+        }
+    }
+
+    @Data
+    public static class Distributed {
+        /** Tokens a replica may consume locally before synchronizing with the database. */
+        private long maxUnsynchronizedTokens = 20;
+        /** Longest time local consumption may stay unsynchronized. */
+        private Duration maxUnsynchronizedTimeout = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,28 @@
+package cz.intelis.legislativeenums.monetization;
+
+import cz.intelis.legislativeenums.user.User;
+
+/**
+ * Rate limit tiers configured under {@code app.rate-limit}.
+ * Users without a usage plan fall into FREE; monthly and yearly subscriptions map to
+ * BASIC and PREMIUM; pay-per-request users are ENTERPRISE and are metered, not limited.
+ *
+ * @author Legislative Codelists Team
+ */
+public enum RateLimitTier {
+    FREE,
+    BASIC,
+    PREMIUM,
+    ENTERPRISE;
+
+    public static RateLimitTier forPlan(User.UsagePlan plan) {
+        if (plan == null) {
+            return FREE;
+        }
+        return switch (plan) {
+            case PER_MONTH -> BASIC;
+            case PER_YEAR -> PREMIUM;
+            case PER_REQUEST -> ENTERPRISE;
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package cz.intelis.legislativeenums.monetization;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable API usage event captured on the request thread
+ * and persisted asynchronously by {@link UsageWriter}.
+ *
+ * @author Legislative Codelists Team
+ */
+public record UsageRecord(Long apiKeyId, String endpoint, LocalDateTime timestamp, String ipAddress,
+                          String userAgent, Integer responseStatus, Long responseTimeMs, String responseFormat) {
+}
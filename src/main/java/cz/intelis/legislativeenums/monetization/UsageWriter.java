@@ -0,0 +1,247 @@
+package cz.intelis.legislativeenums.monetization;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind pipeline for API usage records.
+ * Request threads enqueue into a bounded lock-free queue; a single background
+ * writer drains it and inserts into api_usage with JDBC batches.
+ * When the queue is full new records are dropped and counted rather than blocking requests.
+ * Only a record the database rejects for its content (an integrity violation) is given up; on any
+ * other failure, such as a lost connection, the batch goes back to the head of the queue and the
+ * writer retries with an increasing delay. The queue is drained completely on shutdown.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+public class UsageWriter {
+
+    static final String INSERT_SQL = "INSERT INTO api_usage (api_key_id, endpoint, request_count, timestamp, " +
+            "ip_address, user_agent, response_status, response_time_ms, response_format) " +
+            "VALUES (?, ?, 1, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_ENDPOINT_LENGTH = 255;
+    private static final int MAX_USER_AGENT_LENGTH = 500;
+    private static final int MAX_IP_ADDRESS_LENGTH = 45;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+    private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+
+    private final Deque<UsageRecord> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    /** Flushes in a row that stopped because the database was unavailable. */
+    private volatile int failedFlushes;
+    private volatile boolean running;
+    private Thread worker;
+
+    public UsageWriter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                       @Value("${app.usage.queue-capacity:10000}") int capacity,
+                       @Value("${app.usage.batch-size:500}") int batchSize,
+                       @Value("${app.usage.flush-interval:1s}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        Gauge.builder("api.usage.queue.size", queueSize, AtomicInteger::get)
+                .description("API usage records waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("api.usage.records.written").register(meterRegistry);
+        this.droppedCounter = Counter.builder("api.usage.records.dropped")
+                .description("API usage records dropped because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("api.usage.records.failed")
+                .description("API usage records rejected by the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("usage-writer").daemon().start(this::run);
+    }
+
+    /**
+     * Enqueues a usage record without blocking.
+     *
+     * @param record the usage record
+     * @return false if the queue was full and the record was dropped
+     */
+    public boolean enqueue(UsageRecord record) {
+        if (queueSize.incrementAndGet() > capacity) {
+            queueSize.decrementAndGet();
+            droppedCounter.increment();
+            return false;
+        }
+        queue.offer(record);
+        if (queueSize.get() >= batchSize && failedFlushes == 0 && worker != null) {
+            LockSupport.unpark(worker);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of records waiting to be written.
+     *
+     * @return current queue depth
+     */
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    /**
+     * Gets the number of records dropped because the queue was full.
+     *
+     * @return dropped record count since startup
+     */
+    public long getDroppedCount() {
+        return (long) droppedCounter.count();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            worker.join(SHUTDOWN_TIMEOUT_MS);
+        }
+        flush();
+        if (!queue.isEmpty()) {
+            log.warn("Usage writer stopped with {} records not written", queueSize.get());
+        }
+        log.info("Usage writer stopped, {} records dropped since startup", getDroppedCount());
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(retryDelayNanos());
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Unexpected error while flushing API usage records", e);
+            }
+        }
+    }
+
+    /**
+     * Flush interval, doubled with every flush in a row that found the database unavailable.
+     */
+    private long retryDelayNanos() {
+        long interval = flushInterval.toNanos();
+        return failedFlushes == 0 ? interval : Math.min(interval << Math.min(failedFlushes, 16), MAX_RETRY_DELAY_NANOS);
+    }
+
+    /**
+     * Writes queued records in batches until the queue is empty or the database is unavailable.
+     *
+     * @return number of records taken from the queue
+     */
+    int flush() {
+        int total = 0;
+        List<UsageRecord> batch = new ArrayList<>(batchSize);
+        while (true) {
+            UsageRecord record;
+            while (batch.size() < batchSize && (record = queue.poll()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                failedFlushes = 0;
+                return total;
+            }
+            queueSize.addAndGet(-batch.size());
+            List<UsageRecord> unwritten = writeBatch(batch);
+            total += batch.size() - unwritten.size();
+            if (!unwritten.isEmpty()) {
+                requeue(unwritten);
+                failedFlushes++;
+                return total;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Puts unwritten records back to the head of the queue in their original order.
+     */
+    private void requeue(List<UsageRecord> records) {
+        for (int i = records.size() - 1; i >= 0; i--) {
+            queue.offerFirst(records.get(i));
+        }
+        queueSize.addAndGet(records.size());
+    }
+
+    /**
+     * Inserts a batch of records. Records the database rejects for their content are counted
+     * and given up; on any other failure the database is taken as unavailable.
+     *
+     * @return the records not written because the database is unavailable, in order
+     */
+    private List<UsageRecord> writeBatch(List<UsageRecord> batch) {
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, r) -> {
+                ps.setLong(1, r.apiKeyId());
+                ps.setString(2, truncate(r.endpoint(), MAX_ENDPOINT_LENGTH));
+                ps.setTimestamp(3, Timestamp.valueOf(r.timestamp()));
+                ps.setString(4, truncate(r.ipAddress(), MAX_IP_ADDRESS_LENGTH));
+                ps.setString(5, truncate(r.userAgent(), MAX_USER_AGENT_LENGTH));
+                ps.setObject(6, r.responseStatus(), Types.INTEGER);
+                ps.setObject(7, r.responseTimeMs(), Types.BIGINT);
+                ps.setString(8, r.responseFormat());
+            });
+            writtenCounter.increment(batch.size());
+            log.debug("Wrote {} API usage records in {} ms", batch.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return List.of();
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                failedCounter.increment();
+                return List.of();
+            }
+            // One bad row (e.g. a key deleted meanwhile) must not lose the whole batch
+            log.warn("Batch insert of {} API usage records failed, retrying row by row: {}", batch.size(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                if (!writeBatch(List.of(batch.get(i))).isEmpty()) {
+                    return batch.subList(i, batch.size());
+                }
+            }
+            return List.of();
+        } catch (DataAccessException e) {
+            log.warn("Failed to write {} API usage records, keeping them for retry: {}", batch.size(), e.getMessage());
+            return batch;
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
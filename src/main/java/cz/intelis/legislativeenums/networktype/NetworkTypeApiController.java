@@ -1,14 +1,24 @@
 package cz.intelis.legislativeenums.networktype;
 
+import cz.intelis.legislativeenums.audit.CodelistHistoryService;
+import cz.intelis.legislativeenums.snapshot.CachedResponse;
+import cz.intelis.legislativeenums.snapshot.CodeBatchRequest;
+import cz.intelis.legislativeenums.snapshot.CodeBatchResult;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
+import cz.intelis.legislativeenums.snapshot.SnapshotCodelist;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,24 +31,36 @@ import java.util.List;
 @RestController
 @RequestMapping(value = "/api/v1/network-types", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
 @RequiredArgsConstructor
+@SnapshotCodelist(NetworkTypeService.CODELIST_CODE)
 @Tag(name = "Network Types", description = "API for managing network type classifications")
 public class NetworkTypeApiController {
 
     private final NetworkTypeService networkTypeService;
+    private final CodelistSnapshotStore snapshotStore;
+    private final CodelistHistoryService codelistHistory;
 
     /**
      * Retrieves all network types, optionally filtered by validity status.
      *
      * @param validOnly if true, returns only currently valid network types (default: true)
+     * @param asOf if set, returns the items valid on this date instead
+     * @param at if set, returns the items as they were at this time
      * @return list of network types as DTOs
      */
     @GetMapping
-    @Operation(summary = "Get all network types", description = "Returns list of network types. By default returns only currently valid items (validOnly=true). Set validOnly=false to get all items.")
+    @Operation(summary = "Get all network types", description = "Returns list of network types. By default returns only currently valid items (validOnly=true). Set validOnly=false to get all items. Set asOf=YYYY-MM-DD to get the items valid on that date. Set at=YYYY-MM-DDTHH:MM:SS to get the items as they were at that time, reconstructed from the audit log.")
+    @CachedResponse
     public ResponseEntity<List<NetworkTypeDTO>> findAll(
-            @RequestParam(required = false, defaultValue = "true") boolean validOnly) {
-        List<NetworkTypeDTO> result = validOnly
-            ? networkTypeService.findAllCurrentlyValid()
-            : networkTypeService.findAll();
+            @RequestParam(required = false, defaultValue = "true") boolean validOnly,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        if (at != null) {
+            return ResponseEntity.ok(codelistHistory.itemsAt(NetworkTypeService.CODELIST_CODE,
+                    at, NetworkTypeDTO.class));
+        }
+        CodelistSnapshot<NetworkTypeDTO> snapshot = snapshot();
+        List<NetworkTypeDTO> result = asOf != null ? snapshot.validOn(asOf)
+                : validOnly ? snapshot.currentlyValid() : snapshot.all();
         return ResponseEntity.ok(result);
     }
 
@@ -51,19 +73,48 @@ public class NetworkTypeApiController {
     @GetMapping("/{id}")
     @Operation(summary = "Get network type by ID", description = "Returns a single network type classification by its unique identifier")
     public ResponseEntity<NetworkTypeDTO> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(networkTypeService.findById(id));
+        return ResponseEntity.ok(snapshot().findById(id).orElseGet(() -> networkTypeService.findById(id)));
     }
 
     /**
      * Retrieves a network type by its unique code.
      *
      * @param code the network type code
+     * @param asOf if set, the item must be valid on this date
      * @return the network type as DTO
      */
     @GetMapping("/code/{code}")
     @Operation(summary = "Get network type by code", description = "Returns a single network type by its unique code (e.g., PAP, OKR, MRI)")
-    public ResponseEntity<NetworkTypeDTO> findByCode(@PathVariable String code) {
-        return ResponseEntity.ok(networkTypeService.findByCode(code));
+    public ResponseEntity<NetworkTypeDTO> findByCode(@PathVariable String code,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        NetworkTypeDTO item = snapshot().findByCode(code).orElseGet(() -> networkTypeService.findByCode(code));
+        return ResponseEntity.ok(CodelistSnapshot.requireValidOn(item, asOf));
+    }
+
+    /**
+     * Checks whether a network type with the given code exists, without transferring it.
+     *
+     * @param code the network type code
+     * @param asOf if set, the network type must be valid on this date
+     * @return HTTP 200 if it exists, HTTP 404 otherwise
+     */
+    @RequestMapping(value = "/code/{code}", method = RequestMethod.HEAD)
+    @Operation(summary = "Check network type existence by code", description = "Returns 200 if a network type with the code exists (and is valid on asOf, if given), 404 otherwise. No body is sent.")
+    public ResponseEntity<Void> existsByCode(@PathVariable String code,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return snapshot().containsCode(code, asOf) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Retrieves network types by a batch of codes.
+     *
+     * @param request the codes to look up
+     * @return the network types found and the codes that do not exist
+     */
+    @PostMapping("/codes:batchGet")
+    @Operation(summary = "Get network types by codes", description = "Resolves up to " + CodeBatchRequest.MAX_CODES + " codes in one request. Codes that do not exist are listed in missing.")
+    public ResponseEntity<CodeBatchResult<NetworkTypeDTO>> findByCodes(@Valid @RequestBody CodeBatchRequest request) {
+        return ResponseEntity.ok(snapshot().findByCodes(request.getCodes()));
     }
 
     /**
@@ -103,4 +154,8 @@ public class NetworkTypeApiController {
         networkTypeService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private CodelistSnapshot<NetworkTypeDTO> snapshot() {
+        return snapshotStore.get(NetworkTypeService.CODELIST_CODE);
+    }
 }
@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.networktype;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,26 +21,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class NetworkTypeService {
+public class NetworkTypeService implements CodelistSnapshotSource<NetworkTypeDTO> {
 
     private static final String CODELIST_NAME = "Typy sítí";
-    private static final String CODELIST_CODE = "NETWORK_TYPE";
+    static final String CODELIST_CODE = "NETWORK_TYPE";
 
     private final NetworkTypeRepository networkTypeRepository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all network types ordered by sort order and code.
      *
      * @return list of all network types as DTOs
      */
+    @Override
     public List<NetworkTypeDTO> findAll() {
         return networkTypeRepository.findAllOrdered().stream()
             .map(NetworkTypeDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return networkTypeRepository.findAllOrdered().stream()
+            .collect(Collectors.toMap(NetworkType::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid network types.
      * A record is valid if current date is within validFrom-validTo range.
@@ -6,5 +6,10 @@ package cz.intelis.legislativeenums.notification;
 public enum ChangeType {
     INSERT,
     UPDATE,
-    DELETE
+    DELETE,
+    /**
+     * Items became valid or stopped being valid because a validFrom/validTo date was reached,
+     * without any write. Published by the application itself, without entity details.
+     */
+    VALIDITY
 }
@@ -6,7 +6,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
@@ -27,14 +29,21 @@ public class NotificationController {
     /**
      * Subscribe to real-time notifications via SSE.
      * Connection stays open and receives events for all codelist changes.
+     * A reconnecting client first receives the notifications it missed.
      *
+     * @param lastEventIdHeader id of the last received notification, sent by EventSource on reconnect
+     * @param lastEventId       the same id for clients that reconnect on their own
      * @return SSE emitter for receiving notifications
      */
     @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @Operation(summary = "Subscribe to notifications",
-               description = "Opens an SSE connection to receive real-time notifications about codelist changes")
-    public SseEmitter subscribe() {
-        return notificationService.createEmitter();
+               description = "Opens an SSE connection to receive real-time notifications about codelist changes. " +
+                       "Every notification has an event id; a client reconnecting with Last-Event-ID (header or " +
+                       "lastEventId parameter) first receives the notifications it missed, or a 'resync' event " +
+                       "when they are no longer kept and it has to reload the codelists")
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                @RequestParam(value = "lastEventId", required = false) String lastEventId) {
+        return notificationService.createEmitter(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
     }
 
     /**
@@ -33,16 +33,18 @@ public class NotificationDTO {
     private String messageEn;
 
     public static NotificationDTO fromEvent(CodelistChangeEvent event) {
-        String actionCs = switch (event.getChangeType()) {
-            case INSERT -> "přidán";
-            case UPDATE -> "upraven";
-            case DELETE -> "smazán";
+        String messageCs = switch (event.getChangeType()) {
+            case INSERT -> entityMessage(event, "byl přidán");
+            case UPDATE -> entityMessage(event, "byl upraven");
+            case DELETE -> entityMessage(event, "byl smazán");
+            case VALIDITY -> event.getCodelistName() + ": změnila se platnost položek";
         };
 
-        String actionEn = switch (event.getChangeType()) {
-            case INSERT -> "added";
-            case UPDATE -> "updated";
-            case DELETE -> "deleted";
+        String messageEn = switch (event.getChangeType()) {
+            case INSERT -> entityMessage(event, "was added");
+            case UPDATE -> entityMessage(event, "was updated");
+            case DELETE -> entityMessage(event, "was deleted");
+            case VALIDITY -> event.getCodelistName() + ": validity of items changed";
         };
 
         return NotificationDTO.builder()
@@ -55,10 +57,13 @@ public class NotificationDTO {
                 .entityName(event.getEntityName())
                 .changedBy(event.getChangedBy())
                 .timestamp(event.getOccurredAt())
-                .messageCs(String.format("%s: %s (%s) byl %s",
-                        event.getCodelistName(), event.getEntityName(), event.getEntityCode(), actionCs))
-                .messageEn(String.format("%s: %s (%s) was %s",
-                        event.getCodelistName(), event.getEntityName(), event.getEntityCode(), actionEn))
+                .messageCs(messageCs)
+                .messageEn(messageEn)
                 .build();
     }
+
+    private static String entityMessage(CodelistChangeEvent event, String action) {
+        return String.format("%s: %s (%s) %s",
+                event.getCodelistName(), event.getEntityName(), event.getEntityCode(), action);
+    }
 }
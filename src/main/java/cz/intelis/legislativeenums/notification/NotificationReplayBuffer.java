@@ -0,0 +1,264 @@
+package cz.intelis.legislativeenums.notification;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Recent notification frames kept for clients that reconnect with a Last-Event-ID.
+ * Every notification gets an increasing id and is kept in a bounded in-memory ring; a client whose
+ * last event is still covered gets everything after it, otherwise it has to resynchronize.
+ * Ids of the in-memory ring start at the startup time in milliseconds, so that ids from a previous
+ * run are never mistaken for current ones. Optionally every notification is also stored in
+ * notification_event; ids then come from its sequence, continue across restarts and replicas, and
+ * gaps older than the ring are replayed from the table until the rows expire. A notification that
+ * cannot be stored is replaced by a resync event, and clients that may have missed it resynchronize.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+public class NotificationReplayBuffer {
+
+    static final String INSERT_SQL = "INSERT INTO notification_event (event_name, payload, created_at) " +
+            "VALUES (?, CAST(? AS jsonb), ?) RETURNING id";
+
+    static final String HORIZON_SQL = "SELECT MIN(id) - 1 FROM notification_event";
+
+    static final String SINCE_SQL = "SELECT id, event_name, CAST(payload AS TEXT) AS payload FROM notification_event " +
+            "WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+
+    static final String PURGE_SQL = "DELETE FROM notification_event WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean tableEnabled;
+    private final Duration tableRetention;
+    private final int tableMaxReplay;
+    private final Entry[] ring;
+
+    /** Number of entries ever appended. */
+    private long appended;
+    /** Id of the newest entry that is no longer in the ring, or the id ids start after. */
+    private long horizonId;
+    private long newestId;
+    /** Newest id before a notification that could not be stored; clients that received no later id resync. */
+    private long resyncThroughId = Long.MIN_VALUE;
+    /** Number of notifications that could not be stored. */
+    private long failedAppends;
+
+    public NotificationReplayBuffer(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.notifications.replay.capacity:1000}") int capacity,
+                                    @Value("${app.notifications.replay.table.enabled:false}") boolean tableEnabled,
+                                    @Value("${app.notifications.replay.table.retention:7d}") Duration tableRetention,
+                                    @Value("${app.notifications.replay.table.max-replay:10000}") int tableMaxReplay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableEnabled = tableEnabled;
+        this.tableRetention = tableRetention;
+        this.tableMaxReplay = tableMaxReplay;
+        this.ring = new Entry[capacity];
+        this.horizonId = System.currentTimeMillis();
+        this.newestId = horizonId;
+    }
+
+    /**
+     * Continues the ids of the table, whose older rows are replayed from there.
+     */
+    @PostConstruct
+    synchronized void start() {
+        if (tableEnabled) {
+            Long lastId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM notification_event", Long.class);
+            horizonId = lastId != null ? lastId : 0;
+            newestId = horizonId;
+        }
+    }
+
+    /**
+     * Assigns the next id to a notification and keeps its frame.
+     * When the notification cannot be stored in the table, it gets no id, which could collide with
+     * ids assigned later by the table; the returned entry then carries a resync frame instead.
+     *
+     * @param eventName SSE event name
+     * @param json      notification serialized as JSON
+     * @return the kept entry with the frame to broadcast
+     */
+    public synchronized Entry append(String eventName, String json) {
+        long id;
+        if (tableEnabled) {
+            Optional<Long> stored = insert(eventName, json);
+            if (stored.isEmpty()) {
+                resyncThroughId = newestId;
+                failedAppends++;
+                return new Entry(newestId, frame(newestId, NotificationService.RESYNC_EVENT,
+                        NotificationService.RESYNC_DATA));
+            }
+            id = stored.get();
+        } else {
+            id = newestId + 1;
+        }
+        Entry entry = new Entry(id, frame(id, eventName, json));
+        int slot = (int) (appended % ring.length);
+        if (ring[slot] != null) {
+            horizonId = ring[slot].id();
+        }
+        ring[slot] = entry;
+        appended++;
+        newestId = id;
+        return entry;
+    }
+
+    private Optional<Long> insert(String eventName, String json) {
+        try {
+            return Optional.ofNullable(jdbcTemplate.queryForObject(INSERT_SQL, Long.class, eventName, json,
+                    Timestamp.valueOf(LocalDateTime.now())));
+        } catch (DataAccessException e) {
+            log.warn("Failed to store notification for replay, clients will resync: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Gets the id of the newest notification.
+     *
+     * @return newest id
+     */
+    public synchronized long getNewestId() {
+        return newestId;
+    }
+
+    /**
+     * Gets the number of notifications that could not be stored and were replaced by a resync event.
+     *
+     * @return number of failed appends
+     */
+    public synchronized long getFailedAppends() {
+        return failedAppends;
+    }
+
+    /**
+     * Gets the frames of the notifications after the given one.
+     *
+     * @param lastEventId id of the last notification the client received
+     * @return frames to replay, oldest first; empty if the gap is not covered and the client has to resynchronize
+     */
+    public Optional<List<Set<DataWithMediaType>>> since(long lastEventId) {
+        return since(lastEventId, getNewestId());
+    }
+
+    /**
+     * Gets the frames of the notifications after the given one up to another one.
+     * A gap older than the ring is read from the table without holding the buffer, so appends do not wait for it.
+     *
+     * @param lastEventId id of the last notification the client received
+     * @param throughId   id of the newest notification to replay
+     * @return frames to replay, oldest first; empty if the gap is not covered and the client has to resynchronize
+     */
+    public Optional<List<Set<DataWithMediaType>>> since(long lastEventId, long throughId) {
+        synchronized (this) {
+            if (lastEventId > newestId || lastEventId <= resyncThroughId) {
+                return Optional.empty();
+            }
+            if (lastEventId >= horizonId) {
+                return Optional.of(fromRing(lastEventId, throughId));
+            }
+        }
+        return tableEnabled ? sinceFromTable(lastEventId, throughId) : Optional.empty();
+    }
+
+    /**
+     * Gets the frames of the notifications after the given one from memory only, never reading the table.
+     *
+     * @param lastEventId id of the last notification the client received
+     * @return frames to replay, oldest first; empty if the ring no longer covers the gap
+     */
+    public synchronized Optional<List<Set<DataWithMediaType>>> recentSince(long lastEventId) {
+        if (lastEventId < horizonId || lastEventId > newestId) {
+            return Optional.empty();
+        }
+        return Optional.of(fromRing(lastEventId, newestId));
+    }
+
+    private List<Set<DataWithMediaType>> fromRing(long lastEventId, long throughId) {
+        List<Set<DataWithMediaType>> frames = new ArrayList<>();
+        long retained = Math.min(appended, ring.length);
+        for (long i = appended - retained; i < appended; i++) {
+            Entry entry = ring[(int) (i % ring.length)];
+            if (entry.id() > lastEventId && entry.id() <= throughId) {
+                frames.add(entry.frame());
+            }
+        }
+        return frames;
+    }
+
+    private Optional<List<Set<DataWithMediaType>>> sinceFromTable(long lastEventId, long throughId) {
+        try {
+            Long tableHorizon = jdbcTemplate.queryForObject(HORIZON_SQL, Long.class);
+            if (tableHorizon == null || lastEventId < tableHorizon) {
+                return Optional.empty();
+            }
+            // A longer gap is cheaper to resynchronize
+            List<Set<DataWithMediaType>> frames = jdbcTemplate.query(SINCE_SQL,
+                    (rs, rowNum) -> frame(rs.getLong("id"), rs.getString("event_name"), rs.getString("payload")),
+                    lastEventId, throughId, tableMaxReplay + 1);
+            return frames.size() > tableMaxReplay ? Optional.empty() : Optional.of(frames);
+        } catch (DataAccessException e) {
+            log.warn("Failed to read notifications for replay: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Deletes stored notifications past retention.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.replay.table.purge-interval:PT1H}",
+            initialDelayString = "${app.notifications.replay.table.purge-interval:PT1H}")
+    public void purge() {
+        if (!tableEnabled) {
+            return;
+        }
+        int deleted = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now().minus(tableRetention)));
+        if (deleted > 0) {
+            log.debug("Purged {} stored notifications", deleted);
+        }
+    }
+
+    /**
+     * Builds a complete SSE frame with already serialized JSON data.
+     *
+     * @param id        event id, null for an event that leaves the client's last event id unchanged
+     * @param eventName SSE event name
+     * @param json      JSON data
+     * @return the frame, to be sent as is
+     */
+    static Set<DataWithMediaType> frame(Long id, String eventName, String json) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event();
+        if (id != null) {
+            event.id(String.valueOf(id));
+        }
+        return Collections.unmodifiableSet(event.name(eventName).data(json, MediaType.APPLICATION_JSON).build());
+    }
+
+    /**
+     * A kept notification.
+     *
+     * @param id    event id
+     * @param frame SSE frame carrying the id
+     */
+    public record Entry(long id, Set<DataWithMediaType> frame) {
+    }
+}
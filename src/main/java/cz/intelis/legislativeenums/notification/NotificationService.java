@@ -1,64 +1,206 @@
 package cz.intelis.legislativeenums.notification;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service for managing real-time notifications via Server-Sent Events (SSE).
  * Listens to CodelistChangeEvents and broadcasts notifications to all connected clients.
+ * A notification is serialized once into an SSE frame shared by all clients. Every client has a
+ * bounded queue of frames, drained by a pool of sender threads, so a broadcast only enqueues and
+ * a slow client delays nobody but itself. A client whose queue is full is disconnected, or with
+ * {@link SlowClientPolicy#DROP_OLDEST} loses its oldest undelivered frame.
+ * A client that stops reading blocks its sender inside {@code send} until the servlet container's
+ * write timeout fails the write; there is no portable way to abort it sooner. A send running past
+ * the send timeout therefore disconnects the client and lends the pool an extra sender thread until
+ * the blocked one returns, so stalled clients never hold up the sender threads of the others.
+ * Notifications carry SSE ids from the {@link NotificationReplayBuffer}; a client reconnecting with
+ * a Last-Event-ID first gets the notifications it missed, or a resync event when they are no longer kept.
  */
 @Service
 @Slf4j
 public class NotificationService {
 
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    /**
+     * What happens to a client that does not keep up with the notifications.
+     */
+    public enum SlowClientPolicy {
+        /** Disconnect the client; browsers reconnect on their own. */
+        DISCONNECT,
+        /** Keep the client, dropping the oldest frame it has not received yet. */
+        DROP_OLDEST
+    }
+
+    static final String CHANGE_EVENT = "codelist-change";
+    static final String CONNECTED_EVENT = "connected";
+    static final String RESYNC_EVENT = "resync";
+
+    private static final String CONNECTED_DATA = "{\"status\":\"connected\"}";
+    static final String RESYNC_DATA = "{\"status\":\"resync-required\"}";
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ObjectMapper objectMapper;
+    private final NotificationReplayBuffer replayBuffer;
+    private final int queueCapacity;
+    private final SlowClientPolicy slowClientPolicy;
+    private final Executor sender;
+    private final long sendTimeoutNanos;
+    private final Counter droppedCounter;
+
+    /** Keeps id assignment, fan-out and the subscription of new clients in one order. */
+    private final Object broadcastLock = new Object();
+
+    @Autowired
+    public NotificationService(ObjectMapper objectMapper, NotificationReplayBuffer replayBuffer,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.notifications.client-queue-capacity:64}") int queueCapacity,
+                               @Value("${app.notifications.slow-client-policy:DISCONNECT}") SlowClientPolicy slowClientPolicy,
+                               @Value("${app.notifications.sender-threads:8}") int senderThreads,
+                               @Value("${app.notifications.send-timeout:10s}") Duration sendTimeout) {
+        // Platform threads: SseEmitter sends while holding its monitor, which would pin a virtual thread
+        this(objectMapper, replayBuffer, meterRegistry, queueCapacity, slowClientPolicy,
+                Executors.newFixedThreadPool(senderThreads, Thread.ofPlatform().name("sse-sender-", 0).daemon().factory()),
+                sendTimeout);
+    }
+
+    NotificationService(ObjectMapper objectMapper, NotificationReplayBuffer replayBuffer, MeterRegistry meterRegistry,
+                        int queueCapacity, SlowClientPolicy slowClientPolicy, Executor sender, Duration sendTimeout) {
+        this.objectMapper = objectMapper;
+        this.replayBuffer = replayBuffer;
+        this.queueCapacity = queueCapacity;
+        this.slowClientPolicy = slowClientPolicy;
+        this.sender = sender;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.droppedCounter = Counter.builder("notifications.frames.dropped")
+                .description("Notifications not delivered to a client that did not keep up")
+                .tag("policy", slowClientPolicy.name())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
 
     /**
      * Creates a new SSE emitter for a client connection.
      * The emitter will receive all codelist change notifications.
      *
+     * @param lastEventId id of the last notification a reconnecting client received, null for a new client
      * @return configured SseEmitter
      */
-    public SseEmitter createEmitter() {
+    public SseEmitter createEmitter(String lastEventId) {
         SseEmitter emitter = new SseEmitter(Long.MAX_VALUE); // No timeout
+        register(emitter, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Subscribes an emitter to the notifications and sends it the initial connection event,
+     * followed by the notifications it missed if it reconnects.
+     *
+     * @param emitter     the client's emitter
+     * @param lastEventId id of the last notification the client received, null for a new client
+     */
+    void register(SseEmitter emitter, String lastEventId) {
+        // The replay may read the table, so it runs outside the lock;
+        // only the notifications broadcast meanwhile are added under it
+        long failedAppends = replayBuffer.getFailedAppends();
+        long throughId = replayBuffer.getNewestId();
+        List<Set<DataWithMediaType>> frames = initialFrames(lastEventId, throughId);
+        Subscriber subscriber;
+        synchronized (broadcastLock) {
+            Optional<List<Set<DataWithMediaType>>> broadcast = replayBuffer.getFailedAppends() == failedAppends
+                    ? replayBuffer.recentSince(throughId) : Optional.empty();
+            if (broadcast.isPresent()) {
+                frames.addAll(broadcast.get());
+            } else {
+                frames.add(NotificationReplayBuffer.frame(replayBuffer.getNewestId(), RESYNC_EVENT, RESYNC_DATA));
+            }
+            subscriber = new Subscriber(emitter, frames);
+            subscribers.add(subscriber);
+        }
 
         emitter.onCompletion(() -> {
             log.debug("SSE connection completed");
-            emitters.remove(emitter);
+            subscribers.remove(subscriber);
         });
 
         emitter.onTimeout(() -> {
             log.debug("SSE connection timed out");
             emitter.complete();
-            emitters.remove(emitter);
+            subscribers.remove(subscriber);
         });
 
         emitter.onError(e -> {
             log.debug("SSE connection error: {}", e.getMessage());
-            emitters.remove(emitter);
+            subscribers.remove(subscriber);
         });
 
-        emitters.add(emitter);
-        log.info("New SSE client connected. Total clients: {}", emitters.size());
+        log.info("New SSE client connected. Total clients: {}", subscribers.size());
+        subscriber.schedule();
+    }
 
-        // Send initial connection event
-        try {
-            emitter.send(SseEmitter.event()
-                    .name("connected")
-                    .data("{\"status\":\"connected\"}"));
-        } catch (IOException e) {
-            log.error("Failed to send initial SSE event", e);
-            emitters.remove(emitter);
+    /**
+     * Frames a client gets on connection, up to the given notification. A new client learns that id from
+     * the connection event; for a reconnecting client the connection event carries no id, so that the
+     * client's last event id only advances with the replayed notifications.
+     */
+    private List<Set<DataWithMediaType>> initialFrames(String lastEventId, long throughId) {
+        List<Set<DataWithMediaType>> frames = new ArrayList<>();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            frames.add(NotificationReplayBuffer.frame(throughId, CONNECTED_EVENT, CONNECTED_DATA));
+            return frames;
         }
+        frames.add(NotificationReplayBuffer.frame(null, CONNECTED_EVENT, CONNECTED_DATA));
+        Optional<List<Set<DataWithMediaType>>> missed = parseId(lastEventId)
+                .flatMap(id -> replayBuffer.since(id, throughId));
+        if (missed.isPresent()) {
+            frames.addAll(missed.get());
+            log.debug("Replaying {} notifications after event {}", missed.get().size(), lastEventId);
+        } else {
+            frames.add(NotificationReplayBuffer.frame(throughId, RESYNC_EVENT, RESYNC_DATA));
+            log.debug("Notifications after event {} are no longer kept, client has to resync", lastEventId);
+        }
+        return frames;
+    }
 
-        return emitter;
+    private static Optional<Long> parseId(String lastEventId) {
+        try {
+            return Optional.of(Long.parseLong(lastEventId.trim()));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
     }
 
     /**
@@ -75,24 +217,60 @@ public class NotificationService {
                 event.getCodelistName(), event.getChangeType(),
                 event.getEntityCode(), event.getEntityName());
 
-        List<SseEmitter> deadEmitters = new CopyOnWriteArrayList<>();
-
-        for (SseEmitter emitter : emitters) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("codelist-change")
-                        .data(notification));
-            } catch (IOException e) {
-                log.debug("Failed to send to emitter, marking for removal");
-                deadEmitters.add(emitter);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize notification", e);
+            return;
+        }
+        synchronized (broadcastLock) {
+            Set<DataWithMediaType> frame = replayBuffer.append(CHANGE_EVENT, json).frame();
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(frame);
             }
         }
+    }
+
+    /**
+     * Disconnects the clients whose send has been blocked for longer than the send timeout.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.stall-check-interval:PT1S}")
+    public void disconnectStalledClients() {
+        disconnectStalledClients(System.nanoTime());
+    }
 
-        emitters.removeAll(deadEmitters);
+    /**
+     * Disconnects the clients whose send started more than the send timeout before the given time.
+     *
+     * @param now current {@link System#nanoTime()}
+     * @return number of clients disconnected
+     */
+    int disconnectStalledClients(long now) {
+        int disconnected = 0;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.abandonIfStalled(now)) {
+                disconnected++;
+            }
+        }
+        return disconnected;
+    }
 
-        if (!deadEmitters.isEmpty()) {
-            log.debug("Removed {} dead emitters. Active emitters: {}",
-                    deadEmitters.size(), emitters.size());
+    /**
+     * Adds a sender thread in place of one blocked by a stalled client, or removes it again.
+     */
+    private void resizeSender(int delta) {
+        if (sender instanceof ThreadPoolExecutor pool) {
+            synchronized (pool) {
+                // The core size must never exceed the maximum
+                if (delta > 0) {
+                    pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+                    pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+                } else {
+                    pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+                    pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+                }
+            }
         }
     }
 
@@ -102,6 +280,123 @@ public class NotificationService {
      * @return number of connected clients
      */
     public int getConnectedClientsCount() {
-        return emitters.size();
+        return subscribers.size();
+    }
+
+    /**
+     * A connected client with its queue of frames waiting to be sent.
+     * At most one sender thread drains the queue at a time.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closing;
+        // Guarded by this: the running send, and whether the client was given up on while it ran
+        private boolean sending;
+        private long sendStarted;
+        private boolean abandoned;
+
+        /**
+         * Creates a subscriber whose queue starts with the initial frames, which do not count
+         * against the capacity left for notifications.
+         */
+        private Subscriber(SseEmitter emitter, List<Set<DataWithMediaType>> initialFrames) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity + initialFrames.size(), false, initialFrames);
+        }
+
+        /**
+         * Queues a frame and makes sure a sender drains the queue. Never blocks.
+         */
+        void enqueue(Set<DataWithMediaType> frame) {
+            if (closing) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                droppedCounter.increment();
+                if (slowClientPolicy == SlowClientPolicy.DROP_OLDEST) {
+                    queue.poll();
+                    queue.offer(frame);
+                } else {
+                    log.debug("SSE client does not keep up, disconnecting");
+                    close();
+                }
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                Set<DataWithMediaType> frame;
+                while (!closing && (frame = queue.poll()) != null) {
+                    startSend();
+                    try {
+                        emitter.send(frame);
+                    } catch (IOException | IllegalStateException e) {
+                        log.debug("Failed to send to emitter, removing it");
+                        close();
+                    } finally {
+                        endSend();
+                    }
+                }
+                if (closing) {
+                    // Completed here rather than by the broadcaster, which must not wait for the emitter's lock
+                    queue.clear();
+                    emitter.complete();
+                    return;
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        /**
+         * Disconnects the client if its send has been running for longer than the send timeout,
+         * adding a sender thread for the others while this one stays blocked.
+         *
+         * @param now current {@link System#nanoTime()}
+         * @return whether the client was disconnected
+         */
+        synchronized boolean abandonIfStalled(long now) {
+            if (!sending || abandoned || now - sendStarted <= sendTimeoutNanos) {
+                return false;
+            }
+            log.warn("SSE client has not accepted a notification for {} s, disconnecting",
+                    Duration.ofNanos(now - sendStarted).toSeconds());
+            abandoned = true;
+            close();
+            resizeSender(1);
+            return true;
+        }
+
+        private synchronized void startSend() {
+            sending = true;
+            sendStarted = System.nanoTime();
+        }
+
+        private synchronized void endSend() {
+            sending = false;
+            if (abandoned) {
+                // The blocked send returned and the drain ends, the extra sender thread is no longer needed
+                resizeSender(-1);
+            }
+        }
+
+        private void close() {
+            closing = true;
+            subscribers.remove(this);
+        }
     }
 }
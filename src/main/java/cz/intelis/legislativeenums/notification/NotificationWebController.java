@@ -4,7 +4,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
@@ -22,11 +24,14 @@ public class NotificationWebController {
     /**
      * Subscribe to real-time notifications via SSE for web users.
      *
+     * @param lastEventIdHeader id of the last received notification, sent by EventSource on reconnect
+     * @param lastEventId       the same id, passed by the page when it reconnects on its own
      * @return SSE emitter for receiving notifications
      */
     @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @ResponseBody
-    public SseEmitter subscribe() {
-        return notificationService.createEmitter();
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                @RequestParam(value = "lastEventId", required = false) String lastEventId) {
+        return notificationService.createEmitter(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
     }
 }
@@ -0,0 +1,38 @@
+package cz.intelis.legislativeenums.resolve;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST API controller resolving item codes of several codelists in one request,
+ * e.g. all codes referenced by a cadastral parcel record.
+ *
+ * @author Legislative Codelists Team
+ */
+@RestController
+@RequestMapping(value = "/api/v1/resolve", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+@RequiredArgsConstructor
+@Tag(name = "Resolve", description = "API for resolving codes across codelists")
+public class ResolveApiController {
+
+    private final ResolveService resolveService;
+
+    /**
+     * Resolves a batch of codelist and code pairs.
+     *
+     * @param request the references to resolve
+     * @return the resolved items and the references that could not be resolved
+     */
+    @PostMapping
+    @Operation(summary = "Resolve codes across codelists",
+               description = "Resolves up to " + ResolveRequest.MAX_REFERENCES + " {codelist, code} pairs in one request. "
+                       + "Codelists are identified by their registry code (e.g., LAND_TYPE). Unknown codelists or codes are listed in missing.")
+    public ResponseEntity<ResolveResult> resolve(@Valid @RequestBody ResolveRequest request) {
+        return ResponseEntity.ok(resolveService.resolve(request.getReferences()));
+    }
+}
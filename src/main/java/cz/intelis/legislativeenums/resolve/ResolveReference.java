@@ -0,0 +1,26 @@
+package cz.intelis.legislativeenums.resolve;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reference to one codelist item by codelist code and item code.
+ *
+ * @author Legislative Codelists Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JacksonXmlRootElement(localName = "reference")
+public class ResolveReference {
+
+    /** Codelist code as listed in the codelist registry (e.g., "LAND_TYPE"). */
+    @NotBlank(message = "Codelist is required")
+    private String codelist;
+
+    @NotBlank(message = "Code is required")
+    private String code;
+}
@@ -0,0 +1,34 @@
+package cz.intelis.legislativeenums.resolve;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request body of the cross-codelist resolve endpoint.
+ *
+ * @author Legislative Codelists Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JacksonXmlRootElement(localName = "resolveRequest")
+public class ResolveRequest {
+
+    public static final int MAX_REFERENCES = 5000;
+
+    @Valid
+    @NotEmpty(message = "At least one reference is required")
+    @Size(max = MAX_REFERENCES, message = "At most " + MAX_REFERENCES + " references can be resolved at once")
+    @JacksonXmlElementWrapper(localName = "references")
+    @JacksonXmlProperty(localName = "reference")
+    private List<ResolveReference> references;
+}
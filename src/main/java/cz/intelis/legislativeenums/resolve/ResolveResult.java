@@ -0,0 +1,31 @@
+package cz.intelis.legislativeenums.resolve;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of the cross-codelist resolve endpoint: the resolved items in the order of the references,
+ * and the references that could not be resolved (unknown codelist or code).
+ *
+ * @author Legislative Codelists Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JacksonXmlRootElement(localName = "resolveResult")
+public class ResolveResult {
+
+    @JacksonXmlElementWrapper(localName = "items")
+    @JacksonXmlProperty(localName = "item")
+    private List<ResolvedItem> items;
+
+    @JacksonXmlElementWrapper(localName = "missing")
+    @JacksonXmlProperty(localName = "reference")
+    private List<ResolveReference> missing;
+}
@@ -0,0 +1,56 @@
+package cz.intelis.legislativeenums.resolve;
+
+import cz.intelis.legislativeenums.snapshot.CodelistItem;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves item references across codelists.
+ * All lookups are served from the in-memory codelist snapshots, each snapshot is fetched once
+ * per request, so resolving a whole batch needs no database access.
+ *
+ * @author Legislative Codelists Team
+ */
+@Service
+@RequiredArgsConstructor
+public class ResolveService {
+
+    private final CodelistSnapshotStore snapshotStore;
+
+    /**
+     * Resolves references to codelist items. Duplicate references are resolved once.
+     *
+     * @param references the references to resolve
+     * @return resolved items in the order of the references, and the references not found
+     */
+    public ResolveResult resolve(List<ResolveReference> references) {
+        Map<String, Optional<CodelistSnapshot<CodelistItem>>> snapshots = new HashMap<>();
+        List<ResolvedItem> items = new ArrayList<>(references.size());
+        List<ResolveReference> missing = new ArrayList<>();
+
+        for (ResolveReference reference : new LinkedHashSet<>(references)) {
+            Optional<CodelistItem> item = snapshots
+                    .computeIfAbsent(reference.getCodelist(), this::findSnapshot)
+                    .flatMap(snapshot -> snapshot.findByCode(reference.getCode()));
+            if (item.isPresent()) {
+                items.add(new ResolvedItem(reference.getCodelist(), reference.getCode(), item.get()));
+            } else {
+                missing.add(reference);
+            }
+        }
+        return new ResolveResult(items, missing);
+    }
+
+    private Optional<CodelistSnapshot<CodelistItem>> findSnapshot(String codelistCode) {
+        return snapshotStore.contains(codelistCode) ? Optional.of(snapshotStore.get(codelistCode)) : Optional.empty();
+    }
+}
@@ -0,0 +1,25 @@
+package cz.intelis.legislativeenums.resolve;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import cz.intelis.legislativeenums.snapshot.CodelistItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Codelist item resolved from a {@link ResolveReference}.
+ *
+ * @author Legislative Codelists Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JacksonXmlRootElement(localName = "resolvedItem")
+public class ResolvedItem {
+
+    private String codelist;
+    private String code;
+
+    /** The item DTO of the codelist, serialized with its own fields. */
+    private CodelistItem item;
+}
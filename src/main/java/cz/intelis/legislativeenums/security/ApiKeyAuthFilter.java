@@ -1,6 +1,6 @@
 package cz.intelis.legislativeenums.security;
 
-import cz.intelis.legislativeenums.apikey.ApiKey;
+import cz.intelis.legislativeenums.apikey.ApiKeyPrincipal;
 import cz.intelis.legislativeenums.apikey.ApiKeyService;
 import cz.intelis.legislativeenums.monetization.MonetizationService;
 import jakarta.servlet.FilterChain;
@@ -22,6 +22,8 @@ import java.util.Collections;
 /**
  * Filter for API key authentication.
  * All API requests require a valid API key in the X-API-Key header.
+ * Validated keys are resolved through the in-process API key cache, so steady-state
+ * authentication does not query the database.
  * Usage is recorded to the api_usage table for monitoring and rate limiting.
  *
  * @author Legislative Codelists Team
@@ -57,7 +59,7 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
         }
 
         try {
-            ApiKey apiKey = apiKeyService.findValidByApiKey(apiKeyValue);
+            ApiKeyPrincipal apiKey = apiKeyService.findValidPrincipal(apiKeyValue);
 
             if (!monetizationService.checkRateLimit(apiKey)) {
                 sendErrorResponse(response, 429, "Rate limit exceeded. Please try again later.");
@@ -66,7 +68,7 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
 
             UsernamePasswordAuthenticationToken authentication =
                 new UsernamePasswordAuthenticationToken(
-                    apiKey.getUser().getUsername(),
+                    apiKey.username(),
                     null,
                     Collections.singletonList(
                         new SimpleGrantedAuthority("ROLE_API_USER")
@@ -0,0 +1,20 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read endpoint of a {@link SnapshotCodelist} controller whose rendered response body
+ * is kept in the {@link RenderedResponseCache}. The body must depend only on the codelist snapshot,
+ * the current date and the request URI with its query string.
+ *
+ * @author Legislative Codelists Team
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedResponse {
+}
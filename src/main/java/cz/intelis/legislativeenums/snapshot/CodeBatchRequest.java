@@ -0,0 +1,33 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request body of the batch code lookup of a codelist API.
+ *
+ * @author Legislative Codelists Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JacksonXmlRootElement(localName = "codeBatchRequest")
+public class CodeBatchRequest {
+
+    public static final int MAX_CODES = 5000;
+
+    @NotEmpty(message = "At least one code is required")
+    @Size(max = MAX_CODES, message = "At most " + MAX_CODES + " codes can be requested at once")
+    @JacksonXmlElementWrapper(localName = "codes")
+    @JacksonXmlProperty(localName = "code")
+    private List<@NotBlank String> codes;
+}
@@ -0,0 +1,32 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a batch code lookup: the items found, in the order of the requested codes,
+ * and the requested codes that do not exist in the codelist.
+ *
+ * @param <D> the codelist DTO type
+ * @author Legislative Codelists Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JacksonXmlRootElement(localName = "codeBatchResult")
+public class CodeBatchResult<D> {
+
+    @JacksonXmlElementWrapper(localName = "items")
+    @JacksonXmlProperty(localName = "item")
+    private List<D> items;
+
+    @JacksonXmlElementWrapper(localName = "missing")
+    @JacksonXmlProperty(localName = "code")
+    private List<String> missing;
+}
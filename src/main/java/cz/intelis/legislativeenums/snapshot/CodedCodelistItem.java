@@ -0,0 +1,12 @@
+package cz.intelis.legislativeenums.snapshot;
+
+/**
+ * Codelist item with a unique code, indexed by code in a {@link CodelistSnapshot}.
+ * Mapping codelists (e.g. land type to land use) have no code of their own.
+ *
+ * @author Legislative Codelists Team
+ */
+public interface CodedCodelistItem extends CodelistItem {
+
+    String getCode();
+}
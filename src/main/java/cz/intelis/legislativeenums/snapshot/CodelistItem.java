@@ -0,0 +1,21 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Item of a codelist held in a {@link CodelistSnapshot}.
+ * Implemented by the codelist DTOs, whose Lombok getters provide the methods.
+ *
+ * @author Legislative Codelists Team
+ */
+public interface CodelistItem {
+
+    Long getId();
+
+    LocalDate getValidFrom();
+
+    LocalDate getValidTo();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,363 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Immutable copy of one codelist at a given version.
+ * Items are kept in presentation order in an array-backed list, with a sorted ID array and,
+ * for coded codelists, a sorted code array, each with a parallel array of item positions,
+ * so lookups by ID or code are binary searches that allocate nothing.
+ * Validity is indexed by the sorted distinct validity boundaries (every validFrom and the day after
+ * every validTo): the set of valid items is the same for all dates between two adjacent boundaries,
+ * so a date is mapped to its interval by binary search and the valid items of each interval are
+ * computed once, on first use (for the build day eagerly).
+ * HTTP validators are derived from the content only (row count, latest updatedAt, time of the last
+ * recorded change of the codelist and the latest validity boundary reached), so they are the same on
+ * every replica and across restarts. The recorded change time covers deletions, which leave no
+ * updatedAt behind.
+ * The DTOs are shared between all readers and must not be modified.
+ *
+ * @param <D> the codelist DTO type
+ * @author Legislative Codelists Team
+ */
+public final class CodelistSnapshot<D extends CodelistItem> {
+
+    private final String codelistCode;
+    private final long version;
+    private final LocalDateTime builtAt;
+    private final List<D> items;
+    private final long[] sortedIds;
+    private final int[] idPositions;
+    private final String[] sortedCodes;
+    private final int[] codePositions;
+    private final LocalDateTime maxUpdatedAt;
+    private final LocalDateTime lastChangedAt;
+    private final LocalDate[] validityBoundaries;
+    private final AtomicReferenceArray<List<D>> validItemsByInterval;
+
+    private CodelistSnapshot(String codelistCode, long version, List<D> items, LocalDateTime lastChangedAt,
+                             LocalDate today) {
+        this.codelistCode = codelistCode;
+        this.version = version;
+        this.builtAt = LocalDateTime.now();
+        this.items = List.copyOf(items);
+
+        Integer[] order = new Integer[this.items.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> this.items.get(i).getId()));
+        this.sortedIds = new long[order.length];
+        this.idPositions = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedIds[i] = this.items.get(order[i]).getId();
+            idPositions[i] = order[i];
+        }
+
+        List<Integer> coded = new ArrayList<>();
+        for (int i = 0; i < this.items.size(); i++) {
+            if (this.items.get(i) instanceof CodedCodelistItem item && item.getCode() != null) {
+                coded.add(i);
+            }
+        }
+        coded.sort(Comparator.comparing(i -> ((CodedCodelistItem) this.items.get(i)).getCode()));
+        this.sortedCodes = new String[coded.size()];
+        this.codePositions = new int[coded.size()];
+        for (int i = 0; i < coded.size(); i++) {
+            sortedCodes[i] = ((CodedCodelistItem) this.items.get(coded.get(i))).getCode();
+            codePositions[i] = coded.get(i);
+        }
+
+        LocalDateTime latest = null;
+        TreeSet<LocalDate> boundaries = new TreeSet<>();
+        for (D item : this.items) {
+            if (item.getUpdatedAt() != null && (latest == null || item.getUpdatedAt().isAfter(latest))) {
+                latest = item.getUpdatedAt();
+            }
+            if (item.getValidFrom() != null) {
+                boundaries.add(item.getValidFrom());
+            }
+            if (item.getValidTo() != null) {
+                boundaries.add(item.getValidTo().plusDays(1));
+            }
+        }
+        this.maxUpdatedAt = latest;
+        this.lastChangedAt = lastChangedAt;
+        this.validityBoundaries = boundaries.toArray(LocalDate[]::new);
+        this.validItemsByInterval = new AtomicReferenceArray<>(validityBoundaries.length + 1);
+        validOn(today);
+    }
+
+    /**
+     * Creates a snapshot of the given items.
+     *
+     * @param codelistCode the codelist code
+     * @param version the snapshot version
+     * @param items all items in presentation order
+     * @return new snapshot
+     */
+    public static <D extends CodelistItem> CodelistSnapshot<D> of(String codelistCode, long version, List<D> items) {
+        return of(codelistCode, version, items, null);
+    }
+
+    /**
+     * Creates a snapshot of the given items with the time of the last recorded change of the codelist.
+     *
+     * @param codelistCode the codelist code
+     * @param version the snapshot version
+     * @param items all items in presentation order
+     * @param lastChangedAt time of the last insert, update or delete, or null if none is recorded
+     * @return new snapshot
+     */
+    public static <D extends CodelistItem> CodelistSnapshot<D> of(String codelistCode, long version, List<D> items,
+                                                                  LocalDateTime lastChangedAt) {
+        return new CodelistSnapshot<>(codelistCode, version, items, lastChangedAt, LocalDate.now());
+    }
+
+    /**
+     * Checks whether an item is valid on a date, i.e. the date is within its validFrom-validTo range.
+     *
+     * @param item the codelist item
+     * @param date the date
+     * @return true if the item is valid on the date
+     */
+    public static boolean isValidOn(CodelistItem item, LocalDate date) {
+        return (item.getValidFrom() == null || !item.getValidFrom().isAfter(date))
+                && (item.getValidTo() == null || !item.getValidTo().isBefore(date));
+    }
+
+    public String getCodelistCode() {
+        return codelistCode;
+    }
+
+    /**
+     * Version of the snapshot; increases with every rebuild of the codelist.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    /**
+     * Time of the last recorded insert, update or delete of the codelist, or null if none is recorded.
+     */
+    public LocalDateTime getLastChangedAt() {
+        return lastChangedAt;
+    }
+
+    /**
+     * All items in presentation order.
+     */
+    public List<D> all() {
+        return items;
+    }
+
+    /**
+     * Items valid today in presentation order.
+     */
+    public List<D> currentlyValid() {
+        return validOn(LocalDate.now());
+    }
+
+    /**
+     * Items valid on a date in presentation order.
+     *
+     * @param date the date
+     * @return valid items
+     */
+    public List<D> validOn(LocalDate date) {
+        int interval = validityInterval(date);
+        List<D> valid = validItemsByInterval.get(interval);
+        if (valid == null) {
+            // Concurrent first readers compute the same list, any of them may be kept
+            valid = filter(item -> isValidOn(item, date));
+            validItemsByInterval.set(interval, valid);
+        }
+        return valid;
+    }
+
+    /**
+     * Items matching a predicate in presentation order, restricted to items valid on a date.
+     *
+     * @param date the date, or null for no validity restriction
+     * @param predicate the filter
+     * @return matching items
+     */
+    public List<D> filter(LocalDate date, Predicate<? super D> predicate) {
+        return date == null ? filter(predicate) : validOn(date).stream().filter(predicate).toList();
+    }
+
+    /**
+     * Index of the interval between validity boundaries the date falls into:
+     * the number of boundaries on or before the date.
+     */
+    private int validityInterval(LocalDate date) {
+        int index = Arrays.binarySearch(validityBoundaries, date);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Checks that an item is valid on a date, for lookups of a single item as of a date.
+     *
+     * @param item the codelist item
+     * @param date the date, or null for no validity restriction
+     * @return the item
+     * @throws RuntimeException if the item is not valid on the date
+     */
+    public static <T extends CodelistItem> T requireValidOn(T item, LocalDate date) {
+        if (date != null && !isValidOn(item, date)) {
+            throw new RuntimeException("Codelist item with ID " + item.getId() + " is not valid on " + date);
+        }
+        return item;
+    }
+
+    /**
+     * Finds an item by ID.
+     *
+     * @param id the item ID
+     * @return the item, or empty if the snapshot does not contain it
+     */
+    public Optional<D> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        int index = Arrays.binarySearch(sortedIds, id);
+        return index >= 0 ? Optional.of(items.get(idPositions[index])) : Optional.empty();
+    }
+
+    /**
+     * Finds an item by its unique code. Always empty for codelists without codes.
+     *
+     * @param code the item code
+     * @return the item, or empty if the snapshot does not contain it
+     */
+    public Optional<D> findByCode(String code) {
+        int index = indexOfCode(code);
+        return index >= 0 ? Optional.of(items.get(index)) : Optional.empty();
+    }
+
+    /**
+     * Position of the item with a code in presentation order.
+     *
+     * @param code the item code
+     * @return position in {@link #all()}, or -1 if the snapshot does not contain the code
+     */
+    public int indexOfCode(String code) {
+        if (code == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(sortedCodes, code);
+        return index >= 0 ? codePositions[index] : -1;
+    }
+
+    /**
+     * Checks whether an item with a code exists and, if a date is given, is valid on that date.
+     *
+     * @param code the item code
+     * @param date the date, or null for no validity restriction
+     * @return true if the item exists (and is valid on the date)
+     */
+    public boolean containsCode(String code, LocalDate date) {
+        int index = indexOfCode(code);
+        return index >= 0 && (date == null || isValidOn(items.get(index), date));
+    }
+
+    /**
+     * Finds items by a batch of codes. Duplicate codes are resolved once.
+     *
+     * @param codes the item codes
+     * @return items in the order of the codes, and the codes not contained in the snapshot
+     */
+    public CodeBatchResult<D> findByCodes(Collection<String> codes) {
+        List<D> found = new ArrayList<>(codes.size());
+        List<String> missing = new ArrayList<>();
+        for (String code : new LinkedHashSet<>(codes)) {
+            int index = indexOfCode(code);
+            if (index >= 0) {
+                found.add(items.get(index));
+            } else {
+                missing.add(code);
+            }
+        }
+        return new CodeBatchResult<>(found, missing);
+    }
+
+    /**
+     * Items matching a predicate in presentation order.
+     *
+     * @param predicate the filter
+     * @return matching items
+     */
+    public List<D> filter(Predicate<? super D> predicate) {
+        return items.stream().filter(predicate).toList();
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Latest day up to the given date on which some item became valid or stopped being valid.
+     *
+     * @param date the date
+     * @return the latest validity boundary, or null if there is none
+     */
+    public LocalDate lastValidityChange(LocalDate date) {
+        int interval = validityInterval(date);
+        return interval > 0 ? validityBoundaries[interval - 1] : null;
+    }
+
+    /**
+     * Earliest day after the given date on which some item becomes valid or stops being valid.
+     *
+     * @param date the date
+     * @return the next validity boundary, or null if there is none
+     */
+    public LocalDate nextValidityChange(LocalDate date) {
+        int interval = validityInterval(date);
+        return interval < validityBoundaries.length ? validityBoundaries[interval] : null;
+    }
+
+    /**
+     * Time of the latest change visible on the given date: the latest updatedAt of an item,
+     * the last recorded change of the codelist (a deletion included), or the start of the latest
+     * validity boundary, whichever is later.
+     *
+     * @param date the date
+     * @return last modification time, or null for an empty codelist without validity
+     */
+    public LocalDateTime lastModified(LocalDate date) {
+        LocalDate validityChange = lastValidityChange(date);
+        return latest(latest(maxUpdatedAt, lastChangedAt), validityChange != null ? validityChange.atStartOfDay() : null);
+    }
+
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+        return second != null && second.isAfter(first) ? second : first;
+    }
+
+    /**
+     * Strong entity tag of the codelist content on the given date in a given representation.
+     * The variant (e.g. "json", "xml") is part of the tag, as different representations
+     * must not share a strong validator.
+     *
+     * @param date the date
+     * @param variant the representation variant
+     * @return quoted entity tag
+     */
+    public String entityTag(LocalDate date, String variant) {
+        LocalDateTime modified = lastModified(date);
+        long modifiedMillis = modified != null ? modified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+        return "\"" + Long.toHexString(modifiedMillis) + "-" + Integer.toHexString(items.size()) + "-" + variant + "\"";
+    }
+}
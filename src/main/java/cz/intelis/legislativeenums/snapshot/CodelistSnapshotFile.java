@@ -0,0 +1,199 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local file with the last codelist snapshots, so that a starting replica can serve reads
+ * before it has loaded anything from the database.
+ * Layout, big-endian: a header (magic, format version, codelist count), a directory of fixed-size
+ * entries (offset of the codelist code in the string table, snapshot version, last recorded change
+ * in epoch milliseconds or -1, item count, offset and
+ * length of the item section), the string table (length-prefixed UTF-8 codes) and the item sections,
+ * each a JSON array of the codelist DTOs. The file is memory-mapped for reading and the sections are
+ * decoded straight from the mapped pages. It is written to a temporary file that is then moved over
+ * the previous one, so a reader never sees a partial file. A missing, foreign or damaged file is ignored.
+ * Disabled when no path is configured.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+public class CodelistSnapshotFile {
+
+    static final int MAGIC = 0x434C534E; // "CLSN"
+    static final int FORMAT_VERSION = 2;
+
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    private static final int ENTRY_SIZE = Integer.BYTES + 2 * Long.BYTES + 3 * Integer.BYTES;
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public CodelistSnapshotFile(ObjectMapper objectMapper,
+                                @Value("${app.codelist.snapshot-file.path:}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = path.isBlank() ? null : Path.of(path);
+    }
+
+    /**
+     * Loads the snapshots stored in the file. Codelists not listed in the item types are skipped.
+     *
+     * @param itemTypes DTO type of each codelist, by codelist code
+     * @return stored snapshots, empty if the file is disabled, missing or unreadable
+     */
+    public List<CodelistSnapshot<?>> load(Map<String, Class<? extends CodelistItem>> itemTypes) {
+        if (path == null || !Files.isReadable(path)) {
+            return List.of();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<CodelistSnapshot<?>> snapshots = read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), itemTypes);
+            log.info("Loaded {} codelist snapshots from {}", snapshots.size(), path);
+            return snapshots;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable codelist snapshot file {}", path, e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Replaces the file with the given snapshots. Failures are logged, the previous file is kept.
+     *
+     * @param snapshots snapshots to store
+     */
+    public void save(Collection<CodelistSnapshot<?>> snapshots) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    write(out, snapshots);
+                }
+                move(temp, path);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.debug("Saved {} codelist snapshots to {}", snapshots.size(), path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to save codelist snapshots to {}", path, e);
+        }
+    }
+
+    void write(DataOutputStream out, Collection<CodelistSnapshot<?>> snapshots) throws IOException {
+        List<byte[]> codes = new ArrayList<>(snapshots.size());
+        List<byte[]> sections = new ArrayList<>(snapshots.size());
+        int stringTableSize = 0;
+        for (CodelistSnapshot<?> snapshot : snapshots) {
+            byte[] code = snapshot.getCodelistCode().getBytes(StandardCharsets.UTF_8);
+            codes.add(code);
+            sections.add(objectMapper.writeValueAsBytes(snapshot.all()));
+            stringTableSize += Short.BYTES + code.length;
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(snapshots.size());
+        int codeOffset = 0;
+        int sectionOffset = HEADER_SIZE + snapshots.size() * ENTRY_SIZE + stringTableSize;
+        int i = 0;
+        for (CodelistSnapshot<?> snapshot : snapshots) {
+            out.writeInt(codeOffset);
+            out.writeLong(snapshot.getVersion());
+            out.writeLong(snapshot.getLastChangedAt() != null
+                    ? snapshot.getLastChangedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : -1);
+            out.writeInt(snapshot.size());
+            out.writeInt(sectionOffset);
+            out.writeInt(sections.get(i).length);
+            codeOffset += Short.BYTES + codes.get(i).length;
+            sectionOffset = Math.addExact(sectionOffset, sections.get(i).length);
+            i++;
+        }
+        for (byte[] code : codes) {
+            out.writeShort(code.length);
+            out.write(code);
+        }
+        for (byte[] section : sections) {
+            out.write(section);
+        }
+    }
+
+    List<CodelistSnapshot<?>> read(ByteBuffer buffer, Map<String, Class<? extends CodelistItem>> itemTypes) throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+            throw new IOException("Not a codelist snapshot file of format version " + FORMAT_VERSION);
+        }
+        int count = buffer.getInt(2 * Integer.BYTES);
+        int stringTable = HEADER_SIZE + count * ENTRY_SIZE;
+        List<CodelistSnapshot<?>> snapshots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ByteBuffer entry = buffer.slice(HEADER_SIZE + i * ENTRY_SIZE, ENTRY_SIZE);
+            String code = readString(buffer, stringTable + entry.getInt());
+            long version = entry.getLong();
+            long lastChangedMillis = entry.getLong();
+            LocalDateTime lastChangedAt = lastChangedMillis >= 0
+                    ? LocalDateTime.ofInstant(Instant.ofEpochMilli(lastChangedMillis), ZoneId.systemDefault())
+                    : null;
+            int itemCount = entry.getInt();
+            ByteBuffer section = buffer.slice(entry.getInt(), entry.getInt());
+            Class<? extends CodelistItem> itemType = itemTypes.get(code);
+            if (itemType == null) {
+                continue;
+            }
+            List<? extends CodelistItem> items = readItems(section, itemType);
+            if (items.size() != itemCount) {
+                throw new IOException("Codelist " + code + " has " + items.size() + " items, " + itemCount + " expected");
+            }
+            snapshots.add(CodelistSnapshot.of(code, version, items, lastChangedAt));
+        }
+        return snapshots;
+    }
+
+    private List<? extends CodelistItem> readItems(ByteBuffer section, Class<? extends CodelistItem> itemType) throws IOException {
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, itemType);
+        try (InputStream in = new ByteBufferBackedInputStream(section)) {
+            return objectMapper.readValue(in, listType);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[buffer.getShort(offset)];
+        buffer.get(offset + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports whether every codelist has a snapshot to serve reads from, either loaded from the
+ * snapshot file or from the database. Out of service until then, which keeps the replica out of
+ * the readiness group; whether the database reconciliation has finished is reported as a detail.
+ *
+ * @author Legislative Codelists Team
+ */
+@Component("codelistSnapshots")
+@RequiredArgsConstructor
+public class CodelistSnapshotHealthIndicator implements HealthIndicator {
+
+    private final CodelistSnapshotStore snapshotStore;
+
+    @Override
+    public Health health() {
+        CodelistSnapshotStore.Status status = snapshotStore.getStatus();
+        Health.Builder builder = status.loaded() >= status.codelists() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("codelists", status.codelists())
+                .withDetail("loaded", status.loaded())
+                .withDetail("reconciled", status.reconciled() >= status.codelists())
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package cz.intelis.legislativeenums.snapshot;
+
+/**
+ * Published by the {@link CodelistSnapshotStore} after a newly built snapshot was swapped in.
+ *
+ * @param snapshot the snapshot now current
+ * @author Legislative Codelists Team
+ */
+public record CodelistSnapshotRebuiltEvent(CodelistSnapshot<?> snapshot) {
+}
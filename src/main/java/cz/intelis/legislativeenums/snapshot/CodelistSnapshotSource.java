@@ -0,0 +1,60 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Loads the full content of a codelist for the {@link CodelistSnapshotStore}.
+ * Implemented by the codelist services; every implementation bean is picked up by the store.
+ *
+ * @param <D> the codelist DTO type
+ * @author Legislative Codelists Team
+ */
+public interface CodelistSnapshotSource<D extends CodelistItem> {
+
+    /**
+     * Code of the codelist, the same one carried by its {@code CodelistChangeEvent}s.
+     *
+     * @return codelist code (e.g., "VOLTAGE_LEVEL")
+     */
+    String getCodelistCode();
+
+    /**
+     * Human-readable name of the codelist, the same one carried by its {@code CodelistChangeEvent}s.
+     *
+     * @return codelist name (e.g., "Úrovně napětí")
+     */
+    String getCodelistName();
+
+    /**
+     * Entity type under which changes of the codelist are recorded in the audit log:
+     * the codelist code in camel case (e.g., "VoltageLevel" for "VOLTAGE_LEVEL").
+     *
+     * @return audit entity type
+     */
+    default String getAuditEntityType() {
+        StringBuilder entityType = new StringBuilder();
+        for (String word : getCodelistCode().split("_")) {
+            if (!word.isEmpty()) {
+                entityType.append(word.charAt(0)).append(word.substring(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        return entityType.toString();
+    }
+
+    /**
+     * Loads all items of the codelist in their presentation order.
+     *
+     * @return all items as DTOs
+     */
+    List<D> findAll();
+
+    /**
+     * Loads the values of all items of the codelist as they are recorded in the audit log,
+     * the same values the service records on create and update.
+     *
+     * @return audited values keyed by entity id
+     */
+    Map<Long, Map<String, Object>> findAllAuditValues();
+}
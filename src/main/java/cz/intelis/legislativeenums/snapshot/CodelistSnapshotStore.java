@@ -0,0 +1,258 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import cz.intelis.legislativeenums.notification.CodelistChangeEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.ClassUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Holds an in-memory {@link CodelistSnapshot} of every codelist, serving the read endpoints
+ * of the codelist APIs without touching the database.
+ * After a transaction publishing a {@link CodelistChangeEvent} commits, the affected snapshot is rebuilt
+ * on a background thread and swapped in atomically; readers keep using the previous snapshot
+ * until then. Rebuild requests arriving while one is still queued are coalesced.
+ * Changes committed by other replicas are picked up by the {@link CodelistVersionWatcher}.
+ * Every swap is announced with a {@link CodelistSnapshotRebuiltEvent}.
+ * Versions increase monotonically per codelist; they are based on the wall clock so that
+ * they keep increasing across restarts.
+ * On startup the snapshots saved in the {@link CodelistSnapshotFile} by the previous run are served
+ * right away while all codelists are reconciled against the database in the background;
+ * the file is saved again whenever all snapshots are loaded from the database and no rebuild is queued.
+ * A codelist requested before it has any snapshot is loaded synchronously.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+public class CodelistSnapshotStore {
+
+    static final String CHANGED_AT_SQL = "SELECT changed_at FROM codelist_version WHERE codelist_code = ?";
+
+    private final Map<String, CodelistSnapshotSource<?>> sources;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CodelistSnapshotFile snapshotFile;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, CodelistSnapshot<?>> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Set<String> pendingRebuilds = ConcurrentHashMap.newKeySet();
+    private final Set<String> reconciled = ConcurrentHashMap.newKeySet();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "codelist-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CodelistSnapshotStore(List<CodelistSnapshotSource<?>> sources, ApplicationEventPublisher eventPublisher,
+                                 CodelistSnapshotFile snapshotFile, JdbcTemplate jdbcTemplate) {
+        this.sources = sources.stream()
+                .collect(Collectors.toUnmodifiableMap(CodelistSnapshotSource::getCodelistCode, Function.identity()));
+        this.eventPublisher = eventPublisher;
+        this.snapshotFile = snapshotFile;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Gets the current snapshot of a codelist.
+     *
+     * @param codelistCode the codelist code
+     * @return current snapshot
+     * @throws IllegalArgumentException if no source is registered for the codelist
+     */
+    @SuppressWarnings("unchecked")
+    public <D extends CodelistItem> CodelistSnapshot<D> get(String codelistCode) {
+        CodelistSnapshot<?> snapshot = snapshots.get(codelistCode);
+        if (snapshot == null) {
+            snapshot = rebuild(codelistCode);
+        }
+        return (CodelistSnapshot<D>) snapshot;
+    }
+
+    /**
+     * Checks whether a source is registered for a codelist.
+     *
+     * @param codelistCode the codelist code
+     * @return true if snapshots of the codelist are available
+     */
+    public boolean contains(String codelistCode) {
+        return codelistCode != null && sources.containsKey(codelistCode);
+    }
+
+    /**
+     * Gets the human-readable name of a codelist.
+     *
+     * @param codelistCode the codelist code
+     * @return codelist name
+     * @throws IllegalArgumentException if no source is registered for the codelist
+     */
+    public String getCodelistName(String codelistCode) {
+        CodelistSnapshotSource<?> source = sources.get(codelistCode);
+        if (source == null) {
+            throw new IllegalArgumentException("Unknown codelist: " + codelistCode);
+        }
+        return source.getCodelistName();
+    }
+
+    /**
+     * Snapshots built so far; codelists not loaded yet are left out.
+     *
+     * @return current snapshots
+     */
+    public Collection<CodelistSnapshot<?>> current() {
+        return List.copyOf(snapshots.values());
+    }
+
+    /**
+     * Gets the version of the current snapshot of a codelist, building it if needed.
+     *
+     * @param codelistCode the codelist code
+     * @return snapshot version
+     */
+    public long getVersion(String codelistCode) {
+        return get(codelistCode).getVersion();
+    }
+
+    /**
+     * Gets the loading progress of the snapshots.
+     *
+     * @return number of codelists, of those with a snapshot and of those loaded from the database
+     */
+    public Status getStatus() {
+        return new Status(sources.size(), snapshots.size(), reconciled.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (CodelistSnapshot<?> stored : snapshotFile.load(itemTypes())) {
+            String codelistCode = stored.getCodelistCode();
+            versions.computeIfAbsent(codelistCode, code -> new AtomicLong()).accumulateAndGet(stored.getVersion(), Math::max);
+            if (snapshots.putIfAbsent(codelistCode, stored) == null) {
+                eventPublisher.publishEvent(new CodelistSnapshotRebuiltEvent(stored));
+            }
+        }
+        sources.keySet().forEach(this::scheduleRebuild);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCodelistChange(CodelistChangeEvent event) {
+        scheduleRebuild(event.getCodelistCode());
+    }
+
+    /**
+     * Queues a background rebuild of a codelist snapshot unless one is already queued.
+     *
+     * @param codelistCode the codelist code
+     */
+    public void scheduleRebuild(String codelistCode) {
+        if (!sources.containsKey(codelistCode) || !pendingRebuilds.add(codelistCode)) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            // Cleared before loading, so a change committed during the rebuild queues another one
+            pendingRebuilds.remove(codelistCode);
+            try {
+                rebuild(codelistCode);
+            } catch (RuntimeException e) {
+                log.error("Failed to rebuild snapshot of codelist {}, keeping the previous one", codelistCode, e);
+                return;
+            }
+            if (pendingRebuilds.isEmpty() && reconciled.size() == sources.size()) {
+                snapshotFile.save(current());
+            }
+        });
+    }
+
+    /**
+     * Loads a codelist and swaps in the new snapshot, unless a snapshot with a higher version,
+     * i.e. loaded later, was swapped in meanwhile.
+     *
+     * @param codelistCode the codelist code
+     * @return the snapshot now current
+     */
+    CodelistSnapshot<?> rebuild(String codelistCode) {
+        CodelistSnapshotSource<?> source = sources.get(codelistCode);
+        if (source == null) {
+            throw new IllegalArgumentException("Unknown codelist: " + codelistCode);
+        }
+        long version = nextVersion(codelistCode);
+        CodelistSnapshot<?> built = load(source, version, this::lastChangedAt);
+        reconciled.add(codelistCode);
+        log.debug("Built snapshot of codelist {} version {} with {} items", codelistCode, version, built.size());
+        CodelistSnapshot<?> current = snapshots.merge(codelistCode, built,
+                (previous, candidate) -> candidate.getVersion() > previous.getVersion() ? candidate : previous);
+        if (current == built) {
+            eventPublisher.publishEvent(new CodelistSnapshotRebuiltEvent(built));
+        }
+        return current;
+    }
+
+    private long nextVersion(String codelistCode) {
+        return versions.computeIfAbsent(codelistCode, code -> new AtomicLong())
+                .updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+    }
+
+    private static <D extends CodelistItem> CodelistSnapshot<D> load(CodelistSnapshotSource<D> source, long version,
+                                                                     Function<String, LocalDateTime> lastChangedAt) {
+        List<D> items = source.findAll();
+        // Read after the items, so it is never older than the content
+        return CodelistSnapshot.of(source.getCodelistCode(), version, items, lastChangedAt.apply(source.getCodelistCode()));
+    }
+
+    /**
+     * Time of the last change recorded by the {@link CodelistVersionWatcher}, or null if none is recorded.
+     */
+    private LocalDateTime lastChangedAt(String codelistCode) {
+        List<LocalDateTime> changedAt = jdbcTemplate.queryForList(CHANGED_AT_SQL, LocalDateTime.class, codelistCode);
+        return changedAt.isEmpty() ? null : changedAt.get(0);
+    }
+
+    /**
+     * DTO type of each codelist, resolved from the type argument of its source.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Class<? extends CodelistItem>> itemTypes() {
+        Map<String, Class<? extends CodelistItem>> itemTypes = new HashMap<>();
+        sources.forEach((codelistCode, source) -> {
+            Class<?> itemType = ResolvableType.forClass(ClassUtils.getUserClass(source))
+                    .as(CodelistSnapshotSource.class).resolveGeneric(0);
+            if (itemType != null && CodelistItem.class.isAssignableFrom(itemType)) {
+                itemTypes.put(codelistCode, (Class<? extends CodelistItem>) itemType);
+            }
+        });
+        return itemTypes;
+    }
+
+    /**
+     * Loading progress of the snapshots.
+     *
+     * @param codelists number of codelists
+     * @param loaded number of codelists with a snapshot, from the database or the snapshot file
+     * @param reconciled number of codelists whose snapshot was loaded from the database since startup
+     */
+    public record Status(int codelists, int loaded, int reconciled) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,131 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import cz.intelis.legislativeenums.notification.ChangeType;
+import cz.intelis.legislativeenums.notification.CodelistChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rebuilds the snapshots of codelists changed by other replicas.
+ * Every codelist change bumps the codelist's counter in codelist_version within the changing
+ * transaction, so the counter moves exactly when the change commits; the time of the change is
+ * recorded with it and moves the snapshot's Last-Modified, also for deletions. Each replica polls the
+ * counters and rebuilds the snapshot of every codelist whose counter moved past the value it
+ * has seen; changes made by the replica itself are recorded after commit and rebuilt through
+ * the local change event only. The rendered responses, entity tags and the snapshot file follow
+ * the rebuilt snapshot. Validity boundaries write nothing and are left to each replica's own timer.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+public class CodelistVersionWatcher {
+
+    static final String BUMP_SQL = "INSERT INTO codelist_version (codelist_code, version, changed_at) " +
+            "VALUES (?, 1, LOCALTIMESTAMP) ON CONFLICT (codelist_code) " +
+            "DO UPDATE SET version = codelist_version.version + 1, changed_at = LOCALTIMESTAMP RETURNING version";
+
+    static final String VERSIONS_SQL = "SELECT codelist_code, version FROM codelist_version";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CodelistSnapshotStore snapshotStore;
+    private final Map<String, Long> seen = new ConcurrentHashMap<>();
+
+    public CodelistVersionWatcher(JdbcTemplate jdbcTemplate, CodelistSnapshotStore snapshotStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotStore = snapshotStore;
+    }
+
+    /**
+     * Records the current counters before the snapshots are loaded on startup, so that
+     * a change committed while they load is still noticed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        try {
+            seen.putAll(readVersions());
+        } catch (DataAccessException e) {
+            log.warn("Failed to read codelist versions, the first poll rebuilds all changed codelists: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Bumps the counter of the changed codelist in the changing transaction.
+     *
+     * @param event the codelist change event
+     */
+    @EventListener
+    public void onCodelistChange(CodelistChangeEvent event) {
+        if (event.getChangeType() == ChangeType.VALIDITY || !snapshotStore.contains(event.getCodelistCode())) {
+            return;
+        }
+        String codelistCode = event.getCodelistCode();
+        Long version = jdbcTemplate.queryForObject(BUMP_SQL, Long.class, codelistCode);
+        if (version == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markSeen(codelistCode, version);
+                }
+            });
+        } else {
+            markSeen(codelistCode, version);
+        }
+    }
+
+    /**
+     * Rebuilds the snapshots of the codelists changed elsewhere since the last poll.
+     */
+    @Scheduled(fixedDelayString = "${app.codelist.version-poll-interval:PT5S}",
+            initialDelayString = "${app.codelist.version-poll-interval:PT5S}")
+    public void poll() {
+        Map<String, Long> versions;
+        try {
+            versions = readVersions();
+        } catch (DataAccessException e) {
+            log.warn("Failed to poll codelist versions: {}", e.getMessage());
+            return;
+        }
+        versions.forEach((codelistCode, version) -> {
+            if (markSeen(codelistCode, version)) {
+                log.debug("Codelist {} changed on another instance, rebuilding its snapshot", codelistCode);
+                snapshotStore.scheduleRebuild(codelistCode);
+            }
+        });
+    }
+
+    /**
+     * Records a counter value.
+     *
+     * @return true if the value is newer than the one seen so far
+     */
+    private boolean markSeen(String codelistCode, long version) {
+        Long previous = seen.get(codelistCode);
+        seen.merge(codelistCode, version, Math::max);
+        return previous == null || version > previous;
+    }
+
+    private Map<String, Long> readVersions() {
+        Map<String, Long> versions = new HashMap<>();
+        jdbcTemplate.query(VERSIONS_SQL, (rs, rowNum) -> Map.entry(rs.getString("codelist_code"), rs.getLong("version")))
+                .forEach(entry -> versions.put(entry.getKey(), entry.getValue()));
+        return versions;
+    }
+}
@@ -0,0 +1,105 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import cz.intelis.legislativeenums.audit.CodelistHistoryService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Answers conditional GET and HEAD requests on codelist APIs from the codelist snapshot.
+ * The validators are computed from the snapshot selected by {@link SnapshotCodelist} on the controller:
+ * a matching If-None-Match (or, without it, an If-Modified-Since not older than the last change)
+ * is answered with 304 Not Modified before the controller runs, so neither the database
+ * nor the message converters are involved. Other responses get ETag and Last-Modified headers.
+ * The ETag carries the representation (JSON or XML) negotiated from the Accept header and,
+ * for {@link CachedResponse} endpoints served gzip-compressed, the content coding; Vary is set
+ * accordingly so that shared caches keep the variants apart. Point-in-time requests
+ * ({@link CodelistHistoryService#AT_PARAMETER}) are left to the controller.
+ *
+ * @author Legislative Codelists Team
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalRequestInterceptor implements HandlerInterceptor {
+
+    private final CodelistSnapshotStore snapshotStore;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !isGetOrHead(request)) {
+            return true;
+        }
+        SnapshotCodelist codelist = handlerMethod.getBeanType().getAnnotation(SnapshotCodelist.class);
+        if (codelist == null || request.getParameter(CodelistHistoryService.AT_PARAMETER) != null) {
+            // Point-in-time reads do not come from the current snapshot
+            return true;
+        }
+
+        CodelistSnapshot<?> snapshot = snapshotStore.get(codelist.value());
+        LocalDate today = LocalDate.now();
+        LocalDateTime lastModified = snapshot.lastModified(today);
+        long lastModifiedMillis = lastModified != null
+                ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+
+        String variant = representation(request);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (handlerMethod.hasMethodAnnotation(CachedResponse.class)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (RenderedResponseCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                variant += "-" + RenderedResponseCache.GZIP;
+            }
+        }
+        String etag = snapshot.entityTag(today, variant);
+        return !new ServletWebRequest(request, response).checkNotModified(etag, lastModifiedMillis);
+    }
+
+    private static boolean isGetOrHead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    /**
+     * Picks the representation the controller will produce for the request.
+     * XML is chosen only when the Accept header prefers it over JSON; on a tie
+     * (including no or a wildcard Accept header) JSON, the first produced type, wins.
+     *
+     * @param request the HTTP request
+     * @return "xml" or "json"
+     */
+    static String representation(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return "json";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return "json";
+        }
+        return quality(accepted, MediaType.APPLICATION_XML) > quality(accepted, MediaType.APPLICATION_JSON) ? "xml" : "json";
+    }
+
+    private static double quality(List<MediaType> accepted, MediaType produced) {
+        double quality = 0;
+        for (MediaType mediaType : accepted) {
+            if (mediaType.includes(produced)) {
+                quality = Math.max(quality, mediaType.getQualityValue());
+            }
+        }
+        return quality;
+    }
+}
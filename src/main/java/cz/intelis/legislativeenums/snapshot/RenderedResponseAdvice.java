@@ -0,0 +1,122 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+
+/**
+ * Fills the {@link RenderedResponseCache} on a miss of {@link RenderedResponseInterceptor}.
+ * The body of a successful {@link CachedResponse} endpoint is rendered once by the message converter
+ * Spring selected, compressed, stored, and the variant matching Accept-Encoding is written
+ * to the response; returning null tells Spring that the body has already been written.
+ *
+ * @author Legislative Codelists Team
+ */
+@ControllerAdvice(annotations = SnapshotCodelist.class)
+@RequiredArgsConstructor
+public class RenderedResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final RenderedResponseCache responseCache;
+    private final HttpMessageConverters messageConverters;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(CachedResponse.class)
+                && AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)
+                || servletResponse.getServletResponse().getStatus() != HttpStatus.OK.value()
+                || !(servletRequest.getServletRequest().getAttribute(RenderedResponseInterceptor.KEY_ATTRIBUTE)
+                        instanceof RenderedResponseCache.Key key)
+                || !selectedContentType.getSubtype().contains(key.representation())) {
+            return body;
+        }
+        GenericHttpMessageConverter<Object> converter = findConverter(selectedConverterType);
+        if (converter == null) {
+            return body;
+        }
+
+        try {
+            BufferedOutputMessage rendered = new BufferedOutputMessage();
+            converter.write(body, bodyType(returnType), selectedContentType, rendered);
+            MediaType contentType = rendered.headers.getContentType() != null ? rendered.headers.getContentType() : selectedContentType;
+            RenderedResponseCache.RenderedResponse cached = RenderedResponseCache.RenderedResponse.of(contentType, rendered.body.toByteArray());
+            responseCache.put(key, cached);
+
+            boolean gzip = RenderedResponseCache.acceptsGzip(request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+            byte[] bytes = cached.body(gzip);
+            if (gzip) {
+                response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, RenderedResponseCache.GZIP);
+            }
+            response.getHeaders().setContentType(contentType);
+            response.getHeaders().setContentLength(bytes.length);
+            response.getBody().write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private GenericHttpMessageConverter<Object> findConverter(Class<? extends HttpMessageConverter<?>> converterType) {
+        for (HttpMessageConverter<?> converter : messageConverters.getConverters()) {
+            if (converter.getClass() == converterType && converter instanceof GenericHttpMessageConverter<?>) {
+                return (GenericHttpMessageConverter<Object>) converter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the declared body type the same way Spring does for the response,
+     * so that the rendered bytes (e.g. the XML root element) are identical.
+     */
+    private static Type bodyType(MethodParameter returnType) {
+        if (HttpEntity.class.isAssignableFrom(returnType.getParameterType())) {
+            return ResolvableType.forType(returnType.getGenericParameterType()).getGeneric().getType();
+        }
+        return returnType.getGenericParameterType();
+    }
+
+    private static class BufferedOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.intelis.legislativeenums.notification.CodelistChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process cache of fully rendered codelist API response bodies.
+ * Entries are keyed by codelist, snapshot version, day, request target and representation,
+ * so a rebuilt snapshot or a new day never hits a body rendered from older data.
+ * Every body is kept together with its gzip-compressed variant, compressed once when stored,
+ * so serving a compressed response is a plain copy.
+ * Entries of a codelist are dropped when it changes; the total size is bounded by body bytes.
+ * Hit/miss statistics are published as "codelist-responses" cache metrics.
+ *
+ * @author Legislative Codelists Team
+ */
+@Component
+public class RenderedResponseCache {
+
+    static final String CACHE_NAME = "codelist-responses";
+
+    static final String GZIP = "gzip";
+
+    private final Cache<Key, RenderedResponse> cache;
+
+    public RenderedResponseCache(MeterRegistry meterRegistry,
+                                 @Value("${app.codelist.response-cache.max-size:64MB}") DataSize maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, RenderedResponse response) -> response.body().length + response.gzipBody().length + key.target().length())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Gets a rendered response body.
+     *
+     * @param key the cache key
+     * @return the rendered response, or null if not cached
+     */
+    public RenderedResponse get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Stores a rendered response body.
+     *
+     * @param key the cache key
+     * @param response the rendered response
+     */
+    public void put(Key key, RenderedResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * Drops all rendered responses of a codelist once its change is committed.
+     *
+     * @param event the codelist change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCodelistChange(CodelistChangeEvent event) {
+        cache.asMap().keySet().removeIf(key -> key.codelistCode().equals(event.getCodelistCode()));
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header allows a gzip-encoded response.
+     *
+     * @param acceptEncoding the Accept-Encoding header value, may be null
+     * @return true if gzip (or any coding) is accepted with a non-zero quality
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            boolean accepted = parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            if (name.equalsIgnoreCase(GZIP) || name.equalsIgnoreCase("x-gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    /**
+     * Identifies one rendered response body.
+     *
+     * @param codelistCode the codelist code
+     * @param version the snapshot version the body was rendered from
+     * @param day the day the body was rendered for
+     * @param target the request URI with its query string
+     * @param representation the representation ("json" or "xml")
+     */
+    public record Key(String codelistCode, long version, LocalDate day, String target, String representation) {
+    }
+
+    /**
+     * Rendered response body together with its content type and gzip variant.
+     *
+     * @param contentType the content type written by the message converter
+     * @param body the response body
+     * @param gzipBody the gzip-compressed response body
+     */
+    public record RenderedResponse(MediaType contentType, byte[] body, byte[] gzipBody) {
+
+        /**
+         * Creates a rendered response, compressing the body.
+         *
+         * @param contentType the content type
+         * @param body the response body
+         * @return rendered response with its gzip variant
+         */
+        public static RenderedResponse of(MediaType contentType, byte[] body) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 32);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new RenderedResponse(contentType, body, compressed.toByteArray());
+        }
+
+        /**
+         * Gets the body variant to send.
+         *
+         * @param gzip whether the client accepts gzip
+         * @return the gzip or the identity body
+         */
+        public byte[] body(boolean gzip) {
+            return gzip ? gzipBody : body;
+        }
+    }
+}
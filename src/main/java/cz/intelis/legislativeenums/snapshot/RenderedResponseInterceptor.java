@@ -0,0 +1,69 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import cz.intelis.legislativeenums.audit.CodelistHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Serves {@link CachedResponse} endpoints from the {@link RenderedResponseCache}.
+ * On a hit the cached bytes, gzip-compressed if the client accepts it, are copied to the servlet
+ * output stream and the controller is skipped.
+ * On a miss the cache key is left in a request attribute for {@link RenderedResponseAdvice},
+ * which stores the body rendered by the controller.
+ * Point-in-time requests ({@link CodelistHistoryService#AT_PARAMETER}) are not cached: their body
+ * does not follow the snapshot version, and every distinct time would take a cache entry.
+ *
+ * @author Legislative Codelists Team
+ */
+@Component
+@RequiredArgsConstructor
+public class RenderedResponseInterceptor implements HandlerInterceptor {
+
+    static final String KEY_ATTRIBUTE = RenderedResponseInterceptor.class.getName() + ".key";
+
+    private final CodelistSnapshotStore snapshotStore;
+    private final RenderedResponseCache responseCache;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !HttpMethod.GET.matches(request.getMethod())
+                || !handlerMethod.hasMethodAnnotation(CachedResponse.class)) {
+            return true;
+        }
+        SnapshotCodelist codelist = handlerMethod.getBeanType().getAnnotation(SnapshotCodelist.class);
+        if (codelist == null || request.getParameter(CodelistHistoryService.AT_PARAMETER) != null) {
+            return true;
+        }
+
+        String target = request.getQueryString() != null
+                ? request.getRequestURI() + "?" + request.getQueryString()
+                : request.getRequestURI();
+        RenderedResponseCache.Key key = new RenderedResponseCache.Key(codelist.value(),
+                snapshotStore.getVersion(codelist.value()), LocalDate.now(), target,
+                ConditionalRequestInterceptor.representation(request));
+
+        RenderedResponseCache.RenderedResponse rendered = responseCache.get(key);
+        if (rendered == null) {
+            request.setAttribute(KEY_ATTRIBUTE, key);
+            return true;
+        }
+        boolean gzip = RenderedResponseCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] body = rendered.body(gzip);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, RenderedResponseCache.GZIP);
+        }
+        response.setContentType(rendered.contentType().toString());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        return false;
+    }
+}
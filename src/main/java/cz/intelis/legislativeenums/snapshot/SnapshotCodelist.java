@@ -0,0 +1,27 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an API controller whose read endpoints serve the given codelist.
+ * GET and HEAD requests handled by the controller are validated against the codelist snapshot
+ * by {@link ConditionalRequestInterceptor}.
+ *
+ * @author Legislative Codelists Team
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SnapshotCodelist {
+
+    /**
+     * Code of the codelist served by the controller.
+     *
+     * @return codelist code (e.g., "VOLTAGE_LEVEL")
+     */
+    String value();
+}
@@ -0,0 +1,120 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import cz.intelis.legislativeenums.notification.ChangeType;
+import cz.intelis.legislativeenums.notification.CodelistChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Publishes a synthetic {@link CodelistChangeEvent} of type {@link ChangeType#VALIDITY} when the
+ * validFrom/validTo date of an item is reached. Nothing is written at that moment, so without it
+ * the rendered responses, entity tags and SSE subscribers would not learn that the set of
+ * currently valid items changed; the event makes them react as to any other change,
+ * including the rebuild of the snapshot.
+ * A single timer is kept for the earliest upcoming validity boundary over all snapshots
+ * (boundaries always fall on midnight in the system time zone). It is moved earlier when a rebuilt
+ * snapshot brings a nearer boundary; a timer left for a boundary that disappeared meanwhile
+ * just finds nothing to publish. Boundaries passed while the timer was late are caught up on
+ * the next run. Each replica runs its own timer, matching its own snapshots and SSE clients.
+ *
+ * @author Legislative Codelists Team
+ */
+@Slf4j
+@Component
+public class ValidityBoundaryScheduler {
+
+    private final CodelistSnapshotStore snapshotStore;
+    private final TaskScheduler taskScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Last day whose boundaries have been published; snapshots built on startup already reflect it. */
+    private LocalDate checkedThrough = LocalDate.now();
+    private LocalDate scheduledFor;
+    private ScheduledFuture<?> timer;
+
+    public ValidityBoundaryScheduler(CodelistSnapshotStore snapshotStore, TaskScheduler taskScheduler,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.snapshotStore = snapshotStore;
+        this.taskScheduler = taskScheduler;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Moves the timer earlier if the rebuilt snapshot has a nearer validity boundary.
+     *
+     * @param event the rebuild event
+     */
+    @EventListener
+    public synchronized void onSnapshotRebuilt(CodelistSnapshotRebuiltEvent event) {
+        LocalDate next = event.snapshot().nextValidityChange(checkedThrough);
+        if (next != null && (scheduledFor == null || next.isBefore(scheduledFor))) {
+            schedule(next);
+        }
+    }
+
+    /**
+     * Publishes the validity boundaries reached since the last run and schedules the next run.
+     */
+    public void checkBoundaries() {
+        checkBoundaries(LocalDate.now());
+    }
+
+    /**
+     * Publishes the validity boundaries reached since the last run as of the given day
+     * and schedules the next run.
+     *
+     * @param today current date
+     */
+    synchronized void checkBoundaries(LocalDate today) {
+        scheduledFor = null;
+        timer = null;
+        if (today.isAfter(checkedThrough)) {
+            for (CodelistSnapshot<?> snapshot : snapshotStore.current()) {
+                LocalDate change = snapshot.lastValidityChange(today);
+                if (change != null && change.isAfter(checkedThrough)) {
+                    publish(snapshot.getCodelistCode(), change);
+                }
+            }
+            checkedThrough = today;
+        }
+        LocalDate next = null;
+        for (CodelistSnapshot<?> snapshot : snapshotStore.current()) {
+            LocalDate change = snapshot.nextValidityChange(checkedThrough);
+            if (change != null && (next == null || change.isBefore(next))) {
+                next = change;
+            }
+        }
+        if (next != null) {
+            schedule(next);
+        }
+    }
+
+    /**
+     * Date of the next scheduled run, or null if no validity boundary is ahead.
+     */
+    synchronized LocalDate getScheduledFor() {
+        return scheduledFor;
+    }
+
+    private void publish(String codelistCode, LocalDate change) {
+        log.info("Validity of items in codelist {} changed on {}", codelistCode, change);
+        eventPublisher.publishEvent(new CodelistChangeEvent(this, snapshotStore.getCodelistName(codelistCode),
+                codelistCode, ChangeType.VALIDITY, null, null, null, "system"));
+    }
+
+    private void schedule(LocalDate day) {
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        scheduledFor = day;
+        timer = taskScheduler.schedule(this::checkBoundaries, day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        log.debug("Next validity boundary check scheduled for {}", day);
+    }
+}
@@ -0,0 +1,12 @@
+package cz.intelis.legislativeenums.user;
+
+/**
+ * Published when an administrator changes the usage plan of a user.
+ *
+ * @param userId  ID of the user
+ * @param oldPlan previous usage plan (may be null)
+ * @param newPlan new usage plan (may be null)
+ * @author Legislative Codelists Team
+ */
+public record UsagePlanChangedEvent(Long userId, User.UsagePlan oldPlan, User.UsagePlan newPlan) {
+}
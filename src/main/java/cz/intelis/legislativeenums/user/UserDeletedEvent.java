@@ -0,0 +1,10 @@
+package cz.intelis.legislativeenums.user;
+
+/**
+ * Published when a user is deleted. The user's API keys are removed with it by the database.
+ *
+ * @param userId ID of the deleted user
+ * @author Legislative Codelists Team
+ */
+public record UserDeletedEvent(Long userId) {
+}
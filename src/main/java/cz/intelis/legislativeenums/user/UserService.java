@@ -3,6 +3,7 @@ package cz.intelis.legislativeenums.user;
 import cz.intelis.legislativeenums.apikey.ApiKey;
 import cz.intelis.legislativeenums.apikey.ApiKeyRepository;
 import lombok.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +22,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final ApiKeyRepository apiKeyRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Retrieves all users.
@@ -72,6 +74,8 @@ public class UserService {
 
     /**
      * Updates an existing user.
+     * Publishes {@link UsagePlanChangedEvent} when the usage plan changes so that
+     * cached API key principals pick up the new rate limit.
      *
      * @param id the ID of the user to update
      * @param dto the new user data
@@ -86,19 +90,24 @@ public class UserService {
         u.setUsername(dto.getUsername()); u.setEmail(dto.getEmail());
         u.setFirstName(dto.getFirstName()); u.setLastName(dto.getLastName());
         u.setRole(User.UserRole.valueOf(dto.getRole())); u.setEnabled(dto.getEnabled());
+        User.UsagePlan oldPlan = u.getUsagePlan();
         if (dto.getUsagePlan() != null) u.setUsagePlan(User.UsagePlan.valueOf(dto.getUsagePlan()));
+        if (oldPlan != u.getUsagePlan()) eventPublisher.publishEvent(new UsagePlanChangedEvent(id, oldPlan, u.getUsagePlan()));
         if (dto.getNewPassword() != null && !dto.getNewPassword().isEmpty()) u.setPassword(passwordEncoder.encode(dto.getNewPassword()));
         return UserDTO.fromEntity(userRepository.save(u));
     }
 
     /**
      * Deletes a user by its ID.
+     * Publishes {@link UserDeletedEvent} so that the user's cached API keys, which the database
+     * deletes along with the user, stop authenticating.
      *
      * @param id the ID of the user to delete
      */
     @Transactional
     public void delete(Long id) {
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
     }
 
     /**
@@ -1,14 +1,24 @@
 package cz.intelis.legislativeenums.voltagelevel;
 
+import cz.intelis.legislativeenums.audit.CodelistHistoryService;
+import cz.intelis.legislativeenums.snapshot.CachedResponse;
+import cz.intelis.legislativeenums.snapshot.CodeBatchRequest;
+import cz.intelis.legislativeenums.snapshot.CodeBatchResult;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
+import cz.intelis.legislativeenums.snapshot.SnapshotCodelist;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,24 +31,36 @@ import java.util.List;
 @RestController
 @RequestMapping(value = "/api/v1/voltage-levels", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
 @RequiredArgsConstructor
+@SnapshotCodelist(VoltageLevelService.CODELIST_CODE)
 @Tag(name = "Voltage Levels", description = "API for managing voltage level classifications")
 public class VoltageLevelApiController {
 
     private final VoltageLevelService voltageLevelService;
+    private final CodelistSnapshotStore snapshotStore;
+    private final CodelistHistoryService codelistHistory;
 
     /**
      * Retrieves all voltage levels, optionally filtered by validity status.
      *
      * @param validOnly if true (default), returns only currently valid voltage levels
+     * @param asOf if set, returns the items valid on this date instead
+     * @param at if set, returns the items as they were at this time
      * @return list of voltage levels as DTOs
      */
     @GetMapping
-    @Operation(summary = "Get all voltage levels", description = "Returns list of voltage levels. By default returns only currently valid items (validOnly=true). Set validOnly=false to get all items.")
+    @Operation(summary = "Get all voltage levels", description = "Returns list of voltage levels. By default returns only currently valid items (validOnly=true). Set validOnly=false to get all items. Set asOf=YYYY-MM-DD to get the items valid on that date. Set at=YYYY-MM-DDTHH:MM:SS to get the items as they were at that time, reconstructed from the audit log.")
+    @CachedResponse
     public ResponseEntity<List<VoltageLevelDTO>> findAll(
-            @RequestParam(required = false, defaultValue = "true") boolean validOnly) {
-        List<VoltageLevelDTO> result = validOnly
-            ? voltageLevelService.findAllCurrentlyValid()
-            : voltageLevelService.findAll();
+            @RequestParam(required = false, defaultValue = "true") boolean validOnly,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        if (at != null) {
+            return ResponseEntity.ok(codelistHistory.itemsAt(VoltageLevelService.CODELIST_CODE,
+                    at, VoltageLevelDTO.class));
+        }
+        CodelistSnapshot<VoltageLevelDTO> snapshot = snapshot();
+        List<VoltageLevelDTO> result = asOf != null ? snapshot.validOn(asOf)
+                : validOnly ? snapshot.currentlyValid() : snapshot.all();
         return ResponseEntity.ok(result);
     }
 
@@ -51,19 +73,48 @@ public class VoltageLevelApiController {
     @GetMapping("/{id}")
     @Operation(summary = "Get voltage level by ID", description = "Returns a single voltage level classification by its unique identifier")
     public ResponseEntity<VoltageLevelDTO> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(voltageLevelService.findById(id));
+        return ResponseEntity.ok(snapshot().findById(id).orElseGet(() -> voltageLevelService.findById(id)));
     }
 
     /**
      * Retrieves a voltage level by its unique code.
      *
      * @param code the voltage level code
+     * @param asOf if set, the item must be valid on this date
      * @return the voltage level as DTO
      */
     @GetMapping("/code/{code}")
     @Operation(summary = "Get voltage level by code", description = "Returns a single voltage level by its unique code (e.g., NN, VN, VVN)")
-    public ResponseEntity<VoltageLevelDTO> findByCode(@PathVariable String code) {
-        return ResponseEntity.ok(voltageLevelService.findByCode(code));
+    public ResponseEntity<VoltageLevelDTO> findByCode(@PathVariable String code,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        VoltageLevelDTO item = snapshot().findByCode(code).orElseGet(() -> voltageLevelService.findByCode(code));
+        return ResponseEntity.ok(CodelistSnapshot.requireValidOn(item, asOf));
+    }
+
+    /**
+     * Checks whether a voltage level with the given code exists, without transferring it.
+     *
+     * @param code the voltage level code
+     * @param asOf if set, the voltage level must be valid on this date
+     * @return HTTP 200 if it exists, HTTP 404 otherwise
+     */
+    @RequestMapping(value = "/code/{code}", method = RequestMethod.HEAD)
+    @Operation(summary = "Check voltage level existence by code", description = "Returns 200 if a voltage level with the code exists (and is valid on asOf, if given), 404 otherwise. No body is sent.")
+    public ResponseEntity<Void> existsByCode(@PathVariable String code,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return snapshot().containsCode(code, asOf) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Retrieves voltage levels by a batch of codes.
+     *
+     * @param request the codes to look up
+     * @return the voltage levels found and the codes that do not exist
+     */
+    @PostMapping("/codes:batchGet")
+    @Operation(summary = "Get voltage levels by codes", description = "Resolves up to " + CodeBatchRequest.MAX_CODES + " codes in one request. Codes that do not exist are listed in missing.")
+    public ResponseEntity<CodeBatchResult<VoltageLevelDTO>> findByCodes(@Valid @RequestBody CodeBatchRequest request) {
+        return ResponseEntity.ok(snapshot().findByCodes(request.getCodes()));
     }
 
     /**
@@ -103,4 +154,8 @@ public class VoltageLevelApiController {
         voltageLevelService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private CodelistSnapshot<VoltageLevelDTO> snapshot() {
+        return snapshotStore.get(VoltageLevelService.CODELIST_CODE);
+    }
 }
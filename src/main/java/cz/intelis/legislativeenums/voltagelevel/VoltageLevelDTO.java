@@ -1,6 +1,7 @@
 package cz.intelis.legislativeenums.voltagelevel;
 
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import cz.intelis.legislativeenums.snapshot.CodedCodelistItem;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -21,7 +22,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @JacksonXmlRootElement(localName = "voltageLevel")
-public class VoltageLevelDTO {
+public class VoltageLevelDTO implements CodedCodelistItem {
 
     private Long id;
 
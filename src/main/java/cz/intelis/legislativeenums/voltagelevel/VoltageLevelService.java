@@ -2,6 +2,7 @@ package cz.intelis.legislativeenums.voltagelevel;
 
 import cz.intelis.legislativeenums.audit.AuditLogService;
 import cz.intelis.legislativeenums.notification.CodelistEventPublisher;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,26 +21,43 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class VoltageLevelService {
+public class VoltageLevelService implements CodelistSnapshotSource<VoltageLevelDTO> {
 
     private static final String CODELIST_NAME = "Úrovně napětí";
-    private static final String CODELIST_CODE = "VOLTAGE_LEVEL";
+    static final String CODELIST_CODE = "VOLTAGE_LEVEL";
 
     private final VoltageLevelRepository voltageLevelRepository;
     private final CodelistEventPublisher eventPublisher;
     private final AuditLogService auditLogService;
 
+    @Override
+    public String getCodelistCode() {
+        return CODELIST_CODE;
+    }
+
+    @Override
+    public String getCodelistName() {
+        return CODELIST_NAME;
+    }
+
     /**
      * Retrieves all voltage levels ordered by sort order and code.
      *
      * @return list of all voltage levels as DTOs
      */
+    @Override
     public List<VoltageLevelDTO> findAll() {
         return voltageLevelRepository.findAllOrdered().stream()
             .map(VoltageLevelDTO::fromEntity)
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, Map<String, Object>> findAllAuditValues() {
+        return voltageLevelRepository.findAllOrdered().stream()
+            .collect(Collectors.toMap(VoltageLevel::getId, this::toAuditMap));
+    }
+
     /**
      * Retrieves all currently valid voltage levels.
      * A record is valid if current date is within validFrom-validTo range.
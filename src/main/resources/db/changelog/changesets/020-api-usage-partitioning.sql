@@ -0,0 +1,64 @@
+-- =====================================================
+-- Migration: Partition api_usage by month
+-- - The existing heap table is renamed and its rows copied into the new partitioned table
+-- - Partitions are named api_usage_YYYY_MM and cover [first day of month, first day of next month)
+-- - The primary key has to include the partition key, so it becomes (id, timestamp)
+-- - Partitions from the oldest row up to three months ahead are created here,
+--   later ones are created by ApiUsagePartitionManager
+-- =====================================================
+
+ALTER TABLE api_usage RENAME TO api_usage_legacy;
+ALTER TABLE api_usage_legacy RENAME CONSTRAINT fk_api_usage_api_key TO fk_api_usage_legacy_api_key;
+ALTER INDEX idx_api_key_timestamp RENAME TO idx_api_usage_legacy_key_timestamp;
+ALTER INDEX idx_timestamp RENAME TO idx_api_usage_legacy_timestamp;
+
+-- Identity columns are not supported on partitioned tables, the id comes from a plain sequence
+CREATE SEQUENCE api_usage_partitioned_id_seq;
+
+CREATE TABLE api_usage (
+    id BIGINT NOT NULL DEFAULT nextval('api_usage_partitioned_id_seq'),
+    api_key_id BIGINT NOT NULL,
+    endpoint VARCHAR(255) NOT NULL,
+    request_count INT NOT NULL DEFAULT 1,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    response_status INT,
+    response_time_ms BIGINT,
+    response_format VARCHAR(10),
+    CONSTRAINT pk_api_usage PRIMARY KEY (id, timestamp),
+    CONSTRAINT fk_api_usage_api_key FOREIGN KEY (api_key_id) REFERENCES api_keys (id) ON DELETE CASCADE
+) PARTITION BY RANGE (timestamp);
+
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE;
+BEGIN
+    month_start := date_trunc('month', COALESCE((SELECT MIN(timestamp) FROM api_usage_legacy), CURRENT_DATE))::date;
+    last_month := GREATEST(date_trunc('month', CURRENT_DATE) + INTERVAL '3 months',
+                           date_trunc('month', COALESCE((SELECT MAX(timestamp) FROM api_usage_legacy), CURRENT_DATE)))::date;
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF api_usage FOR VALUES FROM (%L) TO (%L)',
+                       'api_usage_' || to_char(month_start, 'YYYY_MM'),
+                       month_start,
+                       (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO api_usage (id, api_key_id, endpoint, request_count, timestamp, ip_address, user_agent,
+                       response_status, response_time_ms, response_format)
+SELECT id, api_key_id, endpoint, request_count, timestamp, ip_address, user_agent,
+       response_status, response_time_ms, response_format
+FROM api_usage_legacy;
+
+SELECT setval('api_usage_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM api_usage), 0) + 1, false);
+
+-- Indexes on the parent are created on every partition, including future ones
+CREATE INDEX idx_api_key_timestamp ON api_usage (api_key_id, timestamp);
+CREATE INDEX idx_timestamp ON api_usage (timestamp);
+
+DROP TABLE api_usage_legacy;
+
+ALTER SEQUENCE api_usage_partitioned_id_seq OWNED BY api_usage.id;
@@ -0,0 +1,25 @@
+-- =====================================================
+-- Migration: Store audit values as jsonb
+-- - The trigram search index is dropped here and recreated over the jsonb text in the next changeset
+-- - Values that are not valid JSON (written by an old serialization fallback) are kept as JSON strings
+-- - Existing rows hold complete images on both sides, so they are marked as full images
+-- - The column type change rewrites audit_log and locks it for the duration
+-- =====================================================
+
+DROP INDEX IF EXISTS idx_audit_log_search_trgm;
+
+CREATE FUNCTION audit_log_to_jsonb(value TEXT) RETURNS JSONB AS $$
+BEGIN
+    RETURN value::jsonb;
+EXCEPTION WHEN others THEN
+    RETURN to_jsonb(value);
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+ALTER TABLE audit_log
+    ALTER COLUMN old_values TYPE JSONB USING audit_log_to_jsonb(old_values),
+    ALTER COLUMN new_values TYPE JSONB USING audit_log_to_jsonb(new_values);
+
+DROP FUNCTION audit_log_to_jsonb(TEXT);
+
+ALTER TABLE audit_log ADD COLUMN full_image BOOLEAN NOT NULL DEFAULT TRUE;
@@ -57,8 +57,8 @@ class AdminDashboardControllerTest {
                 ))
                 .dailyStats(dailyStats)
                 .recentRequests(Arrays.asList(
-                        new RecentRequest(LocalDateTime.now(), "/api/v1/groups", "admin", 200, 45L, "127.0.0.1"),
-                        new RecentRequest(LocalDateTime.now().minusMinutes(5), "/api/v1/users", "user1", 404, 52L, "192.168.1.1")
+                        new RecentRequest(2L, LocalDateTime.now(), "/api/v1/groups", "admin", 200, 45L, "127.0.0.1"),
+                        new RecentRequest(1L, LocalDateTime.now().minusMinutes(5), "/api/v1/users", "user1", 404, 52L, "192.168.1.1")
                 ))
                 .jsonRequestCount(80L)
                 .xmlRequestCount(20L)
@@ -1,6 +1,8 @@
 package cz.intelis.legislativeenums.admin;
 
 import cz.intelis.legislativeenums.apikey.ApiKeyRepository;
+import cz.intelis.legislativeenums.common.CursorPage;
+import cz.intelis.legislativeenums.common.KeysetCursor;
 import cz.intelis.legislativeenums.monetization.ApiUsageRepository;
 import cz.intelis.legislativeenums.user.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -62,8 +64,8 @@ class AdminDashboardServiceTest {
         );
 
         testRecentRequests = Arrays.asList(
-                new RecentRequest(LocalDateTime.now(), "/api/v1/groups", "admin", 200, 45L, "127.0.0.1"),
-                new RecentRequest(LocalDateTime.now().minusMinutes(5), "/api/v1/users", "user1", 200, 52L, "192.168.1.1")
+                new RecentRequest(2L, LocalDateTime.now(), "/api/v1/groups", "admin", 200, 45L, "127.0.0.1"),
+                new RecentRequest(1L, LocalDateTime.now().minusMinutes(5), "/api/v1/users", "user1", 200, 52L, "192.168.1.1")
         );
     }
 
@@ -78,7 +80,7 @@ class AdminDashboardServiceTest {
         when(apiUsageRepository.getTopEndpoints(any(LocalDateTime.class), eq(10))).thenReturn(testEndpointStats);
         when(apiUsageRepository.getTopUsers(any(LocalDateTime.class), eq(10))).thenReturn(testUserStats);
         when(apiUsageRepository.getDailyRequestCounts(any(LocalDateTime.class))).thenReturn(testDailyCounts);
-        when(apiUsageRepository.getRecentRequests(100)).thenReturn(testRecentRequests);
+        when(apiUsageRepository.getRecentRequests(any(LocalDateTime.class), eq(KeysetCursor.START.timestamp()), eq(Long.MAX_VALUE), eq(101))).thenReturn(testRecentRequests);
         when(apiUsageRepository.countByResponseFormat("JSON")).thenReturn(80L);
         when(apiUsageRepository.countByResponseFormat("XML")).thenReturn(20L);
 
@@ -163,32 +165,37 @@ class AdminDashboardServiceTest {
     }
 
     @Test
-    @DisplayName("Should return recent requests")
+    @DisplayName("Should return first page of recent requests with cursor of the next page")
     void shouldReturnRecentRequests() {
         // Given
-        when(apiUsageRepository.getRecentRequests(20)).thenReturn(testRecentRequests);
+        when(apiUsageRepository.getRecentRequests(any(LocalDateTime.class), eq(KeysetCursor.START.timestamp()),
+                eq(Long.MAX_VALUE), eq(2))).thenReturn(testRecentRequests);
 
         // When
-        List<RecentRequest> result = adminDashboardService.getRecentRequests(20);
+        CursorPage<RecentRequest> result = adminDashboardService.getRecentRequests(null, 1);
 
         // Then
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getEndpoint()).isEqualTo("/api/v1/groups");
-        assertThat(result.get(0).getResponseStatus()).isEqualTo(200);
-        verify(apiUsageRepository, times(1)).getRecentRequests(20);
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.items().get(0).getEndpoint()).isEqualTo("/api/v1/groups");
+        assertThat(result.items().get(0).getResponseStatus()).isEqualTo(200);
+        assertThat(KeysetCursor.decode(result.nextCursor()))
+                .isEqualTo(new KeysetCursor(testRecentRequests.get(0).getTimestamp(), 2L));
     }
 
     @Test
-    @DisplayName("Should handle empty recent requests")
-    void shouldHandleEmptyRecentRequests() {
+    @DisplayName("Should seek past the cursor position for the next page")
+    void shouldSeekPastCursor() {
         // Given
-        when(apiUsageRepository.getRecentRequests(20)).thenReturn(Collections.emptyList());
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 6, 1, 10, 0), 42L);
+        when(apiUsageRepository.getRecentRequests(any(LocalDateTime.class), eq(cursor.timestamp()), eq(42L), eq(21)))
+                .thenReturn(Collections.emptyList());
 
         // When
-        List<RecentRequest> result = adminDashboardService.getRecentRequests(20);
+        CursorPage<RecentRequest> result = adminDashboardService.getRecentRequests(cursor.encode(), 20);
 
         // Then
-        assertThat(result).isEmpty();
+        assertThat(result.items()).isEmpty();
+        assertThat(result.hasNext()).isFalse();
     }
 
     @Test
@@ -206,7 +213,7 @@ class AdminDashboardServiceTest {
         when(apiUsageRepository.getTopEndpoints(any(LocalDateTime.class), eq(10))).thenReturn(Collections.emptyList());
         when(apiUsageRepository.getTopUsers(any(LocalDateTime.class), eq(10))).thenReturn(Collections.emptyList());
         when(apiUsageRepository.getDailyRequestCounts(any(LocalDateTime.class))).thenReturn(Collections.emptyList());
-        when(apiUsageRepository.getRecentRequests(100)).thenReturn(Collections.emptyList());
+        when(apiUsageRepository.getRecentRequests(any(LocalDateTime.class), eq(KeysetCursor.START.timestamp()), eq(Long.MAX_VALUE), eq(101))).thenReturn(Collections.emptyList());
         when(apiUsageRepository.countByResponseFormat(any())).thenReturn(0L);
 
         // When
@@ -230,7 +237,7 @@ class AdminDashboardServiceTest {
         when(apiUsageRepository.getTopEndpoints(any(LocalDateTime.class), eq(10))).thenReturn(Collections.emptyList());
         when(apiUsageRepository.getTopUsers(any(LocalDateTime.class), eq(10))).thenReturn(Collections.emptyList());
         when(apiUsageRepository.getDailyRequestCounts(any(LocalDateTime.class))).thenReturn(Collections.emptyList());
-        when(apiUsageRepository.getRecentRequests(100)).thenReturn(Collections.emptyList());
+        when(apiUsageRepository.getRecentRequests(any(LocalDateTime.class), eq(KeysetCursor.START.timestamp()), eq(Long.MAX_VALUE), eq(101))).thenReturn(Collections.emptyList());
         when(apiUsageRepository.countByResponseFormat("JSON")).thenReturn(0L);
         when(apiUsageRepository.countByResponseFormat("XML")).thenReturn(0L);
 
@@ -257,7 +264,7 @@ class AdminDashboardServiceTest {
         when(apiUsageRepository.getTopEndpoints(any(LocalDateTime.class), eq(10))).thenReturn(Collections.emptyList());
         when(apiUsageRepository.getTopUsers(any(LocalDateTime.class), eq(10))).thenReturn(Collections.emptyList());
         when(apiUsageRepository.getDailyRequestCounts(any(LocalDateTime.class))).thenReturn(Collections.emptyList());
-        when(apiUsageRepository.getRecentRequests(100)).thenReturn(Collections.emptyList());
+        when(apiUsageRepository.getRecentRequests(any(LocalDateTime.class), eq(KeysetCursor.START.timestamp()), eq(Long.MAX_VALUE), eq(101))).thenReturn(Collections.emptyList());
         when(apiUsageRepository.countByResponseFormat(any())).thenReturn(0L);
 
         // When
@@ -271,7 +278,7 @@ class AdminDashboardServiceTest {
         verify(apiUsageRepository, times(1)).getTopEndpoints(any(LocalDateTime.class), eq(10));
         verify(apiUsageRepository, times(1)).getTopUsers(any(LocalDateTime.class), eq(10));
         verify(apiUsageRepository, times(1)).getDailyRequestCounts(any(LocalDateTime.class));
-        verify(apiUsageRepository, times(1)).getRecentRequests(100);
+        verify(apiUsageRepository, times(1)).getRecentRequests(any(LocalDateTime.class), eq(KeysetCursor.START.timestamp()), eq(Long.MAX_VALUE), eq(101));
         verify(apiUsageRepository, times(1)).countByResponseFormat("JSON");
         verify(apiUsageRepository, times(1)).countByResponseFormat("XML");
     }
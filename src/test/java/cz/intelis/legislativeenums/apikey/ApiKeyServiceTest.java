@@ -16,10 +16,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +34,9 @@ class ApiKeyServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApiKeyCache apiKeyCache;
+
     @InjectMocks
     private ApiKeyService apiKeyService;
 
@@ -149,6 +154,40 @@ class ApiKeyServiceTest {
                 .hasMessageContaining("Invalid API key");
     }
 
+    @Test
+    @DisplayName("Should resolve valid API key principal through cache loader")
+    void shouldResolveValidPrincipalThroughCacheLoader() {
+        // Given
+        when(apiKeyRepository.findValidApiKey("test-api-key-123")).thenReturn(Optional.of(testApiKey));
+        when(apiKeyCache.get(eq("test-api-key-123"), any())).thenAnswer(inv -> {
+            Function<String, ApiKeyPrincipal> loader = inv.getArgument(1);
+            return loader.apply(inv.getArgument(0));
+        });
+
+        // When
+        ApiKeyPrincipal result = apiKeyService.findValidPrincipal("test-api-key-123");
+
+        // Then
+        assertThat(result.keyId()).isEqualTo(1L);
+        assertThat(result.username()).isEqualTo("testuser");
+        verify(apiKeyRepository, times(1)).findValidApiKey("test-api-key-123");
+    }
+
+    @Test
+    @DisplayName("Should reject cached principal after key expired")
+    void shouldRejectCachedPrincipalAfterKeyExpired() {
+        // Given
+        ApiKeyPrincipal expired = new ApiKeyPrincipal(1L, 1L, "testuser", null, LocalDateTime.now().minusMinutes(1));
+        when(apiKeyCache.get(eq("test-api-key-123"), any())).thenReturn(expired);
+
+        // When & Then
+        assertThatThrownBy(() -> apiKeyService.findValidPrincipal("test-api-key-123"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Invalid API key");
+        verify(apiKeyCache).evictByKeyId(1L);
+        verifyNoInteractions(apiKeyRepository);
+    }
+
     @Test
     @DisplayName("Should create new API key")
     void shouldCreateNewApiKey() {
@@ -198,6 +237,7 @@ class ApiKeyServiceTest {
 
         // Then
         verify(apiKeyRepository, times(1)).save(any(ApiKey.class));
+        verify(apiKeyCache).evictByKeyId(1L);
     }
 
     @Test
@@ -208,6 +248,7 @@ class ApiKeyServiceTest {
 
         // Then
         verify(apiKeyRepository, times(1)).deleteById(1L);
+        verify(apiKeyCache).evictByKeyId(1L);
     }
 
     @Test
@@ -225,6 +266,7 @@ class ApiKeyServiceTest {
         ArgumentCaptor<ApiKey> captor = ArgumentCaptor.forClass(ApiKey.class);
         verify(apiKeyRepository).save(captor.capture());
         assertThat(captor.getValue().getApiKey()).isNotEqualTo(originalKey);
+        verify(apiKeyCache).evictByKeyId(1L);
     }
 
     @Test
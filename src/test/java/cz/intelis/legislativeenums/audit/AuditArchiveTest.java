@@ -0,0 +1,101 @@
+package cz.intelis.legislativeenums.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.intelis.legislativeenums.common.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AuditArchive Unit Tests")
+class AuditArchiveTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private AuditArchive archive;
+
+    private static final LocalDateTime START = LocalDateTime.of(2023, 6, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        archive = new AuditArchive(objectMapper, directory.toString());
+        archive.loadIndex();
+    }
+
+    private static AuditLog entry(long id, int minutes, String entityType) {
+        return AuditLog.builder().id(id).entityType(entityType).entityId(id).changeType(AuditLog.ChangeType.UPDATE)
+                .changedBy("admin").changedAt(START.plusMinutes(minutes)).newValues("{\"sortOrder\":" + id + "}")
+                .build();
+    }
+
+    private AuditArchive.Segment writeSegment(AuditLog... entries) throws IOException {
+        try (AuditArchive.SegmentWriter writer = archive.openSegment()) {
+            for (AuditLog entry : entries) {
+                writer.write(entry);
+            }
+            return writer.commit();
+        }
+    }
+
+    @Test
+    @DisplayName("Should list committed segments in the index and find them again after a restart")
+    void shouldPersistSegmentsInIndex() throws IOException {
+        // Given
+        AuditArchive.Segment segment = writeSegment(entry(1L, 0, "VoltageLevel"), entry(3L, 1, "VoltageLevel"),
+                entry(2L, 2, "NetworkType"));
+
+        // When
+        AuditArchive restarted = new AuditArchive(objectMapper, directory.toString());
+        restarted.loadIndex();
+
+        // Then
+        assertThat(segment.recordCount()).isEqualTo(3);
+        assertThat(segment.minId()).isEqualTo(1L);
+        assertThat(segment.maxId()).isEqualTo(3L);
+        assertThat(restarted.getSegments()).containsExactly(segment);
+        assertThat(restarted.lastPosition()).contains(new KeysetCursor(START.plusMinutes(2), 2L));
+        assertThat(restarted.findById(3L)).get().extracting(AuditLog::getNewValues).isEqualTo("{\"sortOrder\":3}");
+        assertThat(restarted.findById(4L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find matching records older than the position, newest first, across segments")
+    void shouldFindAcrossSegments() throws IOException {
+        // Given
+        writeSegment(entry(1L, 0, "VoltageLevel"), entry(2L, 1, "NetworkType"));
+        writeSegment(entry(3L, 2, "VoltageLevel"), entry(4L, 3, "VoltageLevel"), entry(5L, 4, "VoltageLevel"));
+
+        // When
+        List<AuditLog> found = archive.find(entry -> entry.getEntityType().equals("VoltageLevel"),
+                new KeysetCursor(START.plusMinutes(4), 5L), 3);
+
+        // Then
+        assertThat(found).extracting(AuditLog::getId).containsExactly(4L, 3L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should discard a segment that is closed without commit")
+    void shouldDiscardUncommittedSegment() throws IOException {
+        // When
+        try (AuditArchive.SegmentWriter writer = archive.openSegment()) {
+            writer.write(entry(1L, 0, "VoltageLevel"));
+        }
+
+        // Then
+        assertThat(archive.getSegments()).isEmpty();
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package cz.intelis.legislativeenums.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditLogArchiver Unit Tests")
+class AuditLogArchiverTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @TempDir
+    private Path directory;
+
+    private AuditArchive auditArchive;
+    private AuditLogArchiver archiver;
+
+    private static final LocalDateTime CHANGED_AT = LocalDateTime.of(2023, 6, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        auditArchive = new AuditArchive(new ObjectMapper().findAndRegisterModules(), directory.toString());
+        auditArchive.loadIndex();
+        archiver = new AuditLogArchiver(jdbcTemplate, transactionManager, auditArchive, Duration.ofDays(365), 10, 100, 2);
+    }
+
+    private void givenOldRecords(long... ids) throws Exception {
+        when(resultSet.getString(anyString())).thenAnswer(inv -> switch (inv.<String>getArgument(0)) {
+            case "change_type" -> "UPDATE";
+            case "entity_type" -> "VoltageLevel";
+            case "changed_by" -> "admin";
+            default -> null;
+        });
+        when(resultSet.getTimestamp("changed_at")).thenReturn(Timestamp.valueOf(CHANGED_AT));
+        Long[] rest = new Long[ids.length - 1];
+        for (int i = 1; i < ids.length; i++) {
+            rest[i - 1] = ids[i];
+        }
+        when(resultSet.getLong("id")).thenReturn(ids[0], rest);
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (int i = 0; i < ids.length; i++) {
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Should write old records into a segment and delete them in batches afterwards")
+    void shouldArchiveAndDeleteInBatches() throws Exception {
+        // Given
+        givenOldRecords(1L, 2L, 3L);
+        when(jdbcTemplate.update(eq(AuditLogArchiver.DELETE_SQL), any(), anyLong(), anyInt())).thenReturn(2, 1);
+
+        // When
+        int archived = archiver.archive(LocalDateTime.of(2025, 6, 1, 10, 0));
+
+        // Then
+        assertThat(archived).isEqualTo(3);
+        assertThat(auditArchive.getSegments()).singleElement()
+                .satisfies(segment -> assertThat(segment.recordCount()).isEqualTo(3));
+        assertThat(auditArchive.findById(2L)).get().extracting(AuditLog::getChangedBy).isEqualTo("admin");
+        verify(jdbcTemplate, times(2)).update(AuditLogArchiver.DELETE_SQL, Timestamp.valueOf(CHANGED_AT), 3L, 2);
+    }
+
+    @Test
+    @DisplayName("Should write no segment when nothing is past retention")
+    void shouldDoNothingWithoutOldRecords() {
+        // When
+        int archived = archiver.archive(LocalDateTime.of(2025, 6, 1, 10, 0));
+
+        // Then
+        assertThat(archived).isZero();
+        assertThat(auditArchive.getSegments()).isEmpty();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
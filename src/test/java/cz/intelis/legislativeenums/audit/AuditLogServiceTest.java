@@ -0,0 +1,312 @@
+package cz.intelis.legislativeenums.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.intelis.legislativeenums.common.CursorPage;
+import cz.intelis.legislativeenums.common.KeysetCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditLogService Unit Tests")
+class AuditLogServiceTest {
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
+    @Mock
+    private AuditArchive auditArchive;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AuditLogService auditLogService;
+
+    @BeforeEach
+    void setUp() {
+        auditLogService = new AuditLogService(auditLogRepository, auditLogWriter, auditArchive, objectMapper, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand audit record to the writer only after the transaction commits")
+    void shouldEnqueueAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        auditLogService.logCreate("VoltageLevel", 1L, "NN", Map.of("code", "NN"));
+
+        // Then
+        verifyNoInteractions(auditLogWriter);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        ArgumentCaptor<AuditRecord> record = ArgumentCaptor.forClass(AuditRecord.class);
+        verify(auditLogWriter).enqueue(record.capture());
+        assertThat(record.getValue().changeType()).isEqualTo(AuditLog.ChangeType.CREATE);
+        assertThat(record.getValue().changedBy()).isEqualTo("system");
+        assertThat(record.getValue().newValues()).containsEntry("code", "NN");
+    }
+
+    @Test
+    @DisplayName("Should hand audit record to the writer immediately without a transaction")
+    void shouldEnqueueImmediatelyWithoutTransaction() {
+        // When
+        auditLogService.logDelete("VoltageLevel", 1L, "NN", Map.of("code", "NN"));
+
+        // Then
+        verify(auditLogWriter).enqueue(any(AuditRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should skip update without changes")
+    void shouldSkipUpdateWithoutChanges() {
+        // When
+        auditLogService.logUpdate("VoltageLevel", 1L, "NN", Map.of("code", "NN"), Map.of("code", "NN"));
+
+        // Then
+        verifyNoInteractions(auditLogWriter);
+    }
+
+    @Test
+    @DisplayName("Should use the indexed search query when searching")
+    void shouldUseSearchQuery() {
+        // Given
+        KeysetCursor start = KeysetCursor.START;
+        when(auditLogRepository.searchWithFilters(null, "UPDATE", null, "NN", start.timestamp(), start.id(), 26))
+                .thenReturn(List.of(auditLog(1L, LocalDateTime.of(2025, 6, 1, 10, 0))));
+
+        // When
+        CursorPage<AuditLog> page = auditLogService.findWithFilters("", AuditLog.ChangeType.UPDATE, "", "NN", null, 25);
+
+        // Then
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.hasNext()).isFalse();
+        verify(auditLogRepository, never()).findWithFilters(any(), any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should return the position of the last row as cursor and seek past it for the next page")
+    void shouldPageWithCursor() {
+        // Given
+        LocalDateTime changedAt = LocalDateTime.of(2025, 6, 1, 10, 0);
+        KeysetCursor start = KeysetCursor.START;
+        when(auditLogRepository.findWithFilters(null, null, null, start.timestamp(), start.id(), 3))
+                .thenReturn(List.of(auditLog(9L, changedAt), auditLog(8L, changedAt), auditLog(7L, changedAt)));
+        when(auditLogRepository.findWithFilters(null, null, null, changedAt, 8L, 3))
+                .thenReturn(List.of(auditLog(7L, changedAt)));
+
+        // When
+        CursorPage<AuditLog> first = auditLogService.findWithFilters(null, null, null, null, null, 2);
+        CursorPage<AuditLog> second = auditLogService.findWithFilters(null, null, null, null, first.nextCursor(), 2);
+
+        // Then
+        assertThat(first.items()).extracting(AuditLog::getId).containsExactly(9L, 8L);
+        assertThat(second.items()).extracting(AuditLog::getId).containsExactly(7L);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> auditLogService.findWithFilters(null, null, null, null, "not-a-cursor", 25))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(auditLogRepository);
+    }
+
+    @Test
+    @DisplayName("Should cap the count of matching records")
+    void shouldCapCount() {
+        // Given
+        when(auditLogRepository.countSearchWithFilters(null, null, "admin", "NN", AuditLogService.COUNT_LIMIT))
+                .thenReturn(AuditLogService.COUNT_LIMIT);
+
+        // When
+        long count = auditLogService.countWithFilters(null, null, "admin", "NN");
+
+        // Then
+        assertThat(count).isEqualTo(AuditLogService.COUNT_LIMIT);
+    }
+
+    @Test
+    @DisplayName("Should record only changed fields of an update, with null for a field that is gone")
+    void shouldRecordFieldDiffForUpdate() {
+        // When
+        auditLogService.logUpdate("VoltageLevel", 1L, "NN",
+                Map.of("code", "NN", "sortOrder", 1, "nameEn", "Low"), Map.of("code", "NN", "sortOrder", 2));
+
+        // Then
+        ArgumentCaptor<AuditRecord> record = ArgumentCaptor.forClass(AuditRecord.class);
+        verify(auditLogWriter).enqueue(record.capture());
+        assertThat(record.getValue().fullImage()).isFalse();
+        assertThat(record.getValue().oldValues()).containsOnlyKeys("sortOrder", "nameEn").containsEntry("sortOrder", 1);
+        assertThat(record.getValue().newValues()).containsEntry("sortOrder", 2).containsEntry("nameEn", null).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should record complete images on every n-th update of an entity")
+    void shouldRecordFullImagePeriodically() {
+        // When
+        for (int i = 0; i < 3; i++) {
+            auditLogService.logUpdate("VoltageLevel", 1L, "NN", Map.of("code", "NN", "sortOrder", i),
+                    Map.of("code", "NN", "sortOrder", i + 1));
+        }
+
+        // Then
+        ArgumentCaptor<AuditRecord> records = ArgumentCaptor.forClass(AuditRecord.class);
+        verify(auditLogWriter, times(3)).enqueue(records.capture());
+        assertThat(records.getAllValues()).extracting(AuditRecord::fullImage).containsExactly(false, false, true);
+        assertThat(records.getAllValues().get(2).newValues()).containsOnlyKeys("code", "sortOrder");
+    }
+
+    @Test
+    @DisplayName("Should reconstruct complete values from the latest full image and later diffs")
+    void shouldReconstructFromFullImageAndDiffs() {
+        // Given
+        LocalDateTime changedAt = LocalDateTime.of(2025, 6, 1, 10, 0);
+        AuditLog created = auditLog(1L, changedAt);
+        created.setEntityType("VoltageLevel");
+        created.setEntityId(5L);
+        created.setChangeType(AuditLog.ChangeType.CREATE);
+        created.setFullImage(true);
+        created.setNewValues("{\"code\":\"NN\",\"sortOrder\":1,\"nameEn\":\"Low\"}");
+        AuditLog renamed = diff(2L, changedAt.plusMinutes(1), "{\"nameEn\":\"Low\"}", "{\"nameEn\":null}");
+        AuditLog reordered = diff(3L, changedAt.plusMinutes(2), "{\"sortOrder\":1}", "{\"sortOrder\":2}");
+        when(auditLogRepository.findLatestFullImage("VoltageLevel", 5L, reordered.getChangedAt(), 3L))
+                .thenReturn(Optional.of(created));
+        when(auditLogRepository.findEntityHistory("VoltageLevel", 5L, changedAt, 1L, reordered.getChangedAt(), 3L))
+                .thenReturn(List.of(renamed, reordered));
+
+        // When
+        AuditImages images = auditLogService.reconstruct(reordered);
+
+        // Then
+        assertThat(images.before()).containsExactlyInAnyOrderEntriesOf(Map.of("code", "NN", "sortOrder", 1));
+        assertThat(images.after()).containsExactlyInAnyOrderEntriesOf(Map.of("code", "NN", "sortOrder", 2));
+        assertThat(images.changedFields()).containsExactly("sortOrder");
+        assertThat(images.complete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reconstruct from the archived full image when the table has none")
+    void shouldReconstructFromArchivedFullImage() throws Exception {
+        // Given
+        LocalDateTime changedAt = LocalDateTime.of(2023, 6, 1, 10, 0);
+        AuditLog created = diff(1L, changedAt, null, "{\"code\":\"NN\",\"sortOrder\":1,\"nameEn\":\"Low\"}");
+        created.setChangeType(AuditLog.ChangeType.CREATE);
+        created.setFullImage(true);
+        AuditLog renamed = diff(2L, changedAt.plusMinutes(1), "{\"nameEn\":\"Low\"}", "{\"nameEn\":null}");
+        AuditLog reordered = diff(7L, changedAt.plusYears(2), "{\"sortOrder\":1}", "{\"sortOrder\":2}");
+        when(auditLogRepository.findLatestFullImage("VoltageLevel", 5L, reordered.getChangedAt(), 7L))
+                .thenReturn(Optional.empty());
+        when(auditArchive.isEnabled()).thenReturn(true);
+        when(auditArchive.find(any(), eq(new KeysetCursor(reordered.getChangedAt(), 8L)), anyInt()))
+                .thenReturn(List.of(renamed, created));
+        when(auditLogRepository.findEntityHistory("VoltageLevel", 5L, renamed.getChangedAt(), 2L,
+                reordered.getChangedAt(), 7L)).thenReturn(List.of(reordered));
+
+        // When
+        AuditImages images = auditLogService.reconstruct(reordered);
+
+        // Then
+        assertThat(images.before()).containsExactlyInAnyOrderEntriesOf(Map.of("code", "NN", "sortOrder", 1));
+        assertThat(images.after()).containsExactlyInAnyOrderEntriesOf(Map.of("code", "NN", "sortOrder", 2));
+        assertThat(images.complete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should mark the reconstruction incomplete when no full image exists")
+    void shouldMarkReconstructionIncompleteWithoutFullImage() {
+        // Given
+        LocalDateTime changedAt = LocalDateTime.of(2025, 6, 1, 10, 0);
+        AuditLog reordered = diff(3L, changedAt, "{\"sortOrder\":1}", "{\"sortOrder\":2}");
+        when(auditLogRepository.findLatestFullImage("VoltageLevel", 5L, changedAt, 3L)).thenReturn(Optional.empty());
+        when(auditArchive.isEnabled()).thenReturn(false);
+        when(auditLogRepository.findEntityHistory(eq("VoltageLevel"), eq(5L), any(), anyLong(), eq(changedAt), eq(3L)))
+                .thenReturn(List.of(reordered));
+
+        // When
+        AuditImages images = auditLogService.reconstruct(reordered);
+
+        // Then
+        assertThat(images.before()).isEmpty();
+        assertThat(images.after()).containsExactly(Map.entry("sortOrder", 2));
+        assertThat(images.complete()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should continue the listing with archived records past the oldest record in the table")
+    void shouldContinueListingInArchive() throws Exception {
+        // Given
+        LocalDateTime changedAt = LocalDateTime.of(2025, 6, 1, 10, 0);
+        KeysetCursor start = KeysetCursor.START;
+        when(auditLogRepository.findWithFilters(null, null, null, start.timestamp(), start.id(), 3))
+                .thenReturn(List.of(auditLog(9L, changedAt)));
+        when(auditArchive.isEnabled()).thenReturn(true);
+        when(auditArchive.find(any(), eq(new KeysetCursor(changedAt, 9L)), eq(2)))
+                .thenReturn(List.of(auditLog(4L, changedAt.minusYears(2)), auditLog(3L, changedAt.minusYears(2))));
+
+        // When
+        CursorPage<AuditLog> page = auditLogService.findWithFilters(null, null, null, null, null, 2);
+
+        // Then
+        assertThat(page.items()).extracting(AuditLog::getId).containsExactly(9L, 4L);
+        assertThat(KeysetCursor.decode(page.nextCursor())).isEqualTo(new KeysetCursor(changedAt.minusYears(2), 4L));
+    }
+
+    @Test
+    @DisplayName("Should match archived records like the search query")
+    void shouldMatchArchivedRecords() {
+        // Given
+        AuditLog entry = diff(1L, LocalDateTime.of(2023, 6, 1, 10, 0), "{\"nameEn\":\"Low\"}", "{\"nameEn\":\"Lower\"}");
+        entry.setChangedBy("admin");
+
+        // Then
+        assertThat(AuditLogService.matcher("VoltageLevel", AuditLog.ChangeType.UPDATE, "", "LOWER")).accepts(entry);
+        assertThat(AuditLogService.matcher(null, null, "admin", null)).accepts(entry);
+        assertThat(AuditLogService.matcher("NetworkType", null, null, null)).rejects(entry);
+        assertThat(AuditLogService.matcher(null, AuditLog.ChangeType.DELETE, null, null)).rejects(entry);
+        assertThat(AuditLogService.matcher(null, null, null, "high")).rejects(entry);
+    }
+
+    private static AuditLog diff(long id, LocalDateTime changedAt, String oldValues, String newValues) {
+        AuditLog entry = auditLog(id, changedAt);
+        entry.setEntityType("VoltageLevel");
+        entry.setEntityId(5L);
+        entry.setChangeType(AuditLog.ChangeType.UPDATE);
+        entry.setOldValues(oldValues);
+        entry.setNewValues(newValues);
+        return entry;
+    }
+
+    private static AuditLog auditLog(long id, LocalDateTime changedAt) {
+        return AuditLog.builder().id(id).changedAt(changedAt).build();
+    }
+}
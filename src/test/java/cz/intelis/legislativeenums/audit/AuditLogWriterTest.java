@@ -0,0 +1,264 @@
+package cz.intelis.legislativeenums.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditLogWriter Unit Tests")
+class AuditLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditLogWriter auditLogWriter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Worker thread is not started, flush() is driven by the test
+        auditLogWriter = writer("");
+    }
+
+    private AuditLogWriter writer(String walPath) {
+        return new AuditLogWriter(jdbcTemplate, objectMapper, meterRegistry, 3, 2, Duration.ofSeconds(1), walPath, false);
+    }
+
+    private static AuditRecord record(long entityId) {
+        return new AuditRecord("VoltageLevel", entityId, "NN", AuditLog.ChangeType.UPDATE, "admin",
+                LocalDateTime.of(2025, 6, 1, 10, 0), Map.of("nameCs", "Nízké"), Map.of("nameCs", "Nízké napětí"), false);
+    }
+
+    @Test
+    @DisplayName("Should write queued records in batches of configured size")
+    @SuppressWarnings("unchecked")
+    void shouldWriteQueuedRecordsInBatches() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            auditLogWriter.enqueue(record(i));
+        }
+
+        // When
+        int flushed = auditLogWriter.flush();
+
+        // Then
+        assertThat(flushed).isEqualTo(3);
+        assertThat(auditLogWriter.getQueueSize()).isZero();
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(AuditLogWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(meterRegistry.counter("audit.records.written").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should write the record on the calling thread instead of dropping it when queue is full")
+    @SuppressWarnings("unchecked")
+    void shouldWriteInlineWhenQueueIsFull() {
+        // When
+        for (int i = 0; i < 4; i++) {
+            auditLogWriter.enqueue(record(i));
+        }
+
+        // Then
+        assertThat(auditLogWriter.getQueueSize()).isEqualTo(3);
+        ArgumentCaptor<List<AuditRecord>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(AuditLogWriter.INSERT_SQL), batch.capture(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(batch.getValue()).containsExactly(record(3));
+        assertThat(meterRegistry.counter("audit.records.overflow").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should replay records left in the write-ahead file and empty it once written")
+    @SuppressWarnings("unchecked")
+    void shouldReplayWriteAheadFile() throws Exception {
+        // Given - a previous run appended two records and crashed before writing them
+        Path wal = directory.resolve("audit.wal");
+        AuditLogWriter crashed = writer(wal.toString());
+        crashed.openWal();
+        crashed.enqueue(record(1L));
+        crashed.enqueue(record(2L));
+        assertThat(Files.readAllLines(wal)).hasSize(2);
+
+        List<AuditRecord> written = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(eq(AuditLogWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    written.addAll(inv.getArgument(1));
+                    return new int[][]{{1, 1}};
+                });
+
+        // When
+        AuditLogWriter restarted = writer(wal.toString());
+        restarted.openWal();
+        restarted.flush();
+        restarted.trimWal();
+
+        // Then
+        assertThat(written).containsExactly(record(1L), record(2L));
+        assertThat(Files.size(wal)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep records and the write-ahead file while the database is unavailable")
+    @SuppressWarnings("unchecked")
+    void shouldKeepRecordsWhileDatabaseIsUnavailable() throws Exception {
+        // Given
+        Path wal = directory.resolve("audit.wal");
+        AuditLogWriter writer = writer(wal.toString());
+        writer.openWal();
+        writer.enqueue(record(1L));
+        writer.enqueue(record(2L));
+        writer.enqueue(record(3L));
+
+        List<AuditRecord> written = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(eq(AuditLogWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new CannotGetJdbcConnectionException("Connection refused"))
+                .thenAnswer(inv -> {
+                    written.addAll(inv.getArgument(1));
+                    return new int[][]{{1}};
+                });
+
+        // When - the database is down
+        int flushedDuringOutage = writer.flush();
+        writer.trimWal();
+
+        // Then
+        assertThat(flushedDuringOutage).isZero();
+        assertThat(writer.getQueueSize()).isEqualTo(3);
+        assertThat(Files.readAllLines(wal)).hasSize(3);
+        assertThat(meterRegistry.counter("audit.records.failed").count()).isZero();
+
+        // When - the database is back
+        int flushedAfterRecovery = writer.flush();
+        writer.trimWal();
+
+        // Then
+        assertThat(flushedAfterRecovery).isEqualTo(3);
+        assertThat(written).containsExactly(record(1L), record(2L), record(3L));
+        assertThat(writer.getQueueSize()).isZero();
+        assertThat(Files.size(wal)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep only pending records in the write-ahead file while the queue never drains")
+    @SuppressWarnings("unchecked")
+    void shouldTrimWriteAheadFileWhileQueueNeverDrains() throws Exception {
+        // Given
+        Path wal = directory.resolve("audit.wal");
+        AuditLogWriter writer = writer(wal.toString());
+        writer.openWal();
+        writer.enqueue(record(1L));
+
+        List<AuditRecord> written = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(eq(AuditLogWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    written.addAll(inv.getArgument(1));
+                    return new int[][]{{1}};
+                });
+
+        // When - a new change is always enqueued between a flush and the trim
+        long id = 1L;
+        for (int i = 0; i < 10; i++) {
+            writer.enqueue(record(++id));
+            writer.flush();
+            writer.enqueue(record(++id));
+            writer.trimWal();
+
+            // Then - the queue is never empty, yet the file holds only what is still queued
+            assertThat(writer.getQueueSize()).isEqualTo(1);
+            assertThat(Files.readAllLines(wal)).hasSize(1);
+        }
+
+        // When - the process crashes and starts again
+        AuditLogWriter restarted = writer(wal.toString());
+        restarted.openWal();
+
+        // Then - only the record never written is replayed
+        assertThat(written).hasSize(20).doesNotContain(record(id));
+        assertThat(restarted.getQueueSize()).isEqualTo(1);
+        assertThat(restarted.flush()).isEqualTo(1);
+        assertThat(written).hasSize(21).endsWith(record(id));
+    }
+
+    @Test
+    @DisplayName("Should give up only the record the database rejects for its content")
+    @SuppressWarnings("unchecked")
+    void shouldGiveUpOnlyRejectedRecord() {
+        // Given
+        auditLogWriter.enqueue(record(1L));
+        auditLogWriter.enqueue(record(2L));
+        List<AuditRecord> written = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(eq(AuditLogWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    List<AuditRecord> batch = inv.getArgument(1);
+                    if (batch.contains(record(1L))) {
+                        throw new DataIntegrityViolationException("value too long");
+                    }
+                    written.addAll(batch);
+                    return new int[][]{{1}};
+                });
+
+        // When
+        int flushed = auditLogWriter.flush();
+
+        // Then
+        assertThat(flushed).isEqualTo(2);
+        assertThat(written).containsExactly(record(2L));
+        assertThat(auditLogWriter.getQueueSize()).isZero();
+        assertThat(meterRegistry.counter("audit.records.failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should queue beyond capacity instead of writing inline while the database is unavailable")
+    @SuppressWarnings("unchecked")
+    void shouldQueueBeyondCapacityDuringOutage() {
+        // Given
+        when(jdbcTemplate.batchUpdate(eq(AuditLogWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new CannotGetJdbcConnectionException("Connection refused"));
+        auditLogWriter.enqueue(record(1L));
+        auditLogWriter.flush();
+
+        // When
+        for (int i = 2; i <= 5; i++) {
+            auditLogWriter.enqueue(record(i));
+        }
+
+        // Then
+        assertThat(auditLogWriter.getQueueSize()).isEqualTo(5);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(AuditLogWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+}
@@ -0,0 +1,239 @@
+package cz.intelis.legislativeenums.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotSource;
+import cz.intelis.legislativeenums.voltagelevel.VoltageLevelDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CodelistHistoryService Unit Tests")
+class CodelistHistoryServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CodelistSnapshotSource<VoltageLevelDTO> voltageLevels;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private CodelistHistoryService historyService;
+
+    @BeforeEach
+    void setUp() {
+        when(voltageLevels.getCodelistCode()).thenReturn("VOLTAGE_LEVEL");
+        when(voltageLevels.getAuditEntityType()).thenReturn("VoltageLevel");
+        historyService = new CodelistHistoryService(jdbcTemplate, objectMapper, List.of(voltageLevels), Duration.ofMinutes(5));
+    }
+
+    private static CodelistHistoryService.Change change(long entityId, AuditLog.ChangeType changeType,
+                                                        Map<String, Object> newValues, boolean fullImage) {
+        return new CodelistHistoryService.Change(entityId, changeType, newValues, fullImage);
+    }
+
+    private void givenNoCheckpoint() {
+        doReturn(List.of()).when(jdbcTemplate).query(eq(CodelistHistoryService.LATEST_CHECKPOINT_SQL),
+                any(RowMapper.class), eq("VoltageLevel"), any());
+    }
+
+    private void givenCheckpoint(LocalDateTime coveredThrough, long maxAuditId, Map<Long, Map<String, Object>> state) {
+        doReturn(List.of(new CodelistHistoryService.Checkpoint(coveredThrough, maxAuditId, state)))
+                .when(jdbcTemplate).query(eq(CodelistHistoryService.LATEST_CHECKPOINT_SQL),
+                        any(RowMapper.class), eq("VoltageLevel"), any());
+    }
+
+    private void givenChanges(List<CodelistHistoryService.Change> changes) {
+        doReturn(changes).when(jdbcTemplate).query(eq(CodelistHistoryService.CHANGES_SQL),
+                any(RowMapper.class), eq("VoltageLevel"), any(), any(), any(), any(), any());
+    }
+
+    private void givenCheckpointLock(List<String> baselines) {
+        when(jdbcTemplate.queryForObject(CodelistHistoryService.LOCK_SQL, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.queryForList(CodelistHistoryService.BASELINES_SQL, String.class)).thenReturn(baselines);
+        when(jdbcTemplate.queryForObject(CodelistHistoryService.MAX_AUDIT_ID_SQL, Long.class)).thenReturn(42L);
+    }
+
+    private void givenLateChange(LocalDateTime lateChange) {
+        when(jdbcTemplate.queryForObject(eq(CodelistHistoryService.LATE_CHANGE_SQL), eq(Timestamp.class),
+                any(), any(), any())).thenReturn(lateChange != null ? Timestamp.valueOf(lateChange) : null);
+    }
+
+    @Test
+    @DisplayName("Should replay creates, field diffs, full images and deletes in order")
+    void shouldReplayChanges() {
+        // Given
+        Map<Long, Map<String, Object>> checkpoint = Map.of(1L, Map.of("code", "NN", "sortOrder", 1, "nameEn", "Low"));
+
+        // When
+        Map<Long, Map<String, Object>> state = CodelistHistoryService.replay(checkpoint, List.of(
+                change(2L, AuditLog.ChangeType.CREATE, Map.of("code", "VN", "sortOrder", 2), true),
+                change(1L, AuditLog.ChangeType.UPDATE, Collections.singletonMap("nameEn", null), false),
+                change(2L, AuditLog.ChangeType.UPDATE, Map.of("code", "VVN", "sortOrder", 3), true),
+                change(1L, AuditLog.ChangeType.DELETE, Map.of(), true)));
+
+        // Then
+        assertThat(state).containsOnlyKeys(2L);
+        assertThat(state.get(2L)).containsExactlyInAnyOrderEntriesOf(Map.of("code", "VVN", "sortOrder", 3));
+        assertThat(checkpoint.get(1L)).containsKey("nameEn");
+    }
+
+    @Test
+    @DisplayName("Should convert the reconstructed values to DTOs ordered by id")
+    void shouldReturnItemsAtPointInTime() {
+        // Given
+        givenCheckpoint(LocalDateTime.of(2025, 1, 1, 0, 0), 10L, Map.of());
+        givenChanges(List.of(
+                change(7L, AuditLog.ChangeType.CREATE, Map.of("code", "VN", "validFrom", "2020-01-01"), true),
+                change(3L, AuditLog.ChangeType.CREATE, Map.of("code", "NN", "sortOrder", 1), true),
+                change(3L, AuditLog.ChangeType.UPDATE, Map.of("sortOrder", 2), false)));
+
+        // When
+        List<VoltageLevelDTO> items = historyService.itemsAt("VOLTAGE_LEVEL", LocalDateTime.of(2025, 6, 1, 10, 0),
+                VoltageLevelDTO.class);
+
+        // Then
+        assertThat(items).extracting(VoltageLevelDTO::getId).containsExactly(3L, 7L);
+        assertThat(items.get(0).getSortOrder()).isEqualTo(2);
+        assertThat(items.get(1).getValidFrom()).isEqualTo(LocalDate.of(2020, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Should replay changes of seeded items onto their baseline values")
+    void shouldReplayOntoBaseline() {
+        // Given
+        givenCheckpoint(LocalDateTime.of(2025, 1, 1, 0, 0), 10L,
+                Map.of(3L, Map.of("code", "NN", "nameCs", "Nízké napětí", "sortOrder", 1)));
+        givenChanges(List.of(change(3L, AuditLog.ChangeType.UPDATE, Map.of("sortOrder", 2), false)));
+
+        // When
+        List<VoltageLevelDTO> items = historyService.itemsAt("VOLTAGE_LEVEL", LocalDateTime.of(2025, 6, 1, 10, 0),
+                VoltageLevelDTO.class);
+
+        // Then
+        assertThat(items).singleElement().satisfies(item -> {
+            assertThat(item.getNameCs()).isEqualTo("Nízké napětí");
+            assertThat(item.getSortOrder()).isEqualTo(2);
+        });
+        verify(jdbcTemplate).query(eq(CodelistHistoryService.CHANGES_SQL), any(RowMapper.class), eq("VoltageLevel"),
+                eq(Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 0, 0))), any(), eq(10L), eq("VoltageLevel"), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a time before the baseline instead of returning a partial list")
+    void shouldRejectTimeBeforeBaseline() {
+        // Given
+        givenNoCheckpoint();
+
+        // Then
+        assertThatThrownBy(() -> historyService.itemsAt("VOLTAGE_LEVEL", LocalDateTime.of(2020, 1, 1, 0, 0),
+                VoltageLevelDTO.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not available");
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown codelist")
+    void shouldRejectUnknownCodelist() {
+        assertThatThrownBy(() -> historyService.itemsAt("UNKNOWN", LocalDateTime.now(), VoltageLevelDTO.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should save a checkpoint through the lagged cutoff only for codelists with new changes")
+    void shouldSaveCheckpoint() throws Exception {
+        // Given
+        givenCheckpointLock(List.of("VoltageLevel"));
+        givenLateChange(null);
+        givenCheckpoint(LocalDateTime.of(2025, 1, 1, 0, 0), 10L, Map.of());
+        givenChanges(List.of(change(3L, AuditLog.ChangeType.CREATE, Map.of("code", "NN"), true)));
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 10, 0, 30);
+
+        // When
+        int saved = historyService.checkpoint(now);
+
+        // Then
+        assertThat(saved).isEqualTo(1);
+        ArgumentCaptor<String> state = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(eq(CodelistHistoryService.INSERT_CHECKPOINT_SQL), eq("VoltageLevel"),
+                eq(Timestamp.valueOf(LocalDateTime.of(2025, 6, 1, 9, 55, 30))), eq(42L), state.capture(), eq(1),
+                any(), eq(false));
+        assertThat(objectMapper.readTree(state.getValue()).get("3").get("code").asText()).isEqualTo("NN");
+        verify(jdbcTemplate, never()).update(eq(CodelistHistoryService.DELETE_CHECKPOINTS_SQL), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should seed a baseline from the table values of a codelist without one")
+    void shouldSeedBaseline() throws Exception {
+        // Given
+        givenCheckpointLock(List.of());
+        when(voltageLevels.findAllAuditValues()).thenReturn(Map.of(3L, Map.of("code", "NN", "sortOrder", 1)));
+        givenNoCheckpoint();
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 10, 0, 30);
+
+        // When
+        int saved = historyService.checkpoint(now);
+
+        // Then
+        assertThat(saved).isEqualTo(1);
+        ArgumentCaptor<String> state = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(eq(CodelistHistoryService.INSERT_CHECKPOINT_SQL), eq("VoltageLevel"),
+                eq(Timestamp.valueOf(now)), eq(42L), state.capture(), eq(1), any(), eq(true));
+        assertThat(objectMapper.readTree(state.getValue()).get("3").get("sortOrder").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop the checkpoints an audit record written late belongs before")
+    void shouldDropCheckpointsBeforeLateRecord() {
+        // Given
+        LocalDateTime lateChange = LocalDateTime.of(2025, 5, 1, 8, 0);
+        givenCheckpointLock(List.of("VoltageLevel"));
+        givenLateChange(lateChange);
+        givenCheckpoint(LocalDateTime.of(2025, 1, 1, 0, 0), 10L, Map.of());
+        givenChanges(List.of());
+
+        // When
+        historyService.checkpoint(LocalDateTime.of(2025, 6, 1, 10, 0, 30));
+
+        // Then
+        verify(jdbcTemplate).update(CodelistHistoryService.DELETE_CHECKPOINTS_SQL, "VoltageLevel",
+                Timestamp.valueOf(lateChange));
+    }
+
+    @Test
+    @DisplayName("Should skip checkpoints while another replica holds the lock")
+    void shouldSkipCheckpointWithoutLock() {
+        // Given
+        when(jdbcTemplate.queryForObject(CodelistHistoryService.LOCK_SQL, Boolean.class)).thenReturn(false);
+
+        // When
+        int saved = historyService.checkpoint(LocalDateTime.now());
+
+        // Then
+        assertThat(saved).isZero();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,59 @@
+package cz.intelis.legislativeenums.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("KeysetCursor Unit Tests")
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("Should decode an encoded cursor to the same position")
+    void shouldRoundTrip() {
+        // Given
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 6, 1, 10, 0, 0, 123_456_000), 42L);
+
+        // When
+        String token = cursor.encode();
+
+        // Then
+        assertThat(token).doesNotContain("|", "=", "/", "+");
+        assertThat(KeysetCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Should start before the newest row without a token")
+    void shouldStartWithoutToken() {
+        assertThat(KeysetCursor.decode(null)).isEqualTo(KeysetCursor.START);
+        assertThat(KeysetCursor.decode(" ")).isEqualTo(KeysetCursor.START);
+    }
+
+    @Test
+    @DisplayName("Should reject tokens that are not cursors")
+    void shouldRejectInvalidTokens() {
+        assertThatThrownBy(() -> KeysetCursor.decode("%%%")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(new KeysetCursor(LocalDateTime.now(), 1L).encode().substring(4)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should return the extra fetched row only as next cursor")
+    void shouldBuildPageFromExtraRow() {
+        // Given
+        LocalDateTime timestamp = LocalDateTime.of(2025, 6, 1, 10, 0);
+
+        // When
+        CursorPage<Long> page = CursorPage.of(List.of(3L, 2L, 1L), 2, id -> new KeysetCursor(timestamp, id));
+        CursorPage<Long> last = CursorPage.of(List.of(1L), 2, id -> new KeysetCursor(timestamp, id));
+
+        // Then
+        assertThat(page.items()).containsExactly(3L, 2L);
+        assertThat(KeysetCursor.decode(page.nextCursor())).isEqualTo(new KeysetCursor(timestamp, 2L));
+        assertThat(last.hasNext()).isFalse();
+    }
+}
@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.areadetermination;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class AreaDeterminationApiControllerTest {
     @Mock
     private AreaDeterminationService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private AreaDeterminationApiController controller;
 
@@ -49,17 +54,17 @@ class AreaDeterminationApiControllerTest {
         dto2.setCode("2");
         dto2.setNameCs("z geodetických údajů");
         List<AreaDeterminationDTO> areaDeterminations = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(areaDeterminations);
+        givenSnapshot(areaDeterminations);
 
         // When
-        ResponseEntity<List<AreaDeterminationDTO>> response = controller.findAll(false);
+        ResponseEntity<List<AreaDeterminationDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("1");
         assertThat(response.getBody().get(1).getCode()).isEqualTo("2");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -67,22 +72,22 @@ class AreaDeterminationApiControllerTest {
     void shouldReturnOnlyValidAreaDeterminationsWhenValidOnlyIsTrue() {
         // Given
         List<AreaDeterminationDTO> validAreaDeterminations = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validAreaDeterminations);
+        givenSnapshot(validAreaDeterminations);
 
         // When
-        ResponseEntity<List<AreaDeterminationDTO>> response = controller.findAll(true);
+        ResponseEntity<List<AreaDeterminationDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return area determination by ID")
     void shouldReturnAreaDeterminationById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<AreaDeterminationDTO> response = controller.findById(1L);
@@ -90,22 +95,22 @@ class AreaDeterminationApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return area determination by code")
     void shouldReturnAreaDeterminationByCode() {
         // Given
-        when(service.findByCode("1")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<AreaDeterminationDTO> response = controller.findByCode("1");
+        ResponseEntity<AreaDeterminationDTO> response = controller.findByCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findByCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -152,4 +157,9 @@ class AreaDeterminationApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<AreaDeterminationDTO> items) {
+        when(snapshotStore.<AreaDeterminationDTO>get(AreaDeterminationService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(AreaDeterminationService.CODELIST_CODE, 1L, items));
+    }
 }
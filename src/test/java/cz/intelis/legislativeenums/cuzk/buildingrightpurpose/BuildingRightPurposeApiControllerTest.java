@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.buildingrightpurpose;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class BuildingRightPurposeApiControllerTest {
     @Mock
     private BuildingRightPurposeService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private BuildingRightPurposeApiController controller;
 
@@ -49,17 +54,17 @@ class BuildingRightPurposeApiControllerTest {
         dto2.setCode("2");
         dto2.setNameCs("podnikání");
         List<BuildingRightPurposeDTO> buildingRightPurposes = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(buildingRightPurposes);
+        givenSnapshot(buildingRightPurposes);
 
         // When
-        ResponseEntity<List<BuildingRightPurposeDTO>> response = controller.findAll(false);
+        ResponseEntity<List<BuildingRightPurposeDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("1");
         assertThat(response.getBody().get(1).getCode()).isEqualTo("2");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -67,22 +72,22 @@ class BuildingRightPurposeApiControllerTest {
     void shouldReturnOnlyValidBuildingRightPurposesWhenValidOnlyIsTrue() {
         // Given
         List<BuildingRightPurposeDTO> validBuildingRightPurposes = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validBuildingRightPurposes);
+        givenSnapshot(validBuildingRightPurposes);
 
         // When
-        ResponseEntity<List<BuildingRightPurposeDTO>> response = controller.findAll(true);
+        ResponseEntity<List<BuildingRightPurposeDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return building right purpose by ID")
     void shouldReturnBuildingRightPurposeById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<BuildingRightPurposeDTO> response = controller.findById(1L);
@@ -90,22 +95,22 @@ class BuildingRightPurposeApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return building right purpose by code")
     void shouldReturnBuildingRightPurposeByCode() {
         // Given
-        when(service.findByCode("1")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<BuildingRightPurposeDTO> response = controller.findByCode("1");
+        ResponseEntity<BuildingRightPurposeDTO> response = controller.findByCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findByCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -152,4 +157,9 @@ class BuildingRightPurposeApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<BuildingRightPurposeDTO> items) {
+        when(snapshotStore.<BuildingRightPurposeDTO>get(BuildingRightPurposeService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(BuildingRightPurposeService.CODELIST_CODE, 1L, items));
+    }
 }
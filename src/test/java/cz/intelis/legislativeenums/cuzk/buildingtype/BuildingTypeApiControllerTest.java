@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.buildingtype;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class BuildingTypeApiControllerTest {
     @Mock
     private BuildingTypeService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private BuildingTypeApiController controller;
 
@@ -49,17 +54,17 @@ class BuildingTypeApiControllerTest {
         dto2.setCode("2");
         dto2.setNameCs("inženýrská stavba");
         List<BuildingTypeDTO> buildingTypes = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(buildingTypes);
+        givenSnapshot(buildingTypes);
 
         // When
-        ResponseEntity<List<BuildingTypeDTO>> response = controller.findAll(false);
+        ResponseEntity<List<BuildingTypeDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("1");
         assertThat(response.getBody().get(1).getCode()).isEqualTo("2");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -67,22 +72,22 @@ class BuildingTypeApiControllerTest {
     void shouldReturnOnlyValidBuildingTypesWhenValidOnlyIsTrue() {
         // Given
         List<BuildingTypeDTO> validBuildingTypes = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validBuildingTypes);
+        givenSnapshot(validBuildingTypes);
 
         // When
-        ResponseEntity<List<BuildingTypeDTO>> response = controller.findAll(true);
+        ResponseEntity<List<BuildingTypeDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return building type by ID")
     void shouldReturnBuildingTypeById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<BuildingTypeDTO> response = controller.findById(1L);
@@ -90,22 +95,22 @@ class BuildingTypeApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return building type by code")
     void shouldReturnBuildingTypeByCode() {
         // Given
-        when(service.findByCode("1")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<BuildingTypeDTO> response = controller.findByCode("1");
+        ResponseEntity<BuildingTypeDTO> response = controller.findByCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findByCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -152,4 +157,9 @@ class BuildingTypeApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<BuildingTypeDTO> items) {
+        when(snapshotStore.<BuildingTypeDTO>get(BuildingTypeService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(BuildingTypeService.CODELIST_CODE, 1L, items));
+    }
 }
@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.buildingtypeuse;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class BuildingTypeUseApiControllerTest {
     @Mock
     private BuildingTypeUseService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private BuildingTypeUseApiController controller;
 
@@ -47,17 +52,17 @@ class BuildingTypeUseApiControllerTest {
         dto2.setBuildingTypeCode("2");
         dto2.setBuildingUseCode("2");
         List<BuildingTypeUseDTO> buildingTypeUses = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(buildingTypeUses);
+        givenSnapshot(buildingTypeUses);
 
         // When
-        ResponseEntity<List<BuildingTypeUseDTO>> response = controller.findAll(false);
+        ResponseEntity<List<BuildingTypeUseDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getBuildingTypeCode()).isEqualTo("1");
         assertThat(response.getBody().get(1).getBuildingTypeCode()).isEqualTo("2");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -65,22 +70,22 @@ class BuildingTypeUseApiControllerTest {
     void shouldReturnOnlyValidBuildingTypeUsesWhenValidOnlyIsTrue() {
         // Given
         List<BuildingTypeUseDTO> validBuildingTypeUses = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validBuildingTypeUses);
+        givenSnapshot(validBuildingTypeUses);
 
         // When
-        ResponseEntity<List<BuildingTypeUseDTO>> response = controller.findAll(true);
+        ResponseEntity<List<BuildingTypeUseDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return building type use by ID")
     void shouldReturnBuildingTypeUseById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<BuildingTypeUseDTO> response = controller.findById(1L);
@@ -88,7 +93,7 @@ class BuildingTypeUseApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getBuildingTypeCode()).isEqualTo("1");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -96,15 +101,15 @@ class BuildingTypeUseApiControllerTest {
     void shouldReturnBuildingTypeUsesByBuildingTypeCode() {
         // Given
         List<BuildingTypeUseDTO> buildingTypeUses = Arrays.asList(testDTO);
-        when(service.findByBuildingTypeCode("1")).thenReturn(buildingTypeUses);
+        givenSnapshot(buildingTypeUses);
 
         // When
-        ResponseEntity<List<BuildingTypeUseDTO>> response = controller.findByBuildingTypeCode("1");
+        ResponseEntity<List<BuildingTypeUseDTO>> response = controller.findByBuildingTypeCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findByBuildingTypeCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -112,15 +117,15 @@ class BuildingTypeUseApiControllerTest {
     void shouldReturnBuildingTypeUsesByBuildingUseCode() {
         // Given
         List<BuildingTypeUseDTO> buildingTypeUses = Arrays.asList(testDTO);
-        when(service.findByBuildingUseCode("1")).thenReturn(buildingTypeUses);
+        givenSnapshot(buildingTypeUses);
 
         // When
-        ResponseEntity<List<BuildingTypeUseDTO>> response = controller.findByBuildingUseCode("1");
+        ResponseEntity<List<BuildingTypeUseDTO>> response = controller.findByBuildingUseCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findByBuildingUseCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -167,4 +172,9 @@ class BuildingTypeUseApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<BuildingTypeUseDTO> items) {
+        when(snapshotStore.<BuildingTypeUseDTO>get(BuildingTypeUseService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(BuildingTypeUseService.CODELIST_CODE, 1L, items));
+    }
 }
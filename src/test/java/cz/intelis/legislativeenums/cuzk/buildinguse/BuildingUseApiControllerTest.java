@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.buildinguse;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class BuildingUseApiControllerTest {
     @Mock
     private BuildingUseService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private BuildingUseApiController controller;
 
@@ -49,17 +54,17 @@ class BuildingUseApiControllerTest {
         dto2.setCode("2");
         dto2.setNameCs("obchod a služby");
         List<BuildingUseDTO> buildingUses = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(buildingUses);
+        givenSnapshot(buildingUses);
 
         // When
-        ResponseEntity<List<BuildingUseDTO>> response = controller.findAll(false);
+        ResponseEntity<List<BuildingUseDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("1");
         assertThat(response.getBody().get(1).getCode()).isEqualTo("2");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -67,22 +72,22 @@ class BuildingUseApiControllerTest {
     void shouldReturnOnlyValidBuildingUsesWhenValidOnlyIsTrue() {
         // Given
         List<BuildingUseDTO> validBuildingUses = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validBuildingUses);
+        givenSnapshot(validBuildingUses);
 
         // When
-        ResponseEntity<List<BuildingUseDTO>> response = controller.findAll(true);
+        ResponseEntity<List<BuildingUseDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return building use by ID")
     void shouldReturnBuildingUseById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<BuildingUseDTO> response = controller.findById(1L);
@@ -90,22 +95,22 @@ class BuildingUseApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return building use by code")
     void shouldReturnBuildingUseByCode() {
         // Given
-        when(service.findByCode("1")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<BuildingUseDTO> response = controller.findByCode("1");
+        ResponseEntity<BuildingUseDTO> response = controller.findByCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findByCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -152,4 +157,9 @@ class BuildingUseApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<BuildingUseDTO> items) {
+        when(snapshotStore.<BuildingUseDTO>get(BuildingUseService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(BuildingUseService.CODELIST_CODE, 1L, items));
+    }
 }
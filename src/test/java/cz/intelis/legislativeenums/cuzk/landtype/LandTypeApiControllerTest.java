@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.landtype;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class LandTypeApiControllerTest {
     @Mock
     private LandTypeService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private LandTypeApiController controller;
 
@@ -49,17 +54,17 @@ class LandTypeApiControllerTest {
         dto2.setCode("3");
         dto2.setNameCs("chmelnice");
         List<LandTypeDTO> landTypes = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(landTypes);
+        givenSnapshot(landTypes);
 
         // When
-        ResponseEntity<List<LandTypeDTO>> response = controller.findAll(false);
+        ResponseEntity<List<LandTypeDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("2");
         assertThat(response.getBody().get(1).getCode()).isEqualTo("3");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -67,22 +72,22 @@ class LandTypeApiControllerTest {
     void shouldReturnOnlyValidLandTypesWhenValidOnlyIsTrue() {
         // Given
         List<LandTypeDTO> validLandTypes = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validLandTypes);
+        givenSnapshot(validLandTypes);
 
         // When
-        ResponseEntity<List<LandTypeDTO>> response = controller.findAll(true);
+        ResponseEntity<List<LandTypeDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return land type by ID")
     void shouldReturnLandTypeById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<LandTypeDTO> response = controller.findById(1L);
@@ -90,22 +95,22 @@ class LandTypeApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("2");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return land type by code")
     void shouldReturnLandTypeByCode() {
         // Given
-        when(service.findByCode("2")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<LandTypeDTO> response = controller.findByCode("2");
+        ResponseEntity<LandTypeDTO> response = controller.findByCode("2", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("2");
-        verify(service, times(1)).findByCode("2");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -152,4 +157,9 @@ class LandTypeApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<LandTypeDTO> items) {
+        when(snapshotStore.<LandTypeDTO>get(LandTypeService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(LandTypeService.CODELIST_CODE, 1L, items));
+    }
 }
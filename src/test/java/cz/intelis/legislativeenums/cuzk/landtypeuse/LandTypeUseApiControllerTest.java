@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.landtypeuse;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class LandTypeUseApiControllerTest {
     @Mock
     private LandTypeUseService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private LandTypeUseApiController controller;
 
@@ -47,17 +52,17 @@ class LandTypeUseApiControllerTest {
         dto2.setLandTypeCode("3");
         dto2.setLandUseCode("2");
         List<LandTypeUseDTO> landTypeUses = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(landTypeUses);
+        givenSnapshot(landTypeUses);
 
         // When
-        ResponseEntity<List<LandTypeUseDTO>> response = controller.findAll(false);
+        ResponseEntity<List<LandTypeUseDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getLandTypeCode()).isEqualTo("2");
         assertThat(response.getBody().get(1).getLandTypeCode()).isEqualTo("3");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -65,22 +70,22 @@ class LandTypeUseApiControllerTest {
     void shouldReturnOnlyValidLandTypeUsesWhenValidOnlyIsTrue() {
         // Given
         List<LandTypeUseDTO> validLandTypeUses = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validLandTypeUses);
+        givenSnapshot(validLandTypeUses);
 
         // When
-        ResponseEntity<List<LandTypeUseDTO>> response = controller.findAll(true);
+        ResponseEntity<List<LandTypeUseDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return land type use by ID")
     void shouldReturnLandTypeUseById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<LandTypeUseDTO> response = controller.findById(1L);
@@ -88,7 +93,7 @@ class LandTypeUseApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getLandTypeCode()).isEqualTo("2");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -96,15 +101,15 @@ class LandTypeUseApiControllerTest {
     void shouldReturnLandTypeUsesByLandTypeCode() {
         // Given
         List<LandTypeUseDTO> landTypeUses = Arrays.asList(testDTO);
-        when(service.findByLandTypeCode("2")).thenReturn(landTypeUses);
+        givenSnapshot(landTypeUses);
 
         // When
-        ResponseEntity<List<LandTypeUseDTO>> response = controller.findByLandTypeCode("2");
+        ResponseEntity<List<LandTypeUseDTO>> response = controller.findByLandTypeCode("2", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findByLandTypeCode("2");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -112,15 +117,15 @@ class LandTypeUseApiControllerTest {
     void shouldReturnLandTypeUsesByLandUseCode() {
         // Given
         List<LandTypeUseDTO> landTypeUses = Arrays.asList(testDTO);
-        when(service.findByLandUseCode("1")).thenReturn(landTypeUses);
+        givenSnapshot(landTypeUses);
 
         // When
-        ResponseEntity<List<LandTypeUseDTO>> response = controller.findByLandUseCode("1");
+        ResponseEntity<List<LandTypeUseDTO>> response = controller.findByLandUseCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findByLandUseCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -167,4 +172,9 @@ class LandTypeUseApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<LandTypeUseDTO> items) {
+        when(snapshotStore.<LandTypeUseDTO>get(LandTypeUseService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(LandTypeUseService.CODELIST_CODE, 1L, items));
+    }
 }
@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.landuse;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class LandUseApiControllerTest {
     @Mock
     private LandUseService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private LandUseApiController controller;
 
@@ -49,17 +54,17 @@ class LandUseApiControllerTest {
         dto2.setCode("2");
         dto2.setNameCs("lesní půdní fond");
         List<LandUseDTO> landUses = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(landUses);
+        givenSnapshot(landUses);
 
         // When
-        ResponseEntity<List<LandUseDTO>> response = controller.findAll(false);
+        ResponseEntity<List<LandUseDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("1");
         assertThat(response.getBody().get(1).getCode()).isEqualTo("2");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -67,22 +72,22 @@ class LandUseApiControllerTest {
     void shouldReturnOnlyValidLandUsesWhenValidOnlyIsTrue() {
         // Given
         List<LandUseDTO> validLandUses = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validLandUses);
+        givenSnapshot(validLandUses);
 
         // When
-        ResponseEntity<List<LandUseDTO>> response = controller.findAll(true);
+        ResponseEntity<List<LandUseDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return land use by ID")
     void shouldReturnLandUseById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<LandUseDTO> response = controller.findById(1L);
@@ -90,22 +95,22 @@ class LandUseApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return land use by code")
     void shouldReturnLandUseByCode() {
         // Given
-        when(service.findByCode("1")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<LandUseDTO> response = controller.findByCode("1");
+        ResponseEntity<LandUseDTO> response = controller.findByCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findByCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -152,4 +157,9 @@ class LandUseApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<LandUseDTO> items) {
+        when(snapshotStore.<LandUseDTO>get(LandUseService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(LandUseService.CODELIST_CODE, 1L, items));
+    }
 }
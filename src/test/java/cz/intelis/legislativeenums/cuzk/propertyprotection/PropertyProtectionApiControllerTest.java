@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.propertyprotection;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class PropertyProtectionApiControllerTest {
     @Mock
     private PropertyProtectionService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private PropertyProtectionApiController controller;
 
@@ -49,17 +54,17 @@ class PropertyProtectionApiControllerTest {
         dto2.setCode("2");
         dto2.setNameCs("národní kulturní památka");
         List<PropertyProtectionDTO> propertyProtections = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(propertyProtections);
+        givenSnapshot(propertyProtections);
 
         // When
-        ResponseEntity<List<PropertyProtectionDTO>> response = controller.findAll(false);
+        ResponseEntity<List<PropertyProtectionDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("1");
         assertThat(response.getBody().get(1).getCode()).isEqualTo("2");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -67,22 +72,22 @@ class PropertyProtectionApiControllerTest {
     void shouldReturnOnlyValidPropertyProtectionsWhenValidOnlyIsTrue() {
         // Given
         List<PropertyProtectionDTO> validPropertyProtections = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validPropertyProtections);
+        givenSnapshot(validPropertyProtections);
 
         // When
-        ResponseEntity<List<PropertyProtectionDTO>> response = controller.findAll(true);
+        ResponseEntity<List<PropertyProtectionDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return property protection by ID")
     void shouldReturnPropertyProtectionById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<PropertyProtectionDTO> response = controller.findById(1L);
@@ -90,38 +95,42 @@ class PropertyProtectionApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return property protection by code")
     void shouldReturnPropertyProtectionByCode() {
         // Given
-        when(service.findByCode("1")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<PropertyProtectionDTO> response = controller.findByCode("1");
+        ResponseEntity<PropertyProtectionDTO> response = controller.findByCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findByCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return property protections by protection type code")
     void shouldReturnPropertyProtectionsByProtectionTypeCode() {
         // Given
-        List<PropertyProtectionDTO> propertyProtections = Arrays.asList(testDTO);
-        when(service.findByProtectionTypeCode("TYPE1")).thenReturn(propertyProtections);
+        testDTO.setProtectionTypeCode("TYPE1");
+        PropertyProtectionDTO otherType = new PropertyProtectionDTO();
+        otherType.setId(2L);
+        otherType.setCode("2");
+        otherType.setProtectionTypeCode("TYPE2");
+        givenSnapshot(Arrays.asList(testDTO, otherType));
 
         // When
-        ResponseEntity<List<PropertyProtectionDTO>> response = controller.findByProtectionTypeCode("TYPE1");
+        ResponseEntity<List<PropertyProtectionDTO>> response = controller.findByProtectionTypeCode("TYPE1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findByProtectionTypeCode("TYPE1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -168,4 +177,9 @@ class PropertyProtectionApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<PropertyProtectionDTO> items) {
+        when(snapshotStore.<PropertyProtectionDTO>get(PropertyProtectionService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(PropertyProtectionService.CODELIST_CODE, 1L, items));
+    }
 }
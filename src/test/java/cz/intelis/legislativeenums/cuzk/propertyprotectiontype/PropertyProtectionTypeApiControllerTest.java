@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.propertyprotectiontype;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class PropertyProtectionTypeApiControllerTest {
     @Mock
     private PropertyProtectionTypeService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private PropertyProtectionTypeApiController controller;
 
@@ -49,17 +54,17 @@ class PropertyProtectionTypeApiControllerTest {
         dto2.setCode("2");
         dto2.setNameCs("ochrana přírody");
         List<PropertyProtectionTypeDTO> propertyProtectionTypes = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(propertyProtectionTypes);
+        givenSnapshot(propertyProtectionTypes);
 
         // When
-        ResponseEntity<List<PropertyProtectionTypeDTO>> response = controller.findAll(false);
+        ResponseEntity<List<PropertyProtectionTypeDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("1");
         assertThat(response.getBody().get(1).getCode()).isEqualTo("2");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -67,22 +72,22 @@ class PropertyProtectionTypeApiControllerTest {
     void shouldReturnOnlyValidPropertyProtectionTypesWhenValidOnlyIsTrue() {
         // Given
         List<PropertyProtectionTypeDTO> validPropertyProtectionTypes = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validPropertyProtectionTypes);
+        givenSnapshot(validPropertyProtectionTypes);
 
         // When
-        ResponseEntity<List<PropertyProtectionTypeDTO>> response = controller.findAll(true);
+        ResponseEntity<List<PropertyProtectionTypeDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return property protection type by ID")
     void shouldReturnPropertyProtectionTypeById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<PropertyProtectionTypeDTO> response = controller.findById(1L);
@@ -90,22 +95,22 @@ class PropertyProtectionTypeApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return property protection type by code")
     void shouldReturnPropertyProtectionTypeByCode() {
         // Given
-        when(service.findByCode("1")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<PropertyProtectionTypeDTO> response = controller.findByCode("1");
+        ResponseEntity<PropertyProtectionTypeDTO> response = controller.findByCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findByCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -152,4 +157,9 @@ class PropertyProtectionTypeApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<PropertyProtectionTypeDTO> items) {
+        when(snapshotStore.<PropertyProtectionTypeDTO>get(PropertyProtectionTypeService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(PropertyProtectionTypeService.CODELIST_CODE, 1L, items));
+    }
 }
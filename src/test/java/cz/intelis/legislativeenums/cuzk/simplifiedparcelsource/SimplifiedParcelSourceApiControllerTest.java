@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.simplifiedparcelsource;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class SimplifiedParcelSourceApiControllerTest {
     @Mock
     private SimplifiedParcelSourceService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private SimplifiedParcelSourceApiController controller;
 
@@ -49,17 +54,17 @@ class SimplifiedParcelSourceApiControllerTest {
         dto2.setCode("2");
         dto2.setNameCs("evidence nemovitostí");
         List<SimplifiedParcelSourceDTO> simplifiedParcelSources = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(simplifiedParcelSources);
+        givenSnapshot(simplifiedParcelSources);
 
         // When
-        ResponseEntity<List<SimplifiedParcelSourceDTO>> response = controller.findAll(false);
+        ResponseEntity<List<SimplifiedParcelSourceDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("1");
         assertThat(response.getBody().get(1).getCode()).isEqualTo("2");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -67,22 +72,22 @@ class SimplifiedParcelSourceApiControllerTest {
     void shouldReturnOnlyValidSimplifiedParcelSourcesWhenValidOnlyIsTrue() {
         // Given
         List<SimplifiedParcelSourceDTO> validSimplifiedParcelSources = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validSimplifiedParcelSources);
+        givenSnapshot(validSimplifiedParcelSources);
 
         // When
-        ResponseEntity<List<SimplifiedParcelSourceDTO>> response = controller.findAll(true);
+        ResponseEntity<List<SimplifiedParcelSourceDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return simplified parcel source by ID")
     void shouldReturnSimplifiedParcelSourceById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<SimplifiedParcelSourceDTO> response = controller.findById(1L);
@@ -90,22 +95,22 @@ class SimplifiedParcelSourceApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return simplified parcel source by code")
     void shouldReturnSimplifiedParcelSourceByCode() {
         // Given
-        when(service.findByCode("1")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<SimplifiedParcelSourceDTO> response = controller.findByCode("1");
+        ResponseEntity<SimplifiedParcelSourceDTO> response = controller.findByCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findByCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -152,4 +157,9 @@ class SimplifiedParcelSourceApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<SimplifiedParcelSourceDTO> items) {
+        when(snapshotStore.<SimplifiedParcelSourceDTO>get(SimplifiedParcelSourceService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(SimplifiedParcelSourceService.CODELIST_CODE, 1L, items));
+    }
 }
@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.soilecologicalunit;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class SoilEcologicalUnitApiControllerTest {
     @Mock
     private SoilEcologicalUnitService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private SoilEcologicalUnitApiController controller;
 
@@ -49,17 +54,17 @@ class SoilEcologicalUnitApiControllerTest {
         dto2.setCode("1.02.10");
         dto2.setNameCs("Hnědozem");
         List<SoilEcologicalUnitDTO> soilEcologicalUnits = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(soilEcologicalUnits);
+        givenSnapshot(soilEcologicalUnits);
 
         // When
-        ResponseEntity<List<SoilEcologicalUnitDTO>> response = controller.findAll(false);
+        ResponseEntity<List<SoilEcologicalUnitDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("1.01.10");
         assertThat(response.getBody().get(1).getCode()).isEqualTo("1.02.10");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -67,22 +72,22 @@ class SoilEcologicalUnitApiControllerTest {
     void shouldReturnOnlyValidSoilEcologicalUnitsWhenValidOnlyIsTrue() {
         // Given
         List<SoilEcologicalUnitDTO> validSoilEcologicalUnits = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validSoilEcologicalUnits);
+        givenSnapshot(validSoilEcologicalUnits);
 
         // When
-        ResponseEntity<List<SoilEcologicalUnitDTO>> response = controller.findAll(true);
+        ResponseEntity<List<SoilEcologicalUnitDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return soil ecological unit by ID")
     void shouldReturnSoilEcologicalUnitById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<SoilEcologicalUnitDTO> response = controller.findById(1L);
@@ -90,22 +95,22 @@ class SoilEcologicalUnitApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1.01.10");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return soil ecological unit by code")
     void shouldReturnSoilEcologicalUnitByCode() {
         // Given
-        when(service.findByCode("1.01.10")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<SoilEcologicalUnitDTO> response = controller.findByCode("1.01.10");
+        ResponseEntity<SoilEcologicalUnitDTO> response = controller.findByCode("1.01.10", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1.01.10");
-        verify(service, times(1)).findByCode("1.01.10");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -152,4 +157,9 @@ class SoilEcologicalUnitApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<SoilEcologicalUnitDTO> items) {
+        when(snapshotStore.<SoilEcologicalUnitDTO>get(SoilEcologicalUnitService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(SoilEcologicalUnitService.CODELIST_CODE, 1L, items));
+    }
 }
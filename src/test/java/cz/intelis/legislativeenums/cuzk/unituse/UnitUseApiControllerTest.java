@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.cuzk.unituse;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class UnitUseApiControllerTest {
     @Mock
     private UnitUseService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private UnitUseApiController controller;
 
@@ -49,17 +54,17 @@ class UnitUseApiControllerTest {
         dto2.setCode("2");
         dto2.setNameCs("kancelář");
         List<UnitUseDTO> unitUses = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(unitUses);
+        givenSnapshot(unitUses);
 
         // When
-        ResponseEntity<List<UnitUseDTO>> response = controller.findAll(false);
+        ResponseEntity<List<UnitUseDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("1");
         assertThat(response.getBody().get(1).getCode()).isEqualTo("2");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -67,22 +72,22 @@ class UnitUseApiControllerTest {
     void shouldReturnOnlyValidUnitUsesWhenValidOnlyIsTrue() {
         // Given
         List<UnitUseDTO> validUnitUses = Arrays.asList(testDTO);
-        when(service.findAllCurrentlyValid()).thenReturn(validUnitUses);
+        givenSnapshot(validUnitUses);
 
         // When
-        ResponseEntity<List<UnitUseDTO>> response = controller.findAll(true);
+        ResponseEntity<List<UnitUseDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return unit use by ID")
     void shouldReturnUnitUseById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<UnitUseDTO> response = controller.findById(1L);
@@ -90,22 +95,22 @@ class UnitUseApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return unit use by code")
     void shouldReturnUnitUseByCode() {
         // Given
-        when(service.findByCode("1")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<UnitUseDTO> response = controller.findByCode("1");
+        ResponseEntity<UnitUseDTO> response = controller.findByCode("1", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("1");
-        verify(service, times(1)).findByCode("1");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -152,4 +157,9 @@ class UnitUseApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<UnitUseDTO> items) {
+        when(snapshotStore.<UnitUseDTO>get(UnitUseService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(UnitUseService.CODELIST_CODE, 1L, items));
+    }
 }
@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.kso;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
@@ -25,6 +28,9 @@ class BuildingClassificationApiControllerTest {
     @Mock
     private BuildingClassificationService service;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private BuildingClassificationApiController controller;
 
@@ -51,16 +57,16 @@ class BuildingClassificationApiControllerTest {
         dto2.setNameCs("Budovy pro průmysl");
         dto2.setLevel(1);
         List<BuildingClassificationDTO> classifications = Arrays.asList(testDTO, dto2);
-        when(service.findAll()).thenReturn(classifications);
+        givenSnapshot(classifications);
 
         // When
-        ResponseEntity<List<BuildingClassificationDTO>> response = controller.findAll();
+        ResponseEntity<List<BuildingClassificationDTO>> response = controller.findAll(null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("801");
-        verify(service, times(1)).findAll();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -74,33 +80,59 @@ class BuildingClassificationApiControllerTest {
         childDTO.setLevel(2);
         childDTO.setParentId(1L);
 
-        testDTO.setChildren(Arrays.asList(childDTO));
-        when(service.findTree()).thenReturn(Arrays.asList(testDTO));
+        givenSnapshot(Arrays.asList(testDTO, childDTO));
 
         // When
-        ResponseEntity<List<BuildingClassificationDTO>> response = controller.findTree();
+        ResponseEntity<List<BuildingClassificationDTO>> response = controller.findTree(null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        assertThat(response.getBody().get(0).getChildren()).hasSize(1);
-        verify(service, times(1)).findTree();
+        assertThat(response.getBody().get(0).getChildren()).extracting(BuildingClassificationDTO::getCode)
+                .containsExactly("801.1");
+        assertThat(testDTO.getChildren()).isEmpty();
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    @DisplayName("Should leave items not valid on asOf out of the tree")
+    void shouldBuildTreeAsOfDate() {
+        // Given
+        BuildingClassificationDTO expired = new BuildingClassificationDTO();
+        expired.setId(2L);
+        expired.setCode("801.1");
+        expired.setLevel(2);
+        expired.setParentId(1L);
+        expired.setValidTo(LocalDate.of(2020, 12, 31));
+        BuildingClassificationDTO grandchild = new BuildingClassificationDTO();
+        grandchild.setId(3L);
+        grandchild.setCode("801.1.1");
+        grandchild.setLevel(3);
+        grandchild.setParentId(2L);
+        givenSnapshot(Arrays.asList(testDTO, expired, grandchild));
+
+        // When
+        ResponseEntity<List<BuildingClassificationDTO>> response = controller.findTree(LocalDate.of(2025, 1, 1));
+
+        // Then
+        assertThat(response.getBody()).hasSize(1);
+        assertThat(response.getBody().get(0).getChildren()).isEmpty();
     }
 
     @Test
     @DisplayName("Should return root level items")
     void shouldReturnRootLevelItems() {
         // Given
-        when(service.findRootItems()).thenReturn(Arrays.asList(testDTO));
+        givenSnapshot(Arrays.asList(testDTO));
 
         // When
-        ResponseEntity<List<BuildingClassificationDTO>> response = controller.findRoots();
+        ResponseEntity<List<BuildingClassificationDTO>> response = controller.findRoots(null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
         assertThat(response.getBody().get(0).getLevel()).isEqualTo(1);
-        verify(service, times(1)).findRootItems();
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -112,55 +144,60 @@ class BuildingClassificationApiControllerTest {
         childDTO.setCode("801.1");
         childDTO.setNameCs("Budovy pro zdravotní péči");
         childDTO.setLevel(2);
+        childDTO.setParentId(1L);
 
-        when(service.findChildren(1L)).thenReturn(Arrays.asList(childDTO));
+        givenSnapshot(Arrays.asList(testDTO, childDTO));
 
         // When
-        ResponseEntity<List<BuildingClassificationDTO>> response = controller.findChildren(1L);
+        ResponseEntity<List<BuildingClassificationDTO>> response = controller.findChildren(1L, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("801.1");
-        verify(service, times(1)).findChildren(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return items by level")
     void shouldReturnItemsByLevel() {
         // Given
-        when(service.findByLevel(1)).thenReturn(Arrays.asList(testDTO));
+        givenSnapshot(Arrays.asList(testDTO));
 
         // When
-        ResponseEntity<List<BuildingClassificationDTO>> response = controller.findByLevel(1);
+        ResponseEntity<List<BuildingClassificationDTO>> response = controller.findByLevel(1, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
         assertThat(response.getBody().get(0).getLevel()).isEqualTo(1);
-        verify(service, times(1)).findByLevel(1);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should search classifications")
     void shouldSearchClassifications() {
         // Given
-        when(service.search("občan")).thenReturn(Arrays.asList(testDTO));
+        BuildingClassificationDTO other = new BuildingClassificationDTO();
+        other.setId(2L);
+        other.setCode("802");
+        other.setNameCs("Budovy pro průmysl");
+        givenSnapshot(Arrays.asList(testDTO, other));
 
         // When
-        ResponseEntity<List<BuildingClassificationDTO>> response = controller.search("občan");
+        ResponseEntity<List<BuildingClassificationDTO>> response = controller.search("OBČAN", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody()).hasSize(1);
-        verify(service, times(1)).search("občan");
+        assertThat(response.getBody()).containsExactly(testDTO);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return building classification by ID")
     void shouldReturnBuildingClassificationById() {
         // Given
-        when(service.findById(1L)).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
         ResponseEntity<BuildingClassificationDTO> response = controller.findById(1L);
@@ -168,22 +205,22 @@ class BuildingClassificationApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("801");
-        verify(service, times(1)).findById(1L);
+        verifyNoInteractions(service);
     }
 
     @Test
     @DisplayName("Should return building classification by code")
     void shouldReturnBuildingClassificationByCode() {
         // Given
-        when(service.findByCode("801")).thenReturn(testDTO);
+        givenSnapshot(List.of(testDTO));
 
         // When
-        ResponseEntity<BuildingClassificationDTO> response = controller.findByCode("801");
+        ResponseEntity<BuildingClassificationDTO> response = controller.findByCode("801", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("801");
-        verify(service, times(1)).findByCode("801");
+        verifyNoInteractions(service);
     }
 
     @Test
@@ -230,4 +267,9 @@ class BuildingClassificationApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(service, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<BuildingClassificationDTO> items) {
+        when(snapshotStore.<BuildingClassificationDTO>get(BuildingClassificationService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(BuildingClassificationService.CODELIST_CODE, 1L, items));
+    }
 }
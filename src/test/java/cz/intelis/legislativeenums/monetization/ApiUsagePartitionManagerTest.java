@@ -0,0 +1,104 @@
+package cz.intelis.legislativeenums.monetization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApiUsagePartitionManager Unit Tests")
+class ApiUsagePartitionManagerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should create partitions for current month and months ahead")
+    void shouldCreateUpcomingPartitions() {
+        // Given
+        ApiUsagePartitionManager manager = new ApiUsagePartitionManager(jdbcTemplate, 2, 0, true);
+        when(jdbcTemplate.queryForObject(ApiUsagePartitionManager.TRY_LOCK_SQL, Boolean.class)).thenReturn(true);
+
+        // When
+        manager.maintain(TODAY);
+
+        // Then
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS api_usage_2024_03 PARTITION OF api_usage " +
+                "FOR VALUES FROM ('2024-03-01') TO ('2024-04-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS api_usage_2024_04 PARTITION OF api_usage " +
+                "FOR VALUES FROM ('2024-04-01') TO ('2024-05-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS api_usage_2024_05 PARTITION OF api_usage " +
+                "FOR VALUES FROM ('2024-05-01') TO ('2024-06-01')");
+        verify(jdbcTemplate, never()).queryForList(ApiUsagePartitionManager.LIST_PARTITIONS_SQL, String.class);
+    }
+
+    @Test
+    @DisplayName("Should detach and drop only partitions entirely older than retention")
+    void shouldDropExpiredPartitions() {
+        // Given - retention of 12 months keeps everything from 2023-03-10
+        ApiUsagePartitionManager manager = new ApiUsagePartitionManager(jdbcTemplate, 0, 12, true);
+        when(jdbcTemplate.queryForObject(ApiUsagePartitionManager.TRY_LOCK_SQL, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.queryForList(ApiUsagePartitionManager.LIST_PARTITIONS_SQL, String.class))
+                .thenReturn(List.of("api_usage_2023_01", "api_usage_2023_02", "api_usage_2023_03", "api_usage_2024_03"));
+
+        // When
+        manager.maintain(TODAY);
+
+        // Then
+        verify(jdbcTemplate).execute("ALTER TABLE api_usage DETACH PARTITION api_usage_2023_01");
+        verify(jdbcTemplate).execute("DROP TABLE api_usage_2023_01");
+        verify(jdbcTemplate).execute("ALTER TABLE api_usage DETACH PARTITION api_usage_2023_02");
+        verify(jdbcTemplate).execute("DROP TABLE api_usage_2023_02");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE api_usage DETACH PARTITION api_usage_2023_03");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE api_usage DETACH PARTITION api_usage_2024_03");
+    }
+
+    @Test
+    @DisplayName("Should only detach expired partitions when dropping is disabled")
+    void shouldOnlyDetachWhenDropDisabled() {
+        // Given
+        ApiUsagePartitionManager manager = new ApiUsagePartitionManager(jdbcTemplate, 0, 12, false);
+        when(jdbcTemplate.queryForObject(ApiUsagePartitionManager.TRY_LOCK_SQL, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.queryForList(ApiUsagePartitionManager.LIST_PARTITIONS_SQL, String.class))
+                .thenReturn(List.of("api_usage_2022_12"));
+
+        // When
+        manager.maintain(TODAY);
+
+        // Then
+        verify(jdbcTemplate).execute("ALTER TABLE api_usage DETACH PARTITION api_usage_2022_12");
+        verify(jdbcTemplate, never()).execute("DROP TABLE api_usage_2022_12");
+    }
+
+    @Test
+    @DisplayName("Should skip maintenance when another replica holds the lock")
+    void shouldSkipWhenLockNotAcquired() {
+        // Given
+        ApiUsagePartitionManager manager = new ApiUsagePartitionManager(jdbcTemplate, 3, 12, true);
+        when(jdbcTemplate.queryForObject(ApiUsagePartitionManager.TRY_LOCK_SQL, Boolean.class)).thenReturn(false);
+
+        // When
+        manager.maintain(TODAY);
+
+        // Then
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("Should name partitions by year and month")
+    void shouldNamePartitionsByYearAndMonth() {
+        assertThat(ApiUsagePartitionManager.partitionName(YearMonth.of(2024, 1))).isEqualTo("api_usage_2024_01");
+    }
+}
@@ -0,0 +1,102 @@
+package cz.intelis.legislativeenums.monetization;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApiUsageRollupAggregator Unit Tests")
+class ApiUsageRollupAggregatorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 10, 12, 30, 15);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ApiUsageRollupAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new ApiUsageRollupAggregator(jdbcTemplate, Duration.ofMinutes(2), Duration.ofHours(24));
+    }
+
+    @Test
+    @DisplayName("Should aggregate from watermark up to lagged cutoff and advance watermark")
+    void shouldAggregateFromWatermarkToLaggedCutoff() {
+        // Given
+        LocalDateTime watermark = NOW.minusMinutes(10);
+        when(jdbcTemplate.queryForObject(ApiUsageRollupAggregator.LOCK_WATERMARK_SQL, LocalDateTime.class,
+                ApiUsageRollupAggregator.ROLLUP_NAME)).thenReturn(watermark);
+
+        // When
+        LocalDateTime result = aggregator.aggregate(NOW);
+
+        // Then
+        LocalDateTime cutoff = NOW.minusMinutes(2);
+        assertThat(result).isEqualTo(cutoff);
+        verify(jdbcTemplate).update(ApiUsageRollupAggregator.UPSERT_SQL, Timestamp.valueOf(watermark), Timestamp.valueOf(cutoff));
+        verify(jdbcTemplate).update(ApiUsageRollupAggregator.UPDATE_WATERMARK_SQL, Timestamp.valueOf(cutoff),
+                ApiUsageRollupAggregator.ROLLUP_NAME);
+    }
+
+    @Test
+    @DisplayName("Should start from oldest usage hour and cap window on first run")
+    void shouldStartFromOldestUsageHourOnFirstRun() {
+        // Given
+        LocalDateTime oldest = NOW.minusDays(10).withMinute(0).withSecond(0);
+        when(jdbcTemplate.queryForObject(ApiUsageRollupAggregator.LOCK_WATERMARK_SQL, LocalDateTime.class,
+                ApiUsageRollupAggregator.ROLLUP_NAME)).thenReturn(null);
+        when(jdbcTemplate.queryForObject(ApiUsageRollupAggregator.OLDEST_USAGE_HOUR_SQL, LocalDateTime.class))
+                .thenReturn(oldest);
+
+        // When
+        LocalDateTime result = aggregator.aggregate(NOW);
+
+        // Then
+        assertThat(result).isEqualTo(oldest.plusHours(24));
+        verify(jdbcTemplate).update(ApiUsageRollupAggregator.UPSERT_SQL, Timestamp.valueOf(oldest),
+                Timestamp.valueOf(oldest.plusHours(24)));
+    }
+
+    @Test
+    @DisplayName("Should do nothing when there is no usage yet")
+    void shouldDoNothingWithoutUsage() {
+        // Given
+        when(jdbcTemplate.queryForObject(ApiUsageRollupAggregator.LOCK_WATERMARK_SQL, LocalDateTime.class,
+                ApiUsageRollupAggregator.ROLLUP_NAME)).thenReturn(null);
+
+        // When
+        LocalDateTime result = aggregator.aggregate(NOW);
+
+        // Then
+        assertThat(result).isNull();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should not aggregate when watermark is already past the cutoff")
+    void shouldNotAggregateWhenWatermarkIsCurrent() {
+        // Given
+        when(jdbcTemplate.queryForObject(ApiUsageRollupAggregator.LOCK_WATERMARK_SQL, LocalDateTime.class,
+                ApiUsageRollupAggregator.ROLLUP_NAME)).thenReturn(NOW.minusMinutes(1));
+
+        // When
+        LocalDateTime result = aggregator.aggregate(NOW);
+
+        // Then
+        assertThat(result).isNull();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
@@ -1,12 +1,14 @@
 package cz.intelis.legislativeenums.monetization;
 
 import cz.intelis.legislativeenums.apikey.ApiKey;
+import cz.intelis.legislativeenums.apikey.ApiKeyPrincipal;
 import cz.intelis.legislativeenums.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -24,24 +26,29 @@ class MonetizationServiceTest {
     @Mock
     private ApiUsageRepository apiUsageRepository;
 
-    @InjectMocks
+    @Mock
+    private UsageWriter usageWriter;
+
     private MonetizationService monetizationService;
 
-    private ApiKey testApiKey;
+    private ApiKeyPrincipal testApiKey;
     private User testUser;
 
     @BeforeEach
     void setUp() {
+        monetizationService = new MonetizationService(apiUsageRepository, usageWriter, new LocalBucketFactory(), new RateLimitProperties(), new SimpleMeterRegistry());
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setUsername("testuser");
 
-        testApiKey = new ApiKey();
-        testApiKey.setId(1L);
-        testApiKey.setApiKey("test-api-key-123");
-        testApiKey.setName("Test Key");
-        testApiKey.setEnabled(true);
-        testApiKey.setUser(testUser);
+        ApiKey apiKey = new ApiKey();
+        apiKey.setId(1L);
+        apiKey.setApiKey("test-api-key-123");
+        apiKey.setName("Test Key");
+        apiKey.setEnabled(true);
+        apiKey.setUser(testUser);
+        testApiKey = ApiKeyPrincipal.fromEntity(apiKey);
 
         // Clear bucket cache before each test
         monetizationService.clearBucketCache();
@@ -60,8 +67,8 @@ class MonetizationServiceTest {
     @Test
     @DisplayName("Should deny request when rate limit exceeded")
     void shouldDenyRequestWhenRateLimitExceeded() {
-        // Given - consume all tokens (default limit is 1000)
-        for (int i = 0; i < 1000; i++) {
+        // Given - consume all tokens (free tier limit is 100)
+        for (int i = 0; i < 100; i++) {
             monetizationService.checkRateLimit(testApiKey);
         }
 
@@ -72,6 +79,81 @@ class MonetizationServiceTest {
         assertThat(result).isFalse();
     }
 
+    @Test
+    @DisplayName("Should apply higher limit for monthly plan")
+    void shouldApplyHigherLimitForMonthlyPlan() {
+        // Given
+        ApiKeyPrincipal monthly = new ApiKeyPrincipal(1L, 1L, "testuser", User.UsagePlan.PER_MONTH, null);
+
+        // When - more requests than the free tier allows
+        for (int i = 0; i < 150; i++) {
+            assertThat(monetizationService.checkRateLimit(monthly)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not limit pay-per-request plan")
+    void shouldNotLimitPayPerRequestPlan() {
+        // Given
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getEnterprise().setRequests(0);
+        monetizationService = new MonetizationService(apiUsageRepository, usageWriter, new LocalBucketFactory(), properties, new SimpleMeterRegistry());
+        ApiKeyPrincipal perRequest = new ApiKeyPrincipal(1L, 1L, "testuser", User.UsagePlan.PER_REQUEST, null);
+
+        // When & Then
+        for (int i = 0; i < 1000; i++) {
+            assertThat(monetizationService.checkRateLimit(perRequest)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reconfigure existing bucket in place when plan changes")
+    void shouldReconfigureBucketWhenPlanChanges() {
+        // Given - free tier exhausted
+        for (int i = 0; i < 100; i++) {
+            monetizationService.checkRateLimit(testApiKey);
+        }
+        assertThat(monetizationService.checkRateLimit(testApiKey)).isFalse();
+
+        // When - same key now carries a monthly plan
+        ApiKeyPrincipal upgraded = new ApiKeyPrincipal(1L, 1L, "testuser", User.UsagePlan.PER_MONTH, null);
+
+        // Then - consumed tokens stay consumed, the additional basic quota is available
+        assertThat(monetizationService.checkRateLimit(upgraded)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should create bucket through factory once per API key")
+    void shouldCreateBucketThroughFactoryOncePerApiKey() {
+        // Given
+        BucketFactory bucketFactory = spy(new LocalBucketFactory());
+        monetizationService = new MonetizationService(apiUsageRepository, usageWriter, bucketFactory, new RateLimitProperties(), new SimpleMeterRegistry());
+
+        // When
+        monetizationService.checkRateLimit(testApiKey);
+        monetizationService.checkRateLimit(testApiKey);
+
+        // Then
+        verify(bucketFactory, times(1)).create(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Should keep bucket count bounded by configured maximum")
+    void shouldKeepBucketCountBounded() {
+        // Given
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(10);
+        monetizationService = new MonetizationService(apiUsageRepository, usageWriter, new LocalBucketFactory(), properties, new SimpleMeterRegistry());
+
+        // When
+        for (long keyId = 1; keyId <= 100; keyId++) {
+            monetizationService.checkRateLimit(new ApiKeyPrincipal(keyId, 1L, "testuser", null, null));
+        }
+
+        // Then
+        assertThat(monetizationService.getBucketCount()).isLessThanOrEqualTo(10);
+    }
+
     @Test
     @DisplayName("Should record API usage")
     void shouldRecordApiUsage() {
@@ -83,16 +165,19 @@ class MonetizationServiceTest {
         Long responseTime = 100L;
         String responseFormat = "JSON";
 
-        when(apiUsageRepository.save(any(ApiUsage.class)))
-            .thenAnswer(invocation -> invocation.getArgument(0));
-
         // When
         monetizationService.recordUsage(
             testApiKey, endpoint, ipAddress, userAgent, status, responseTime, responseFormat
         );
 
         // Then
-        verify(apiUsageRepository, times(1)).save(any(ApiUsage.class));
+        ArgumentCaptor<UsageRecord> captor = ArgumentCaptor.forClass(UsageRecord.class);
+        verify(usageWriter, times(1)).enqueue(captor.capture());
+        assertThat(captor.getValue().apiKeyId()).isEqualTo(1L);
+        assertThat(captor.getValue().endpoint()).isEqualTo(endpoint);
+        assertThat(captor.getValue().responseStatus()).isEqualTo(200);
+        assertThat(captor.getValue().timestamp()).isNotNull();
+        verifyNoInteractions(apiUsageRepository);
     }
 
     @Test
@@ -106,16 +191,15 @@ class MonetizationServiceTest {
         Long responseTime = 100L;
         String responseFormat = "XML";
 
-        when(apiUsageRepository.save(any(ApiUsage.class)))
-            .thenAnswer(invocation -> invocation.getArgument(0));
-
         // When
         monetizationService.recordUsage(
             testApiKey, endpoint, ipAddress, userAgent, status, responseTime, responseFormat
         );
 
         // Then
-        verify(apiUsageRepository, times(1)).save(any(ApiUsage.class));
+        ArgumentCaptor<UsageRecord> captor = ArgumentCaptor.forClass(UsageRecord.class);
+        verify(usageWriter, times(1)).enqueue(captor.capture());
+        assertThat(captor.getValue().responseFormat()).isEqualTo("XML");
     }
 
     @Test
@@ -138,7 +222,7 @@ class MonetizationServiceTest {
     @DisplayName("Should clear bucket cache")
     void shouldClearBucketCache() {
         // Given - consume some tokens
-        for (int i = 0; i < 500; i++) {
+        for (int i = 0; i < 50; i++) {
             monetizationService.checkRateLimit(testApiKey);
         }
 
@@ -146,7 +230,7 @@ class MonetizationServiceTest {
         monetizationService.clearBucketCache();
 
         // Then - should be able to use full limit again
-        for (int i = 0; i < 1000; i++) {
+        for (int i = 0; i < 100; i++) {
             boolean result = monetizationService.checkRateLimit(testApiKey);
             assertThat(result).isTrue();
         }
@@ -162,14 +246,15 @@ class MonetizationServiceTest {
         apiKey2.setName("Test Key 2");
         apiKey2.setEnabled(true);
         apiKey2.setUser(testUser);
+        ApiKeyPrincipal principal2 = ApiKeyPrincipal.fromEntity(apiKey2);
 
         // When - consume all tokens from first key
-        for (int i = 0; i < 1000; i++) {
+        for (int i = 0; i < 100; i++) {
             monetizationService.checkRateLimit(testApiKey);
         }
 
         // Then - second key should still work
-        boolean result = monetizationService.checkRateLimit(apiKey2);
+        boolean result = monetizationService.checkRateLimit(principal2);
         assertThat(result).isTrue();
     }
 
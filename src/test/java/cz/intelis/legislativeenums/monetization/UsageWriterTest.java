@@ -0,0 +1,143 @@
+package cz.intelis.legislativeenums.monetization;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UsageWriter Unit Tests")
+class UsageWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UsageWriter usageWriter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Worker thread is not started, flush() is driven by the test
+        usageWriter = new UsageWriter(jdbcTemplate, meterRegistry, 5, 2, Duration.ofSeconds(1));
+    }
+
+    private UsageRecord record(long apiKeyId) {
+        return new UsageRecord(apiKeyId, "/api/v1/voltage-levels", LocalDateTime.now(),
+                "127.0.0.1", "JUnit", 200, 5L, "JSON");
+    }
+
+    @Test
+    @DisplayName("Should write queued records in batches of configured size")
+    @SuppressWarnings("unchecked")
+    void shouldWriteQueuedRecordsInBatches() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            usageWriter.enqueue(record(1L));
+        }
+
+        // When
+        int flushed = usageWriter.flush();
+
+        // Then
+        assertThat(flushed).isEqualTo(5);
+        assertThat(usageWriter.getQueueSize()).isZero();
+        verify(jdbcTemplate, times(3)).batchUpdate(eq(UsageWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(meterRegistry.counter("api.usage.records.written").count()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("Should drop and count records when queue is full")
+    void shouldDropRecordsWhenQueueIsFull() {
+        // When
+        for (int i = 0; i < 7; i++) {
+            usageWriter.enqueue(record(1L));
+        }
+
+        // Then
+        assertThat(usageWriter.getQueueSize()).isEqualTo(5);
+        assertThat(usageWriter.getDroppedCount()).isEqualTo(2);
+        assertThat(usageWriter.enqueue(record(1L))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should retry failed batch row by row and count rejected rows")
+    @SuppressWarnings("unchecked")
+    void shouldRetryFailedBatchRowByRow() {
+        // Given
+        usageWriter.enqueue(record(1L));
+        usageWriter.enqueue(record(99L));
+        when(jdbcTemplate.batchUpdate(eq(UsageWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    List<UsageRecord> batch = inv.getArgument(1);
+                    if (batch.stream().anyMatch(r -> r.apiKeyId() == 99L)) {
+                        throw new DataIntegrityViolationException("fk_api_usage_api_key");
+                    }
+                    return new int[][]{{1}};
+                });
+
+        // When
+        usageWriter.flush();
+
+        // Then
+        assertThat(meterRegistry.counter("api.usage.records.written").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("api.usage.records.failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should keep the batch queued when the database connection fails")
+    @SuppressWarnings("unchecked")
+    void shouldKeepBatchQueuedOnConnectionFailure() {
+        // Given
+        usageWriter.enqueue(record(1L));
+        usageWriter.enqueue(record(2L));
+        usageWriter.enqueue(record(3L));
+        when(jdbcTemplate.batchUpdate(eq(UsageWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new CannotGetJdbcConnectionException("Connection is not available"));
+
+        // When
+        int flushed = usageWriter.flush();
+
+        // Then - one attempt for the whole batch, no row-by-row retry, nothing lost
+        assertThat(flushed).isZero();
+        assertThat(usageWriter.getQueueSize()).isEqualTo(3);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(UsageWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(meterRegistry.counter("api.usage.records.failed").count()).isZero();
+
+        // When - the database is back
+        reset(jdbcTemplate);
+        List<Long> written = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(eq(UsageWriter.INSERT_SQL), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    List<UsageRecord> batch = inv.getArgument(1);
+                    batch.forEach(r -> written.add(r.apiKeyId()));
+                    return new int[][]{{1}};
+                });
+        usageWriter.flush();
+
+        // Then
+        assertThat(written).containsExactly(1L, 2L, 3L);
+        assertThat(usageWriter.getQueueSize()).isZero();
+    }
+}
@@ -1,5 +1,7 @@
 package cz.intelis.legislativeenums.networktype;
 
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ class NetworkTypeApiControllerTest {
     @Mock
     private NetworkTypeService networkTypeService;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
     @InjectMocks
     private NetworkTypeApiController controller;
 
@@ -49,16 +54,16 @@ class NetworkTypeApiControllerTest {
         dto2.setCode("GAS");
         dto2.setNameCs("Plynová síť");
         List<NetworkTypeDTO> networkTypes = Arrays.asList(testNetworkTypeDTO, dto2);
-        when(networkTypeService.findAll()).thenReturn(networkTypes);
+        givenSnapshot(networkTypes);
 
         // When
-        ResponseEntity<List<NetworkTypeDTO>> response = controller.findAll(false);
+        ResponseEntity<List<NetworkTypeDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("ELE");
-        verify(networkTypeService, times(1)).findAll();
+        verifyNoInteractions(networkTypeService);
     }
 
     @Test
@@ -66,22 +71,22 @@ class NetworkTypeApiControllerTest {
     void shouldReturnOnlyValidNetworkTypesWhenValidOnlyIsTrue() {
         // Given
         List<NetworkTypeDTO> validNetworkTypes = Arrays.asList(testNetworkTypeDTO);
-        when(networkTypeService.findAllCurrentlyValid()).thenReturn(validNetworkTypes);
+        givenSnapshot(validNetworkTypes);
 
         // When
-        ResponseEntity<List<NetworkTypeDTO>> response = controller.findAll(true);
+        ResponseEntity<List<NetworkTypeDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(networkTypeService, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(networkTypeService);
     }
 
     @Test
     @DisplayName("Should return network type by ID")
     void shouldReturnNetworkTypeById() {
         // Given
-        when(networkTypeService.findById(1L)).thenReturn(testNetworkTypeDTO);
+        givenSnapshot(List.of(testNetworkTypeDTO));
 
         // When
         ResponseEntity<NetworkTypeDTO> response = controller.findById(1L);
@@ -89,22 +94,22 @@ class NetworkTypeApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("ELE");
-        verify(networkTypeService, times(1)).findById(1L);
+        verifyNoInteractions(networkTypeService);
     }
 
     @Test
     @DisplayName("Should return network type by code")
     void shouldReturnNetworkTypeByCode() {
         // Given
-        when(networkTypeService.findByCode("ELE")).thenReturn(testNetworkTypeDTO);
+        givenSnapshot(List.of(testNetworkTypeDTO));
 
         // When
-        ResponseEntity<NetworkTypeDTO> response = controller.findByCode("ELE");
+        ResponseEntity<NetworkTypeDTO> response = controller.findByCode("ELE", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("ELE");
-        verify(networkTypeService, times(1)).findByCode("ELE");
+        verifyNoInteractions(networkTypeService);
     }
 
     @Test
@@ -151,4 +156,9 @@ class NetworkTypeApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(networkTypeService, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<NetworkTypeDTO> items) {
+        when(snapshotStore.<NetworkTypeDTO>get(NetworkTypeService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(NetworkTypeService.CODELIST_CODE, 1L, items));
+    }
 }
@@ -0,0 +1,124 @@
+package cz.intelis.legislativeenums.notification;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationReplayBuffer Unit Tests")
+class NotificationReplayBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private static String data(Set<DataWithMediaType> frame) {
+        return frame.stream().map(part -> String.valueOf(part.getData())).reduce("", String::concat);
+    }
+
+    @Test
+    @DisplayName("Should assign increasing ids and replay the entries after the given one")
+    void shouldReplayEntriesAfterId() {
+        // Given
+        NotificationReplayBuffer buffer = new NotificationReplayBuffer(jdbcTemplate, 3, false, Duration.ofDays(7), 100);
+        long start = buffer.getNewestId();
+        NotificationReplayBuffer.Entry first = buffer.append("codelist-change", "{\"n\":1}");
+        NotificationReplayBuffer.Entry second = buffer.append("codelist-change", "{\"n\":2}");
+
+        // When
+        Optional<List<Set<DataWithMediaType>>> fromStart = buffer.since(start);
+        Optional<List<Set<DataWithMediaType>>> afterFirst = buffer.since(first.id());
+        Optional<List<Set<DataWithMediaType>>> afterNewest = buffer.since(second.id());
+
+        // Then
+        assertThat(second.id()).isEqualTo(first.id() + 1);
+        assertThat(data(first.frame())).contains("id:" + first.id()).contains("event:codelist-change");
+        assertThat(fromStart).hasValueSatisfying(frames -> assertThat(frames).hasSize(2));
+        assertThat(afterFirst).hasValueSatisfying(frames -> assertThat(frames).containsExactly(second.frame()));
+        assertThat(afterNewest).hasValueSatisfying(frames -> assertThat(frames).isEmpty());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should not cover ids older than the ring or unknown to it")
+    void shouldNotCoverEvictedOrUnknownIds() {
+        // Given
+        NotificationReplayBuffer buffer = new NotificationReplayBuffer(jdbcTemplate, 2, false, Duration.ofDays(7), 100);
+        NotificationReplayBuffer.Entry first = buffer.append("codelist-change", "{\"n\":1}");
+        NotificationReplayBuffer.Entry second = buffer.append("codelist-change", "{\"n\":2}");
+        NotificationReplayBuffer.Entry third = buffer.append("codelist-change", "{\"n\":3}");
+        NotificationReplayBuffer.Entry fourth = buffer.append("codelist-change", "{\"n\":4}");
+
+        // Then
+        assertThat(buffer.since(second.id())).hasValueSatisfying(frames ->
+                assertThat(frames).containsExactly(third.frame(), fourth.frame()));
+        assertThat(buffer.since(first.id())).isEmpty();
+        assertThat(buffer.since(fourth.id() + 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should take ids from the table and replay older gaps from it")
+    void shouldReplayFromTable() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(100L);
+        when(jdbcTemplate.queryForObject(eq(NotificationReplayBuffer.INSERT_SQL), eq(Long.class), any(), any(), any()))
+                .thenReturn(101L, 102L);
+        NotificationReplayBuffer buffer = new NotificationReplayBuffer(jdbcTemplate, 1, true, Duration.ofDays(7), 100);
+        buffer.start();
+        buffer.append("codelist-change", "{\"n\":1}");
+        NotificationReplayBuffer.Entry kept = buffer.append("codelist-change", "{\"n\":2}");
+        Set<DataWithMediaType> stored = NotificationReplayBuffer.frame(101L, "codelist-change", "{\"n\":1}");
+        when(jdbcTemplate.query(eq(NotificationReplayBuffer.SINCE_SQL), any(RowMapper.class), eq(100L), eq(102L), eq(101)))
+                .thenReturn(List.of(stored, kept.frame()));
+
+        // When
+        Optional<List<Set<DataWithMediaType>>> frames = buffer.since(100L);
+
+        // Then
+        assertThat(buffer.getNewestId()).isEqualTo(102L);
+        assertThat(frames).hasValueSatisfying(list -> assertThat(list).containsExactly(stored, kept.frame()));
+    }
+
+    @Test
+    @DisplayName("Should replace a notification that cannot be stored by a resync without taking an id")
+    void shouldResyncWhenNotificationCannotBeStored() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(100L);
+        when(jdbcTemplate.queryForObject(eq(NotificationReplayBuffer.INSERT_SQL), eq(Long.class), any(), any(), any()))
+                .thenReturn(101L)
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(102L);
+        NotificationReplayBuffer buffer = new NotificationReplayBuffer(jdbcTemplate, 10, true, Duration.ofDays(7), 100);
+        buffer.start();
+        NotificationReplayBuffer.Entry first = buffer.append("codelist-change", "{\"n\":1}");
+
+        // When
+        NotificationReplayBuffer.Entry failed = buffer.append("codelist-change", "{\"n\":2}");
+        NotificationReplayBuffer.Entry third = buffer.append("codelist-change", "{\"n\":3}");
+
+        // Then
+        assertThat(failed.id()).isEqualTo(101L);
+        assertThat(data(failed.frame())).contains("event:" + NotificationService.RESYNC_EVENT);
+        assertThat(third.id()).isEqualTo(102L);
+        assertThat(buffer.getFailedAppends()).isEqualTo(1);
+        assertThat(buffer.since(first.id())).isEmpty();
+        assertThat(buffer.since(third.id())).hasValueSatisfying(frames -> assertThat(frames).isEmpty());
+    }
+}
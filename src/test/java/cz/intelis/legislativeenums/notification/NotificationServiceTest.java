@@ -1,30 +1,130 @@
 package cz.intelis.legislativeenums.notification;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("NotificationService Unit Tests")
 class NotificationServiceTest {
 
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     private NotificationService notificationService;
 
+    /** Send tasks held back until the test runs them, as if the sender threads were busy. */
+    private final List<Runnable> pendingSends = new ArrayList<>();
+
     @BeforeEach
     void setUp() {
-        notificationService = new NotificationService();
+        notificationService = new NotificationService(objectMapper, replayBuffer(10), new SimpleMeterRegistry(), 64,
+                NotificationService.SlowClientPolicy.DISCONNECT, Runnable::run, Duration.ofSeconds(10));
+    }
+
+    private static NotificationReplayBuffer replayBuffer(int capacity) {
+        return new NotificationReplayBuffer(null, capacity, false, Duration.ofDays(7), 100);
+    }
+
+    /**
+     * Emitter recording the frames sent to it.
+     */
+    static class RecordingEmitter extends SseEmitter {
+        final List<Set<DataWithMediaType>> sent = new ArrayList<>();
+        boolean completed;
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            sent.add(items);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+
+    /**
+     * Emitter of a client that stopped reading: every send blocks until the client is released.
+     */
+    static class StalledEmitter extends SseEmitter {
+        final CountDownLatch released = new CountDownLatch(1);
+        volatile boolean sending;
+        volatile boolean completed;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            sending = true;
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+
+    private NotificationService serviceWithHeldBackSends(int queueCapacity, NotificationService.SlowClientPolicy policy) {
+        return new NotificationService(objectMapper, replayBuffer(10), new SimpleMeterRegistry(), queueCapacity, policy,
+                pendingSends::add, Duration.ofSeconds(10));
+    }
+
+    private void runPendingSends() {
+        List<Runnable> tasks = new ArrayList<>(pendingSends);
+        pendingSends.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static CodelistChangeEvent event(String entityCode) {
+        return new CodelistChangeEvent(new Object(), "Test Codelist", "TEST", ChangeType.UPDATE, 1L,
+                entityCode, "Test Entity", "admin");
+    }
+
+    private static String data(Set<DataWithMediaType> frame) {
+        return frame.stream().map(part -> String.valueOf(part.getData())).reduce("", String::concat);
+    }
+
+    private static String id(Set<DataWithMediaType> frame) {
+        String data = data(frame);
+        int start = data.indexOf("id:");
+        return start < 0 ? null : data.substring(start + 3, data.indexOf('\n', start));
     }
 
     @Test
     @DisplayName("Should create SSE emitter")
     void shouldCreateSseEmitter() {
         // When
-        SseEmitter emitter = notificationService.createEmitter();
+        SseEmitter emitter = notificationService.createEmitter(null);
 
         // Then
         assertThat(emitter).isNotNull();
@@ -35,9 +135,9 @@ class NotificationServiceTest {
     @DisplayName("Should track multiple connected clients")
     void shouldTrackMultipleConnectedClients() {
         // When
-        notificationService.createEmitter();
-        notificationService.createEmitter();
-        notificationService.createEmitter();
+        notificationService.createEmitter(null);
+        notificationService.createEmitter(null);
+        notificationService.createEmitter(null);
 
         // Then
         assertThat(notificationService.getConnectedClientsCount()).isEqualTo(3);
@@ -54,7 +154,7 @@ class NotificationServiceTest {
     @DisplayName("Should handle codelist change event")
     void shouldHandleCodelistChangeEvent() {
         // Given
-        notificationService.createEmitter();
+        notificationService.createEmitter(null);
         CodelistChangeEvent event = new CodelistChangeEvent(
                 this,
                 "Test Codelist",
@@ -77,7 +177,7 @@ class NotificationServiceTest {
     @DisplayName("Should handle UPDATE change type event")
     void shouldHandleUpdateChangeTypeEvent() {
         // Given
-        notificationService.createEmitter();
+        notificationService.createEmitter(null);
         CodelistChangeEvent event = new CodelistChangeEvent(
                 this,
                 "Test Codelist",
@@ -100,7 +200,7 @@ class NotificationServiceTest {
     @DisplayName("Should handle DELETE change type event")
     void shouldHandleDeleteChangeTypeEvent() {
         // Given
-        notificationService.createEmitter();
+        notificationService.createEmitter(null);
         CodelistChangeEvent event = new CodelistChangeEvent(
                 this,
                 "Test Codelist",
@@ -140,4 +240,236 @@ class NotificationServiceTest {
         // Then
         assertThat(notificationService.getConnectedClientsCount()).isEqualTo(0);
     }
+
+    @Test
+    @DisplayName("Should serialize a notification once and send the same frame to every client")
+    void shouldSendSharedFrameToAllClients() {
+        // Given
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        notificationService.register(first, null);
+        notificationService.register(second, null);
+
+        // When
+        notificationService.handleCodelistChange(event("CODE1"));
+
+        // Then
+        assertThat(first.sent).hasSize(2);
+        assertThat(second.sent).hasSize(2);
+        assertThat(first.sent.get(1)).isSameAs(second.sent.get(1));
+        assertThat(data(first.sent.get(0))).contains("event:connected");
+        assertThat(data(first.sent.get(1))).contains("event:" + NotificationService.CHANGE_EVENT)
+                .contains("\"entityCode\":\"CODE1\"");
+    }
+
+    @Test
+    @DisplayName("Should disconnect a client whose queue is full without waiting for it")
+    void shouldDisconnectSlowClient() {
+        // Given - queue holds one notification besides the connected event
+        NotificationService service = serviceWithHeldBackSends(1, NotificationService.SlowClientPolicy.DISCONNECT);
+        RecordingEmitter slow = new RecordingEmitter();
+        service.register(slow, null);
+        service.handleCodelistChange(event("CODE1"));
+
+        // When
+        service.handleCodelistChange(event("CODE2"));
+
+        // Then
+        assertThat(service.getConnectedClientsCount()).isZero();
+        assertThat(slow.completed).isFalse();
+        runPendingSends();
+        assertThat(slow.completed).isTrue();
+        assertThat(slow.sent).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest frames of a client that lags behind")
+    void shouldDropOldestFramesOfLaggingClient() {
+        // Given
+        NotificationService service = serviceWithHeldBackSends(1, NotificationService.SlowClientPolicy.DROP_OLDEST);
+        RecordingEmitter lagging = new RecordingEmitter();
+        service.register(lagging, null);
+
+        // When
+        service.handleCodelistChange(event("CODE1"));
+        service.handleCodelistChange(event("CODE2"));
+        runPendingSends();
+
+        // Then
+        assertThat(service.getConnectedClientsCount()).isEqualTo(1);
+        assertThat(lagging.sent).extracting(NotificationServiceTest::data)
+                .satisfiesExactly(
+                        frame -> assertThat(frame).contains("CODE1"),
+                        frame -> assertThat(frame).contains("CODE2"));
+    }
+
+    @Test
+    @DisplayName("Should replay the notifications a reconnecting client missed")
+    void shouldReplayMissedNotifications() {
+        // Given
+        RecordingEmitter before = new RecordingEmitter();
+        notificationService.register(before, null);
+        notificationService.handleCodelistChange(event("CODE1"));
+        notificationService.handleCodelistChange(event("CODE2"));
+        notificationService.handleCodelistChange(event("CODE3"));
+        String lastReceived = id(before.sent.get(1));
+
+        // When
+        RecordingEmitter reconnected = new RecordingEmitter();
+        notificationService.register(reconnected, lastReceived);
+        notificationService.handleCodelistChange(event("CODE4"));
+
+        // Then
+        assertThat(reconnected.sent).extracting(NotificationServiceTest::data)
+                .satisfiesExactly(
+                        frame -> assertThat(frame).contains("event:connected").doesNotContain("id:"),
+                        frame -> assertThat(frame).contains("CODE2"),
+                        frame -> assertThat(frame).contains("CODE3"),
+                        frame -> assertThat(frame).contains("CODE4"));
+        assertThat(reconnected.sent.get(1)).isSameAs(before.sent.get(2));
+    }
+
+    @Test
+    @DisplayName("Should tell a new client the newest event id")
+    void shouldSendNewestIdToNewClient() {
+        // Given
+        notificationService.handleCodelistChange(event("CODE1"));
+
+        // When
+        RecordingEmitter emitter = new RecordingEmitter();
+        notificationService.register(emitter, null);
+        notificationService.handleCodelistChange(event("CODE2"));
+
+        // Then
+        assertThat(emitter.sent).hasSize(2);
+        assertThat(Long.parseLong(id(emitter.sent.get(1)))).isEqualTo(Long.parseLong(id(emitter.sent.get(0))) + 1);
+    }
+
+    @Test
+    @DisplayName("Should request a resync when the missed notifications are no longer kept")
+    void shouldRequestResyncWhenGapExceedsBuffer() {
+        // Given
+        NotificationService service = new NotificationService(objectMapper, replayBuffer(2), new SimpleMeterRegistry(),
+                64, NotificationService.SlowClientPolicy.DISCONNECT, Runnable::run, Duration.ofSeconds(10));
+        RecordingEmitter before = new RecordingEmitter();
+        service.register(before, null);
+        service.handleCodelistChange(event("CODE1"));
+        service.handleCodelistChange(event("CODE2"));
+        service.handleCodelistChange(event("CODE3"));
+        service.handleCodelistChange(event("CODE4"));
+
+        // When
+        RecordingEmitter reconnected = new RecordingEmitter();
+        service.register(reconnected, id(before.sent.get(1)));
+
+        // Then
+        assertThat(reconnected.sent).hasSize(2);
+        assertThat(data(reconnected.sent.get(1))).contains("event:" + NotificationService.RESYNC_EVENT);
+        assertThat(id(reconnected.sent.get(1))).isEqualTo(id(before.sent.get(4)));
+    }
+
+    @Test
+    @DisplayName("Should keep serving clients when more clients stall than there are sender threads")
+    void shouldDisconnectStalledClientsBlockingAllSenders() throws Exception {
+        // Given - two sender threads and three clients that stopped reading
+        ThreadPoolExecutor sender = (ThreadPoolExecutor) Executors.newFixedThreadPool(2);
+        NotificationService service = new NotificationService(objectMapper, replayBuffer(10), new SimpleMeterRegistry(),
+                64, NotificationService.SlowClientPolicy.DISCONNECT, sender, Duration.ofSeconds(10));
+        List<StalledEmitter> stalled = List.of(new StalledEmitter(), new StalledEmitter(), new StalledEmitter());
+        stalled.forEach(emitter -> service.register(emitter, null));
+        RecordingEmitter healthy = new RecordingEmitter();
+        service.register(healthy, null);
+        long pastTimeout = Duration.ofSeconds(11).toNanos();
+        try {
+            await(() -> stalled.get(0).sending && stalled.get(1).sending);
+
+            // When - the stall checks run after the send timeout
+            int disconnected = service.disconnectStalledClients(System.nanoTime() + pastTimeout);
+            await(() -> stalled.get(2).sending);
+            disconnected += service.disconnectStalledClients(System.nanoTime() + pastTimeout);
+
+            // Then - the healthy client gets its frames from the threads added in place of the blocked ones
+            assertThat(disconnected).isEqualTo(3);
+            await(() -> healthySent(healthy) == 1);
+            assertThat(service.getConnectedClientsCount()).isEqualTo(1);
+            assertThat(sender.getMaximumPoolSize()).isEqualTo(5);
+
+            // When - the blocked sends return
+            stalled.forEach(emitter -> emitter.released.countDown());
+
+            // Then
+            await(() -> stalled.stream().allMatch(emitter -> emitter.completed));
+            await(() -> sender.getMaximumPoolSize() == 2);
+            assertThat(sender.getCorePoolSize()).isEqualTo(2);
+        } finally {
+            stalled.forEach(emitter -> emitter.released.countDown());
+            sender.shutdownNow();
+        }
+    }
+
+    private static int healthySent(RecordingEmitter emitter) {
+        synchronized (emitter) {
+            return emitter.sent.size();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should replay from the table without holding up broadcasts and add what was broadcast meanwhile")
+    void shouldReplayFromTableOutsideBroadcastLock() throws Exception {
+        // Given - the ring keeps one notification, older ones are replayed from the table
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(100L);
+        when(jdbcTemplate.queryForObject(eq(NotificationReplayBuffer.INSERT_SQL), eq(Long.class), any(), any(), any()))
+                .thenReturn(101L, 102L, 103L);
+        NotificationReplayBuffer replayBuffer = new NotificationReplayBuffer(jdbcTemplate, 1, true, Duration.ofDays(7), 100);
+        replayBuffer.start();
+        NotificationService service = new NotificationService(objectMapper, replayBuffer, new SimpleMeterRegistry(),
+                64, NotificationService.SlowClientPolicy.DISCONNECT, Runnable::run, Duration.ofSeconds(10));
+        service.handleCodelistChange(event("CODE1"));
+        service.handleCodelistChange(event("CODE2"));
+        Set<DataWithMediaType> stored = NotificationReplayBuffer.frame(101L, "codelist-change", "{}");
+        Set<DataWithMediaType> kept = NotificationReplayBuffer.frame(102L, "codelist-change", "{}");
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch tableRead = new CountDownLatch(1);
+        when(jdbcTemplate.query(eq(NotificationReplayBuffer.SINCE_SQL), any(RowMapper.class), eq(100L), eq(102L), eq(101)))
+                .thenAnswer(invocation -> {
+                    reading.countDown();
+                    tableRead.await(5, TimeUnit.SECONDS);
+                    return List.of(stored, kept);
+                });
+        RecordingEmitter reconnected = new RecordingEmitter();
+        Thread register = Thread.ofPlatform().start(() -> service.register(reconnected, "100"));
+
+        // When - a notification is broadcast while the replay is reading the table
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        service.handleCodelistChange(event("CODE3"));
+        tableRead.countDown();
+        register.join(5000);
+
+        // Then
+        assertThat(reconnected.sent).extracting(NotificationServiceTest::id)
+                .containsExactly(null, "101", "102", "103");
+    }
+
+    @Test
+    @DisplayName("Should request a resync for an unknown last event id")
+    void shouldRequestResyncForUnknownId() {
+        // When
+        RecordingEmitter emitter = new RecordingEmitter();
+        notificationService.register(emitter, "not-a-number");
+
+        // Then
+        assertThat(emitter.sent).extracting(NotificationServiceTest::data)
+                .satisfiesExactly(
+                        frame -> assertThat(frame).contains("event:connected"),
+                        frame -> assertThat(frame).contains("event:" + NotificationService.RESYNC_EVENT));
+    }
 }
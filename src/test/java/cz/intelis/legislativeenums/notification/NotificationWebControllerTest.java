@@ -33,15 +33,15 @@ class NotificationWebControllerTest {
     @DisplayName("subscribe() should create and return SSE emitter")
     void testSubscribe() {
         // Given
-        when(notificationService.createEmitter()).thenReturn(testEmitter);
+        when(notificationService.createEmitter(null)).thenReturn(testEmitter);
 
         // When
-        SseEmitter result = controller.subscribe();
+        SseEmitter result = controller.subscribe(null, null);
 
         // Then
         assertThat(result).isNotNull();
         assertThat(result).isSameAs(testEmitter);
-        verify(notificationService).createEmitter();
+        verify(notificationService).createEmitter(null);
     }
 
     @Test
@@ -51,32 +51,48 @@ class NotificationWebControllerTest {
         SseEmitter firstEmitter = new SseEmitter(Long.MAX_VALUE);
         SseEmitter secondEmitter = new SseEmitter(Long.MAX_VALUE);
 
-        when(notificationService.createEmitter())
+        when(notificationService.createEmitter(null))
                 .thenReturn(firstEmitter)
                 .thenReturn(secondEmitter);
 
         // When
-        SseEmitter result1 = controller.subscribe();
-        SseEmitter result2 = controller.subscribe();
+        SseEmitter result1 = controller.subscribe(null, null);
+        SseEmitter result2 = controller.subscribe(null, null);
 
         // Then
         assertThat(result1).isNotNull();
         assertThat(result2).isNotNull();
         assertThat(result1).isNotSameAs(result2);
-        verify(notificationService, times(2)).createEmitter();
+        verify(notificationService, times(2)).createEmitter(null);
     }
 
     @Test
     @DisplayName("subscribe() should delegate to notification service")
     void testSubscribe_delegatesToService() {
         // Given
-        when(notificationService.createEmitter()).thenReturn(testEmitter);
+        when(notificationService.createEmitter(null)).thenReturn(testEmitter);
 
         // When
-        controller.subscribe();
+        controller.subscribe(null, null);
 
         // Then
-        verify(notificationService, times(1)).createEmitter();
+        verify(notificationService, times(1)).createEmitter(null);
         verifyNoMoreInteractions(notificationService);
     }
+
+    @Test
+    @DisplayName("subscribe() should pass the last event id, preferring the header")
+    void subscribe_ShouldPassLastEventId() {
+        // Given
+        when(notificationService.createEmitter("42")).thenReturn(testEmitter);
+        when(notificationService.createEmitter("7")).thenReturn(testEmitter);
+
+        // When
+        controller.subscribe("42", "7");
+        controller.subscribe(null, "7");
+
+        // Then
+        verify(notificationService).createEmitter("42");
+        verify(notificationService).createEmitter("7");
+    }
 }
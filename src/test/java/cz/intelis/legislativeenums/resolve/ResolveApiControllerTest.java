@@ -0,0 +1,43 @@
+package cz.intelis.legislativeenums.resolve;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ResolveApiController Unit Tests")
+class ResolveApiControllerTest {
+
+    @Mock
+    private ResolveService resolveService;
+
+    @InjectMocks
+    private ResolveApiController controller;
+
+    @Test
+    @DisplayName("Should resolve references through service")
+    void shouldResolveReferences() {
+        // Given
+        List<ResolveReference> references = List.of(new ResolveReference("LAND_TYPE", "2"));
+        ResolveResult result = new ResolveResult(List.of(), references);
+        when(resolveService.resolve(references)).thenReturn(result);
+
+        // When
+        ResponseEntity<ResolveResult> response = controller.resolve(new ResolveRequest(references));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(result);
+        verify(resolveService, times(1)).resolve(references);
+    }
+}
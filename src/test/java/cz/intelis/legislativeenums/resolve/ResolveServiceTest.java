@@ -0,0 +1,94 @@
+package cz.intelis.legislativeenums.resolve;
+
+import cz.intelis.legislativeenums.cuzk.landtype.LandTypeDTO;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
+import cz.intelis.legislativeenums.voltagelevel.VoltageLevelDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ResolveService Unit Tests")
+class ResolveServiceTest {
+
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
+    @InjectMocks
+    private ResolveService resolveService;
+
+    @Test
+    @DisplayName("Should resolve references across codelists in request order")
+    void shouldResolveReferencesAcrossCodelists() {
+        // Given
+        LandTypeDTO landType = new LandTypeDTO();
+        landType.setId(1L);
+        landType.setCode("2");
+        VoltageLevelDTO voltageLevel = new VoltageLevelDTO();
+        voltageLevel.setId(2L);
+        voltageLevel.setCode("NN");
+        when(snapshotStore.contains("LAND_TYPE")).thenReturn(true);
+        when(snapshotStore.contains("VOLTAGE_LEVEL")).thenReturn(true);
+        when(snapshotStore.<LandTypeDTO>get("LAND_TYPE")).thenReturn(CodelistSnapshot.of("LAND_TYPE", 1L, List.of(landType)));
+        when(snapshotStore.<VoltageLevelDTO>get("VOLTAGE_LEVEL")).thenReturn(CodelistSnapshot.of("VOLTAGE_LEVEL", 1L, List.of(voltageLevel)));
+
+        // When
+        ResolveResult result = resolveService.resolve(List.of(
+                new ResolveReference("VOLTAGE_LEVEL", "NN"),
+                new ResolveReference("LAND_TYPE", "2"),
+                new ResolveReference("LAND_TYPE", "99")));
+
+        // Then
+        assertThat(result.getItems()).extracting(ResolvedItem::getItem).containsExactly(voltageLevel, landType);
+        assertThat(result.getMissing()).containsExactly(new ResolveReference("LAND_TYPE", "99"));
+    }
+
+    @Test
+    @DisplayName("Should report references to unknown codelists as missing")
+    void shouldReportUnknownCodelistAsMissing() {
+        // Given
+        when(snapshotStore.contains("UNKNOWN")).thenReturn(false);
+
+        // When
+        ResolveResult result = resolveService.resolve(List.of(
+                new ResolveReference("UNKNOWN", "A"),
+                new ResolveReference("UNKNOWN", "B")));
+
+        // Then
+        assertThat(result.getItems()).isEmpty();
+        assertThat(result.getMissing()).hasSize(2);
+        verify(snapshotStore, times(1)).contains("UNKNOWN");
+        verify(snapshotStore, never()).get(any());
+    }
+
+    @Test
+    @DisplayName("Should fetch each snapshot once and resolve duplicate references once")
+    void shouldFetchEachSnapshotOnce() {
+        // Given
+        LandTypeDTO landType = new LandTypeDTO();
+        landType.setId(1L);
+        landType.setCode("2");
+        when(snapshotStore.contains("LAND_TYPE")).thenReturn(true);
+        when(snapshotStore.<LandTypeDTO>get("LAND_TYPE")).thenReturn(CodelistSnapshot.of("LAND_TYPE", 1L, List.of(landType)));
+
+        // When
+        ResolveResult result = resolveService.resolve(List.of(
+                new ResolveReference("LAND_TYPE", "2"),
+                new ResolveReference("LAND_TYPE", "2"),
+                new ResolveReference("LAND_TYPE", "3")));
+
+        // Then
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getMissing()).extracting(ResolveReference::getCode).containsExactly("3");
+        verify(snapshotStore, times(1)).get("LAND_TYPE");
+    }
+}
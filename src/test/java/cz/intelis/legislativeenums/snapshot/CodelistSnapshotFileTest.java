@@ -0,0 +1,115 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.intelis.legislativeenums.networktype.NetworkTypeDTO;
+import cz.intelis.legislativeenums.voltagelevel.VoltageLevelDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CodelistSnapshotFile Unit Tests")
+class CodelistSnapshotFileTest {
+
+    @TempDir
+    private Path directory;
+
+    private Path path;
+
+    private CodelistSnapshotFile snapshotFile;
+
+    @BeforeEach
+    void setUp() {
+        path = directory.resolve("snapshots/codelist-snapshots.bin");
+        snapshotFile = new CodelistSnapshotFile(new ObjectMapper().findAndRegisterModules(), path.toString());
+    }
+
+    private static VoltageLevelDTO voltageLevel(long id, String code) {
+        VoltageLevelDTO dto = new VoltageLevelDTO();
+        dto.setId(id);
+        dto.setCode(code);
+        dto.setNameCs("Napětí " + code);
+        dto.setValidFrom(LocalDate.of(2020, 1, 1));
+        dto.setUpdatedAt(LocalDateTime.of(2025, 6, 1, 10, 0));
+        return dto;
+    }
+
+    private static NetworkTypeDTO networkType(long id, String code) {
+        NetworkTypeDTO dto = new NetworkTypeDTO();
+        dto.setId(id);
+        dto.setCode(code);
+        return dto;
+    }
+
+    @Test
+    @DisplayName("Should load saved snapshots with their versions and items")
+    void shouldRoundTripSnapshots() {
+        // Given
+        CodelistSnapshot<VoltageLevelDTO> voltageLevels = CodelistSnapshot.of("VOLTAGE_LEVEL", 7L,
+                List.of(voltageLevel(2L, "VN"), voltageLevel(1L, "NN")), LocalDateTime.of(2025, 6, 14, 9, 30));
+        CodelistSnapshot<NetworkTypeDTO> networkTypes = CodelistSnapshot.of("NETWORK_TYPE", 3L, List.of(networkType(1L, "EL")));
+        snapshotFile.save(List.of(voltageLevels, networkTypes));
+
+        // When
+        List<CodelistSnapshot<?>> loaded = snapshotFile.load(Map.of(
+                "VOLTAGE_LEVEL", VoltageLevelDTO.class, "NETWORK_TYPE", NetworkTypeDTO.class));
+
+        // Then
+        assertThat(loaded).hasSize(2);
+        assertThat(loaded.get(0).getCodelistCode()).isEqualTo("VOLTAGE_LEVEL");
+        assertThat(loaded.get(0).getVersion()).isEqualTo(7L);
+        assertThat(loaded.get(0).all()).isEqualTo(voltageLevels.all());
+        assertThat(loaded.get(0).getLastChangedAt()).isEqualTo(LocalDateTime.of(2025, 6, 14, 9, 30));
+        assertThat(loaded.get(1).getLastChangedAt()).isNull();
+        assertThat(loaded.get(0).entityTag(LocalDate.now(), "json")).isEqualTo(voltageLevels.entityTag(LocalDate.now(), "json"));
+        assertThat(loaded.get(1).findByCode("EL")).get().isInstanceOf(NetworkTypeDTO.class);
+    }
+
+    @Test
+    @DisplayName("Should skip codelists that are no longer known")
+    void shouldSkipUnknownCodelists() {
+        // Given
+        snapshotFile.save(List.of(CodelistSnapshot.of("NETWORK_TYPE", 3L, List.of(networkType(1L, "EL"))),
+                CodelistSnapshot.of("VOLTAGE_LEVEL", 7L, List.of(voltageLevel(1L, "NN")))));
+
+        // When
+        List<CodelistSnapshot<?>> loaded = snapshotFile.load(Map.of("VOLTAGE_LEVEL", VoltageLevelDTO.class));
+
+        // Then
+        assertThat(loaded).extracting(CodelistSnapshot::getCodelistCode).containsExactly("VOLTAGE_LEVEL");
+    }
+
+    @Test
+    @DisplayName("Should ignore a missing or foreign file")
+    void shouldIgnoreMissingOrForeignFile() throws IOException {
+        assertThat(snapshotFile.load(Map.of("VOLTAGE_LEVEL", VoltageLevelDTO.class))).isEmpty();
+
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, "not a snapshot file");
+        assertThat(snapshotFile.load(Map.of("VOLTAGE_LEVEL", VoltageLevelDTO.class))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no path is configured")
+    void shouldDoNothingWhenDisabled() {
+        // Given
+        CodelistSnapshotFile disabled = new CodelistSnapshotFile(new ObjectMapper(), "");
+
+        // When
+        disabled.save(List.of(CodelistSnapshot.of("VOLTAGE_LEVEL", 7L, List.of(voltageLevel(1L, "NN")))));
+
+        // Then
+        assertThat(disabled.load(Map.of("VOLTAGE_LEVEL", VoltageLevelDTO.class))).isEmpty();
+        assertThat(directory).isEmptyDirectory();
+    }
+}
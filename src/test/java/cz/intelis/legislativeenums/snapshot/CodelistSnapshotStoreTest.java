@@ -0,0 +1,166 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import cz.intelis.legislativeenums.notification.ChangeType;
+import cz.intelis.legislativeenums.notification.CodelistChangeEvent;
+import cz.intelis.legislativeenums.voltagelevel.VoltageLevelDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CodelistSnapshotStore Unit Tests")
+class CodelistSnapshotStoreTest {
+
+    private static final String CODE = "VOLTAGE_LEVEL";
+
+    @Mock
+    private CodelistSnapshotSource<VoltageLevelDTO> source;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CodelistSnapshotFile snapshotFile;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CodelistSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(source.getCodelistCode()).thenReturn(CODE);
+        store = new CodelistSnapshotStore(List.of(source), eventPublisher, snapshotFile, jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    private static VoltageLevelDTO item(long id, String code) {
+        VoltageLevelDTO dto = new VoltageLevelDTO();
+        dto.setId(id);
+        dto.setCode(code);
+        return dto;
+    }
+
+    @Test
+    @DisplayName("Should load snapshot on first access and serve it afterwards")
+    void shouldLoadSnapshotOnFirstAccess() {
+        // Given
+        when(source.findAll()).thenReturn(List.of(item(1L, "NN")));
+
+        // When
+        CodelistSnapshot<VoltageLevelDTO> first = store.get(CODE);
+        CodelistSnapshot<VoltageLevelDTO> second = store.get(CODE);
+
+        // Then
+        assertThat(first.all()).hasSize(1);
+        assertThat(second).isSameAs(first);
+        verify(source, times(1)).findAll();
+        verify(eventPublisher, times(1)).publishEvent(new CodelistSnapshotRebuiltEvent(first));
+    }
+
+    @Test
+    @DisplayName("Should rebuild snapshot with higher version after change event")
+    void shouldRebuildSnapshotAfterChangeEvent() {
+        // Given
+        when(source.findAll()).thenReturn(List.of(item(1L, "NN")), List.of(item(1L, "NN"), item(2L, "VN")));
+        CodelistSnapshot<VoltageLevelDTO> before = store.get(CODE);
+
+        // When
+        store.onCodelistChange(new CodelistChangeEvent(this, "Úrovně napětí", CODE, ChangeType.INSERT,
+                2L, "VN", "Vysoké napětí", "admin"));
+
+        // Then
+        verify(source, timeout(5000).times(2)).findAll();
+        await(() -> store.<VoltageLevelDTO>get(CODE).size() == 2);
+        CodelistSnapshot<VoltageLevelDTO> after = store.get(CODE);
+        assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+        assertThat(after.findByCode("VN")).isPresent();
+        assertThat(before.all()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should serve snapshot from file until reconciled with the database, then save it")
+    void shouldServeFileSnapshotUntilReconciled() {
+        // Given
+        when(snapshotFile.load(any())).thenReturn(List.of(CodelistSnapshot.of(CODE, 5L, List.of(item(1L, "NN")))));
+        CountDownLatch database = new CountDownLatch(1);
+        when(source.findAll()).thenAnswer(invocation -> {
+            database.await(5, TimeUnit.SECONDS);
+            return List.of(item(1L, "NN"), item(2L, "VN"));
+        });
+
+        // When
+        store.warmUp();
+
+        // Then
+        CodelistSnapshot<VoltageLevelDTO> stored = store.get(CODE);
+        assertThat(stored.getVersion()).isEqualTo(5L);
+        assertThat(stored.size()).isEqualTo(1);
+        assertThat(store.getStatus()).isEqualTo(new CodelistSnapshotStore.Status(1, 1, 0));
+        verify(eventPublisher).publishEvent(new CodelistSnapshotRebuiltEvent(stored));
+
+        // When
+        database.countDown();
+
+        // Then
+        verify(snapshotFile, timeout(5000)).save(any());
+        assertThat(store.<VoltageLevelDTO>get(CODE).size()).isEqualTo(2);
+        assertThat(store.getVersion(CODE)).isGreaterThan(5L);
+        assertThat(store.getStatus()).isEqualTo(new CodelistSnapshotStore.Status(1, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Should ignore change events of codelists without a snapshot source")
+    void shouldIgnoreUnknownCodelist() {
+        // When
+        store.scheduleRebuild("FLAG");
+
+        // Then
+        verify(source, never()).findAll();
+        assertThatThrownBy(() -> store.get("FLAG"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown codelist");
+    }
+
+    @Test
+    @DisplayName("Should keep previous snapshot when rebuild fails")
+    void shouldKeepPreviousSnapshotWhenRebuildFails() {
+        // Given
+        when(source.findAll()).thenReturn(List.of(item(1L, "NN"))).thenThrow(new RuntimeException("DB down"));
+        CodelistSnapshot<VoltageLevelDTO> before = store.get(CODE);
+
+        // When
+        store.scheduleRebuild(CODE);
+
+        // Then
+        verify(source, timeout(5000).times(2)).findAll();
+        assertThat(store.<VoltageLevelDTO>get(CODE)).isSameAs(before);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
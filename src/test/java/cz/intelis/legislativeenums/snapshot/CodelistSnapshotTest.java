@@ -0,0 +1,212 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import cz.intelis.legislativeenums.voltagelevel.VoltageLevelDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CodelistSnapshot Unit Tests")
+class CodelistSnapshotTest {
+
+    private static VoltageLevelDTO item(long id, String code, LocalDate validFrom, LocalDate validTo) {
+        VoltageLevelDTO dto = new VoltageLevelDTO();
+        dto.setId(id);
+        dto.setCode(code);
+        dto.setValidFrom(validFrom);
+        dto.setValidTo(validTo);
+        return dto;
+    }
+
+    @Test
+    @DisplayName("Should keep presentation order and find items by ID and code")
+    void shouldKeepOrderAndFindByIdAndCode() {
+        // Given - presentation order differs from ID order
+        List<VoltageLevelDTO> items = List.of(item(30L, "NN", null, null), item(10L, "VN", null, null), item(20L, "VVN", null, null));
+
+        // When
+        CodelistSnapshot<VoltageLevelDTO> snapshot = CodelistSnapshot.of("VOLTAGE_LEVEL", 7L, items);
+
+        // Then
+        assertThat(snapshot.getVersion()).isEqualTo(7L);
+        assertThat(snapshot.all()).extracting(VoltageLevelDTO::getCode).containsExactly("NN", "VN", "VVN");
+        assertThat(snapshot.findById(10L)).get().extracting(VoltageLevelDTO::getCode).isEqualTo("VN");
+        assertThat(snapshot.findById(30L)).get().extracting(VoltageLevelDTO::getCode).isEqualTo("NN");
+        assertThat(snapshot.findById(99L)).isEmpty();
+        assertThat(snapshot.findByCode("VVN")).get().extracting(VoltageLevelDTO::getId).isEqualTo(20L);
+        assertThat(snapshot.findByCode("XX")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should resolve a batch of codes in request order and report missing codes")
+    void shouldFindByCodes() {
+        // Given
+        List<VoltageLevelDTO> items = List.of(item(1L, "NN", null, null), item(2L, "VN", null, null), item(3L, "VVN", null, null));
+        CodelistSnapshot<VoltageLevelDTO> snapshot = CodelistSnapshot.of("VOLTAGE_LEVEL", 1L, items);
+
+        // When
+        CodeBatchResult<VoltageLevelDTO> result = snapshot.findByCodes(List.of("VVN", "XX", "NN", "VVN"));
+
+        // Then
+        assertThat(result.getItems()).extracting(VoltageLevelDTO::getId).containsExactly(3L, 1L);
+        assertThat(result.getMissing()).containsExactly("XX");
+    }
+
+    @Test
+    @DisplayName("Should locate codes in presentation order and check existence as of a date")
+    void shouldIndexAndContainCodes() {
+        // Given - presentation order differs from code order
+        List<VoltageLevelDTO> items = List.of(item(1L, "VVN", null, null), item(2L, "NN", null, LocalDate.of(2020, 12, 31)),
+                item(3L, "VN", null, null));
+        CodelistSnapshot<VoltageLevelDTO> snapshot = CodelistSnapshot.of("VOLTAGE_LEVEL", 1L, items);
+
+        // When & Then
+        assertThat(snapshot.indexOfCode("VVN")).isZero();
+        assertThat(snapshot.indexOfCode("NN")).isEqualTo(1);
+        assertThat(snapshot.indexOfCode("VN")).isEqualTo(2);
+        assertThat(snapshot.indexOfCode("XX")).isEqualTo(-1);
+        assertThat(snapshot.indexOfCode(null)).isEqualTo(-1);
+        assertThat(snapshot.containsCode("NN", null)).isTrue();
+        assertThat(snapshot.containsCode("NN", LocalDate.of(2020, 12, 31))).isTrue();
+        assertThat(snapshot.containsCode("NN", LocalDate.of(2021, 1, 1))).isFalse();
+        assertThat(snapshot.containsCode("XX", null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should return only items valid on the requested date")
+    void shouldReturnItemsValidOnDate() {
+        // Given
+        LocalDate today = LocalDate.now();
+        List<VoltageLevelDTO> items = List.of(
+                item(1L, "ALWAYS", null, null),
+                item(2L, "EXPIRED", null, today.minusDays(1)),
+                item(3L, "FUTURE", today.plusDays(1), null),
+                item(4L, "ENDS_TODAY", today.minusDays(10), today));
+        CodelistSnapshot<VoltageLevelDTO> snapshot = CodelistSnapshot.of("VOLTAGE_LEVEL", 1L, items);
+
+        // When & Then
+        assertThat(snapshot.currentlyValid()).extracting(VoltageLevelDTO::getCode).containsExactly("ALWAYS", "ENDS_TODAY");
+        assertThat(snapshot.validOn(today.plusDays(1))).extracting(VoltageLevelDTO::getCode).containsExactly("ALWAYS", "FUTURE");
+    }
+
+    @Test
+    @DisplayName("Should serve dates within one validity interval from the same index entry")
+    void shouldIndexValidityIntervals() {
+        // Given
+        List<VoltageLevelDTO> items = List.of(
+                item(1L, "OLD", null, LocalDate.of(2019, 12, 31)),
+                item(2L, "NEW", LocalDate.of(2020, 1, 1), null),
+                item(3L, "TEMP", LocalDate.of(2020, 3, 1), LocalDate.of(2020, 3, 31)));
+        CodelistSnapshot<VoltageLevelDTO> snapshot = CodelistSnapshot.of("VOLTAGE_LEVEL", 1L, items);
+
+        // When & Then
+        assertThat(snapshot.validOn(LocalDate.of(2015, 5, 5))).extracting(VoltageLevelDTO::getCode).containsExactly("OLD");
+        assertThat(snapshot.validOn(LocalDate.of(2020, 1, 1))).extracting(VoltageLevelDTO::getCode).containsExactly("NEW");
+        assertThat(snapshot.validOn(LocalDate.of(2020, 3, 31))).extracting(VoltageLevelDTO::getCode).containsExactly("NEW", "TEMP");
+        assertThat(snapshot.validOn(LocalDate.of(2020, 4, 1))).extracting(VoltageLevelDTO::getCode).containsExactly("NEW");
+        assertThat(snapshot.validOn(LocalDate.of(2020, 3, 2))).isSameAs(snapshot.validOn(LocalDate.of(2020, 3, 30)));
+        assertThat(snapshot.filter(LocalDate.of(2020, 3, 15), item -> item.getId() > 2)).extracting(VoltageLevelDTO::getCode).containsExactly("TEMP");
+    }
+
+    @Test
+    @DisplayName("Should reject an item not valid on the requested date")
+    void shouldRequireValidOn() {
+        // Given
+        VoltageLevelDTO expired = item(1L, "OLD", null, LocalDate.of(2019, 12, 31));
+
+        // When & Then
+        assertThat(CodelistSnapshot.requireValidOn(expired, null)).isSameAs(expired);
+        assertThat(CodelistSnapshot.requireValidOn(expired, LocalDate.of(2019, 1, 1))).isSameAs(expired);
+        assertThatThrownBy(() -> CodelistSnapshot.requireValidOn(expired, LocalDate.of(2020, 1, 1)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("not valid on 2020-01-01");
+    }
+
+    @Test
+    @DisplayName("Should not be affected by changes to the source list")
+    void shouldBeImmutable() {
+        // Given
+        List<VoltageLevelDTO> items = new ArrayList<>(List.of(item(1L, "NN", null, null)));
+        CodelistSnapshot<VoltageLevelDTO> snapshot = CodelistSnapshot.of("VOLTAGE_LEVEL", 1L, items);
+
+        // When
+        items.add(item(2L, "VN", null, null));
+
+        // Then
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThatThrownBy(() -> snapshot.all().add(item(3L, "VVN", null, null)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Should find the next validity boundary after a date")
+    void shouldFindNextValidityChange() {
+        // Given - boundaries on 2020-01-01 (validFrom) and 2021-01-01 (day after validTo)
+        List<VoltageLevelDTO> items = List.of(item(1L, "NN", LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)),
+                item(2L, "VN", null, null));
+        CodelistSnapshot<VoltageLevelDTO> snapshot = CodelistSnapshot.of("VOLTAGE_LEVEL", 1L, items);
+
+        // When & Then
+        assertThat(snapshot.nextValidityChange(LocalDate.of(2019, 6, 1))).isEqualTo(LocalDate.of(2020, 1, 1));
+        assertThat(snapshot.nextValidityChange(LocalDate.of(2020, 1, 1))).isEqualTo(LocalDate.of(2021, 1, 1));
+        assertThat(snapshot.nextValidityChange(LocalDate.of(2021, 1, 1))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should derive last modification from updates and validity boundaries")
+    void shouldDeriveLastModified() {
+        // Given
+        LocalDate today = LocalDate.of(2025, 6, 15);
+        VoltageLevelDTO updated = item(1L, "NN", null, null);
+        updated.setUpdatedAt(LocalDateTime.of(2025, 6, 1, 10, 0));
+        VoltageLevelDTO starting = item(2L, "VN", LocalDate.of(2025, 6, 10), null);
+        VoltageLevelDTO ending = item(3L, "VVN", null, LocalDate.of(2025, 6, 20));
+        CodelistSnapshot<VoltageLevelDTO> snapshot = CodelistSnapshot.of("VOLTAGE_LEVEL", 1L, List.of(updated, starting, ending));
+
+        // When & Then
+        assertThat(snapshot.lastModified(LocalDate.of(2025, 6, 5))).isEqualTo(LocalDateTime.of(2025, 6, 1, 10, 0));
+        assertThat(snapshot.lastModified(today)).isEqualTo(LocalDate.of(2025, 6, 10).atStartOfDay());
+        assertThat(snapshot.lastModified(LocalDate.of(2025, 6, 21))).isEqualTo(LocalDate.of(2025, 6, 21).atStartOfDay());
+    }
+
+    @Test
+    @DisplayName("Should derive entity tag from content and representation only")
+    void shouldDeriveEntityTagFromContent() {
+        // Given
+        LocalDate today = LocalDate.of(2025, 6, 15);
+        VoltageLevelDTO first = item(1L, "NN", null, null);
+        first.setUpdatedAt(LocalDateTime.of(2025, 6, 1, 10, 0));
+        CodelistSnapshot<VoltageLevelDTO> snapshot = CodelistSnapshot.of("VOLTAGE_LEVEL", 1L, List.of(first));
+        CodelistSnapshot<VoltageLevelDTO> rebuilt = CodelistSnapshot.of("VOLTAGE_LEVEL", 2L, List.of(first));
+        CodelistSnapshot<VoltageLevelDTO> grown = CodelistSnapshot.of("VOLTAGE_LEVEL", 3L, List.of(first, item(2L, "VN", null, null)));
+
+        // When & Then
+        assertThat(snapshot.entityTag(today, "json")).startsWith("\"").endsWith("-json\"");
+        assertThat(rebuilt.entityTag(today, "json")).isEqualTo(snapshot.entityTag(today, "json"));
+        assertThat(snapshot.entityTag(today, "xml")).isNotEqualTo(snapshot.entityTag(today, "json"));
+        assertThat(grown.entityTag(today, "json")).isNotEqualTo(snapshot.entityTag(today, "json"));
+    }
+
+    @Test
+    @DisplayName("Should move last modification with a recorded deletion")
+    void shouldMoveLastModifiedOnDeletion() {
+        // Given - the newest item was deleted, the remaining rows keep their updatedAt
+        LocalDate today = LocalDate.of(2025, 6, 15);
+        VoltageLevelDTO remaining = item(1L, "NN", null, null);
+        remaining.setUpdatedAt(LocalDateTime.of(2025, 6, 1, 10, 0));
+        LocalDateTime deletedAt = LocalDateTime.of(2025, 6, 14, 9, 30);
+        CodelistSnapshot<VoltageLevelDTO> before = CodelistSnapshot.of("VOLTAGE_LEVEL", 1L, List.of(remaining));
+        CodelistSnapshot<VoltageLevelDTO> after = CodelistSnapshot.of("VOLTAGE_LEVEL", 2L, List.of(remaining), deletedAt);
+
+        // When & Then
+        assertThat(before.lastModified(today)).isEqualTo(LocalDateTime.of(2025, 6, 1, 10, 0));
+        assertThat(after.lastModified(today)).isEqualTo(deletedAt);
+        assertThat(after.entityTag(today, "json")).isNotEqualTo(before.entityTag(today, "json"));
+    }
+}
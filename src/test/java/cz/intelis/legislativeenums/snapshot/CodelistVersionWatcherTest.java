@@ -0,0 +1,108 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import cz.intelis.legislativeenums.notification.ChangeType;
+import cz.intelis.legislativeenums.notification.CodelistChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CodelistVersionWatcher Unit Tests")
+class CodelistVersionWatcherTest {
+
+    private static final String CODE = "VOLTAGE_LEVEL";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
+    private CodelistVersionWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        watcher = new CodelistVersionWatcher(jdbcTemplate, snapshotStore);
+    }
+
+    private void versionsInDatabase(long version) {
+        when(jdbcTemplate.query(eq(CodelistVersionWatcher.VERSIONS_SQL), any(RowMapper.class)))
+                .thenReturn(List.of(Map.entry(CODE, version)));
+    }
+
+    private static CodelistChangeEvent event(ChangeType changeType) {
+        return new CodelistChangeEvent(new Object(), "Voltage Levels", CODE, changeType, 1L, "NN", "Low", "admin");
+    }
+
+    @Test
+    @DisplayName("Should rebuild a codelist changed by another instance")
+    void shouldRebuildCodelistChangedElsewhere() {
+        // Given
+        versionsInDatabase(3L);
+        watcher.start();
+        versionsInDatabase(4L);
+
+        // When
+        watcher.poll();
+        watcher.poll();
+
+        // Then
+        verify(snapshotStore, times(1)).scheduleRebuild(CODE);
+    }
+
+    @Test
+    @DisplayName("Should not rebuild when nothing changed since startup")
+    void shouldNotRebuildUnchangedCodelist() {
+        // Given
+        versionsInDatabase(3L);
+        watcher.start();
+
+        // When
+        watcher.poll();
+
+        // Then
+        verify(snapshotStore, never()).scheduleRebuild(anyString());
+    }
+
+    @Test
+    @DisplayName("Should bump the version on a local change and not rebuild it again when polling")
+    void shouldNotRebuildOwnChange() {
+        // Given
+        versionsInDatabase(3L);
+        watcher.start();
+        when(snapshotStore.contains(CODE)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(CodelistVersionWatcher.BUMP_SQL, Long.class, CODE)).thenReturn(4L);
+
+        // When
+        watcher.onCodelistChange(event(ChangeType.UPDATE));
+        versionsInDatabase(4L);
+        watcher.poll();
+
+        // Then
+        verify(jdbcTemplate).queryForObject(CodelistVersionWatcher.BUMP_SQL, Long.class, CODE);
+        verify(snapshotStore, never()).scheduleRebuild(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not bump the version for a validity boundary")
+    void shouldIgnoreValidityEvents() {
+        // When
+        watcher.onCodelistChange(event(ChangeType.VALIDITY));
+
+        // Then
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,179 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import cz.intelis.legislativeenums.voltagelevel.VoltageLevelDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConditionalRequestInterceptor Unit Tests")
+class ConditionalRequestInterceptorTest {
+
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
+    private ConditionalRequestInterceptor interceptor;
+
+    private HandlerMethod handler;
+
+    @SnapshotCodelist("VOLTAGE_LEVEL")
+    static class SnapshotController {
+        public void findAll() {
+        }
+
+        @CachedResponse
+        public void findAllCached() {
+        }
+    }
+
+    static class PlainController {
+        public void findAll() {
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        interceptor = new ConditionalRequestInterceptor(snapshotStore);
+        handler = new HandlerMethod(new SnapshotController(), SnapshotController.class.getMethod("findAll"));
+    }
+
+    private void givenSnapshot() {
+        VoltageLevelDTO dto = new VoltageLevelDTO();
+        dto.setId(1L);
+        dto.setCode("NN");
+        dto.setUpdatedAt(LocalDateTime.of(2025, 6, 1, 10, 0));
+        when(snapshotStore.<VoltageLevelDTO>get("VOLTAGE_LEVEL")).thenReturn(CodelistSnapshot.of("VOLTAGE_LEVEL", 1L, List.of(dto)));
+    }
+
+    @Test
+    @DisplayName("Should add validators and continue when request is unconditional")
+    void shouldAddValidatorsToUnconditionalRequest() {
+        // Given
+        givenSnapshot();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/voltage-levels");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, handler);
+
+        // Then
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader("ETag")).endsWith("-json\"");
+        assertThat(response.getHeader("Last-Modified")).isNotNull();
+        assertThat(response.getHeaders("Vary")).contains("Accept");
+    }
+
+    @Test
+    @DisplayName("Should answer 304 when If-None-Match matches")
+    void shouldAnswerNotModifiedWhenEtagMatches() {
+        // Given
+        givenSnapshot();
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/api/v1/voltage-levels"), first, handler);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/voltage-levels");
+        request.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, handler);
+
+        // Then
+        assertThat(proceed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    @DisplayName("Should not match the JSON entity tag for an XML request")
+    void shouldNotMatchEtagOfOtherRepresentation() {
+        // Given
+        givenSnapshot();
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/api/v1/voltage-levels"), first, handler);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/voltage-levels");
+        request.addHeader("Accept", "application/xml");
+        request.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, handler);
+
+        // Then
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader("ETag")).endsWith("-xml\"");
+    }
+
+    @Test
+    @DisplayName("Should tag gzip variant of cached endpoints and vary on Accept-Encoding")
+    void shouldTagGzipVariantOfCachedEndpoints() throws NoSuchMethodException {
+        // Given
+        givenSnapshot();
+        HandlerMethod cached = new HandlerMethod(new SnapshotController(), SnapshotController.class.getMethod("findAllCached"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/voltage-levels");
+        request.addHeader("Accept-Encoding", "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        interceptor.preHandle(request, response, cached);
+
+        // Then
+        assertThat(response.getHeader("ETag")).endsWith("-json-gzip\"");
+        assertThat(response.getHeaders("Vary")).contains("Accept", "Accept-Encoding");
+    }
+
+    @Test
+    @DisplayName("Should ignore handlers without a snapshot codelist and non-GET requests")
+    void shouldIgnoreOtherRequests() throws NoSuchMethodException {
+        // Given
+        HandlerMethod plain = new HandlerMethod(new PlainController(), PlainController.class.getMethod("findAll"));
+
+        // When & Then
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/v1/other"), new MockHttpServletResponse(), plain)).isTrue();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("POST", "/api/v1/voltage-levels"), new MockHttpServletResponse(), handler)).isTrue();
+        verifyNoInteractions(snapshotStore);
+    }
+
+    @Test
+    @DisplayName("Should leave point-in-time requests to the controller")
+    void shouldIgnorePointInTimeRequests() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/voltage-levels");
+        request.setParameter("at", "2025-06-01T10:00:00");
+        request.addHeader("If-None-Match", "\"anything\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, handler);
+
+        // Then
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader("ETag")).isNull();
+        verifyNoInteractions(snapshotStore);
+    }
+
+    @Test
+    @DisplayName("Should prefer JSON unless XML has higher quality")
+    void shouldNegotiateRepresentation() {
+        assertThat(ConditionalRequestInterceptor.representation(requestAccepting("*/*"))).isEqualTo("json");
+        assertThat(ConditionalRequestInterceptor.representation(requestAccepting("application/xml"))).isEqualTo("xml");
+        assertThat(ConditionalRequestInterceptor.representation(requestAccepting("application/json;q=0.5, application/xml"))).isEqualTo("xml");
+        assertThat(ConditionalRequestInterceptor.representation(requestAccepting("application/xml, application/json"))).isEqualTo("json");
+    }
+
+    private static MockHttpServletRequest requestAccepting(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/voltage-levels");
+        request.addHeader("Accept", accept);
+        return request;
+    }
+}
@@ -0,0 +1,102 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import cz.intelis.legislativeenums.voltagelevel.VoltageLevelDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RenderedResponseAdvice Unit Tests")
+class RenderedResponseAdviceTest {
+
+    private RenderedResponseCache responseCache;
+
+    private RenderedResponseAdvice advice;
+
+    private MethodParameter findAll;
+
+    @SnapshotCodelist("VOLTAGE_LEVEL")
+    static class SnapshotController {
+        @CachedResponse
+        public ResponseEntity<List<VoltageLevelDTO>> findAll() {
+            return null;
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        responseCache = new RenderedResponseCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1));
+        advice = new RenderedResponseAdvice(responseCache,
+                new HttpMessageConverters(false, List.of(new MappingJackson2HttpMessageConverter())));
+        findAll = new MethodParameter(SnapshotController.class.getMethod("findAll"), -1);
+    }
+
+    private static List<VoltageLevelDTO> body() {
+        VoltageLevelDTO dto = new VoltageLevelDTO();
+        dto.setId(1L);
+        dto.setCode("NN");
+        return List.of(dto);
+    }
+
+    @Test
+    @DisplayName("Should render body once, cache it and write it to the response")
+    void shouldRenderCacheAndWriteBody() throws Exception {
+        // Given
+        RenderedResponseCache.Key key = new RenderedResponseCache.Key("VOLTAGE_LEVEL", 1L, LocalDate.now(), "/api/v1/voltage-levels", "json");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/voltage-levels");
+        request.setAttribute(RenderedResponseInterceptor.KEY_ATTRIBUTE, key);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+
+        // When
+        Object result = advice.beforeBodyWrite(body(), findAll, MediaType.APPLICATION_JSON, MappingJackson2HttpMessageConverter.class,
+                new ServletServerHttpRequest(request), serverResponse);
+        serverResponse.flush();
+
+        // Then
+        assertThat(result).isNull();
+        assertThat(response.getContentAsString()).contains("\"code\":\"NN\"");
+        assertThat(responseCache.get(key).body()).isEqualTo(response.getContentAsByteArray());
+        assertThat(responseCache.get(key).contentType().isCompatibleWith(MediaType.APPLICATION_JSON)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should leave body untouched when no cache key was prepared")
+    void shouldLeaveBodyWithoutKey() {
+        // Given
+        List<VoltageLevelDTO> body = body();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        Object result = advice.beforeBodyWrite(body, findAll, MediaType.APPLICATION_JSON, MappingJackson2HttpMessageConverter.class,
+                new ServletServerHttpRequest(new MockHttpServletRequest("GET", "/api/v1/voltage-levels")),
+                new ServletServerHttpResponse(response));
+
+        // Then
+        assertThat(result).isSameAs(body);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should only support cached endpoints written by Jackson")
+    void shouldSupportOnlyCachedJacksonEndpoints() {
+        assertThat(advice.supports(findAll, MappingJackson2HttpMessageConverter.class)).isTrue();
+        assertThat(advice.supports(findAll, StringHttpMessageConverter.class)).isFalse();
+    }
+}
@@ -0,0 +1,184 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import cz.intelis.legislativeenums.audit.CodelistHistoryService;
+import cz.intelis.legislativeenums.notification.ChangeType;
+import cz.intelis.legislativeenums.notification.CodelistChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.method.HandlerMethod;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RenderedResponseInterceptor Unit Tests")
+class RenderedResponseInterceptorTest {
+
+    private static final String CODE = "VOLTAGE_LEVEL";
+
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
+    private RenderedResponseCache responseCache;
+
+    private RenderedResponseInterceptor interceptor;
+
+    private HandlerMethod findAll;
+
+    @SnapshotCodelist(CODE)
+    static class SnapshotController {
+        @CachedResponse
+        public void findAll() {
+        }
+
+        public void findById() {
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        responseCache = new RenderedResponseCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1));
+        interceptor = new RenderedResponseInterceptor(snapshotStore, responseCache);
+        findAll = new HandlerMethod(new SnapshotController(), SnapshotController.class.getMethod("findAll"));
+    }
+
+    private static MockHttpServletRequest listRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/voltage-levels");
+        request.setQueryString("validOnly=false");
+        return request;
+    }
+
+    private static RenderedResponseCache.Key key(long version) {
+        return new RenderedResponseCache.Key(CODE, version, LocalDate.now(), "/api/v1/voltage-levels?validOnly=false", "json");
+    }
+
+    @Test
+    @DisplayName("Should write cached body and skip controller on hit")
+    void shouldWriteCachedBodyOnHit() throws Exception {
+        // Given
+        when(snapshotStore.getVersion(CODE)).thenReturn(5L);
+        byte[] body = "[{\"code\":\"NN\"}]".getBytes(StandardCharsets.UTF_8);
+        responseCache.put(key(5L), RenderedResponseCache.RenderedResponse.of(MediaType.APPLICATION_JSON, body));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(listRequest(), response, findAll);
+
+        // Then
+        assertThat(proceed).isFalse();
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsByteArray()).isEqualTo(body);
+    }
+
+    @Test
+    @DisplayName("Should write pre-compressed body when client accepts gzip")
+    void shouldWriteGzipBodyWhenAccepted() throws Exception {
+        // Given
+        when(snapshotStore.getVersion(CODE)).thenReturn(5L);
+        byte[] body = "[{\"code\":\"NN\"}]".getBytes(StandardCharsets.UTF_8);
+        responseCache.put(key(5L), RenderedResponseCache.RenderedResponse.of(MediaType.APPLICATION_JSON, body));
+        MockHttpServletRequest request = listRequest();
+        request.addHeader("Accept-Encoding", "br, gzip;q=0.8, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        interceptor.preHandle(request, response, findAll);
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(body);
+        }
+    }
+
+    @Test
+    @DisplayName("Should parse gzip acceptance from Accept-Encoding")
+    void shouldParseAcceptEncoding() {
+        assertThat(RenderedResponseCache.acceptsGzip(null)).isFalse();
+        assertThat(RenderedResponseCache.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(RenderedResponseCache.acceptsGzip("br;q=1.0, gzip;q=0")).isFalse();
+        assertThat(RenderedResponseCache.acceptsGzip("*")).isTrue();
+        assertThat(RenderedResponseCache.acceptsGzip("gzip;q=0.5, *;q=0")).isTrue();
+        assertThat(RenderedResponseCache.acceptsGzip("identity")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should pass key to the controller on miss")
+    void shouldExposeKeyOnMiss() throws Exception {
+        // Given - only an older snapshot version was rendered
+        when(snapshotStore.getVersion(CODE)).thenReturn(6L);
+        responseCache.put(key(5L), RenderedResponseCache.RenderedResponse.of(MediaType.APPLICATION_JSON, new byte[]{'[', ']'}));
+        MockHttpServletRequest request = listRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, findAll);
+
+        // Then
+        assertThat(proceed).isTrue();
+        assertThat(request.getAttribute(RenderedResponseInterceptor.KEY_ATTRIBUTE)).isEqualTo(key(6L));
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore endpoints without cached response")
+    void shouldIgnoreUncachedEndpoints() throws Exception {
+        // Given
+        HandlerMethod findById = new HandlerMethod(new SnapshotController(), SnapshotController.class.getMethod("findById"));
+
+        // When & Then
+        assertThat(interceptor.preHandle(listRequest(), new MockHttpServletResponse(), findById)).isTrue();
+        verifyNoInteractions(snapshotStore);
+    }
+
+    @Test
+    @DisplayName("Should leave point-in-time requests to the controller without caching them")
+    void shouldNotCachePointInTimeRequests() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/voltage-levels");
+        request.setQueryString("at=2025-06-01T10:00:00");
+        request.setParameter(CodelistHistoryService.AT_PARAMETER, "2025-06-01T10:00:00");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, findAll);
+
+        // Then
+        assertThat(proceed).isTrue();
+        assertThat(request.getAttribute(RenderedResponseInterceptor.KEY_ATTRIBUTE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        verifyNoInteractions(snapshotStore);
+    }
+
+    @Test
+    @DisplayName("Should drop rendered bodies of a changed codelist")
+    void shouldDropRenderedBodiesOnChange() {
+        // Given
+        RenderedResponseCache.Key other = new RenderedResponseCache.Key("NETWORK_TYPE", 1L, LocalDate.now(), "/api/v1/network-types", "json");
+        responseCache.put(key(5L), RenderedResponseCache.RenderedResponse.of(MediaType.APPLICATION_JSON, new byte[]{'[', ']'}));
+        responseCache.put(other, RenderedResponseCache.RenderedResponse.of(MediaType.APPLICATION_JSON, new byte[]{'[', ']'}));
+
+        // When
+        responseCache.onCodelistChange(new CodelistChangeEvent(this, "Úrovně napětí", CODE, ChangeType.UPDATE,
+                1L, "NN", "Nízké napětí", "admin"));
+
+        // Then
+        assertThat(responseCache.get(key(5L))).isNull();
+        assertThat(responseCache.get(other)).isNotNull();
+    }
+}
@@ -0,0 +1,138 @@
+package cz.intelis.legislativeenums.snapshot;
+
+import cz.intelis.legislativeenums.notification.ChangeType;
+import cz.intelis.legislativeenums.notification.CodelistChangeEvent;
+import cz.intelis.legislativeenums.voltagelevel.VoltageLevelDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ValidityBoundaryScheduler Unit Tests")
+class ValidityBoundarySchedulerTest {
+
+    private static final String CODE = "VOLTAGE_LEVEL";
+
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ScheduledFuture<Object> timer;
+
+    private ValidityBoundaryScheduler scheduler;
+
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ValidityBoundaryScheduler(snapshotStore, taskScheduler, eventPublisher);
+        today = LocalDate.now();
+    }
+
+    private static CodelistSnapshot<VoltageLevelDTO> snapshotWithBoundary(LocalDate validFrom) {
+        VoltageLevelDTO dto = new VoltageLevelDTO();
+        dto.setId(1L);
+        dto.setCode("NN");
+        dto.setValidFrom(validFrom);
+        return CodelistSnapshot.of(CODE, 1L, List.of(dto));
+    }
+
+    private static Instant midnight(LocalDate day) {
+        return day.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+
+    @Test
+    @DisplayName("Should schedule a check at midnight of the next boundary of a rebuilt snapshot")
+    void shouldScheduleNextBoundaryOfRebuiltSnapshot() {
+        // Given
+        doReturn(timer).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+
+        // When
+        scheduler.onSnapshotRebuilt(new CodelistSnapshotRebuiltEvent(snapshotWithBoundary(today.plusDays(10))));
+        scheduler.onSnapshotRebuilt(new CodelistSnapshotRebuiltEvent(snapshotWithBoundary(today.plusDays(3))));
+        scheduler.onSnapshotRebuilt(new CodelistSnapshotRebuiltEvent(snapshotWithBoundary(today.plusDays(5))));
+
+        // Then - moved earlier once, not later
+        assertThat(scheduler.getScheduledFor()).isEqualTo(today.plusDays(3));
+        verify(taskScheduler).schedule(any(Runnable.class), eq(midnight(today.plusDays(10))));
+        verify(taskScheduler).schedule(any(Runnable.class), eq(midnight(today.plusDays(3))));
+        verify(timer, times(1)).cancel(false);
+        verifyNoMoreInteractions(taskScheduler);
+    }
+
+    @Test
+    @DisplayName("Should publish a validity change event when a boundary is reached")
+    void shouldPublishValidityChangeWhenBoundaryReached() {
+        // Given
+        LocalDate boundary = today.plusDays(2);
+        when(snapshotStore.current()).thenReturn(List.of(snapshotWithBoundary(boundary)));
+        when(snapshotStore.getCodelistName(CODE)).thenReturn("Úrovně napětí");
+
+        // When - the run is late by a day, the boundary is still caught up
+        scheduler.checkBoundaries(boundary.plusDays(1));
+
+        // Then
+        ArgumentCaptor<CodelistChangeEvent> event = ArgumentCaptor.forClass(CodelistChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getCodelistCode()).isEqualTo(CODE);
+        assertThat(event.getValue().getCodelistName()).isEqualTo("Úrovně napětí");
+        assertThat(event.getValue().getChangeType()).isEqualTo(ChangeType.VALIDITY);
+        assertThat(scheduler.getScheduledFor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not publish before the boundary and reschedule for it")
+    void shouldNotPublishBeforeBoundary() {
+        // Given
+        doReturn(timer).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+        LocalDate boundary = today.plusDays(2);
+        when(snapshotStore.current()).thenReturn(List.of(snapshotWithBoundary(boundary)));
+
+        // When
+        scheduler.checkBoundaries(today.plusDays(1));
+
+        // Then
+        verifyNoInteractions(eventPublisher);
+        assertThat(scheduler.getScheduledFor()).isEqualTo(boundary);
+    }
+
+    @Test
+    @DisplayName("Should publish each boundary only once")
+    void shouldPublishBoundaryOnce() {
+        // Given
+        LocalDate boundary = today.plusDays(1);
+        when(snapshotStore.current()).thenReturn(List.of(snapshotWithBoundary(boundary)));
+        when(snapshotStore.getCodelistName(CODE)).thenReturn("Úrovně napětí");
+
+        // When
+        scheduler.checkBoundaries(boundary);
+        scheduler.checkBoundaries(boundary);
+        scheduler.checkBoundaries(boundary.plusDays(1));
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(CodelistChangeEvent.class));
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDate;
@@ -36,6 +37,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -192,6 +196,36 @@ class UserServiceTest {
         verify(userRepository, times(1)).save(any(User.class));
     }
 
+    @Test
+    @DisplayName("Should publish plan change event when usage plan changes")
+    void shouldPublishPlanChangeEventWhenUsagePlanChanges() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        testUserDTO.setUsagePlan("PER_YEAR");
+
+        // When
+        userService.update(1L, testUserDTO);
+
+        // Then
+        verify(eventPublisher).publishEvent(
+                new UsagePlanChangedEvent(1L, User.UsagePlan.PER_MONTH, User.UsagePlan.PER_YEAR));
+    }
+
+    @Test
+    @DisplayName("Should not publish plan change event when usage plan is unchanged")
+    void shouldNotPublishPlanChangeEventWhenUsagePlanUnchanged() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // When
+        userService.update(1L, testUserDTO);
+
+        // Then
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     @DisplayName("Should update user password when provided")
     void shouldUpdateUserPasswordWhenProvided() {
@@ -217,6 +251,7 @@ class UserServiceTest {
 
         // Then
         verify(userRepository, times(1)).deleteById(1L);
+        verify(eventPublisher).publishEvent(new UserDeletedEvent(1L));
     }
 
     @Test
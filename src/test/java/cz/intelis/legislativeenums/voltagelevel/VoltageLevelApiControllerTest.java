@@ -1,5 +1,10 @@
 package cz.intelis.legislativeenums.voltagelevel;
 
+import cz.intelis.legislativeenums.audit.CodelistHistoryService;
+import cz.intelis.legislativeenums.snapshot.CodeBatchRequest;
+import cz.intelis.legislativeenums.snapshot.CodeBatchResult;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshot;
+import cz.intelis.legislativeenums.snapshot.CodelistSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,10 +15,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -25,6 +33,12 @@ class VoltageLevelApiControllerTest {
     @Mock
     private VoltageLevelService voltageLevelService;
 
+    @Mock
+    private CodelistSnapshotStore snapshotStore;
+
+    @Mock
+    private CodelistHistoryService codelistHistory;
+
     @InjectMocks
     private VoltageLevelApiController controller;
 
@@ -51,16 +65,16 @@ class VoltageLevelApiControllerTest {
         dto2.setCode("VN");
         dto2.setNameCs("Vysoké napětí");
         List<VoltageLevelDTO> voltageLevels = Arrays.asList(testVoltageLevelDTO, dto2);
-        when(voltageLevelService.findAll()).thenReturn(voltageLevels);
+        givenSnapshot(voltageLevels);
 
         // When
-        ResponseEntity<List<VoltageLevelDTO>> response = controller.findAll(false);
+        ResponseEntity<List<VoltageLevelDTO>> response = controller.findAll(false, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
         assertThat(response.getBody().get(0).getCode()).isEqualTo("NN");
-        verify(voltageLevelService, times(1)).findAll();
+        verifyNoInteractions(voltageLevelService);
     }
 
     @Test
@@ -68,22 +82,22 @@ class VoltageLevelApiControllerTest {
     void shouldReturnOnlyValidVoltageLevelsWhenValidOnlyIsTrue() {
         // Given
         List<VoltageLevelDTO> validVoltageLevels = Arrays.asList(testVoltageLevelDTO);
-        when(voltageLevelService.findAllCurrentlyValid()).thenReturn(validVoltageLevels);
+        givenSnapshot(validVoltageLevels);
 
         // When
-        ResponseEntity<List<VoltageLevelDTO>> response = controller.findAll(true);
+        ResponseEntity<List<VoltageLevelDTO>> response = controller.findAll(true, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        verify(voltageLevelService, times(1)).findAllCurrentlyValid();
+        verifyNoInteractions(voltageLevelService);
     }
 
     @Test
     @DisplayName("Should return voltage level by ID")
     void shouldReturnVoltageLevelById() {
         // Given
-        when(voltageLevelService.findById(1L)).thenReturn(testVoltageLevelDTO);
+        givenSnapshot(List.of(testVoltageLevelDTO));
 
         // When
         ResponseEntity<VoltageLevelDTO> response = controller.findById(1L);
@@ -91,22 +105,115 @@ class VoltageLevelApiControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("NN");
-        verify(voltageLevelService, times(1)).findById(1L);
+        verifyNoInteractions(voltageLevelService);
     }
 
     @Test
     @DisplayName("Should return voltage level by code")
     void shouldReturnVoltageLevelByCode() {
         // Given
-        when(voltageLevelService.findByCode("NN")).thenReturn(testVoltageLevelDTO);
+        givenSnapshot(List.of(testVoltageLevelDTO));
 
         // When
-        ResponseEntity<VoltageLevelDTO> response = controller.findByCode("NN");
+        ResponseEntity<VoltageLevelDTO> response = controller.findByCode("NN", null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().getCode()).isEqualTo("NN");
-        verify(voltageLevelService, times(1)).findByCode("NN");
+        verifyNoInteractions(voltageLevelService);
+    }
+
+    @Test
+    @DisplayName("Should return voltage levels valid on the asOf date")
+    void shouldReturnVoltageLevelsValidAsOf() {
+        // Given
+        testVoltageLevelDTO.setValidTo(LocalDate.of(2019, 12, 31));
+        givenSnapshot(List.of(testVoltageLevelDTO));
+
+        // When
+        ResponseEntity<List<VoltageLevelDTO>> historical = controller.findAll(true, LocalDate.of(2019, 6, 1), null);
+        ResponseEntity<List<VoltageLevelDTO>> current = controller.findAll(true, null, null);
+
+        // Then
+        assertThat(historical.getBody()).extracting(VoltageLevelDTO::getCode).containsExactly("NN");
+        assertThat(current.getBody()).isEmpty();
+        verifyNoInteractions(voltageLevelService);
+    }
+
+    @Test
+    @DisplayName("Should return voltage levels as they were at the requested time from the audit history")
+    void shouldReturnVoltageLevelsAtPointInTime() {
+        // Given
+        LocalDateTime at = LocalDateTime.of(2025, 6, 1, 10, 0);
+        when(codelistHistory.itemsAt(VoltageLevelService.CODELIST_CODE, at, VoltageLevelDTO.class))
+                .thenReturn(List.of(testVoltageLevelDTO));
+
+        // When
+        ResponseEntity<List<VoltageLevelDTO>> response = controller.findAll(true, null, at);
+
+        // Then
+        assertThat(response.getBody()).containsExactly(testVoltageLevelDTO);
+        verifyNoInteractions(snapshotStore, voltageLevelService);
+    }
+
+    @Test
+    @DisplayName("Should reject voltage level by code that is not valid on the asOf date")
+    void shouldRejectVoltageLevelByCodeNotValidAsOf() {
+        // Given
+        testVoltageLevelDTO.setValidFrom(LocalDate.of(2020, 1, 1));
+        givenSnapshot(List.of(testVoltageLevelDTO));
+
+        // When & Then
+        assertThat(controller.findByCode("NN", LocalDate.of(2020, 1, 1)).getBody().getCode()).isEqualTo("NN");
+        assertThatThrownBy(() -> controller.findByCode("NN", LocalDate.of(2019, 12, 31)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("not valid on");
+    }
+
+    @Test
+    @DisplayName("Should answer existence check by code without the service")
+    void shouldCheckVoltageLevelExistenceByCode() {
+        // Given
+        testVoltageLevelDTO.setValidFrom(LocalDate.of(2020, 1, 1));
+        givenSnapshot(List.of(testVoltageLevelDTO));
+
+        // When & Then
+        assertThat(controller.existsByCode("NN", null).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(controller.existsByCode("NN", LocalDate.of(2019, 12, 31)).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(controller.existsByCode("XX", null).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verifyNoInteractions(voltageLevelService);
+    }
+
+    @Test
+    @DisplayName("Should return voltage levels by a batch of codes and report missing codes")
+    void shouldReturnVoltageLevelsByCodes() {
+        // Given
+        givenSnapshot(List.of(testVoltageLevelDTO));
+
+        // When
+        ResponseEntity<CodeBatchResult<VoltageLevelDTO>> response =
+                controller.findByCodes(new CodeBatchRequest(List.of("NN", "XX", "NN")));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getItems()).extracting(VoltageLevelDTO::getCode).containsExactly("NN");
+        assertThat(response.getBody().getMissing()).containsExactly("XX");
+        verifyNoInteractions(voltageLevelService);
+    }
+
+    @Test
+    @DisplayName("Should fall back to service when voltage level is not in snapshot yet")
+    void shouldFallBackToServiceWhenNotInSnapshot() {
+        // Given
+        givenSnapshot(List.of());
+        when(voltageLevelService.findById(1L)).thenReturn(testVoltageLevelDTO);
+
+        // When
+        ResponseEntity<VoltageLevelDTO> response = controller.findById(1L);
+
+        // Then
+        assertThat(response.getBody().getCode()).isEqualTo("NN");
+        verify(voltageLevelService, times(1)).findById(1L);
     }
 
     @Test
@@ -153,4 +260,9 @@ class VoltageLevelApiControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         verify(voltageLevelService, times(1)).delete(1L);
     }
+
+    private void givenSnapshot(List<VoltageLevelDTO> items) {
+        when(snapshotStore.<VoltageLevelDTO>get(VoltageLevelService.CODELIST_CODE))
+                .thenReturn(CodelistSnapshot.of(VoltageLevelService.CODELIST_CODE, 1L, items));
+    }
 }